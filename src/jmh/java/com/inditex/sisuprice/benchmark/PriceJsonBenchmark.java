@@ -0,0 +1,42 @@
+package com.inditex.sisuprice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inditex.sisuprice.api.dto.PriceResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of {@link PriceResponse} with the same Jackson defaults Spring Boot applies to the web layer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceJsonBenchmark {
+
+    private final ObjectWriter writer = Jackson2ObjectMapperBuilder.json().build().writerFor(PriceResponse.class);
+
+    private final PriceResponse response = new PriceResponse(35455L, 1, 2,
+            LocalDateTime.parse("2020-06-14T15:00:00"), LocalDateTime.parse("2020-06-14T18:30:00"),
+            new BigDecimal("25.45"), "EUR");
+
+    @Benchmark
+    public byte[] writeResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,77 @@
+package com.inditex.sisuprice.benchmark;
+
+import com.inditex.sisuprice.api.dto.PriceLookupRequest;
+import com.inditex.sisuprice.api.dto.PriceResponse;
+import com.inditex.sisuprice.api.mapper.PriceRecordMapper;
+import com.inditex.sisuprice.domain.PriceQuery;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.infrastructure.mapper.PriceEntityMapper;
+import com.inditex.sisuprice.infrastructure.persistence.jpa.PriceEntity;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions on the request path: entity to domain, domain to response and request to query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceMapperBenchmark {
+
+    private final PriceEntityMapper entityMapper = Mappers.getMapper(PriceEntityMapper.class);
+
+    private final PriceRecordMapper recordMapper = Mappers.getMapper(PriceRecordMapper.class);
+
+    private PriceEntity entity;
+
+    private PriceRecord priceRecord;
+
+    private PriceLookupRequest request;
+
+    @Setup
+    public void setUp() {
+        entity = new PriceEntity();
+        entity.setId(1L);
+        entity.setBrandId(1);
+        entity.setStartDate(LocalDateTime.parse("2020-06-14T15:00:00"));
+        entity.setEndDate(LocalDateTime.parse("2020-06-14T18:30:00"));
+        entity.setPriceList(2);
+        entity.setProductId(35455L);
+        entity.setPriority(1);
+        entity.setPrice(new BigDecimal("25.45"));
+        entity.setCurr("EUR");
+        priceRecord = entityMapper.toDomain(entity);
+        request = new PriceLookupRequest(1, 35455L, LocalDateTime.parse("2020-06-14T16:00:00"));
+    }
+
+    @Benchmark
+    public PriceRecord entityToDomain() {
+        return entityMapper.toDomain(entity);
+    }
+
+    @Benchmark
+    public PriceResponse domainToResponse() {
+        return recordMapper.toResponse(priceRecord);
+    }
+
+    @Benchmark
+    public PriceQuery requestToQuery() {
+        return recordMapper.toQuery(request);
+    }
+}
@@ -0,0 +1,74 @@
+package com.inditex.sisuprice.benchmark;
+
+import com.inditex.sisuprice.application.PriceQueryUseCaseImpl;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceWindow;
+import com.inditex.sisuprice.domain.usecase.PriceQueryUseCase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cached path of {@link PriceQueryUseCase#query}: building the {@link PriceKey}, the Caffeine lookup and the
+ * window check. {@code cacheGet} isolates the cache access alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceQueryBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private PriceQueryUseCase useCase;
+
+    private Cache cache;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = PricingContext.start("default");
+        useCase = context.getBean(PriceQueryUseCase.class);
+        cache = context.getBean(CacheManager.class).getCache(PriceQueryUseCaseImpl.PRICES_CACHE);
+        for (var date : PricingContext.DATES) {
+            useCase.query(1, 35455L, date);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * Dates stay inside the window cached last, so every call is a hit.
+     */
+    @Benchmark
+    public Optional<PriceRecord> cachedQuery() {
+        return useCase.query(1, 35455L, PricingContext.DATES[4].plusMinutes(next++ & 1023));
+    }
+
+    @Benchmark
+    public PriceWindow cacheGet() {
+        return cache.get(new PriceKey(1, 35455L), PriceWindow.class);
+    }
+}
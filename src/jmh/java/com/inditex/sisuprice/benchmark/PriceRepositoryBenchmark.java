@@ -0,0 +1,67 @@
+package com.inditex.sisuprice.benchmark;
+
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceWindow;
+import com.inditex.sisuprice.domain.repository.PriceRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PriceRepository} lookups of every adapter, selected by Spring profile. The default profile runs the
+ * JPQL of {@code PriceJpaRepository} against H2; {@code jdbc} runs the same queries through
+ * {@code JdbcPriceRepository}, so with {@code -prof gc} the two {@code gc.alloc.rate.norm} figures give the
+ * per-lookup cost of entity hydration and the persistence context.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceRepositoryBenchmark {
+
+    @Param({"default", "jdbc", "memory", "segments", "offheap"})
+    String profile;
+
+    private ConfigurableApplicationContext context;
+
+    private PriceRepository repository;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = PricingContext.start(profile, "pricing.refresh.enabled=false");
+        repository = context.getBean(PriceRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<PriceRecord> findApplicable() {
+        return repository.findApplicable(1, 35455L, PricingContext.DATES[next++ % PricingContext.DATES.length]);
+    }
+
+    @Benchmark
+    public PriceWindow findWindow() {
+        return repository.findWindow(1, 35455L, PricingContext.DATES[next++ % PricingContext.DATES.length]);
+    }
+}
@@ -0,0 +1,40 @@
+package com.inditex.sisuprice.benchmark;
+
+import com.inditex.sisuprice.PriceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+
+/**
+ * Boots the application without a web server for benchmarks that need real beans.
+ * Per-statement SQL logging is switched off so it does not dominate the measurement.
+ */
+final class PricingContext {
+
+    /**
+     * The dates of the reference scenarios for brand 1 / product 35455, covering every price list.
+     */
+    static final LocalDateTime[] DATES = {
+            LocalDateTime.parse("2020-06-14T10:00:00"),
+            LocalDateTime.parse("2020-06-14T16:00:00"),
+            LocalDateTime.parse("2020-06-14T21:00:00"),
+            LocalDateTime.parse("2020-06-15T10:00:00"),
+            LocalDateTime.parse("2020-06-16T21:00:00")
+    };
+
+    private PricingContext() {
+    }
+
+    static ConfigurableApplicationContext start(String profile, String... properties) {
+        return new SpringApplicationBuilder(PriceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profile)
+                .properties("logging.level.root=WARN", "logging.level.com.inditex=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+                .properties(properties)
+                .run();
+    }
+}
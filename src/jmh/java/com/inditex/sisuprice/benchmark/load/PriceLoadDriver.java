@@ -0,0 +1,201 @@
+package com.inditex.sisuprice.benchmark.load;
+
+import com.inditex.sisuprice.PriceApplication;
+import com.inditex.sisuprice.infrastructure.persistence.memory.InMemoryPriceRepository;
+import com.inditex.sisuprice.infrastructure.persistence.offheap.OffHeapPriceRepository;
+import com.inditex.sisuprice.infrastructure.persistence.segment.PriceSegmentMaintainer;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load against {@code GET /api/v1/prices} for catalogs of increasing size.
+ * <p>
+ * For every size the application starts on a random port with its own in-memory database, the
+ * {@link SyntheticCatalog} is inserted, and the profile's derived structures are rebuilt. Then
+ * {@code --concurrency} virtual threads send requests for random products and dates: first for the warm-up,
+ * which is discarded, then for the measured duration. Latencies go into HdrHistogram. Each size prints
+ * throughput and p50/p99/p99.9, writes its full percentile curve to {@code <out>/<profile>-<rows>.hgrm} and
+ * appends a line to {@code <out>/summary.csv}.
+ * <p>
+ * Options: {@code --rows=10000,1000000,50000000 --profile=default --concurrency=64 --warmup=10s
+ * --duration=30s --out=target/load}. 50M rows need a heap of tens of gigabytes for H2 alone.
+ */
+public final class PriceLoadDriver {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final String profile;
+
+    private final int concurrency;
+
+    private final Duration warmup;
+
+    private final Duration duration;
+
+    private final Path out;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private PriceLoadDriver(Map<String, String> options) {
+        this.profile = options.getOrDefault("profile", "default");
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        this.warmup = duration(options.getOrDefault("warmup", "10s"));
+        this.duration = duration(options.getOrDefault("duration", "30s"));
+        this.out = Path.of(options.getOrDefault("out", "target/load"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+        PriceLoadDriver driver = new PriceLoadDriver(options);
+        for (String rows : options.getOrDefault("rows", "10000,1000000,50000000").split(",")) {
+            driver.run(SyntheticCatalog.ofRows(Long.parseLong(rows.trim())));
+        }
+        System.exit(0);
+    }
+
+    private void run(SyntheticCatalog catalog) throws Exception {
+        long rows = catalog.expectedRows();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PriceApplication.class)
+                .profiles(profile)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load" + rows + ";DB_CLOSE_DELAY=-1",
+                        "pricing.refresh.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.inditex=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+                .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            long start = System.nanoTime();
+            jdbcTemplate.update("DELETE FROM PRICES");
+            long inserted = catalog.load(jdbcTemplate, 10_000);
+            context.getBeanProvider(InMemoryPriceRepository.class).ifAvailable(InMemoryPriceRepository::reload);
+            context.getBeanProvider(OffHeapPriceRepository.class).ifAvailable(OffHeapPriceRepository::reload);
+            context.getBeanProvider(PriceSegmentMaintainer.class).ifAvailable(PriceSegmentMaintainer::rebuildAll);
+            System.out.printf("loaded profile=%s rows=%d tookMs=%d%n",
+                    profile, inserted, (System.nanoTime() - start) / 1_000_000);
+
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/v1/prices";
+            drive(catalog, base, warmup);
+            Result result = drive(catalog, base, duration);
+            report(inserted, result);
+            jdbcTemplate.execute("SHUTDOWN");
+        }
+    }
+
+    private Result drive(SyntheticCatalog catalog, String base, Duration length) throws Exception {
+        long deadline = System.nanoTime() + length.toNanos();
+        List<Future<Result>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> worker(catalog, base, deadline)));
+            }
+        }
+        Result total = new Result();
+        for (Future<Result> worker : workers) {
+            total.add(worker.get());
+        }
+        total.nanos = length.toNanos();
+        return total;
+    }
+
+    private Result worker(SyntheticCatalog catalog, String base, long deadline) {
+        Result result = new Result();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            int brand = 1 + random.nextInt(catalog.brands());
+            long product = 1 + random.nextLong(catalog.productsPerBrand());
+            URI uri = URI.create(base + "?brandId=" + brand + "&productId=" + product
+                    + "&date=" + catalog.dateAt(random.nextDouble()));
+            long start = System.nanoTime();
+            try {
+                int status = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                        HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status != 200 && status != 404) {
+                    result.errors++;
+                }
+            } catch (IOException e) {
+                result.errors++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            result.latencies.recordValue(Math.min(System.nanoTime() - start, MAX_LATENCY_NANOS));
+        }
+        return result;
+    }
+
+    private void report(long rows, Result result) throws IOException {
+        Histogram latencies = result.latencies;
+        double throughput = latencies.getTotalCount() / (result.nanos / 1e9);
+        String line = String.format("%s,%d,%d,%.0f,%.1f,%.1f,%.1f,%.1f,%d", profile, rows, concurrency, throughput,
+                micros(latencies.getValueAtPercentile(50)), micros(latencies.getValueAtPercentile(99)),
+                micros(latencies.getValueAtPercentile(99.9)), micros(latencies.getMaxValue()), result.errors);
+        System.out.printf("result profile=%s rows=%d concurrency=%d throughput=%.0f/s p50=%.1fus p99=%.1fus "
+                        + "p999=%.1fus max=%.1fus errors=%d%n", profile, rows, concurrency, throughput,
+                micros(latencies.getValueAtPercentile(50)), micros(latencies.getValueAtPercentile(99)),
+                micros(latencies.getValueAtPercentile(99.9)), micros(latencies.getMaxValue()), result.errors);
+
+        Files.createDirectories(out);
+        try (PrintStream curve = new PrintStream(Files.newOutputStream(out.resolve(profile + "-" + rows + ".hgrm")))) {
+            latencies.outputPercentileDistribution(curve, 1000.0);
+        }
+        Path summary = out.resolve("summary.csv");
+        if (Files.notExists(summary)) {
+            Files.writeString(summary, "profile,rows,concurrency,throughput,p50_us,p99_us,p999_us,max_us,errors\n");
+        }
+        Files.writeString(summary, line + "\n", StandardOpenOption.APPEND);
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+
+    private static Duration duration(String value) {
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+
+    private static final class Result {
+
+        final Histogram latencies = new Histogram(MAX_LATENCY_NANOS, 3);
+
+        long errors;
+
+        long nanos;
+
+        void add(Result other) {
+            latencies.add(other.latencies);
+            errors += other.errors;
+        }
+    }
+}
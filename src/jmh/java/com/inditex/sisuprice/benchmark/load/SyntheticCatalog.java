@@ -0,0 +1,123 @@
+package com.inditex.sisuprice.benchmark.load;
+
+import com.inditex.sisuprice.domain.PriceRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Deterministic synthetic PRICES catalog.
+ * <p>
+ * Every brand/product gets one base price (priority 0) over the whole horizon plus between 0 and
+ * {@code 2 * promosPerProduct} promotions at random offsets and durations, so promotions overlap each other and the
+ * base price. Promotion priorities follow a geometric distribution over 1..{@code maxPriority}: each level is half
+ * as likely as the one below it. A product's rows depend only on the seed and its ids, so a catalog is the same on
+ * every run.
+ *
+ * @param brands number of brands, ids from 1
+ * @param productsPerBrand products per brand, ids from 1
+ * @param promosPerProduct average number of promotions per product
+ * @param maxPriority highest promotion priority
+ * @param start start of the horizon
+ * @param horizon time covered by base prices; promotions start inside it
+ * @param seed random seed
+ */
+public record SyntheticCatalog(int brands, long productsPerBrand, int promosPerProduct, int maxPriority,
+                               LocalDateTime start, Duration horizon, long seed) {
+
+    private static final Duration MIN_PROMO = Duration.ofHours(1);
+
+    private static final Duration MAX_PROMO = Duration.ofDays(30);
+
+    private static final String INSERT = """
+            INSERT INTO PRICES (BRAND_ID, START_DATE, END_DATE, PRICE_LIST, PRODUCT_ID, PRIORITY, PRICE, CURR)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    /**
+     * A catalog of roughly {@code rows} rows across 4 brands with 3 promotions per product on average.
+     */
+    public static SyntheticCatalog ofRows(long rows) {
+        int brands = 4;
+        int promosPerProduct = 3;
+        long products = Math.max(1, rows / ((long) brands * (1 + promosPerProduct)));
+        return new SyntheticCatalog(brands, products, promosPerProduct, 4,
+                LocalDateTime.parse("2020-01-01T00:00:00"), Duration.ofDays(365), 42L);
+    }
+
+    /**
+     * Average catalog size; the actual count varies slightly with the number of promotions drawn.
+     */
+    public long expectedRows() {
+        return brands * productsPerBrand * (1 + promosPerProduct);
+    }
+
+    /**
+     * A random date inside the horizon, truncated to seconds.
+     */
+    public LocalDateTime dateAt(double fraction) {
+        return start.plusSeconds((long) (horizon.toSeconds() * fraction));
+    }
+
+    public void forEach(Consumer<PriceRecord> sink) {
+        for (int brand = 1; brand <= brands; brand++) {
+            for (long product = 1; product <= productsPerBrand; product++) {
+                generate(brand, product, sink);
+            }
+        }
+    }
+
+    /**
+     * Inserts the catalog with JDBC batches of {@code batchSize} rows.
+     *
+     * @return rows inserted
+     */
+    public long load(JdbcTemplate jdbcTemplate, int batchSize) {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long[] inserted = {0};
+        forEach(r -> {
+            batch.add(new Object[]{r.brandId(), Timestamp.valueOf(r.startDate()), Timestamp.valueOf(r.endDate()),
+                    r.priceList(), r.productId(), r.priority(), r.price(), r.curr()});
+            if (batch.size() == batchSize) {
+                jdbcTemplate.batchUpdate(INSERT, batch);
+                inserted[0] += batch.size();
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, batch);
+            inserted[0] += batch.size();
+        }
+        return inserted[0];
+    }
+
+    private void generate(int brand, long product, Consumer<PriceRecord> sink) {
+        SplittableRandom random = new SplittableRandom(seed ^ (brand * 0x9E3779B97F4A7C15L) ^ product);
+        long basePrice = 500 + random.nextLong(20_000);
+        sink.accept(new PriceRecord(brand, start, start.plus(horizon), 1, product, 0,
+                BigDecimal.valueOf(basePrice, 2), "EUR"));
+        int promos = random.nextInt(2 * promosPerProduct + 1);
+        for (int i = 0; i < promos; i++) {
+            LocalDateTime from = start.plusSeconds(random.nextLong(horizon.toSeconds()));
+            LocalDateTime to = from.plusSeconds(random.nextLong(MIN_PROMO.toSeconds(), MAX_PROMO.toSeconds()));
+            long discount = 5 + random.nextLong(60);
+            sink.accept(new PriceRecord(brand, from, to, 2 + i, product, priority(random),
+                    BigDecimal.valueOf(basePrice * (100 - discount) / 100, 2), "EUR"));
+        }
+    }
+
+    private int priority(SplittableRandom random) {
+        int priority = 1;
+        while (priority < maxPriority && random.nextBoolean()) {
+            priority++;
+        }
+        return priority;
+    }
+}
@@ -0,0 +1,121 @@
+package com.inditex.sisuprice.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inditex.sisuprice.api.mapper.PriceRecordMapper;
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.config.PriceResponseCacheProperties;
+import com.inditex.sisuprice.domain.PriceRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Final UTF-8 JSON bodies of {@code GET /api/v1/prices}, keyed by the winning {@link PriceRecord}.
+ * The body depends on nothing but the record, so an entry never goes stale: a changed price is a different key,
+ * and the old one ages out of the size bound. A hit is written as is, with no mapping and no Jackson.
+ * <p>
+ * With {@code gzip} on, each entry also keeps a gzipped copy. A single price is far below the default
+ * {@code server.compression.min-response-size}, so the server would not compress it on its own.
+ */
+@Component
+@Profile("!reactive")
+public class PriceResponseCache {
+
+    public static final String NAME = "priceResponses";
+
+    /**
+     * A serialized body; {@code gzip} is null unless gzip copies are kept.
+     */
+    public record EncodedPrice(byte[] json, byte[] gzip) {}
+
+    private final PriceResponseCacheProperties properties;
+
+    private final PriceRecordMapper mapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final PriceMetrics metrics;
+
+    private final Cache<PriceRecord, EncodedPrice> cache;
+
+    public PriceResponseCache(PriceResponseCacheProperties properties, PriceRecordMapper mapper,
+                              ObjectMapper objectMapper, PriceMetrics metrics, MeterRegistry registry) {
+        this.properties = properties;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .recordStats()
+                .build();
+        if (properties.enabled()) {
+            CaffeineCacheMetrics.monitor(registry, cache, NAME);
+        }
+    }
+
+    public boolean enabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * The cached body of a record, serialized on first use and timed as the {@code serialization} stage.
+     */
+    public EncodedPrice get(PriceRecord priceRecord) {
+        return cache.get(priceRecord, this::encode);
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header value allows gzip: {@code gzip}, or else {@code *}, is listed
+     * without {@code q=0}.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean any = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean accepted = parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            if (name.equalsIgnoreCase("gzip")) {
+                return accepted;
+            }
+            any |= name.equals("*") && accepted;
+        }
+        return any;
+    }
+
+    private EncodedPrice encode(PriceRecord priceRecord) {
+        return metrics.time(PriceMetrics.Stage.SERIALIZATION, "PriceResponse", () -> {
+            byte[] json = json(priceRecord);
+            return new EncodedPrice(json, properties.gzip() ? gzip(json) : null);
+        }, encoded -> true);
+    }
+
+    private byte[] json(PriceRecord priceRecord) {
+        try {
+            return objectMapper.writeValueAsBytes(mapper.toResponse(priceRecord));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("cannot serialize price " + priceRecord, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,55 @@
+package com.inditex.sisuprice.api.controller;
+
+import com.inditex.sisuprice.api.dto.PartitionTableRequest;
+import com.inditex.sisuprice.api.dto.PartitionTableResponse;
+import com.inditex.sisuprice.config.ClusterMembership;
+import com.inditex.sisuprice.config.PartitionTable;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Partition table of the cluster mode ({@code pricing.cluster.enabled}). A rebalance is a PUT of the new
+ * assignment to every node; requests reaching a node that has not applied it yet are forwarded by the old table,
+ * and a forwarded request the receiver no longer owns is answered 421.
+ */
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "pricing.cluster", name = "enabled", havingValue = "true")
+@RequestMapping("/api/v1/cluster/partitions")
+@Slf4j
+public class PartitionController {
+
+    private final ClusterMembership membership;
+
+    public PartitionController(ClusterMembership membership) {
+        this.membership = membership;
+    }
+
+    @GetMapping
+    public ResponseEntity<PartitionTableResponse> getPartitions() {
+        return ResponseEntity.ok(PartitionTableResponse.of(membership.nodeId(), membership.table().orElseThrow()));
+    }
+
+    /**
+     * Applies a newer assignment; a version not above the current one, an unknown owner or a partition owned
+     * twice is rejected with 400.
+     */
+    @PutMapping
+    public ResponseEntity<PartitionTableResponse> rebalance(@Valid @RequestBody PartitionTableRequest request) {
+        log.info("request rebalance version={} owners={}", request.version(), request.owners());
+        PartitionTable table = membership.rebalance(request.version(),
+                Objects.requireNonNullElse(request.nodes(), Map.of()), request.owners());
+        return ResponseEntity.ok(PartitionTableResponse.of(membership.nodeId(), table));
+    }
+}
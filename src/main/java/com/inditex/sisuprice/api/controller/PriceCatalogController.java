@@ -0,0 +1,109 @@
+package com.inditex.sisuprice.api.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inditex.sisuprice.api.dto.PriceCatalogResponse;
+import com.inditex.sisuprice.api.dto.PriceResponse;
+import com.inditex.sisuprice.api.mapper.PriceRecordMapper;
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.domain.PriceCatalogPage;
+import com.inditex.sisuprice.domain.usecase.PriceCatalogUseCase;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+/**
+ * Prices of every product of a brand at a date, optionally limited to a product id range.
+ * Pages are addressed by the last product id of the previous page, so reading page n costs the same as page 1.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/prices/catalog")
+@Validated
+@Slf4j
+public class PriceCatalogController {
+
+    public static final int MAX_LIMIT = 5000;
+
+    private final PriceCatalogUseCase useCase;
+
+    private final PriceRecordMapper mapper;
+
+    private final PriceMetrics metrics;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter json;
+
+    public PriceCatalogController(PriceCatalogUseCase useCase, PriceRecordMapper mapper, PriceMetrics metrics,
+                                  ObjectMapper objectMapper) {
+        this.useCase = useCase;
+        this.mapper = mapper;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        this.json = objectMapper.writerFor(PriceResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @GetMapping
+    public ResponseEntity<PriceCatalogResponse> getCatalogPage(
+            @RequestParam @Min(1) int brandId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date,
+            @RequestParam(defaultValue = "1") @Min(1) long fromProductId,
+            @RequestParam(defaultValue = "" + Long.MAX_VALUE) @Min(1) long toProductId,
+            @RequestParam(defaultValue = "0") @Min(0) long afterProductId,
+            @RequestParam(defaultValue = "1000") @Min(1) @Max(MAX_LIMIT) int limit) {
+
+        log.debug("request getCatalogPage brandId={} date={} after={} limit={}", brandId, date, afterProductId, limit);
+        return metrics.time(PriceMetrics.Stage.CONTROLLER, "getCatalogPage", () -> {
+            PriceCatalogPage page = useCase.page(brandId, date, Math.max(afterProductId, fromProductId - 1),
+                    toProductId, limit);
+            return ResponseEntity.ok(new PriceCatalogResponse(brandId, date,
+                    page.prices().stream().map(mapper::toResponse).toList(), page.nextAfterProductId()));
+        }, response -> !response.getBody().prices().isEmpty());
+    }
+
+    /**
+     * Streams the whole range as NDJSON, one price per line, reading it from the repository a page at a time.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCatalog(
+            @RequestParam @Min(1) int brandId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date,
+            @RequestParam(defaultValue = "1") @Min(1) long fromProductId,
+            @RequestParam(defaultValue = "" + Long.MAX_VALUE) @Min(1) long toProductId) {
+
+        log.info("request streamCatalog brandId={} date={} from={} to={}", brandId, date, fromProductId, toProductId);
+        StreamingResponseBody body = output -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                useCase.scan(brandId, date, fromProductId - 1, toProductId, price -> {
+                    try {
+                        json.writeValue(generator, mapper.toResponse(price));
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -1,21 +1,40 @@
 package com.inditex.sisuprice.api.controller;
 
+import com.inditex.sisuprice.api.PriceResponseCache;
 import com.inditex.sisuprice.api.mapper.PriceRecordMapper;
 import com.inditex.sisuprice.domain.usecase.PriceQueryUseCase;
+import com.inditex.sisuprice.api.dto.PriceBatchRequest;
+import com.inditex.sisuprice.api.dto.PriceBatchResponse;
+import com.inditex.sisuprice.api.dto.PriceLookupRequest;
+import com.inditex.sisuprice.api.dto.PriceLookupResult;
 import com.inditex.sisuprice.api.dto.PriceResponse;
+import com.inditex.sisuprice.api.dto.PriceTimelineResponse;
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.domain.PriceRecord;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/prices")
 @Validated
 @Slf4j
@@ -25,28 +44,106 @@ public class PriceController {
 
     private final PriceRecordMapper mapper;
 
-    public PriceController(PriceQueryUseCase useCase, PriceRecordMapper mapper) {
+    private final PriceMetrics metrics;
+
+    private final PriceResponseCache responseCache;
+
+    public PriceController(PriceQueryUseCase useCase, PriceRecordMapper mapper, PriceMetrics metrics,
+                           PriceResponseCache responseCache) {
         this.useCase = useCase;
         this.mapper = mapper;
+        this.metrics = metrics;
+        this.responseCache = responseCache;
     }
 
+    /**
+     * The body is a {@link PriceResponse}; with {@code pricing.response-cache.enabled} it is written from the
+     * cached bytes of {@link PriceResponseCache} instead.
+     */
     @GetMapping
-    public ResponseEntity<PriceResponse> getPrice(
+    public ResponseEntity<?> getPrice(
             @RequestParam @Min(1) int brandId,
             @RequestParam @Min(1) long productId,
-            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime applicationDate) {
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime applicationDate,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        log.debug("request getPrice brandId={} productId={} date={}", brandId, productId, applicationDate);
+        return metrics.time(PriceMetrics.Stage.CONTROLLER, "getPrice",
+                () -> respond(brandId, productId, applicationDate, acceptEncoding),
+                response -> response.getStatusCode().is2xxSuccessful());
+    }
 
-        log.info("request getPrice brandId={} productId={} date={}", brandId, productId, applicationDate);
+    private ResponseEntity<?> respond(int brandId, long productId, LocalDateTime applicationDate,
+                                      String acceptEncoding) {
         return useCase.query(brandId, productId, applicationDate)
-                .map(priceRecord -> {
-                    PriceResponse response = mapper.toResponse(priceRecord);
-                    log.info("price found brandId={} productId={} priceList={} valid=[{}, {})", response.brandId(),
-                            response.productId(), response.priceList(), response.startDate(), response.endDate());
-                    return ResponseEntity.ok(response);
+                .<ResponseEntity<?>>map(priceRecord -> {
+                    log.debug("price found brandId={} productId={} priceList={} valid=[{}, {})", priceRecord.brandId(),
+                            priceRecord.productId(), priceRecord.priceList(), priceRecord.startDate(),
+                            priceRecord.endDate());
+                    return responseCache.enabled()
+                            ? encoded(responseCache.get(priceRecord), acceptEncoding)
+                            : ResponseEntity.ok(mapper.toResponse(priceRecord));
                 })
                 .orElseGet(() -> {
                     log.debug("price not found brandId={} productId={} date={}", brandId, productId, applicationDate);
                     return ResponseEntity.notFound().build();
                 });
     }
+
+    /**
+     * Raw bytes skip the JSON converter; a pre-encoded gzip body also stops the server from compressing again.
+     */
+    private static ResponseEntity<byte[]> encoded(PriceResponseCache.EncodedPrice price, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (price.gzip() == null) {
+            return response.body(price.json());
+        }
+        response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return PriceResponseCache.acceptsGzip(acceptEncoding)
+                ? response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(price.gzip())
+                : response.body(price.json());
+    }
+
+    /**
+     * Every price in effect during [from, to) as ordered, non-overlapping segments, so clients rendering a
+     * history or a schedule need one request instead of one lookup per date.
+     */
+    @GetMapping("/timeline")
+    public ResponseEntity<PriceTimelineResponse> getTimeline(
+            @RequestParam @Min(1) int brandId,
+            @RequestParam @Min(1) long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        log.debug("request getTimeline brandId={} productId={} from={} to={}", brandId, productId, from, to);
+        return metrics.time(PriceMetrics.Stage.CONTROLLER, "getTimeline",
+                () -> ResponseEntity.ok(new PriceTimelineResponse(brandId, productId, from, to,
+                        useCase.timeline(brandId, productId, from, to).stream().map(mapper::toResponse).toList())),
+                response -> !response.getBody().segments().isEmpty());
+    }
+
+    /**
+     * Resolves many lookups in one round trip; results keep the order of the request items.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<PriceBatchResponse> getPrices(@RequestBody @Valid PriceBatchRequest request) {
+
+        log.debug("request getPrices items={}", request.items().size());
+        return metrics.time(PriceMetrics.Stage.CONTROLLER, "getPrices", () -> respond(request.items()),
+                response -> response.getBody().results().stream().anyMatch(PriceLookupResult::found));
+    }
+
+    private ResponseEntity<PriceBatchResponse> respond(List<PriceLookupRequest> items) {
+        List<Optional<PriceRecord>> found = useCase.queryAll(items.stream().map(mapper::toQuery).toList());
+        List<PriceLookupResult> results = new ArrayList<>(items.size());
+        int hits = 0;
+        for (int i = 0; i < items.size(); i++) {
+            PriceLookupRequest item = items.get(i);
+            PriceResponse price = found.get(i).map(mapper::toResponse).orElse(null);
+            hits += price != null ? 1 : 0;
+            results.add(new PriceLookupResult(item.brandId(), item.productId(), item.date(), price != null, price));
+        }
+        log.debug("prices resolved items={} found={}", items.size(), hits);
+        return ResponseEntity.ok(new PriceBatchResponse(results));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.inditex.sisuprice.api.controller;
+
+import com.inditex.sisuprice.domain.PriceFileFormat;
+import com.inditex.sisuprice.domain.usecase.PriceExportUseCase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/prices")
+@Slf4j
+public class PriceExportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final PriceExportUseCase useCase;
+
+    public PriceExportController(PriceExportUseCase useCase) {
+        this.useCase = useCase;
+    }
+
+    /**
+     * Streams the whole price book as {@code ndjson} (default) or {@code csv}. The body is written off the request
+     * thread with chunked transfer encoding while rows are read, so neither side buffers the full export.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPrices(@RequestParam(defaultValue = "ndjson") String format) {
+
+        PriceFileFormat fileFormat = PriceFileFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        log.info("request exportPrices format={}", fileFormat);
+        StreamingResponseBody body = output -> useCase.exportAll(output, fileFormat);
+        return ResponseEntity.ok()
+                .contentType(fileFormat == PriceFileFormat.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("prices." + fileFormat.name().toLowerCase(Locale.ROOT))
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,56 @@
+package com.inditex.sisuprice.api.controller;
+
+import com.inditex.sisuprice.api.dto.PriceImportResponse;
+import com.inditex.sisuprice.domain.PriceFileFormat;
+import com.inditex.sisuprice.domain.PriceImportResult;
+import com.inditex.sisuprice.domain.usecase.PriceImportUseCase;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/prices")
+@Validated
+@Slf4j
+public class PriceImportController {
+
+    static final String TEXT_CSV = "text/csv";
+
+    private final PriceImportUseCase useCase;
+
+    public PriceImportController(PriceImportUseCase useCase) {
+        this.useCase = useCase;
+    }
+
+    /**
+     * Streams the request body into PRICES. With {@code replacePriceList} the given price list is replaced
+     * atomically by the uploaded rows; otherwise the rows are appended.
+     */
+    @PostMapping(path = "/imports", consumes = {TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<PriceImportResponse> importPrices(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestParam(required = false) @Min(1) Integer replacePriceList,
+            InputStream body) {
+
+        PriceFileFormat format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? PriceFileFormat.NDJSON
+                : PriceFileFormat.CSV;
+        log.info("request importPrices format={} replacePriceList={}", format, replacePriceList);
+        PriceImportResult result = replacePriceList == null
+                ? useCase.importPrices(body, format)
+                : useCase.replacePriceList(body, format, replacePriceList);
+        return ResponseEntity.ok(PriceImportResponse.of(result));
+    }
+}
@@ -0,0 +1,98 @@
+package com.inditex.sisuprice.api.controller;
+
+import com.inditex.sisuprice.api.dto.PriceListClosureResponse;
+import com.inditex.sisuprice.api.dto.PriceRowRequest;
+import com.inditex.sisuprice.api.dto.PriceRowResponse;
+import com.inditex.sisuprice.api.mapper.PriceRecordMapper;
+import com.inditex.sisuprice.domain.PriceRow;
+import com.inditex.sisuprice.domain.usecase.PriceWriteUseCase;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Writes single PRICES rows by id and closes out whole price lists. Each call commits on its own and evicts
+ * only the brand/product pairs it changed.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/prices")
+@Validated
+@Slf4j
+public class PriceWriteController {
+
+    private final PriceWriteUseCase useCase;
+
+    private final PriceRecordMapper mapper;
+
+    public PriceWriteController(PriceWriteUseCase useCase, PriceRecordMapper mapper) {
+        this.useCase = useCase;
+        this.mapper = mapper;
+    }
+
+    @PostMapping("/rows")
+    public ResponseEntity<PriceRowResponse> createRow(@Valid @RequestBody PriceRowRequest request) {
+        log.info("request createRow brandId={} productId={} priceList={}", request.brandId(), request.productId(),
+                request.priceList());
+        PriceRow row = useCase.create(mapper.toRecord(request));
+        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}").buildAndExpand(row.id()).toUri())
+                .body(mapper.toResponse(row));
+    }
+
+    @GetMapping("/rows/{id}")
+    public ResponseEntity<PriceRowResponse> getRow(@PathVariable @Min(1) long id) {
+        return respond(useCase.find(id));
+    }
+
+    @PutMapping("/rows/{id}")
+    public ResponseEntity<PriceRowResponse> updateRow(@PathVariable @Min(1) long id,
+                                                      @Valid @RequestBody PriceRowRequest request) {
+        log.info("request updateRow id={} brandId={} productId={}", id, request.brandId(), request.productId());
+        return respond(useCase.update(id, mapper.toRecord(request)));
+    }
+
+    /**
+     * Moves the end date of one row, e.g. to stop a price early or to extend it.
+     */
+    @PostMapping("/rows/{id}/end")
+    public ResponseEntity<PriceRowResponse> endRow(
+            @PathVariable @Min(1) long id,
+            @RequestParam("at") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        log.info("request endRow id={} endDate={}", id, endDate);
+        return respond(useCase.endDate(id, endDate));
+    }
+
+    /**
+     * Stops every row of a price list from applying at {@code at}; rows that would start later are deleted.
+     */
+    @PostMapping("/price-lists/{priceList}/close")
+    public ResponseEntity<PriceListClosureResponse> closePriceList(
+            @PathVariable @Min(1) int priceList,
+            @RequestParam("at") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        log.info("request closePriceList priceList={} at={}", priceList, at);
+        return ResponseEntity.ok(mapper.toResponse(useCase.closePriceList(priceList, at)));
+    }
+
+    private ResponseEntity<PriceRowResponse> respond(Optional<PriceRow> row) {
+        return row.map(mapper::toResponse)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
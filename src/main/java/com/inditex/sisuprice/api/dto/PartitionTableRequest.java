@@ -0,0 +1,15 @@
+package com.inditex.sisuprice.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Map;
+
+/**
+ * New assignment of partitions to nodes, posted to every node with the same, higher {@code version}.
+ * {@code nodes} adds nodes or moves their URLs; nodes not listed keep theirs.
+ */
+public record PartitionTableRequest(
+        @NotNull Long version,
+        Map<String, String> nodes,
+        @NotNull Map<String, String> owners
+) {}
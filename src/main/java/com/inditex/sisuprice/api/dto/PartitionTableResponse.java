@@ -0,0 +1,24 @@
+package com.inditex.sisuprice.api.dto;
+
+import com.inditex.sisuprice.config.PartitionTable;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * The partition table as seen by node {@code nodeId}.
+ */
+public record PartitionTableResponse(
+        String nodeId,
+        long version,
+        PartitionTable.Strategy strategy,
+        int partitions,
+        Map<String, URI> nodes,
+        Map<String, String> owners
+) {
+
+    public static PartitionTableResponse of(String nodeId, PartitionTable table) {
+        return new PartitionTableResponse(nodeId, table.version(), table.strategy(), table.partitions(),
+                table.nodes(), table.owners());
+    }
+}
@@ -0,0 +1,14 @@
+package com.inditex.sisuprice.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record PriceBatchRequest(
+        @NotNull @Size(min = 1, max = PriceBatchRequest.MAX_ITEMS) List<@NotNull @Valid PriceLookupRequest> items
+) {
+
+    public static final int MAX_ITEMS = 5000;
+}
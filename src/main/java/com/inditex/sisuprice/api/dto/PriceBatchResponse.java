@@ -0,0 +1,7 @@
+package com.inditex.sisuprice.api.dto;
+
+import java.util.List;
+
+public record PriceBatchResponse(
+        List<PriceLookupResult> results
+) {}
@@ -0,0 +1,15 @@
+package com.inditex.sisuprice.api.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of a brand's prices at a date; pass {@code nextAfterProductId} as {@code afterProductId} to read the
+ * next page. It is {@code null} on the last page.
+ */
+public record PriceCatalogResponse(
+        int brandId,
+        LocalDateTime date,
+        List<PriceResponse> prices,
+        Long nextAfterProductId
+) {}
@@ -0,0 +1,24 @@
+package com.inditex.sisuprice.api.dto;
+
+import com.inditex.sisuprice.domain.PriceImportResult;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk import; {@code errors} lists the first rejected rows with their line numbers.
+ */
+public record PriceImportResponse(
+        long rowsRead,
+        long rowsImported,
+        long rowsRejected,
+        int rowsDeleted,
+        long tookMs,
+        long rowsPerSecond,
+        List<String> errors
+) {
+
+    public static PriceImportResponse of(PriceImportResult result) {
+        return new PriceImportResponse(result.rowsRead(), result.rowsImported(), result.rowsRejected(),
+                result.rowsDeleted(), result.took().toMillis(), Math.round(result.rowsPerSecond()), result.errors());
+    }
+}
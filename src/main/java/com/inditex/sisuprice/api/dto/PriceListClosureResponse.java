@@ -0,0 +1,14 @@
+package com.inditex.sisuprice.api.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Summary of a closed price list: rows ended at {@code at}, future rows deleted and brand/product pairs affected.
+ */
+public record PriceListClosureResponse(
+        int priceList,
+        LocalDateTime at,
+        int rowsEnded,
+        int rowsDeleted,
+        int keysAffected
+) {}
@@ -0,0 +1,12 @@
+package com.inditex.sisuprice.api.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+public record PriceLookupRequest(
+        @NotNull @Min(1) Integer brandId,
+        @NotNull @Min(1) Long productId,
+        @NotNull LocalDateTime date
+) {}
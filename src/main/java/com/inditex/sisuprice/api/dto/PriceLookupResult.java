@@ -0,0 +1,14 @@
+package com.inditex.sisuprice.api.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of one lookup of a batch; {@code price} is null when {@code found} is false.
+ */
+public record PriceLookupResult(
+        int brandId,
+        long productId,
+        LocalDateTime date,
+        boolean found,
+        PriceResponse price
+) {}
@@ -0,0 +1,21 @@
+package com.inditex.sisuprice.api.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Content of a PRICES row to create or overwrite; the remaining import rules are checked by the use case.
+ */
+public record PriceRowRequest(
+        @NotNull @Min(1) Integer brandId,
+        @NotNull LocalDateTime startDate,
+        @NotNull LocalDateTime endDate,
+        @NotNull @Min(1) Integer priceList,
+        @NotNull @Min(1) Long productId,
+        @NotNull @Min(0) Integer priority,
+        @NotNull BigDecimal price,
+        @NotNull String curr
+) {}
@@ -0,0 +1,16 @@
+package com.inditex.sisuprice.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record PriceRowResponse(
+        long id,
+        int brandId,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        int priceList,
+        long productId,
+        int priority,
+        BigDecimal price,
+        String curr
+) {}
@@ -0,0 +1,15 @@
+package com.inditex.sisuprice.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Period [startDate, endDate) during which a single price list is the applicable one.
+ */
+public record PriceSegmentResponse(
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        int priceList,
+        BigDecimal price,
+        String curr
+) {}
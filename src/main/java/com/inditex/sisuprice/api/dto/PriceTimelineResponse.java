@@ -0,0 +1,16 @@
+package com.inditex.sisuprice.api.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Winning segments of a brand/product within [from, to), ordered and non-overlapping; periods without a price
+ * are left out.
+ */
+public record PriceTimelineResponse(
+        int brandId,
+        long productId,
+        LocalDateTime from,
+        LocalDateTime to,
+        List<PriceSegmentResponse> segments
+) {}
@@ -1,11 +1,38 @@
 package com.inditex.sisuprice.api.mapper;
 
+import com.inditex.sisuprice.api.dto.PriceListClosureResponse;
+import com.inditex.sisuprice.api.dto.PriceLookupRequest;
 import com.inditex.sisuprice.api.dto.PriceResponse;
+import com.inditex.sisuprice.api.dto.PriceRowRequest;
+import com.inditex.sisuprice.api.dto.PriceRowResponse;
+import com.inditex.sisuprice.api.dto.PriceSegmentResponse;
+import com.inditex.sisuprice.domain.PriceListClosure;
+import com.inditex.sisuprice.domain.PriceQuery;
 import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceRow;
+import com.inditex.sisuprice.domain.PriceSegment;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface PriceRecordMapper {
 
     PriceResponse toResponse(PriceRecord priceRecord);
+
+    @Mapping(target = "applicationDate", source = "date")
+    PriceQuery toQuery(PriceLookupRequest request);
+
+    @Mapping(target = "startDate", source = "from")
+    @Mapping(target = "endDate", source = "to")
+    @Mapping(target = "priceList", source = "price.priceList")
+    @Mapping(target = "price", source = "price.price")
+    @Mapping(target = "curr", source = "price.curr")
+    PriceSegmentResponse toResponse(PriceSegment segment);
+
+    PriceRecord toRecord(PriceRowRequest request);
+
+    @Mapping(target = ".", source = "record")
+    PriceRowResponse toResponse(PriceRow row);
+
+    PriceListClosureResponse toResponse(PriceListClosure closure);
 }
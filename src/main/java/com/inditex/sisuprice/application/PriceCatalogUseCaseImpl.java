@@ -0,0 +1,79 @@
+package com.inditex.sisuprice.application;
+
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.domain.PriceCatalogPage;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.repository.PriceRepository;
+import com.inditex.sisuprice.domain.usecase.PriceCatalogUseCase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keyset pagination over {@link PriceRepository#findApplicableForBrand}: each page asks for one product more
+ * than it returns to learn whether another page follows, and the last returned product id is the next cursor.
+ */
+@Service
+@Slf4j
+public class PriceCatalogUseCaseImpl implements PriceCatalogUseCase {
+
+    /**
+     * Prices resolved per repository call by {@link #scan}.
+     */
+    static final int SCAN_PAGE_SIZE = 1000;
+
+    private final PriceRepository repository;
+
+    private final PriceMetrics metrics;
+
+    public PriceCatalogUseCaseImpl(PriceRepository repository, PriceMetrics metrics) {
+        this.repository = repository;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public PriceCatalogPage page(int brandId, LocalDateTime date, long afterProductId, long toProductId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return metrics.time(PriceMetrics.Stage.USE_CASE, "catalogPage",
+                () -> fetch(brandId, date, afterProductId, toProductId, limit), page -> !page.prices().isEmpty());
+    }
+
+    @Override
+    public long scan(int brandId, LocalDateTime date, long afterProductId, long toProductId,
+                     Consumer<PriceRecord> action) {
+        long start = System.nanoTime();
+        long prices = 0;
+        int pages = 0;
+        PriceCatalogPage page;
+        long after = afterProductId;
+        do {
+            page = fetch(brandId, date, after, toProductId, SCAN_PAGE_SIZE);
+            page.prices().forEach(action);
+            prices += page.prices().size();
+            pages++;
+            if (page.hasMore()) {
+                after = page.nextAfterProductId();
+            }
+        } while (page.hasMore());
+        log.info("catalog scanned brandId={} date={} prices={} pages={} tookMs={}",
+                brandId, date, prices, pages, (System.nanoTime() - start) / 1_000_000);
+        return prices;
+    }
+
+    private PriceCatalogPage fetch(int brandId, LocalDateTime date, long afterProductId, long toProductId, int limit) {
+        List<PriceRecord> prices = metrics.time(PriceMetrics.Stage.REPOSITORY, "findApplicableForBrand",
+                () -> repository.findApplicableForBrand(brandId, date, afterProductId, toProductId, limit + 1),
+                found -> !found.isEmpty());
+        log.debug("usecase catalog brandId={} date={} after={} found={}", brandId, date, afterProductId, prices.size());
+        if (prices.size() <= limit) {
+            return new PriceCatalogPage(prices, null);
+        }
+        List<PriceRecord> page = prices.subList(0, limit);
+        return new PriceCatalogPage(page, page.get(limit - 1).productId());
+    }
+}
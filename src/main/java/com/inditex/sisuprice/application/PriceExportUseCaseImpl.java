@@ -0,0 +1,101 @@
+package com.inditex.sisuprice.application;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inditex.sisuprice.domain.PriceFileFormat;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.repository.PriceRepository;
+import com.inditex.sisuprice.domain.usecase.PriceExportUseCase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams {@link PriceRepository#streamAll()} straight into the output. The CSV it writes can be imported back
+ * as is, and so can the NDJSON, whose objects carry the fields of {@link PriceRecord}.
+ */
+@Service
+@Slf4j
+public class PriceExportUseCaseImpl implements PriceExportUseCase {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final PriceRepository repository;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter json;
+
+    public PriceExportUseCaseImpl(PriceRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.json = objectMapper.writerFor(PriceRecord.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public long exportAll(OutputStream output, PriceFileFormat format) throws IOException {
+        long start = System.nanoTime();
+        long rows;
+        try (Stream<PriceRecord> records = repository.streamAll()) {
+            rows = format == PriceFileFormat.CSV
+                    ? writeCsv(records.iterator(), output)
+                    : writeNdjson(records.iterator(), output);
+        }
+        long tookMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("export finished format={} rows={} tookMs={} rowsPerSecond={}",
+                format, rows, tookMs, tookMs == 0 ? rows : rows * 1000 / tookMs);
+        return rows;
+    }
+
+    private static long writeCsv(Iterator<PriceRecord> records, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_BYTES);
+        writer.write(String.join(",", PriceRowParser.CSV_COLUMNS));
+        writer.write('\n');
+        StringBuilder line = new StringBuilder(128);
+        long rows = 0;
+        while (records.hasNext()) {
+            PriceRecord r = records.next();
+            line.setLength(0);
+            line.append(r.brandId()).append(',');
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(r.startDate(), line);
+            line.append(',');
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(r.endDate(), line);
+            line.append(',').append(r.priceList())
+                    .append(',').append(r.productId())
+                    .append(',').append(r.priority())
+                    .append(',').append(r.price().toPlainString())
+                    .append(',').append(r.curr())
+                    .append('\n');
+            writer.append(line);
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<PriceRecord> records, OutputStream output) throws IOException {
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (records.hasNext()) {
+                json.writeValue(generator, records.next());
+                generator.writeRaw('\n');
+                rows++;
+            }
+            generator.flush();
+        }
+        return rows;
+    }
+}
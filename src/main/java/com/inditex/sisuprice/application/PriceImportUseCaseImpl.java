@@ -0,0 +1,206 @@
+package com.inditex.sisuprice.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inditex.sisuprice.config.PriceImportProperties;
+import com.inditex.sisuprice.domain.PriceFileFormat;
+import com.inditex.sisuprice.domain.PriceImportResult;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import com.inditex.sisuprice.domain.repository.PriceWriteRepository;
+import com.inditex.sisuprice.domain.usecase.PriceImportUseCase;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams an import through fixed-size chunks: a chunk of lines is read, parsed and validated in parallel,
+ * then written with batched JDBC inserts, so only one chunk is held in memory at a time.
+ * Every committed change publishes a {@link PricesChangedEvent} for the brand/product pairs it touched.
+ */
+@Service
+@Slf4j
+public class PriceImportUseCaseImpl implements PriceImportUseCase {
+
+    private final PriceWriteRepository repository;
+
+    private final TransactionTemplate transactions;
+
+    private final ApplicationEventPublisher events;
+
+    private final ObjectMapper objectMapper;
+
+    private final PriceImportProperties properties;
+
+    private final Counter imported;
+
+    private final Counter rejected;
+
+    private final MeterRegistry registry;
+
+    public PriceImportUseCaseImpl(PriceWriteRepository repository, PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher events, ObjectMapper objectMapper,
+                                  PriceImportProperties properties, MeterRegistry registry) {
+        this.repository = repository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.registry = registry;
+        this.imported = importedRows("imported");
+        this.rejected = importedRows("rejected");
+    }
+
+    @Override
+    public PriceImportResult importPrices(InputStream input, PriceFileFormat format) {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        PriceRowParser parser = PriceRowParser.open(format, reader(input), objectMapper);
+        List<PriceRowParser.Line> lines;
+        while (!(lines = parser.next(properties.chunkSize())).isEmpty()) {
+            List<PriceRecord> valid = parse(parser, lines, progress);
+            if (!valid.isEmpty()) {
+                Set<PriceKey> keys = keys(valid);
+                transactions.executeWithoutResult(status -> {
+                    repository.insertAll(valid);
+                    events.publishEvent(PricesChangedEvent.of(keys));
+                });
+                progress.imported += valid.size();
+            }
+        }
+        return finish("append", format, progress, 0, start);
+    }
+
+    /**
+     * Uploads the file into the staging area, one transaction per chunk, so the upload holds no transaction open
+     * on PRICES however slowly the client sends it. Only then are the old rows deleted and the staged ones copied
+     * in, in one short transaction. Staged rows are dropped whether the replacement succeeds or not.
+     */
+    @Override
+    public PriceImportResult replacePriceList(InputStream input, PriceFileFormat format, int priceList) {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        PriceRowParser parser = PriceRowParser.open(format, reader(input), objectMapper);
+        String importId = UUID.randomUUID().toString();
+        // one pair past maxEventKeys is enough to know the change is announced in full
+        Set<PriceKey> keys = new HashSet<>();
+        try {
+            List<PriceRowParser.Line> lines;
+            while (!(lines = parser.next(properties.chunkSize())).isEmpty()) {
+                List<PriceRecord> valid = parse(parser, lines, progress);
+                if (progress.rejected > 0) {
+                    throw new IllegalArgumentException("price list " + priceList + " not replaced, invalid rows: "
+                            + String.join("; ", progress.errors));
+                }
+                long foreign = valid.stream().filter(r -> r.priceList() != priceList).count();
+                if (foreign > 0) {
+                    throw new IllegalArgumentException("price list " + priceList + " not replaced, " + foreign
+                            + " rows up to line " + lines.get(lines.size() - 1).number() + " belong to another price list");
+                }
+                transactions.executeWithoutResult(status -> repository.stage(importId, valid));
+                progress.imported += valid.size();
+                for (int i = 0; i < valid.size() && keys.size() <= properties.maxEventKeys(); i++) {
+                    keys.add(PriceKey.of(valid.get(i)));
+                }
+            }
+            int deleted = transactions.execute(status -> {
+                if (keys.size() <= properties.maxEventKeys()) {
+                    keys.addAll(repository.findKeysOfPriceList(priceList, properties.maxEventKeys() + 1));
+                }
+                int rowsDeleted = repository.deletePriceList(priceList);
+                repository.insertStaged(importId);
+                events.publishEvent(keys.size() > properties.maxEventKeys()
+                        ? PricesChangedEvent.everything()
+                        : PricesChangedEvent.of(keys));
+                return rowsDeleted;
+            });
+            return finish("replace", format, progress, deleted, start);
+        } finally {
+            discardStaged(importId);
+        }
+    }
+
+    private void discardStaged(String importId) {
+        try {
+            transactions.executeWithoutResult(status -> repository.deleteStaged(importId));
+        } catch (RuntimeException e) {
+            log.warn("import staged rows not dropped importId={}", importId, e);
+        }
+    }
+
+    private List<PriceRecord> parse(PriceRowParser parser, List<PriceRowParser.Line> lines, Progress progress) {
+        List<PriceRowParser.Row> rows = lines.parallelStream().map(parser::parse).toList();
+        List<PriceRecord> valid = new ArrayList<>(rows.size());
+        for (PriceRowParser.Row row : rows) {
+            if (row.valid()) {
+                valid.add(row.record());
+            } else {
+                progress.rejected++;
+                if (progress.errors.size() < properties.maxReportedErrors()) {
+                    progress.errors.add("line " + row.line() + ": " + row.error());
+                }
+            }
+        }
+        progress.read += rows.size();
+        return valid;
+    }
+
+    private PriceImportResult finish(String mode, PriceFileFormat format, Progress progress, int deleted,
+                                     long start) {
+        long tookNanos = System.nanoTime() - start;
+        imported.increment(progress.imported);
+        rejected.increment(progress.rejected);
+        Timer.builder("pricing.import.duration")
+                .description("Time taken by a bulk price import")
+                .tag("mode", mode)
+                .register(registry)
+                .record(tookNanos, TimeUnit.NANOSECONDS);
+        PriceImportResult result = new PriceImportResult(progress.read, progress.imported, progress.rejected, deleted,
+                List.copyOf(progress.errors), Duration.ofNanos(tookNanos));
+        log.info("import finished mode={} format={} read={} imported={} rejected={} deleted={} tookMs={} rowsPerSecond={}",
+                mode, format, result.rowsRead(), result.rowsImported(), result.rowsRejected(), deleted,
+                result.took().toMillis(), Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    private Counter importedRows(String result) {
+        return Counter.builder("pricing.import.rows")
+                .description("Rows processed by bulk price imports")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Set<PriceKey> keys(List<PriceRecord> records) {
+        Set<PriceKey> keys = new HashSet<>();
+        records.forEach(r -> keys.add(PriceKey.of(r)));
+        return keys;
+    }
+
+    private static BufferedReader reader(InputStream input) {
+        return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static final class Progress {
+        long read;
+        long imported;
+        long rejected;
+        final List<String> errors = new ArrayList<>();
+    }
+}
@@ -0,0 +1,342 @@
+package com.inditex.sisuprice.application;
+
+import com.inditex.sisuprice.config.PriceKeyFilterProperties;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import com.inditex.sisuprice.domain.repository.PriceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of the brand/product pairs present in PRICES ({@code pricing.key-filter.enabled}), so lookups of
+ * pairs that never had a price are answered without the cache or the repository.
+ * <p>
+ * The filter is built from PRICES once the application is ready and lets every pair through until then. Pairs
+ * named by a {@link PricesChangedEvent} are added; a full change, or more pairs than the filter was sized for,
+ * queues a rebuild on the scheduler. Pairs whose rows are deleted stay in the filter and are then simply not rejected. Rows inserted
+ * without an event are seen at the next rebuild, which also runs every {@code pricing.key-filter.rebuild-interval};
+ * in the {@code memory} and {@code offheap} profiles with {@code pricing.refresh.enabled} they are announced by
+ * the polled change events as well.
+ * <p>
+ * Metrics: {@value #LOOKUPS} by {@code result} ({@code rejected}, {@code passed}, and {@code false_positive} for
+ * passed pairs the repository has no rows for), so the observed false-positive rate is
+ * {@code false_positive / (false_positive + rejected)}; {@value #EXPECTED_FPP}, the rate predicted from the share
+ * of set bits; and {@value #BYTES}, the size of the bit array.
+ */
+@Component
+@Slf4j
+public class PriceKeyFilter implements SchedulingConfigurer {
+
+    static final String LOOKUPS = "pricing.key_filter.lookups";
+
+    static final String EXPECTED_FPP = "pricing.key_filter.expected_fpp";
+
+    static final String BYTES = "pricing.key_filter.bytes";
+
+    private final PriceKeyFilterProperties properties;
+
+    private final PriceRepository repository;
+
+    private final Counter rejected;
+
+    private final Counter passed;
+
+    private final Counter falsePositives;
+
+    private volatile Bits current;
+
+    /**
+     * The filter being rebuilt, which receives the changed pairs as well so none is lost in the swap.
+     */
+    private volatile Bits next;
+
+    /**
+     * Pairs found by the last rebuild, which sizes the next one.
+     */
+    private long pairs;
+
+    private final Executor rebuilds;
+
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    /**
+     * @param rebuilds runs the rebuilds requested by changes; Boot's {@code taskScheduler}, which also runs the
+     *                 scheduled ones
+     */
+    public PriceKeyFilter(PriceKeyFilterProperties properties, PriceRepository repository, MeterRegistry registry,
+                          @Qualifier("taskScheduler") Executor rebuilds) {
+        this.properties = properties;
+        this.repository = repository;
+        this.rebuilds = rebuilds;
+        this.rejected = lookups(registry, "rejected");
+        this.passed = lookups(registry, "passed");
+        this.falsePositives = lookups(registry, "false_positive");
+        if (properties.enabled()) {
+            Gauge.builder(EXPECTED_FPP, this, f -> f.current == null ? 1 : f.current.expectedFalsePositiveRate())
+                    .description("False-positive rate of the key filter predicted from its share of set bits")
+                    .register(registry);
+            Gauge.builder(BYTES, this, f -> f.current == null ? 0 : f.current.bytes())
+                    .description("Size of the key filter bit array")
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Whether the pair may have prices; {@code false} is definite.
+     */
+    public boolean mightContain(int brandId, long productId) {
+        Bits bits = current;
+        if (bits == null) {
+            return true;
+        }
+        boolean contained = bits.mightContain(brandId, productId);
+        (contained ? passed : rejected).increment();
+        return contained;
+    }
+
+    /**
+     * Reports a lookup of a pair that passed the filter but has no rows at all.
+     */
+    public void falsePositive() {
+        if (current != null) {
+            falsePositives.increment();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void build() {
+        if (properties.enabled()) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (properties.enabled() && properties.rebuildInterval().isPositive()) {
+            registrar.addFixedDelayTask(this::scheduledRebuild, properties.rebuildInterval());
+        }
+    }
+
+    /**
+     * Rebuilds a filter that is already serving; before the first build every pair passes anyway.
+     */
+    void scheduledRebuild() {
+        if (current != null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Adds the changed pairs right away; a full change or an overflow only requests a rebuild, which runs on the
+     * scheduler rather than on the committing thread.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricesChanged(PricesChangedEvent event) {
+        Bits bits = current;
+        if (bits == null) {
+            return;
+        }
+        if (event.full()) {
+            requestRebuild();
+            return;
+        }
+        event.keys().forEach(this::add);
+        if (bits.added() > bits.capacity()) {
+            requestRebuild();
+        }
+    }
+
+    /**
+     * Queues one rebuild; requests arriving before it starts are folded into it.
+     */
+    private void requestRebuild() {
+        if (rebuildRequested.compareAndSet(false, true)) {
+            rebuilds.execute(() -> {
+                rebuildRequested.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("key filter rebuild failed error={}", e.toString());
+                }
+            });
+        }
+    }
+
+    private void add(PriceKey key) {
+        Bits building = next;
+        if (building != null) {
+            building.add(key.brandId(), key.productId());
+        }
+        current.add(key.brandId(), key.productId());
+    }
+
+    /**
+     * Sizes a filter for twice the pairs found by the previous build, fills it in one scan of PRICES and swaps it
+     * in; only a table that outgrew that size is scanned a second time. Only one rebuild runs at a time.
+     */
+    synchronized void rebuild() {
+        long start = System.nanoTime();
+        Bits bits = new Bits(Math.max(properties.expectedKeys(), 2 * pairs), properties.falsePositiveRate());
+        long distinct = fill(bits);
+        if (distinct > bits.capacity()) {
+            bits = new Bits(Math.max(properties.expectedKeys(), 2 * distinct), properties.falsePositiveRate());
+            distinct = fill(bits);
+        }
+        bits.added.add(distinct);
+        pairs = distinct;
+        // published before the filter stops receiving changes, so none added meanwhile is lost
+        current = bits;
+        next = null;
+        log.info("key filter built keys={} capacity={} bytes={} tookMs={}", distinct, bits.capacity(), bits.bytes(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Puts every pair of PRICES into {@code bits} and returns how many there are. {@link PriceRepository#streamAll}
+     * returns the rows of a pair one after another, so pairs are counted as they change.
+     */
+    private long fill(Bits bits) {
+        next = bits;
+        long distinct = 0;
+        int brandId = 0;
+        long productId = 0;
+        try (Stream<PriceRecord> rows = repository.streamAll()) {
+            for (Iterator<PriceRecord> it = rows.iterator(); it.hasNext(); ) {
+                PriceRecord row = it.next();
+                if (distinct == 0 || row.brandId() != brandId || row.productId() != productId) {
+                    brandId = row.brandId();
+                    productId = row.productId();
+                    bits.put(brandId, productId);
+                    distinct++;
+                }
+            }
+        } catch (RuntimeException e) {
+            next = null;
+            throw e;
+        }
+        return distinct;
+    }
+
+    private static Counter lookups(MeterRegistry registry, String result) {
+        return Counter.builder(LOOKUPS)
+                .description("Lookups checked against the key filter by result")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Bit array with {@code hashes} probes per pair, derived from two 64-bit hashes (Kirsch-Mitzenmacher).
+     * Bits are set with compare-and-set, so adds never block lookups.
+     */
+    static final class Bits {
+
+        private final AtomicLongArray words;
+
+        private final long size;
+
+        private final int hashes;
+
+        private final long capacity;
+
+        private final LongAdder added = new LongAdder();
+
+        Bits(long capacity, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.max(1, (bits + 63) / 64);
+            this.words = new AtomicLongArray(wordCount);
+            this.size = wordCount * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) size / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        /**
+         * Adds a pair and counts it towards the capacity.
+         */
+        void add(int brandId, long productId) {
+            put(brandId, productId);
+            added.increment();
+        }
+
+        void put(int brandId, long productId) {
+            long hash1 = mix(productId * 0x9E3779B97F4A7C15L + brandId);
+            long hash2 = mix(hash1 ^ 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < hashes; i++) {
+                long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % size;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value = words.get(word);
+                while ((value & mask) == 0 && !words.weakCompareAndSetVolatile(word, value, value | mask)) {
+                    value = words.get(word);
+                }
+            }
+        }
+
+        boolean mightContain(int brandId, long productId) {
+            long hash1 = mix(productId * 0x9E3779B97F4A7C15L + brandId);
+            long hash2 = mix(hash1 ^ 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < hashes; i++) {
+                long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % size;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * {@code fill^hashes}, the chance that all probes of an unknown pair hit set bits.
+         */
+        double expectedFalsePositiveRate() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return Math.pow((double) set / size, hashes);
+        }
+
+        long bytes() {
+            return size / 8;
+        }
+
+        long capacity() {
+            return capacity;
+        }
+
+        long added() {
+            return added.sum();
+        }
+
+        /**
+         * MurmurHash3 finalizer.
+         */
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB93F6A1A2A2BL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -1,42 +1,357 @@
 package com.inditex.sisuprice.application;
 
+import com.github.benmanes.caffeine.cache.Policy;
+import com.inditex.sisuprice.config.PartitionTableChangedEvent;
+import com.inditex.sisuprice.config.PriceCacheProperties;
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceQuery;
 import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceSegment;
+import com.inditex.sisuprice.domain.PriceSegments;
+import com.inditex.sisuprice.domain.PriceWindow;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
 import com.inditex.sisuprice.domain.repository.PriceRepository;
 import com.inditex.sisuprice.domain.usecase.PriceQueryUseCase;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
+/**
+ * Lookups go through the {@code prices} cache of validity windows.
+ * <p>
+ * Concurrent misses of the same brand/product share one repository load: the first one queries and the others
+ * wait for its window, so an expiring hot entry costs one query instead of one per in-flight request. When the
+ * cache is Caffeine, entries about to reach {@code pricing.cache.max-ttl} are also reloaded early with probability
+ * rising as expiry nears (XFetch: refresh once {@code remaining <= -meanLoadTime * beta * ln(random)}), so a hot
+ * entry is usually replaced by a single request before it expires at all.
+ * <p>
+ * Pairs rejected by {@link PriceKeyFilter} are answered as not found before the cache is read.
+ */
 @Service
 @Slf4j
 public class PriceQueryUseCaseImpl implements PriceQueryUseCase {
 
+    public static final String PRICES_CACHE = "prices";
+
     private final PriceRepository repository;
 
-    public PriceQueryUseCaseImpl(PriceRepository repository) {
+    private final Cache cache;
+
+    private final PriceMetrics metrics;
+
+    private final PriceKeyFilter keyFilter;
+
+    private final double earlyRefreshBeta;
+
+    private final Policy.VarExpiration<Object, Object> expiration;
+
+    private final ConcurrentHashMap<PriceKey, CompletableFuture<PriceWindow>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * Moving average of the repository load time; races between writers only blur the estimate.
+     */
+    private volatile long loadNanos;
+
+    public PriceQueryUseCaseImpl(PriceRepository repository, CacheManager cacheManager, PriceMetrics metrics,
+                                 PriceCacheProperties properties, PriceKeyFilter keyFilter) {
         this.repository = repository;
+        this.metrics = metrics;
+        this.keyFilter = keyFilter;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(PRICES_CACHE), "missing cache " + PRICES_CACHE);
+        this.earlyRefreshBeta = properties.earlyRefreshBeta();
+        this.expiration = cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine
+                ? expiration(caffeine) : null;
     }
 
+    @SuppressWarnings("unchecked")
+    private static Policy.VarExpiration<Object, Object> expiration(com.github.benmanes.caffeine.cache.Cache<?, ?> cache) {
+        return ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache).policy().expireVariably()
+                .orElse(null);
+    }
+
+    /**
+     * Entries are keyed by brand/product and hold the window in which the result stays the same,
+     * so every date inside the cached window is a hit regardless of its exact value.
+     */
     @Override
-    @Cacheable(value = "prices", key = "#brandId + '-' + #productId + '-' + #applicationDate")
     public Optional<PriceRecord> query(int brandId, long productId, LocalDateTime applicationDate) {
+        return metrics.time(PriceMetrics.Stage.USE_CASE, "query",
+                () -> lookup(brandId, productId, applicationDate), Optional::isPresent);
+    }
 
-        long start = System.nanoTime();
+    private Optional<PriceRecord> lookup(int brandId, long productId, LocalDateTime applicationDate) {
         log.debug("usecase query brandId={} productId={} date={}", brandId, productId, applicationDate);
 
-        Optional<PriceRecord> result = repository.findApplicable(brandId, productId, applicationDate);
-        long tookMs = (System.nanoTime() - start) / 1_000_000;
+        if (!keyFilter.mightContain(brandId, productId)) {
+            log.debug("usecase result empty brandId={} productId={} keyFilter=rejected", brandId, productId);
+            return Optional.empty();
+        }
+        PriceKey key = new PriceKey(brandId, productId);
+        PriceWindow cached = cache.get(key, PriceWindow.class);
+        boolean hit = cached != null && cached.covers(applicationDate);
+        metrics.cacheLookup(cached != null, hit);
+        PriceWindow window = cached;
+        if (!hit) {
+            window = load(key, applicationDate);
+        } else if (expiresSoon(key, cached)) {
+            window = refresh(key, applicationDate, cached);
+        }
+
+        Optional<PriceRecord> result = applicable(window);
         if (result.isPresent()) {
             var r = result.get();
-            log.debug("usecase result found brandId={} productId={} priceList={} tookMs={}",
-                    brandId, productId, r.priceList(), tookMs);
+            log.debug("usecase result found brandId={} productId={} priceList={} cacheHit={}",
+                    brandId, productId, r.priceList(), hit);
         } else {
-            log.debug("usecase result empty brandId={} productId={} tookMs={}", brandId, productId, tookMs);
+            log.debug("usecase result empty brandId={} productId={} cacheHit={}", brandId, productId, hit);
         }
 
         return result;
     }
+
+    /**
+     * Joins the load already running for the key, or runs it. A joined window may have been loaded for a date
+     * outside this one's window, in which case this lookup tries again: it leads the next load of the key or joins
+     * the one another lookup started meanwhile.
+     */
+    private PriceWindow load(PriceKey key, LocalDateTime applicationDate) {
+        while (true) {
+            CompletableFuture<PriceWindow> mine = new CompletableFuture<>();
+            CompletableFuture<PriceWindow> running = loading.putIfAbsent(key, mine);
+            if (running == null) {
+                metrics.cacheLoad(false);
+                return lead(key, applicationDate, mine);
+            }
+            metrics.cacheLoad(true);
+            PriceWindow shared = join(running);
+            if (shared.covers(applicationDate)) {
+                return shared;
+            }
+        }
+    }
+
+    /**
+     * Reloads a live entry unless a load of the key is already running, in which case the cached window is
+     * still good enough.
+     */
+    private PriceWindow refresh(PriceKey key, LocalDateTime applicationDate, PriceWindow cached) {
+        CompletableFuture<PriceWindow> mine = new CompletableFuture<>();
+        if (loading.putIfAbsent(key, mine) != null) {
+            return cached;
+        }
+        metrics.cacheEarlyRefresh();
+        return lead(key, applicationDate, mine);
+    }
+
+    /**
+     * Loads the window and hands it to the lookups waiting on {@code mine}.
+     */
+    private PriceWindow lead(PriceKey key, LocalDateTime applicationDate, CompletableFuture<PriceWindow> mine) {
+        try {
+            PriceWindow window = fetch(key, applicationDate);
+            settle(key, mine, window);
+            return window;
+        } catch (RuntimeException e) {
+            loading.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Completes a load this lookup led. The window is only cached while {@code mine} is still registered: a change
+     * evicting the key meanwhile unregisters it, and the window may predate it.
+     */
+    private void settle(PriceKey key, CompletableFuture<PriceWindow> mine, PriceWindow window) {
+        if (loading.remove(key, mine)) {
+            cache.put(key, window);
+        }
+        mine.complete(window);
+    }
+
+    private PriceWindow fetch(PriceKey key, LocalDateTime applicationDate) {
+        long start = System.nanoTime();
+        PriceWindow window = metrics.time(PriceMetrics.Stage.REPOSITORY, "findWindow",
+                () -> repository.findWindow(key.brandId(), key.productId(), applicationDate),
+                w -> w.applicable().isPresent());
+        long average = loadNanos;
+        loadNanos = average + (System.nanoTime() - start - average) / 8;
+        return window;
+    }
+
+    private static PriceWindow join(CompletableFuture<PriceWindow> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * The XFetch draw. Entries that expire because their window ends are left alone: reloading them before the
+     * end yields the same window and the same expiry.
+     */
+    private boolean expiresSoon(PriceKey key, PriceWindow window) {
+        if (expiration == null || earlyRefreshBeta <= 0) {
+            return false;
+        }
+        double gap = -loadNanos * earlyRefreshBeta * Math.log(ThreadLocalRandom.current().nextDouble());
+        long remaining = expiration.getExpiresAfter(key, TimeUnit.NANOSECONDS).orElse(Long.MAX_VALUE);
+        return remaining <= gap && window.to().isAfter(LocalDateTime.now().plusNanos(remaining));
+    }
+
+    /**
+     * Answers what it can from the cache and resolves the misses nobody is loading yet with a single batched
+     * repository call; misses whose key is already being loaded, by a single lookup or another batch, join that
+     * load instead. The outcome of a batch is {@code found} when at least one of its lookups found a price.
+     */
+    @Override
+    public List<Optional<PriceRecord>> queryAll(List<PriceQuery> queries) {
+        return metrics.time(PriceMetrics.Stage.USE_CASE, "queryAll",
+                () -> lookupAll(queries), results -> results.stream().anyMatch(Optional::isPresent));
+    }
+
+    private List<Optional<PriceRecord>> lookupAll(List<PriceQuery> queries) {
+        List<Optional<PriceRecord>> results = new ArrayList<>(queries.size());
+        List<Integer> ledIndexes = new ArrayList<>();
+        List<PriceQuery> led = new ArrayList<>();
+        List<CompletableFuture<PriceWindow>> mine = new ArrayList<>();
+        Map<Integer, CompletableFuture<PriceWindow>> joined = new LinkedHashMap<>();
+        for (PriceQuery query : queries) {
+            if (!keyFilter.mightContain(query.brandId(), query.productId())) {
+                results.add(Optional.empty());
+                continue;
+            }
+            PriceWindow window = cache.get(query.key(), PriceWindow.class);
+            boolean hit = window != null && window.covers(query.applicationDate());
+            metrics.cacheLookup(window != null, hit);
+            if (hit) {
+                results.add(applicable(window));
+                continue;
+            }
+            CompletableFuture<PriceWindow> load = new CompletableFuture<>();
+            CompletableFuture<PriceWindow> running = loading.putIfAbsent(query.key(), load);
+            metrics.cacheLoad(running != null);
+            if (running == null) {
+                ledIndexes.add(results.size());
+                led.add(query);
+                mine.add(load);
+            } else {
+                joined.put(results.size(), running);
+            }
+            results.add(Optional.empty());
+        }
+        if (!led.isEmpty()) {
+            List<PriceWindow> windows;
+            try {
+                windows = metrics.time(PriceMetrics.Stage.REPOSITORY, "findWindows",
+                        () -> repository.findWindows(led), found -> found.stream().anyMatch(w -> w.applicable().isPresent()));
+            } catch (RuntimeException e) {
+                for (int i = 0; i < led.size(); i++) {
+                    loading.remove(led.get(i).key(), mine.get(i));
+                    mine.get(i).completeExceptionally(e);
+                }
+                throw e;
+            }
+            for (int i = 0; i < led.size(); i++) {
+                settle(led.get(i).key(), mine.get(i), windows.get(i));
+                results.set(ledIndexes.get(i), applicable(windows.get(i)));
+            }
+        }
+        // joined only once this batch has completed its own loads, so two batches never wait on each other
+        joined.forEach((index, running) -> {
+            PriceQuery query = queries.get(index);
+            PriceWindow shared = join(running);
+            results.set(index, applicable(shared.covers(query.applicationDate())
+                    ? shared : load(query.key(), query.applicationDate())));
+        });
+        log.debug("usecase queryAll queries={} misses={} joined={}", queries.size(), led.size(), joined.size());
+        return results;
+    }
+
+    /**
+     * The price of a resolved window; a pair without any row was let through by the key filter by mistake.
+     */
+    private Optional<PriceRecord> applicable(PriceWindow window) {
+        if (PriceWindow.empty().equals(window)) {
+            keyFilter.falsePositive();
+        }
+        return window.applicable();
+    }
+
+    /**
+     * Reads only the records overlapping the period and flattens them in one sweep with the lookup precedence.
+     * Timelines bypass the window cache: a single read already answers every date of the period.
+     */
+    @Override
+    public List<PriceSegment> timeline(int brandId, long productId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        return metrics.time(PriceMetrics.Stage.USE_CASE, "timeline", () -> {
+            List<PriceRecord> candidates = metrics.time(PriceMetrics.Stage.REPOSITORY, "findOverlapping",
+                    () -> repository.findOverlapping(brandId, productId, from, to), found -> !found.isEmpty());
+            List<PriceSegment> segments = PriceSegments.flatten(candidates, from, to);
+            log.debug("usecase timeline brandId={} productId={} candidates={} segments={}",
+                    brandId, productId, candidates.size(), segments.size());
+            return segments;
+        }, segments -> !segments.isEmpty());
+    }
+
+    /**
+     * Drops the cached windows of changed keys once the change is committed, so the next lookup reads it.
+     * Loads of those keys still running are not cached, and lookups arriving after the change do not join them.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricesChanged(PricesChangedEvent event) {
+        if (event.full()) {
+            loading.clear();
+            cache.clear();
+        } else {
+            event.keys().forEach(key -> {
+                loading.remove(key);
+                cache.evict(key);
+            });
+        }
+        log.debug("usecase cache evicted full={} keys={}", event.full(), event.keys().size());
+    }
+
+    /**
+     * Drops the cached windows of keys whose partition changed owner: while another node owned them, their
+     * changes were announced there and not here. Caches that cannot be walked are cleared.
+     */
+    @EventListener
+    public void onPartitionsMoved(PartitionTableChangedEvent event) {
+        Predicate<Object> moved = key -> key instanceof PriceKey k && event.moved(k.brandId(), k.productId());
+        loading.keySet().removeIf(moved);
+        Map<?, ?> entries = switch (cache.getNativeCache()) {
+            case com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine -> caffeine.asMap();
+            case Map<?, ?> map -> map;
+            default -> null;
+        };
+        if (entries == null) {
+            cache.clear();
+        } else {
+            entries.keySet().removeIf(moved);
+        }
+        log.debug("usecase cache evicted partitionsMovedToVersion={}", event.current().version());
+    }
 }
@@ -0,0 +1,231 @@
+package com.inditex.sisuprice.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.inditex.sisuprice.domain.PriceFileFormat;
+import com.inditex.sisuprice.domain.PriceRecord;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Reads import lines in chunks and turns each line into a validated {@link PriceRecord}.
+ * Reading is sequential; {@link #parse} keeps no state, so the lines of a chunk can be parsed in parallel.
+ * CSV values follow RFC 4180 within a line: a value may be quoted, with {@code ""} standing for a quote. No PRICES
+ * value spans lines, so a quote left open at the end of a line rejects it.
+ */
+final class PriceRowParser {
+
+    static final List<String> CSV_COLUMNS =
+            List.of("BRAND_ID", "START_DATE", "END_DATE", "PRICE_LIST", "PRODUCT_ID", "PRIORITY", "PRICE", "CURR");
+
+    private static final Pattern CURRENCY = Pattern.compile("[A-Z]{3}");
+
+    /**
+     * Precision and scale of the PRICES.PRICE column.
+     */
+    private static final int PRICE_PRECISION = 10;
+    private static final int PRICE_SCALE = 2;
+
+    record Line(long number, String text) {}
+
+    /**
+     * A parsed line: either {@code record} or {@code error} is set.
+     */
+    record Row(long line, PriceRecord record, String error) {
+
+        boolean valid() {
+            return record != null;
+        }
+    }
+
+    private final PriceFileFormat format;
+
+    private final BufferedReader reader;
+
+    private final ObjectReader json;
+
+    /**
+     * For CSV, position of each of {@link #CSV_COLUMNS} in a line.
+     */
+    private final int[] columns;
+
+    private long lineNumber;
+
+    private PriceRowParser(PriceFileFormat format, BufferedReader reader, ObjectReader json, int[] columns,
+                           long lineNumber) {
+        this.format = format;
+        this.reader = reader;
+        this.json = json;
+        this.columns = columns;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Opens a parser on the reader, consuming the CSV header line.
+     *
+     * @throws IllegalArgumentException when the CSV header is missing or lacks a column
+     */
+    static PriceRowParser open(PriceFileFormat format, BufferedReader reader, ObjectMapper objectMapper) {
+        ObjectReader json = objectMapper.readerFor(PriceRecord.class)
+                .with(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES,
+                        DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES,
+                        DeserializationFeature.FAIL_ON_NULL_CREATOR_PROPERTIES);
+        if (format != PriceFileFormat.CSV) {
+            return new PriceRowParser(format, reader, json, null, 0);
+        }
+        try {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV input has no header line");
+            }
+            List<String> names = fields(header).stream()
+                    .map(name -> name.strip().toUpperCase(Locale.ROOT))
+                    .toList();
+            int[] columns = new int[CSV_COLUMNS.size()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+                if (columns[i] < 0) {
+                    throw new IllegalArgumentException("CSV header lacks column " + CSV_COLUMNS.get(i));
+                }
+            }
+            return new PriceRowParser(format, reader, json, columns, 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads up to {@code max} non-blank lines; an empty list means the input is exhausted.
+     */
+    List<Line> next(int max) {
+        List<Line> lines = new ArrayList<>(max);
+        try {
+            String text;
+            while (lines.size() < max && (text = reader.readLine()) != null) {
+                lineNumber++;
+                if (!text.isBlank()) {
+                    lines.add(new Line(lineNumber, text));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lines;
+    }
+
+    Row parse(Line line) {
+        try {
+            PriceRecord priceRecord = format == PriceFileFormat.CSV ? csv(line.text()) : ndjson(line.text());
+            String error = validate(priceRecord);
+            return error == null ? new Row(line.number(), priceRecord, null) : new Row(line.number(), null, error);
+        } catch (IllegalArgumentException | DateTimeParseException | JsonProcessingException e) {
+            return new Row(line.number(), null, e.getMessage());
+        }
+    }
+
+    private PriceRecord csv(String text) {
+        List<String> values = fields(text);
+        String[] fields = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] >= values.size()) {
+                throw new IllegalArgumentException("missing value for " + CSV_COLUMNS.get(i));
+            }
+            fields[i] = values.get(columns[i]).strip();
+        }
+        return new PriceRecord(
+                Integer.parseInt(fields[0]),
+                dateTime(fields[1]),
+                dateTime(fields[2]),
+                Integer.parseInt(fields[3]),
+                Long.parseLong(fields[4]),
+                Integer.parseInt(fields[5]),
+                new BigDecimal(fields[6]),
+                fields[7]);
+    }
+
+    /**
+     * Splits a CSV line into its values, unquoting quoted ones.
+     *
+     * @throws IllegalArgumentException when a quote is left open or a quoted value is followed by other text
+     */
+    static List<String> fields(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            if (i < text.length() && text.charAt(i) == '"') {
+                for (i++; ; i++) {
+                    if (i == text.length()) {
+                        throw new IllegalArgumentException("unterminated quoted value");
+                    }
+                    char c = text.charAt(i);
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        i++;
+                        break;
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (i < text.length() && text.charAt(i) != ',') {
+                    throw new IllegalArgumentException("unexpected text after quoted value " + field);
+                }
+            } else {
+                int end = text.indexOf(',', i);
+                field.append(text, i, end < 0 ? text.length() : end);
+                i = end < 0 ? text.length() : end;
+            }
+            fields.add(field.toString());
+            field.setLength(0);
+            if (i == text.length()) {
+                return fields;
+            }
+            i++;
+        }
+    }
+
+    private PriceRecord ndjson(String text) throws JsonProcessingException {
+        return json.readValue(text);
+    }
+
+    private static LocalDateTime dateTime(String value) {
+        return LocalDateTime.parse(value.replace(' ', 'T'));
+    }
+
+    /**
+     * Checks the record against the PRICES constraints; returns the first violation or null.
+     */
+    static String validate(PriceRecord r) {
+        if (r.brandId() < 1 || r.productId() < 1 || r.priceList() < 1) {
+            return "brandId, productId and priceList must be positive";
+        }
+        if (r.priority() < 0) {
+            return "priority must not be negative";
+        }
+        if (!r.endDate().isAfter(r.startDate())) {
+            return "endDate must be after startDate";
+        }
+        BigDecimal price = r.price().stripTrailingZeros();
+        if (price.signum() < 0 || price.scale() > PRICE_SCALE
+                || price.precision() - price.scale() > PRICE_PRECISION - PRICE_SCALE) {
+            return "price must be a non-negative amount with at most " + PRICE_SCALE + " decimals";
+        }
+        if (!CURRENCY.matcher(r.curr()).matches()) {
+            return "curr must be a three-letter ISO code";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,151 @@
+package com.inditex.sisuprice.application;
+
+import com.inditex.sisuprice.config.PriceImportProperties;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceListClosure;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceRow;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import com.inditex.sisuprice.domain.repository.PriceWriteRepository;
+import com.inditex.sisuprice.domain.usecase.PriceWriteUseCase;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Writes single price rows and closes out price lists, each in its own transaction. Every write publishes a
+ * {@link PricesChangedEvent} naming only the brand/product pairs it changed, so the cache, segments, the
+ * {@code memory} or {@code offheap} snapshot and the other nodes drop exactly those entries once the transaction
+ * commits.
+ * Rows are validated with the same rules as the bulk import.
+ */
+@Service
+@Slf4j
+public class PriceWriteUseCaseImpl implements PriceWriteUseCase {
+
+    private final PriceWriteRepository repository;
+
+    private final TransactionTemplate transactions;
+
+    private final ApplicationEventPublisher events;
+
+    private final PriceImportProperties properties;
+
+    private final MeterRegistry registry;
+
+    public PriceWriteUseCaseImpl(PriceWriteRepository repository, PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher events, PriceImportProperties properties,
+                                 MeterRegistry registry) {
+        this.repository = repository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.events = events;
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    public PriceRow create(PriceRecord record) {
+        validate(record);
+        long id = transactions.execute(status -> {
+            long inserted = repository.insert(record);
+            events.publishEvent(PricesChangedEvent.of(List.of(PriceKey.of(record))));
+            return inserted;
+        });
+        written("create", 1);
+        log.info("price row created id={} brandId={} productId={} priceList={}", id, record.brandId(),
+                record.productId(), record.priceList());
+        return new PriceRow(id, record);
+    }
+
+    @Override
+    public Optional<PriceRow> find(long id) {
+        return repository.findById(id).map(record -> new PriceRow(id, record));
+    }
+
+    @Override
+    public Optional<PriceRow> update(long id, PriceRecord record) {
+        validate(record);
+        return rewrite(id, "update", current -> record);
+    }
+
+    @Override
+    public Optional<PriceRow> endDate(long id, LocalDateTime endDate) {
+        return rewrite(id, "end", current -> {
+            PriceRecord ended = new PriceRecord(current.brandId(), current.startDate(), endDate, current.priceList(),
+                    current.productId(), current.priority(), current.price(), current.curr());
+            validate(ended);
+            return ended;
+        });
+    }
+
+    @Override
+    public PriceListClosure closePriceList(int priceList, LocalDateTime at) {
+        if (priceList < 1) {
+            throw new IllegalArgumentException("priceList must be positive");
+        }
+        PriceListClosure closure = transactions.execute(status -> {
+            // one pair past maxEventKeys is enough to know the change is announced in full
+            Set<PriceKey> keys = repository.findKeysOfPriceListValidAfter(priceList, at, properties.maxEventKeys() + 1);
+            if (keys.isEmpty()) {
+                return new PriceListClosure(priceList, at, 0, 0, 0);
+            }
+            boolean full = keys.size() > properties.maxEventKeys();
+            int affected = full ? repository.countKeysOfPriceListValidAfter(priceList, at) : keys.size();
+            int ended = repository.endPriceListAt(priceList, at);
+            int deleted = repository.deletePriceListFrom(priceList, at);
+            events.publishEvent(full ? PricesChangedEvent.everything() : PricesChangedEvent.of(keys));
+            return new PriceListClosure(priceList, at, ended, deleted, affected);
+        });
+        written("close", closure.rowsEnded() + closure.rowsDeleted());
+        log.info("price list closed priceList={} at={} rowsEnded={} rowsDeleted={} keys={}", priceList, at,
+                closure.rowsEnded(), closure.rowsDeleted(), closure.keysAffected());
+        return closure;
+    }
+
+    /**
+     * Reads the row under a lock, writes what {@code change} makes of it and announces the pairs before and after
+     * the change; a change that leaves the row as it was writes and announces nothing.
+     */
+    private Optional<PriceRow> rewrite(long id, String operation, UnaryOperator<PriceRecord> change) {
+        Optional<PriceRow> row = transactions.execute(status -> repository.lockById(id).map(current -> {
+            PriceRecord next = change.apply(current);
+            if (!next.equals(current)) {
+                repository.update(id, next);
+                events.publishEvent(PricesChangedEvent.of(List.of(PriceKey.of(current), PriceKey.of(next))));
+            }
+            return new PriceRow(id, next);
+        }));
+        row.ifPresentOrElse(r -> {
+                    written(operation, 1);
+                    log.info("price row written operation={} id={} brandId={} productId={} endDate={}", operation, id,
+                            r.record().brandId(), r.record().productId(), r.record().endDate());
+                },
+                () -> log.debug("price row not found operation={} id={}", operation, id));
+        return row;
+    }
+
+    private void written(String operation, int rows) {
+        Counter.builder("pricing.write.rows")
+                .description("PRICES rows changed through the write API")
+                .tag("operation", operation)
+                .register(registry)
+                .increment(rows);
+    }
+
+    private static void validate(PriceRecord record) {
+        String error = PriceRowParser.validate(record);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+}
@@ -1,12 +1,33 @@
 package com.inditex.sisuprice.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inditex.sisuprice.application.PriceQueryUseCaseImpl;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
+
 /**
  * Configuration for application-level caching.
  * Enables Spring Cache abstraction with Caffeine as the provider.
+ * The {@code prices} cache holds one validity window per brand/product and expires it when the window ends.
  */
 @Configuration
 @EnableCaching
-public class CacheConfig {}
+@EnableConfigurationProperties(PriceCacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> pricesCacheCustomizer(PriceCacheProperties properties) {
+        return cacheManager -> cacheManager.registerCustomCache(PriceQueryUseCaseImpl.PRICES_CACHE,
+                Caffeine.newBuilder()
+                        .maximumSize(properties.maximumSize())
+                        .expireAfter(new PriceWindowExpiry(properties.maxTtl(), Clock.systemDefaultZone()))
+                        .recordStats()
+                        .build());
+    }
+}
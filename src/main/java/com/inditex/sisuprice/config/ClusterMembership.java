@@ -0,0 +1,125 @@
+package com.inditex.sisuprice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This node's view of the {@link PartitionTable} ({@code pricing.cluster.enabled}). Without cluster mode the node
+ * owns every key. Keys of unassigned partitions are owned by every node.
+ */
+@Component
+@Slf4j
+public class ClusterMembership {
+
+    private final String nodeId;
+
+    private final ApplicationEventPublisher events;
+
+    private volatile PartitionTable table;
+
+    public ClusterMembership(PriceClusterProperties properties, ApplicationEventPublisher events) {
+        this.nodeId = properties.nodeId();
+        this.events = events;
+        if (properties.enabled()) {
+            PartitionTable initial = PartitionTable.of(1, properties.strategy(), properties.partitions(),
+                    properties.nodes(), properties.owners());
+            if (!initial.nodes().containsKey(nodeId)) {
+                throw new IllegalArgumentException("pricing.cluster.node-id " + nodeId + " is not in pricing.cluster.nodes");
+            }
+            this.table = initial;
+        }
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public Optional<PartitionTable> table() {
+        return Optional.ofNullable(table);
+    }
+
+    public boolean ownsEverything() {
+        return table == null;
+    }
+
+    public boolean owns(int brandId, long productId) {
+        return owns(table, brandId, productId);
+    }
+
+    /**
+     * Whether this node owns the key under the given table; {@code null} stands for cluster mode off.
+     */
+    public boolean owns(PartitionTable under, int brandId, long productId) {
+        if (under == null) {
+            return true;
+        }
+        String owner = under.owner(brandId, productId);
+        return owner == null || owner.equals(nodeId);
+    }
+
+    /**
+     * Whether this node holds every product of the brand.
+     */
+    public boolean ownsBrand(int brandId) {
+        return ownsBrand(table, brandId);
+    }
+
+    /**
+     * Whether this node holds every product of the brand under the given table.
+     */
+    public boolean ownsBrand(PartitionTable under, int brandId) {
+        return under == null || nodeId.equals(under.brandOwner(brandId));
+    }
+
+    /**
+     * Base URL of the other node owning the key, if any.
+     */
+    public Optional<URI> ownerOf(int brandId, long productId) {
+        PartitionTable current = table;
+        return current == null ? Optional.empty() : remote(current, current.owner(brandId, productId));
+    }
+
+    /**
+     * Base URL of the other node owning every product of the brand, if any.
+     */
+    public Optional<URI> ownerOfBrand(int brandId) {
+        PartitionTable current = table;
+        return current == null ? Optional.empty() : remote(current, current.brandOwner(brandId));
+    }
+
+    private Optional<URI> remote(PartitionTable current, String owner) {
+        return owner == null || owner.equals(nodeId) ? Optional.empty() : Optional.of(current.nodes().get(owner));
+    }
+
+    /**
+     * Swaps in a new assignment of the partitions to nodes; strategy and partition count stay as configured.
+     * Nodes not listed keep their URL. Publishes a {@link PartitionTableChangedEvent}.
+     *
+     * @throws IllegalStateException when cluster mode is off
+     * @throws IllegalArgumentException when the version is not newer or the assignment is invalid
+     */
+    public synchronized PartitionTable rebalance(long version, Map<String, String> nodes, Map<String, String> owners) {
+        PartitionTable previous = table;
+        if (previous == null) {
+            throw new IllegalStateException("cluster mode is off");
+        }
+        if (version <= previous.version()) {
+            throw new IllegalArgumentException("version " + version + " is not newer than " + previous.version());
+        }
+        Map<String, String> urls = new HashMap<>();
+        previous.nodes().forEach((node, url) -> urls.put(node, url.toString()));
+        urls.putAll(nodes);
+        PartitionTable next = PartitionTable.of(version, previous.strategy(), previous.partitions(), urls, owners);
+        table = next;
+        log.info("cluster partitions moved node={} fromVersion={} toVersion={} owners={}",
+                nodeId, previous.version(), version, owners);
+        events.publishEvent(new PartitionTableChangedEvent(previous, next));
+        return next;
+    }
+}
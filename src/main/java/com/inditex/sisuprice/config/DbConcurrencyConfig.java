@@ -0,0 +1,53 @@
+package com.inditex.sisuprice.config;
+
+import com.inditex.sisuprice.infrastructure.persistence.BoundedDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link BoundedDataSource} when {@code pricing.db.max-concurrency} is set,
+ * so that database concurrency no longer depends on how many request threads exist.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "pricing.db", name = "max-concurrency")
+@Slf4j
+public class DbConcurrencyConfig {
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(Environment environment,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        DbConcurrencyProperties properties = Binder.get(environment)
+                .bindOrCreate("pricing.db", DbConcurrencyProperties.class);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BoundedDataSource)) {
+                    BoundedDataSource bounded = new BoundedDataSource(dataSource,
+                            properties.maxConcurrency(), properties.acquireTimeout());
+                    meterRegistry.ifAvailable(registry -> {
+                        Gauge.builder("pricing.db.permits.in_use", bounded, BoundedDataSource::inUse)
+                                .description("Database permits currently held")
+                                .register(registry);
+                        Gauge.builder("pricing.db.permits.waiting", bounded, BoundedDataSource::waiting)
+                                .description("Callers waiting for a database permit")
+                                .register(registry);
+                    });
+                    log.info("database concurrency bounded dataSource={} maxConcurrency={} acquireTimeout={}",
+                            beanName, properties.maxConcurrency(), properties.acquireTimeout());
+                    return bounded;
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bound on concurrent database work.
+ *
+ * @param maxConcurrency maximum number of connections in use at the same time
+ * @param acquireTimeout how long a caller waits for a permit before the lookup fails
+ */
+@ConfigurationProperties(prefix = "pricing.db")
+public record DbConcurrencyProperties(
+        int maxConcurrency,
+        @DefaultValue("5s") Duration acquireTimeout
+) {}
@@ -0,0 +1,18 @@
+package com.inditex.sisuprice.config;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * {@code %escapedMsg}: the formatted message with line breaks written as {@code \n}, so every event stays on one
+ * key=value line. Same output as {@code %replace(%m){'\n','\\n'}}, but a message without line breaks, which is
+ * nearly every message, is returned after a single scan instead of going through a regex.
+ */
+public class EscapedMessageConverter extends ClassicConverter {
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        String message = event.getFormattedMessage();
+        return message == null || message.indexOf('\n') < 0 ? message : message.replace("\n", "\\n");
+    }
+}
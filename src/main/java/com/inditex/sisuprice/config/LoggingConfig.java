@@ -0,0 +1,13 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the sampling settings of the request log. The async appender itself is set up in
+ * {@code logback-spring.xml} from {@code pricing.logging.async.*}.
+ */
+@Configuration
+@EnableConfigurationProperties(RequestLogProperties.class)
+public class LoggingConfig {
+}
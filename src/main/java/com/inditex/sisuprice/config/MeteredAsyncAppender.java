@@ -0,0 +1,40 @@
+package com.inditex.sisuprice.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback {@link AsyncAppender} that counts the events it drops, so {@link LoggingMetrics} can publish them.
+ * <p>
+ * {@code discarded} events are TRACE/DEBUG/INFO shed once the free capacity falls below the discarding threshold;
+ * {@code rejected} events found the queue full with {@code neverBlock} set. Logback does not report the outcome of
+ * its offer, so a rejection is counted when the queue has no free slot right before the event is handed over.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isQueueBelowDiscardingThreshold() && isDiscardable(event)) {
+            discarded.increment();
+            return;
+        }
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            rejected.increment();
+        }
+        super.append(event);
+    }
+
+    public long discarded() {
+        return discarded.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,44 @@
+package com.inditex.sisuprice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Publishes the same histogram buckets for the pricing stage timers, {@code http.server.requests} and the Hikari
+ * acquire/usage timers, so a slow percentile can be traced to the layer or the connection wait behind it.
+ * Also replaces Spring Boot's JSON converter with one that times serialization on the servlet stack.
+ */
+@Configuration
+@EnableConfigurationProperties(PriceMetricsProperties.class)
+public class MetricsConfig {
+
+    @Bean
+    public MeterFilter latencyHistogramFilter(PriceMetricsProperties properties) {
+        double[] slo = properties.slo().stream().mapToDouble(d -> (double) d.toNanos()).sorted().toArray();
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || !properties.timers().contains(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .serviceLevelObjectives(slo)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public TimedJacksonHttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                PriceMetrics metrics) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, metrics);
+    }
+}
@@ -0,0 +1,201 @@
+package com.inditex.sisuprice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sends lookups of keys owned by another node to that node ({@code pricing.cluster.enabled}).
+ * <p>
+ * Lookups and timelines are routed by brand/product; the brand catalog by brand when one node owns the whole
+ * brand. Requests this node owns, batches, exports and anything else are served here; the {@code memory}
+ * profile reads keys it does not hold from the database. With {@code routing: forward} the request is sent to
+ * the owner and its response relayed, or served here when the owner cannot be reached within
+ * {@code forward-timeout}; with {@code redirect} the client gets a 307 to the owner.
+ * <p>
+ * Forwarded requests carry {@value #FORWARDED_BY}. A node receiving one for a key it does not own, because the
+ * two nodes disagree on the partition table during a rebalance, answers 421 Misdirected Request instead of
+ * forwarding again. Outcomes are counted in {@value #ROUTED} by {@code route}.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "pricing.cluster", name = "enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@Slf4j
+public class PartitionRoutingFilter implements Filter {
+
+    public static final String FORWARDED_BY = "X-Price-Forwarded-By";
+
+    static final String ROUTED = "pricing.cluster.routed";
+
+    static final int MISDIRECTED_REQUEST = 421;
+
+    private static final String PRICES = "/api/v1/prices";
+
+    private static final List<String> RELAYED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_ENCODING, HttpHeaders.VARY, HttpHeaders.CONTENT_DISPOSITION);
+
+    private final ClusterMembership membership;
+
+    private final PriceClusterProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final HttpClient client;
+
+    private final Map<String, Counter> routed = new LinkedHashMap<>();
+
+    public PartitionRoutingFilter(ClusterMembership membership, PriceClusterProperties properties,
+                                  ObjectMapper objectMapper, MeterRegistry registry) {
+        this.membership = membership;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.forwardTimeout())
+                .build();
+        for (String route : List.of("local", "forwarded", "redirected", "misdirected", "fallback")) {
+            routed.put(route, Counter.builder(ROUTED)
+                    .description("Routed price requests by route taken")
+                    .tag("route", route)
+                    .register(registry));
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest http) || !(response instanceof HttpServletResponse httpResponse)
+                || !"GET".equals(http.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Optional<URI> owner = owner(http);
+        if (owner.isEmpty()) {
+            if (routable(http)) {
+                routed.get("local").increment();
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+        String forwardedBy = http.getHeader(FORWARDED_BY);
+        if (forwardedBy != null) {
+            routed.get("misdirected").increment();
+            log.warn("cluster misdirected uri={} query={} forwardedBy={} owner={}", http.getRequestURI(),
+                    http.getQueryString(), forwardedBy, owner.get());
+            misdirected(http, httpResponse);
+            return;
+        }
+        URI target = URI.create(owner.get() + http.getRequestURI()
+                + (http.getQueryString() == null ? "" : "?" + http.getQueryString()));
+        if (properties.routing() == PriceClusterProperties.Routing.REDIRECT) {
+            routed.get("redirected").increment();
+            httpResponse.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            httpResponse.setHeader(HttpHeaders.LOCATION, target.toString());
+            return;
+        }
+        HttpResponse<InputStream> relayed;
+        try {
+            relayed = client.send(forward(http, target), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            routed.get("fallback").increment();
+            log.warn("cluster owner unreachable, serving locally target={} reason={}", target, e.toString());
+            chain.doFilter(request, response);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("interrupted forwarding to " + target, e);
+        }
+        routed.get("forwarded").increment();
+        httpResponse.setStatus(relayed.statusCode());
+        for (String header : RELAYED_HEADERS) {
+            relayed.headers().firstValue(header).ifPresent(value -> httpResponse.setHeader(header, value));
+        }
+        try (InputStream body = relayed.body()) {
+            body.transferTo(httpResponse.getOutputStream());
+        }
+    }
+
+    private HttpRequest forward(HttpServletRequest http, URI target) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target)
+                .timeout(properties.forwardTimeout())
+                .header(FORWARDED_BY, membership.nodeId());
+        Optional.ofNullable(http.getHeader(HttpHeaders.ACCEPT)).ifPresent(value -> builder.header(HttpHeaders.ACCEPT, value));
+        Optional.ofNullable(http.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                .ifPresent(value -> builder.header(HttpHeaders.ACCEPT_ENCODING, value));
+        Optional.ofNullable(MDC.get(CorrelationIdFilter.CORRELATION_ID_KEY))
+                .ifPresent(value -> builder.header(CorrelationIdFilter.CORRELATION_ID_HEADER, value));
+        return builder.GET().build();
+    }
+
+    private static boolean routable(HttpServletRequest http) {
+        String uri = http.getRequestURI();
+        return uri.equals(PRICES) || uri.equals(PRICES + "/timeline") || uri.startsWith(PRICES + "/catalog");
+    }
+
+    /**
+     * The other node owning what the request asks for; empty when this node serves it. Unparseable parameters
+     * are left to the controller's validation.
+     */
+    Optional<URI> owner(HttpServletRequest http) {
+        String uri = http.getRequestURI();
+        try {
+            if (uri.equals(PRICES) || uri.equals(PRICES + "/timeline")) {
+                String brandId = http.getParameter("brandId");
+                String productId = http.getParameter("productId");
+                if (brandId != null && productId != null) {
+                    return membership.ownerOf(Integer.parseInt(brandId), Long.parseLong(productId));
+                }
+            } else if (uri.equals(PRICES + "/catalog") || uri.equals(PRICES + "/catalog/stream")) {
+                String brandId = http.getParameter("brandId");
+                if (brandId != null) {
+                    return membership.ownerOfBrand(Integer.parseInt(brandId));
+                }
+            }
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        return Optional.empty();
+    }
+
+    private void misdirected(HttpServletRequest http, HttpServletResponse response) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", MISDIRECTED_REQUEST);
+        body.put("error", "Misdirected Request");
+        body.put("path", http.getRequestURI());
+        body.put("messages", List.of("Node " + membership.nodeId() + " does not own the requested key; retry"));
+        response.setStatus(MISDIRECTED_REQUEST);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,87 @@
+package com.inditex.sisuprice.config;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Which node owns each partition of the brand/product keys, at a given version. Immutable; a rebalance swaps in a
+ * table with a higher version (see {@link ClusterMembership#rebalance}).
+ *
+ * @param version increasing number of the assignment
+ * @param strategy how a key maps to its partition
+ * @param partitions number of hash partitions; unused by the brand strategy
+ * @param nodes base URL of every node by id
+ * @param owners partition specification of every node by id, as configured
+ * @param ownerByPartition the node owning each assigned partition
+ */
+public record PartitionTable(long version, Strategy strategy, int partitions, Map<String, URI> nodes,
+                             Map<String, String> owners, Map<Integer, String> ownerByPartition) {
+
+    public enum Strategy { BRAND, HASH }
+
+    /**
+     * @throws IllegalArgumentException when an owner is not a node, a partition is out of range or owned twice
+     */
+    public static PartitionTable of(long version, Strategy strategy, int partitions, Map<String, String> nodes,
+                                    Map<String, String> owners) {
+        if (strategy == Strategy.HASH && partitions < 1) {
+            throw new IllegalArgumentException("partitions must be positive");
+        }
+        Map<String, URI> urls = new LinkedHashMap<>();
+        nodes.forEach((node, url) -> urls.put(node, URI.create(url.endsWith("/") ? url.substring(0, url.length() - 1) : url)));
+        Map<Integer, String> byPartition = new HashMap<>();
+        owners.forEach((node, spec) -> {
+            if (!urls.containsKey(node)) {
+                throw new IllegalArgumentException("owner " + node + " is not a node");
+            }
+            for (String part : spec.split(",")) {
+                if (part.isBlank()) {
+                    continue;
+                }
+                int dash = part.indexOf('-', 1);
+                int from = Integer.parseInt((dash < 0 ? part : part.substring(0, dash)).trim());
+                int to = dash < 0 ? from : Integer.parseInt(part.substring(dash + 1).trim());
+                if (from > to || from < 0 || strategy == Strategy.HASH && to >= partitions) {
+                    throw new IllegalArgumentException("invalid partitions " + part.trim() + " of " + node);
+                }
+                for (int partition = from; partition <= to; partition++) {
+                    String previous = byPartition.put(partition, node);
+                    if (previous != null) {
+                        throw new IllegalArgumentException("partition " + partition + " owned by " + previous
+                                + " and " + node);
+                    }
+                }
+            }
+        });
+        return new PartitionTable(version, strategy, partitions, Map.copyOf(urls), Map.copyOf(owners),
+                Map.copyOf(byPartition));
+    }
+
+    public int partitionOf(int brandId, long productId) {
+        if (strategy == Strategy.BRAND) {
+            return brandId;
+        }
+        long h = productId * 0x9E3779B97F4A7C15L + brandId;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) partitions);
+    }
+
+    /**
+     * The node owning the key, or {@code null} when its partition is unassigned.
+     */
+    public String owner(int brandId, long productId) {
+        return ownerByPartition.get(partitionOf(brandId, productId));
+    }
+
+    /**
+     * The node owning every product of the brand, or {@code null} when there is none: the partition is
+     * unassigned or the products of a brand are spread over hash partitions.
+     */
+    public String brandOwner(int brandId) {
+        return strategy == Strategy.BRAND ? ownerByPartition.get(brandId) : null;
+    }
+}
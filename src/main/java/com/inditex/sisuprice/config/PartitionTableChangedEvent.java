@@ -0,0 +1,16 @@
+package com.inditex.sisuprice.config;
+
+import java.util.Objects;
+
+/**
+ * Published after {@link ClusterMembership#rebalance} moved partitions between nodes.
+ */
+public record PartitionTableChangedEvent(PartitionTable previous, PartitionTable current) {
+
+    /**
+     * Whether the key's partition changed owner.
+     */
+    public boolean moved(int brandId, long productId) {
+        return !Objects.equals(previous.owner(brandId, productId), current.owner(brandId, productId));
+    }
+}
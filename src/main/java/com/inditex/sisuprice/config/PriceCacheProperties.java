@@ -0,0 +1,21 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@code prices} cache.
+ *
+ * @param maximumSize maximum number of brand/product entries kept
+ * @param maxTtl upper bound for the lifetime of an entry whose window does not end sooner
+ * @param earlyRefreshBeta how eagerly entries nearing {@code maxTtl} are reloaded before they expire, as a multiple
+ *                         of the mean load time; 0 turns early refresh off
+ */
+@ConfigurationProperties(prefix = "pricing.cache")
+public record PriceCacheProperties(
+        @DefaultValue("100000") long maximumSize,
+        @DefaultValue("5m") Duration maxTtl,
+        @DefaultValue("1.0") double earlyRefreshBeta
+) {}
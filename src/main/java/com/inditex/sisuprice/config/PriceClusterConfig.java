@@ -0,0 +1,12 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the settings of the partitioned cluster mode.
+ */
+@Configuration
+@EnableConfigurationProperties(PriceClusterProperties.class)
+public class PriceClusterConfig {
+}
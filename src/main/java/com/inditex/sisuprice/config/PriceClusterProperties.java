@@ -0,0 +1,36 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Partitioned cluster mode: each node owns part of the keys and routes lookups of the others to their owner.
+ *
+ * @param enabled whether lookups are routed by owner and the {@code memory} profile loads only owned rows
+ * @param nodeId id of this node among {@code nodes}
+ * @param strategy {@code brand}: partitions are brand ids; {@code hash}: a hash of brand and product in
+ *                 {@code [0, partitions)}
+ * @param partitions number of hash partitions
+ * @param nodes base URL of every node by id
+ * @param owners partitions of every node by id, as comma-separated ids and inclusive ranges ({@code 1,2,10-19});
+ *               partitions owned by no node are served by whichever node receives them
+ * @param routing {@code forward} requests to the owner and relay its response, or {@code redirect} the client
+ * @param forwardTimeout time to connect to and get response headers from the owner before serving locally
+ */
+@ConfigurationProperties(prefix = "pricing.cluster")
+public record PriceClusterProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("") String nodeId,
+        @DefaultValue("brand") PartitionTable.Strategy strategy,
+        @DefaultValue("64") int partitions,
+        @DefaultValue Map<String, String> nodes,
+        @DefaultValue Map<String, String> owners,
+        @DefaultValue("forward") Routing routing,
+        @DefaultValue("2s") Duration forwardTimeout
+) {
+
+    public enum Routing { FORWARD, REDIRECT }
+}
@@ -0,0 +1,12 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the settings of the bulk price import.
+ */
+@Configuration
+@EnableConfigurationProperties(PriceImportProperties.class)
+public class PriceImportConfig {
+}
@@ -0,0 +1,19 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the bulk price import.
+ *
+ * @param chunkSize lines read, parsed in parallel and written per step; an appending import commits once per chunk
+ * @param maxReportedErrors validation messages kept in the result, further rejected rows are only counted
+ * @param maxEventKeys brand/product pairs named in one change event; a replaced or closed price list
+ *                     touching more announces a full change
+ */
+@ConfigurationProperties(prefix = "pricing.import")
+public record PriceImportProperties(
+        @DefaultValue("5000") int chunkSize,
+        @DefaultValue("100") int maxReportedErrors,
+        @DefaultValue("10000") int maxEventKeys
+) {}
@@ -0,0 +1,36 @@
+package com.inditex.sisuprice.config;
+
+import com.inditex.sisuprice.infrastructure.invalidation.InvalidationTransport;
+import com.inditex.sisuprice.infrastructure.invalidation.LoopbackInvalidationTransport;
+import com.inditex.sisuprice.infrastructure.invalidation.PriceInvalidationBus;
+import com.inditex.sisuprice.infrastructure.invalidation.UdpInvalidationTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the invalidation bus and its transport when {@code pricing.invalidation.enabled} is true.
+ */
+@Configuration
+@EnableConfigurationProperties(PriceInvalidationProperties.class)
+@ConditionalOnProperty(prefix = "pricing.invalidation", name = "enabled", havingValue = "true")
+public class PriceInvalidationConfig {
+
+    @Bean
+    public InvalidationTransport invalidationTransport(PriceInvalidationProperties properties) {
+        return switch (properties.transport()) {
+            case UDP -> new UdpInvalidationTransport(properties.udp().port(), properties.udp().peers());
+            case LOOPBACK -> new LoopbackInvalidationTransport();
+        };
+    }
+
+    @Bean(initMethod = "start")
+    public PriceInvalidationBus priceInvalidationBus(InvalidationTransport transport,
+                                                     ApplicationEventPublisher events, MeterRegistry registry,
+                                                     PriceInvalidationProperties properties) {
+        return new PriceInvalidationBus(transport, events, registry, properties.maxKeysPerMessage());
+    }
+}
@@ -0,0 +1,34 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Cross-node cache invalidation bus.
+ *
+ * @param enabled whether changes made on this node are sent to the others and theirs applied here
+ * @param transport {@code udp} between nodes, or {@code loopback} between contexts of one JVM (tests)
+ * @param maxKeysPerMessage keys per message; larger changes are split
+ * @param udp settings of the UDP transport
+ */
+@ConfigurationProperties(prefix = "pricing.invalidation")
+public record PriceInvalidationProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("udp") Transport transport,
+        @DefaultValue("1000") int maxKeysPerMessage,
+        @DefaultValue Udp udp
+) {
+
+    public enum Transport { UDP, LOOPBACK }
+
+    /**
+     * @param port local port invalidations are received on
+     * @param peers {@code host:port} of the other nodes; a host may resolve to several addresses
+     */
+    public record Udp(
+            @DefaultValue("7400") int port,
+            @DefaultValue List<String> peers
+    ) {}
+}
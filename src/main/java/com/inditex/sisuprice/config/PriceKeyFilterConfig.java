@@ -0,0 +1,14 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Registers the settings of the brand/product membership filter and schedules its periodic rebuilds.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(PriceKeyFilterProperties.class)
+public class PriceKeyFilterConfig {
+}
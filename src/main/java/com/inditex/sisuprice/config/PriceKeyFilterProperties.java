@@ -0,0 +1,24 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bloom filter of the brand/product pairs present in PRICES.
+ *
+ * @param enabled whether lookups of pairs the filter has never seen are answered as not found right away
+ * @param expectedKeys minimum number of pairs the filter is sized for; it is sized for twice the pairs of PRICES
+ *                     when that is larger, and rebuilt once more pairs than that have been added
+ * @param falsePositiveRate target share of unknown pairs the filter lets through at its sized capacity
+ * @param rebuildInterval delay between scheduled rebuilds from PRICES, which pick up rows inserted without a
+ *                        change event; zero turns them off
+ */
+@ConfigurationProperties(prefix = "pricing.key-filter")
+public record PriceKeyFilterProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1000000") int expectedKeys,
+        @DefaultValue("0.01") double falsePositiveRate,
+        @DefaultValue("10m") Duration rebuildInterval
+) {}
@@ -0,0 +1,161 @@
+package com.inditex.sisuprice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Latency of every stage a price lookup goes through, recorded in {@value #STAGE_DURATION} with the tags
+ * {@code stage}, {@code operation} and {@code outcome} ({@code found}, {@code not_found} or {@code error}).
+ * Timers are registered once per combination and reused, so recording on the hot path creates no meters or tags;
+ * their histogram buckets are set by {@link MetricsConfig}.
+ * <p>
+ * Lookups of the {@code prices} cache are counted in {@value #CACHE_LOOKUPS} by {@code result}: a {@code hit}
+ * covers the requested date, a {@code stale} entry holds a window that does not, and a {@code miss} has no entry.
+ * Caffeine itself counts stale entries as hits in {@code cache.gets}.
+ * <p>
+ * Misses and stale entries are resolved in {@value #CACHE_LOADS} by {@code result}: {@code loaded} by a query of
+ * their own, or {@code coalesced} onto the query already running for the key. Entries reloaded before they expired
+ * are counted in {@value #CACHE_EARLY_REFRESHES}.
+ */
+@Component
+public class PriceMetrics {
+
+    public static final String STAGE_DURATION = "pricing.stage.duration";
+
+    public static final String CACHE_LOOKUPS = "pricing.cache.lookups";
+
+    public static final String CACHE_LOADS = "pricing.cache.loads";
+
+    public static final String CACHE_EARLY_REFRESHES = "pricing.cache.early_refreshes";
+
+    public enum Stage {
+        CONTROLLER, USE_CASE, REPOSITORY, DB, SERIALIZATION;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public enum Outcome {
+        FOUND, NOT_FOUND, ERROR;
+
+        public static Outcome of(boolean found) {
+            return found ? FOUND : NOT_FOUND;
+        }
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final MeterRegistry registry;
+
+    private final Map<Stage, Map<String, Timer[]>> timers = new EnumMap<>(Stage.class);
+
+    private final Counter cacheHits;
+
+    private final Counter cacheStale;
+
+    private final Counter cacheMisses;
+
+    private final Counter cacheLoaded;
+
+    private final Counter cacheCoalesced;
+
+    private final Counter cacheEarlyRefreshes;
+
+    public PriceMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, new ConcurrentHashMap<>());
+        }
+        this.cacheHits = cacheLookups("hit");
+        this.cacheStale = cacheLookups("stale");
+        this.cacheMisses = cacheLookups("miss");
+        this.cacheLoaded = cacheLoads("loaded");
+        this.cacheCoalesced = cacheLoads("coalesced");
+        this.cacheEarlyRefreshes = Counter.builder(CACHE_EARLY_REFRESHES)
+                .description("Entries of the prices cache reloaded before they expired")
+                .register(registry);
+    }
+
+    /**
+     * Runs {@code call} and records its duration; the outcome is {@code found} when {@code found} accepts
+     * the result and {@code error} when the call throws.
+     */
+    public <T> T time(Stage stage, String operation, Supplier<T> call, Predicate<? super T> found) {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            T result = call.get();
+            outcome = Outcome.of(found.test(result));
+            return result;
+        } finally {
+            record(stage, operation, outcome, System.nanoTime() - start);
+        }
+    }
+
+    public void record(Stage stage, String operation, Outcome outcome, long nanos) {
+        timer(stage, operation, outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Timer timer(Stage stage, String operation, Outcome outcome) {
+        return timers.get(stage).computeIfAbsent(operation, op -> register(stage, op))[outcome.ordinal()];
+    }
+
+    /**
+     * @param present whether the cache held an entry for the key
+     * @param covers whether that entry answers the requested date
+     */
+    public void cacheLookup(boolean present, boolean covers) {
+        (covers ? cacheHits : present ? cacheStale : cacheMisses).increment();
+    }
+
+    /**
+     * @param coalesced whether the lookup waited for the query of another one instead of running its own
+     */
+    public void cacheLoad(boolean coalesced) {
+        (coalesced ? cacheCoalesced : cacheLoaded).increment();
+    }
+
+    public void cacheEarlyRefresh() {
+        cacheEarlyRefreshes.increment();
+    }
+
+    private Timer[] register(Stage stage, String operation) {
+        Timer[] byOutcome = new Timer[Outcome.values().length];
+        for (Outcome outcome : Outcome.values()) {
+            byOutcome[outcome.ordinal()] = Timer.builder(STAGE_DURATION)
+                    .description("Time spent in one stage of a price lookup")
+                    .tag("stage", stage.tag())
+                    .tag("operation", operation)
+                    .tag("outcome", outcome.tag())
+                    .register(registry);
+        }
+        return byOutcome;
+    }
+
+    private Counter cacheLookups(String result) {
+        return Counter.builder(CACHE_LOOKUPS)
+                .description("Lookups of the prices cache by whether the cached window covered the date")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Counter cacheLoads(String result) {
+        return Counter.builder(CACHE_LOADS)
+                .description("Cache misses of the prices cache by whether they shared a query already running")
+                .tag("result", result)
+                .register(registry);
+    }
+}
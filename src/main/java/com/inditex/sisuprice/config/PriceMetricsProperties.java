@@ -0,0 +1,22 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Histogram settings of the latency timers.
+ *
+ * @param slo bucket boundaries published for every timer named in {@code timers}
+ * @param timers timers that share those buckets, so stage, HTTP and connection pool latencies line up bucket by bucket
+ */
+@ConfigurationProperties(prefix = "pricing.metrics")
+public record PriceMetricsProperties(
+        @DefaultValue({"25us", "50us", "100us", "250us", "500us", "1ms", "2500us", "5ms", "10ms", "25ms", "50ms",
+                "100ms", "250ms", "500ms", "1s"}) List<Duration> slo,
+        @DefaultValue({PriceMetrics.STAGE_DURATION, "http.server.requests", "hikaricp.connections.acquire",
+                "hikaricp.connections.usage"}) Set<String> timers
+) {}
@@ -0,0 +1,16 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on scheduled polling of the PRICES change log when {@code pricing.refresh.enabled} is true.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(PriceRefreshProperties.class)
+@ConditionalOnProperty(prefix = "pricing.refresh", name = "enabled", havingValue = "true")
+public class PriceRefreshConfig {
+}
@@ -0,0 +1,26 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Incremental refresh of in-memory price data from the PRICES change log.
+ *
+ * @param enabled whether changed rows are polled and applied
+ * @param interval delay between the end of one poll and the start of the next
+ * @param batchSize maximum number of brand/product pairs applied per poll
+ * @param lookback how long a change stays rechecked below the watermark; writes whose transaction runs longer
+ *                 than this can commit unseen
+ * @param deletionRetention how long PRICE_DELETIONS tombstones are kept; a snapshot file older than this misses
+ *                          the deletions made since it was written
+ */
+@ConfigurationProperties(prefix = "pricing.refresh")
+public record PriceRefreshProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("200ms") Duration interval,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("2s") Duration lookback,
+        @DefaultValue("24h") Duration deletionRetention
+) {}
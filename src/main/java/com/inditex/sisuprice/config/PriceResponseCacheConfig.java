@@ -0,0 +1,12 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the settings of the serialized price response cache.
+ */
+@Configuration
+@EnableConfigurationProperties(PriceResponseCacheProperties.class)
+public class PriceResponseCacheConfig {
+}
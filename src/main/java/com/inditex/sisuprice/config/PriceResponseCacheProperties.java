@@ -0,0 +1,18 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Cache of serialized {@code GET /api/v1/prices} bodies.
+ *
+ * @param enabled whether found prices are answered from cached bytes instead of being mapped and serialized
+ * @param maximumSize maximum number of distinct price records kept
+ * @param gzip whether a gzipped copy is kept and sent to clients accepting gzip
+ */
+@ConfigurationProperties(prefix = "pricing.response-cache")
+public record PriceResponseCacheProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100000") long maximumSize,
+        @DefaultValue("false") boolean gzip
+) {}
@@ -0,0 +1,201 @@
+package com.inditex.sisuprice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.inditex.sisuprice.application.PriceQueryUseCaseImpl;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.repository.PriceRepository;
+import com.inditex.sisuprice.domain.usecase.PriceQueryUseCase;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Warms the {@code prices} cache and the JIT before the service takes traffic ({@code pricing.warmup.enabled}).
+ * <p>
+ * On shutdown the hottest keys of the cache, by Caffeine's frequency estimate, are written to
+ * {@code pricing.warmup.hot-keys-file}. After the next startup a background thread replays lookups of those keys
+ * through {@link PriceQueryUseCase} in rounds of {@code lookups-per-round}, until the mean lookup time of
+ * {@code stable-rounds} consecutive rounds stays within {@code tolerance} of the round before, or the
+ * {@code budget} runs out. {@link WarmupHealthIndicator} keeps the readiness group down until then.
+ */
+@Component
+@Slf4j
+public class PriceWarmup {
+
+    public enum State { PENDING, RUNNING, DONE }
+
+    private final PriceWarmupProperties properties;
+
+    private final PriceQueryUseCase useCase;
+
+    private final PriceRepository repository;
+
+    private final CacheManager cacheManager;
+
+    private final Path hotKeysFile;
+
+    private volatile State state;
+
+    private volatile int keys;
+
+    private volatile int rounds;
+
+    public PriceWarmup(PriceWarmupProperties properties, PriceQueryUseCase useCase, PriceRepository repository,
+                       CacheManager cacheManager) {
+        this.properties = properties;
+        this.useCase = useCase;
+        this.repository = repository;
+        this.cacheManager = cacheManager;
+        this.hotKeysFile = properties.hotKeysFile().isBlank() ? null : Path.of(properties.hotKeysFile());
+        this.state = properties.enabled() ? State.PENDING : State.DONE;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public int keys() {
+        return keys;
+    }
+
+    public int rounds() {
+        return rounds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (state == State.PENDING) {
+            Thread.ofPlatform().name("price-warmup").daemon().start(this::run);
+        }
+    }
+
+    /**
+     * Replays lookups until latency settles or the budget is spent; always ends in {@link State#DONE}.
+     */
+    void run() {
+        state = State.RUNNING;
+        long start = System.nanoTime();
+        try {
+            List<PriceKey> hot = hotKeys();
+            keys = hot.size();
+            boolean settled = hot.isEmpty() || replay(hot, start + properties.budget().toNanos());
+            if (settled) {
+                log.info("warmup done keys={} rounds={} tookMs={}", keys, rounds, millis(start));
+            } else {
+                log.warn("warmup budget spent keys={} rounds={} budget={}", keys, rounds, properties.budget());
+            }
+        } catch (RuntimeException e) {
+            log.warn("warmup failed keys={} rounds={} reason={}", keys, rounds, e.toString());
+        } finally {
+            state = State.DONE;
+        }
+    }
+
+    private boolean replay(List<PriceKey> hot, long deadline) {
+        double previous = Double.NaN;
+        int stable = 0;
+        int next = 0;
+        while (System.nanoTime() < deadline) {
+            LocalDateTime now = LocalDateTime.now();
+            long roundStart = System.nanoTime();
+            for (int i = 0; i < properties.lookupsPerRound(); i++) {
+                PriceKey key = hot.get(next++ % hot.size());
+                useCase.query(key.brandId(), key.productId(), now);
+            }
+            double mean = (double) (System.nanoTime() - roundStart) / properties.lookupsPerRound();
+            rounds++;
+            stable = Math.abs(mean - previous) <= previous * properties.tolerance() ? stable + 1 : 0;
+            log.debug("warmup round={} meanNs={} stable={}", rounds, (long) mean, stable);
+            if (stable >= properties.stableRounds()) {
+                return true;
+            }
+            previous = mean;
+        }
+        return false;
+    }
+
+    /**
+     * Keys persisted by the previous run, or else the first keys of PRICES.
+     */
+    List<PriceKey> hotKeys() {
+        if (hotKeysFile != null && Files.exists(hotKeysFile)) {
+            try (Stream<String> lines = Files.lines(hotKeysFile)) {
+                return lines.filter(line -> !line.isBlank())
+                        .limit(properties.maxKeys())
+                        .map(PriceWarmup::parse)
+                        .toList();
+            } catch (IOException | RuntimeException e) {
+                log.warn("warmup hot keys unreadable, using PRICES file={} reason={}", hotKeysFile, e.toString());
+            }
+        }
+        try (Stream<PriceRecord> rows = repository.streamAll()) {
+            return rows.map(PriceKey::of).distinct().limit(properties.maxKeys()).toList();
+        }
+    }
+
+    /**
+     * Writes the hottest cached keys, most frequently used first, to a sibling temporary file that is then moved
+     * over the target.
+     */
+    @PreDestroy
+    public void persist() {
+        if (!properties.enabled() || hotKeysFile == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        for (Object key : hottest()) {
+            if (key instanceof PriceKey k) {
+                lines.add(k.brandId() + "," + k.productId());
+            }
+        }
+        try {
+            Path parent = hotKeysFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, hotKeysFile.getFileName().toString(), ".tmp");
+            Files.write(tmp, lines);
+            Files.move(tmp, hotKeysFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("warmup hot keys written file={} keys={}", hotKeysFile, lines.size());
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("warmup hot keys not written file={} reason={}", hotKeysFile, e.toString());
+        }
+    }
+
+    /**
+     * The {@code prices} cache is size-bounded, so Caffeine always tracks the frequencies behind this ranking.
+     */
+    private Set<?> hottest() {
+        org.springframework.cache.Cache cache = cacheManager.getCache(PriceQueryUseCaseImpl.PRICES_CACHE);
+        if (cache == null || !(cache.getNativeCache() instanceof Cache<?, ?> caffeine)) {
+            return Set.of();
+        }
+        return caffeine.policy().eviction()
+                .<Set<?>>map(eviction -> eviction.hottest(properties.maxKeys()).keySet())
+                .orElse(Set.of());
+    }
+
+    private static PriceKey parse(String line) {
+        int comma = line.indexOf(',');
+        return new PriceKey(Integer.parseInt(line.substring(0, comma).trim()),
+                Long.parseLong(line.substring(comma + 1).trim()));
+    }
+
+    private static long millis(long start) {
+        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+    }
+}
@@ -0,0 +1,29 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Startup warm-up of the {@code prices} cache and of the lookup code path.
+ *
+ * @param enabled whether lookups are replayed after startup and readiness waits for them
+ * @param hotKeysFile where the hottest brand/product pairs are written on shutdown and read on startup;
+ *                    blank keeps no file and warms the first {@code maxKeys} pairs of PRICES instead
+ * @param maxKeys maximum number of pairs persisted and replayed
+ * @param budget time after which the service reports ready even if latency has not settled
+ * @param lookupsPerRound lookups per measured round, cycling through the keys
+ * @param tolerance relative change of the mean lookup time between rounds still considered stable
+ * @param stableRounds consecutive stable rounds that end the warm-up
+ */
+@ConfigurationProperties(prefix = "pricing.warmup")
+public record PriceWarmupProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("") String hotKeysFile,
+        @DefaultValue("10000") int maxKeys,
+        @DefaultValue("60s") Duration budget,
+        @DefaultValue("20000") int lookupsPerRound,
+        @DefaultValue("0.1") double tolerance,
+        @DefaultValue("3") int stableRounds
+) {}
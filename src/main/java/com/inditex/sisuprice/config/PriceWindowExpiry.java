@@ -0,0 +1,46 @@
+package com.inditex.sisuprice.config;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.inditex.sisuprice.domain.PriceWindow;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Expires a cached {@link PriceWindow} exactly when its window ends on the wall clock, so an entry serving
+ * "now" lookups never outlives the price it holds. Windows that already ended, used by lookups of past dates,
+ * and windows ending beyond the configured bound live for {@code maxTtl}.
+ */
+class PriceWindowExpiry implements Expiry<Object, Object> {
+
+    private final Duration maxTtl;
+
+    private final Clock clock;
+
+    PriceWindowExpiry(Duration maxTtl, Clock clock) {
+        this.maxTtl = maxTtl;
+        this.clock = clock;
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        if (value instanceof PriceWindow window) {
+            LocalDateTime now = LocalDateTime.now(clock);
+            if (window.to().isAfter(now) && window.to().isBefore(now.plus(maxTtl))) {
+                return Duration.between(now, window.to()).toNanos();
+            }
+        }
+        return maxTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
@@ -0,0 +1,147 @@
+package com.inditex.sisuprice.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes one log line per completed request in place of per-request INFO logs in the controllers.
+ * Successes are sampled per endpoint, 1 in {@link RequestLogProperties#sampleRate(String)}; responses with a 4xx
+ * or 5xx status and requests that fail with an exception are always logged. Runs inside
+ * {@link CorrelationIdFilter}, so every line carries the request's correlation id. Streaming requests are logged
+ * when their response completes.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+public class RequestLogFilter implements Filter {
+
+    static final String UNMAPPED = "unmapped";
+
+    private final RequestLogProperties properties;
+
+    private final Map<String, AtomicLong> successes = new ConcurrentHashMap<>();
+
+    public RequestLogFilter(RequestLogProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!properties.enabled() || !(request instanceof HttpServletRequest http)
+                || !(response instanceof HttpServletResponse httpResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            log.warn("request endpoint={} method={} uri={} query={} status=500 tookUs={} error={}", endpoint(http),
+                    http.getMethod(), http.getRequestURI(), http.getQueryString(), micros(start), e.toString());
+            throw e;
+        }
+        if (http.isAsyncStarted()) {
+            String correlationId = MDC.get(CorrelationIdFilter.CORRELATION_ID_KEY);
+            http.getAsyncContext().addListener(new Completion(http, httpResponse, start, correlationId));
+        } else {
+            completed(http, httpResponse.getStatus(), start);
+        }
+    }
+
+    private void completed(HttpServletRequest request, int status, long start) {
+        String endpoint = endpoint(request);
+        if (status >= 500) {
+            log.warn("request endpoint={} method={} uri={} query={} status={} tookUs={}", endpoint,
+                    request.getMethod(), request.getRequestURI(), request.getQueryString(), status, micros(start));
+        } else if (status >= 400 || sampled(endpoint)) {
+            log.info("request endpoint={} method={} uri={} query={} status={} tookUs={}", endpoint,
+                    request.getMethod(), request.getRequestURI(), request.getQueryString(), status, micros(start));
+        }
+    }
+
+    private boolean sampled(String endpoint) {
+        int rate = properties.sampleRate(endpoint);
+        return rate == 1 || successes.computeIfAbsent(endpoint, e -> new AtomicLong()).getAndIncrement() % rate == 0;
+    }
+
+    /**
+     * Name of the handler method, which is also the {@code operation} of its controller timer.
+     */
+    private static String endpoint(HttpServletRequest request) {
+        return request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler
+                ? handler.getMethod().getName()
+                : UNMAPPED;
+    }
+
+    private static long micros(long start) {
+        return (System.nanoTime() - start) / 1_000;
+    }
+
+    private final class Completion implements AsyncListener {
+
+        private final HttpServletRequest request;
+
+        private final HttpServletResponse response;
+
+        private final long start;
+
+        private final String correlationId;
+
+        private Completion(HttpServletRequest request, HttpServletResponse response, long start,
+                           String correlationId) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+            this.correlationId = correlationId;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            String previous = MDC.get(CorrelationIdFilter.CORRELATION_ID_KEY);
+            MDC.put(CorrelationIdFilter.CORRELATION_ID_KEY, correlationId);
+            try {
+                completed(request, response.getStatus(), start);
+            } finally {
+                if (previous == null) {
+                    MDC.remove(CorrelationIdFilter.CORRELATION_ID_KEY);
+                } else {
+                    MDC.put(CorrelationIdFilter.CORRELATION_ID_KEY, previous);
+                }
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
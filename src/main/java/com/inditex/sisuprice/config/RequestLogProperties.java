@@ -0,0 +1,29 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Sampling of the one-line request log written by {@link RequestLogFilter}.
+ *
+ * @param enabled whether requests are logged at all
+ * @param sampleRate log 1 in this many successful requests of an endpoint without its own rate; 1 logs all of them
+ * @param sampleRates rates by endpoint, the name of the handler method, e.g. {@code getPrice}
+ */
+@ConfigurationProperties(prefix = "pricing.logging.requests")
+public record RequestLogProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1") int sampleRate,
+        Map<String, Integer> sampleRates
+) {
+
+    public RequestLogProperties {
+        sampleRates = sampleRates == null ? Map.of() : Map.copyOf(sampleRates);
+    }
+
+    public int sampleRate(String endpoint) {
+        return Math.max(1, sampleRates.getOrDefault(endpoint, sampleRate));
+    }
+}
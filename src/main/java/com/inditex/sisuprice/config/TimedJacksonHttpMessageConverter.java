@@ -0,0 +1,52 @@
+package com.inditex.sisuprice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter that records the time spent writing each response body as the {@code serialization} stage
+ * of {@link PriceMetrics}, with the body type as operation. The time includes response compression when enabled.
+ * The outcome follows the response status: {@code found} for 2xx/3xx, {@code not_found} for 404 and
+ * {@code error} for any other error status, so error bodies written by the exception handlers are told apart.
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final PriceMetrics metrics;
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, PriceMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        PriceMetrics.Outcome outcome = PriceMetrics.Outcome.ERROR;
+        try {
+            super.writeInternal(object, type, outputMessage);
+            outcome = outcome(outputMessage);
+        } finally {
+            metrics.record(PriceMetrics.Stage.SERIALIZATION, object.getClass().getSimpleName(), outcome,
+                    System.nanoTime() - start);
+        }
+    }
+
+    private static PriceMetrics.Outcome outcome(HttpOutputMessage outputMessage) {
+        if (!(outputMessage instanceof ServletServerHttpResponse response)) {
+            return PriceMetrics.Outcome.FOUND;
+        }
+        int status = response.getServletResponse().getStatus();
+        if (status == HttpStatus.NOT_FOUND.value()) {
+            return PriceMetrics.Outcome.NOT_FOUND;
+        }
+        return status >= 400 ? PriceMetrics.Outcome.ERROR : PriceMetrics.Outcome.FOUND;
+    }
+}
@@ -0,0 +1,98 @@
+package com.inditex.sisuprice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reports virtual threads pinned to their carrier, for example while blocking inside a {@code synchronized}
+ * block of a cache or JDBC driver. Listens to the JFR {@code jdk.VirtualThreadPinned} event, counts every
+ * occurrence in {@code pricing.virtual.pinned} and logs the innermost application frame that held the carrier.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Duration threshold;
+
+    private final Counter pinned;
+
+    private final Timer pinnedDuration;
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry,
+                                       @Value("${pricing.virtual.pinning-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinned = Counter.builder("pricing.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(registry);
+        this.pinnedDuration = Timer.builder("pricing.virtual.pinned.duration")
+                .description("Time virtual threads stayed pinned while blocked")
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("virtual thread pinning monitor started threshold={}", threshold);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    long pinnedCount() {
+        return (long) pinned.count();
+    }
+
+    private void report(RecordedEvent event) {
+        pinned.increment();
+        pinnedDuration.record(event.getDuration());
+        log.warn("virtual thread pinned durationMs={} thread={} frame={}", event.getDuration().toMillis(),
+                event.getThread() == null ? "" : event.getThread().getJavaName(), culprit(event));
+    }
+
+    /**
+     * First frame outside the JDK, which is usually the code that blocked while holding a monitor.
+     */
+    private static String culprit(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+                .filter(f -> !f.startsWith("java.") && !f.startsWith("jdk.") && !f.startsWith("sun."))
+                .findFirst()
+                .orElse(frames.isEmpty() ? "" : frames.get(0).getMethod().getName());
+    }
+}
@@ -0,0 +1,29 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code warmup} health: {@code OUT_OF_SERVICE} while {@link PriceWarmup} runs, {@code UP} once it is done or when
+ * it is disabled. Part of the readiness group, so a new instance receives no traffic before its cache is warm.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final PriceWarmup warmup;
+
+    public WarmupHealthIndicator(PriceWarmup warmup) {
+        this.warmup = warmup;
+    }
+
+    @Override
+    public Health health() {
+        PriceWarmup.State state = warmup.state();
+        return (state == PriceWarmup.State.DONE ? Health.up() : Health.outOfService())
+                .withDetail("state", state)
+                .withDetail("keys", warmup.keys())
+                .withDetail("rounds", warmup.rounds())
+                .build();
+    }
+}
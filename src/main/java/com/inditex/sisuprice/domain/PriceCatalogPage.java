@@ -0,0 +1,17 @@
+package com.inditex.sisuprice.domain;
+
+import java.util.List;
+
+/**
+ * One page of the prices of a brand at a date, ordered by product.
+ * {@code nextAfterProductId} is the cursor of the following page, or {@code null} on the last page.
+ */
+public record PriceCatalogPage(
+        List<PriceRecord> prices,
+        Long nextAfterProductId
+) {
+
+    public boolean hasMore() {
+        return nextAfterProductId != null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.inditex.sisuprice.domain;
+
+/**
+ * Formats of the bulk price import and export.
+ * <ul>
+ *     <li>{@code CSV}: a header line naming the PRICES columns (BRAND_ID, START_DATE, END_DATE, PRICE_LIST,
+ *     PRODUCT_ID, PRIORITY, PRICE, CURR) in any order, then one unquoted row per line.</li>
+ *     <li>{@code NDJSON}: one JSON object per line with the fields of {@link PriceRecord}.</li>
+ * </ul>
+ * Dates are ISO local date-times; on import a space may replace the {@code T}.
+ */
+public enum PriceFileFormat {
+    CSV, NDJSON
+}
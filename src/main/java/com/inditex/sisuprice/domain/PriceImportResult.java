@@ -0,0 +1,28 @@
+package com.inditex.sisuprice.domain;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a bulk price import.
+ *
+ * @param rowsRead data lines read from the input
+ * @param rowsImported rows written to PRICES
+ * @param rowsRejected rows skipped because they failed validation
+ * @param rowsDeleted rows of the replaced price list that were deleted, 0 when appending
+ * @param errors validation messages of the first rejected rows, prefixed with their line number
+ * @param took time from the first byte read to the last commit
+ */
+public record PriceImportResult(
+        long rowsRead,
+        long rowsImported,
+        long rowsRejected,
+        int rowsDeleted,
+        List<String> errors,
+        Duration took
+) {
+
+    public double rowsPerSecond() {
+        return took.isZero() ? rowsImported : rowsImported * 1_000_000_000.0 / took.toNanos();
+    }
+}
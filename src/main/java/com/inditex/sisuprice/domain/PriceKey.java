@@ -0,0 +1,21 @@
+package com.inditex.sisuprice.domain;
+
+import java.util.Comparator;
+
+/**
+ * Identity of a price timeline: every PRICES row of a brand/product pair belongs to the same key.
+ */
+public record PriceKey(int brandId, long productId) implements Comparable<PriceKey> {
+
+    private static final Comparator<PriceKey> ORDER = Comparator.comparingInt(PriceKey::brandId)
+            .thenComparingLong(PriceKey::productId);
+
+    public static PriceKey of(PriceRecord priceRecord) {
+        return new PriceKey(priceRecord.brandId(), priceRecord.productId());
+    }
+
+    @Override
+    public int compareTo(PriceKey other) {
+        return ORDER.compare(this, other);
+    }
+}
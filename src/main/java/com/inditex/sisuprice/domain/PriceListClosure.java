@@ -0,0 +1,20 @@
+package com.inditex.sisuprice.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of closing out a price list at a date.
+ *
+ * @param priceList the closed price list
+ * @param at the date from which none of its rows apply any more
+ * @param rowsEnded rows still valid at {@code at} whose end date was moved back to it
+ * @param rowsDeleted rows that would only have started at or after {@code at}
+ * @param keysAffected brand/product pairs whose prices changed
+ */
+public record PriceListClosure(
+        int priceList,
+        LocalDateTime at,
+        int rowsEnded,
+        int rowsDeleted,
+        int keysAffected
+) {}
@@ -0,0 +1,17 @@
+package com.inditex.sisuprice.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single price lookup: the brand/product and the date at which the price must apply.
+ */
+public record PriceQuery(
+        int brandId,
+        long productId,
+        LocalDateTime applicationDate
+) {
+
+    public PriceKey key() {
+        return new PriceKey(brandId, productId);
+    }
+}
@@ -2,6 +2,7 @@ package com.inditex.sisuprice.domain;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 
 /**
  * Domain model representing a row in PRICES table.
@@ -15,4 +16,20 @@ public record PriceRecord(
         int priority,
         BigDecimal price,
         String curr
-) {}
\ No newline at end of file
+) {
+
+    /**
+     * Order in which overlapping records win: the greatest record is the applicable one.
+     * Higher priority wins; ties go to the most recent start date and then to the highest price list.
+     */
+    public static final Comparator<PriceRecord> PRECEDENCE = Comparator.comparingInt(PriceRecord::priority)
+            .thenComparing(PriceRecord::startDate)
+            .thenComparingInt(PriceRecord::priceList);
+
+    /**
+     * Whether this record applies at the given date, using the [startDate, endDate) rule.
+     */
+    public boolean appliesAt(LocalDateTime date) {
+        return !startDate.isAfter(date) && endDate.isAfter(date);
+    }
+}
@@ -0,0 +1,9 @@
+package com.inditex.sisuprice.domain;
+
+/**
+ * A PRICES row together with its id, which is how single rows are addressed by the write API.
+ */
+public record PriceRow(
+        long id,
+        PriceRecord record
+) {}
@@ -0,0 +1,17 @@
+package com.inditex.sisuprice.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Period [from, to) of a brand/product timeline during which a single price record is the applicable one.
+ */
+public record PriceSegment(
+        LocalDateTime from,
+        LocalDateTime to,
+        PriceRecord price
+) {
+
+    public boolean covers(LocalDateTime date) {
+        return !from.isAfter(date) && to.isAfter(date);
+    }
+}
@@ -0,0 +1,122 @@
+package com.inditex.sisuprice.domain;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Timeline computations over the overlapping price records of a brand/product,
+ * applying {@link PriceRecord#PRECEDENCE} wherever records overlap.
+ */
+public final class PriceSegments {
+
+    private PriceSegments() {}
+
+    /**
+     * Sweeps the records once in start-date order, keeping the covering records in a heap ordered by precedence.
+     * Adjacent periods won by the same record are merged, and periods covered by no record are omitted.
+     *
+     * @param records the records of a single brand/product, in any order
+     * @return the winning segments ordered by start
+     */
+    public static List<PriceSegment> flatten(Collection<PriceRecord> records) {
+        return flatten(records, LocalDateTime.MIN, LocalDateTime.MAX);
+    }
+
+    /**
+     * Same sweep as {@link #flatten(Collection)}, with every segment clipped to the period [from, to).
+     * Records reaching outside the period take part in the sweep, so the winners inside it are the same.
+     *
+     * @param records the records of a single brand/product, in any order
+     * @param from start of the period, inclusive
+     * @param to end of the period, exclusive
+     * @return the winning segments inside the period ordered by start
+     */
+    public static List<PriceSegment> flatten(Collection<PriceRecord> records, LocalDateTime from, LocalDateTime to) {
+        List<PriceRecord> byStart = new ArrayList<>(records);
+        byStart.sort(Comparator.comparing(PriceRecord::startDate));
+
+        TreeSet<LocalDateTime> boundaries = new TreeSet<>();
+        for (PriceRecord priceRecord : byStart) {
+            boundaries.add(priceRecord.startDate());
+            boundaries.add(priceRecord.endDate());
+        }
+
+        PriorityQueue<PriceRecord> covering = new PriorityQueue<>(PriceRecord.PRECEDENCE.reversed());
+        List<PriceSegment> segments = new ArrayList<>();
+        int next = 0;
+        LocalDateTime start = null;
+        for (LocalDateTime end : boundaries) {
+            if (start != null) {
+                PriceRecord winner = covering.peek();
+                LocalDateTime clippedStart = start.isBefore(from) ? from : start;
+                LocalDateTime clippedEnd = end.isAfter(to) ? to : end;
+                if (winner != null && clippedStart.isBefore(clippedEnd)) {
+                    append(segments, new PriceSegment(clippedStart, clippedEnd, winner));
+                }
+            }
+            if (!end.isBefore(to)) {
+                break;
+            }
+            while (next < byStart.size() && !byStart.get(next).startDate().isAfter(end)) {
+                PriceRecord priceRecord = byStart.get(next++);
+                if (priceRecord.endDate().isAfter(priceRecord.startDate())) {
+                    covering.add(priceRecord);
+                }
+            }
+            while (!covering.isEmpty() && !covering.peek().endDate().isAfter(end)) {
+                covering.poll();
+            }
+            start = end;
+        }
+        return segments;
+    }
+
+    /**
+     * Resolves the record applicable at the date and the largest window around it in which it stays applicable.
+     * Only records that outrank the winner, or every record when nothing applies, can bound the window.
+     *
+     * @param records the records of a single brand/product, in any order
+     * @param date the application date
+     * @return the window containing the date
+     */
+    public static PriceWindow windowAt(Collection<PriceRecord> records, LocalDateTime date) {
+        PriceRecord winner = null;
+        for (PriceRecord priceRecord : records) {
+            if (priceRecord.appliesAt(date)
+                    && (winner == null || PriceRecord.PRECEDENCE.compare(priceRecord, winner) > 0)) {
+                winner = priceRecord;
+            }
+        }
+        LocalDateTime from = winner == null ? LocalDateTime.MIN : winner.startDate();
+        LocalDateTime to = winner == null ? LocalDateTime.MAX : winner.endDate();
+        for (PriceRecord priceRecord : records) {
+            if (!priceRecord.endDate().isAfter(priceRecord.startDate())
+                    || (winner != null && PriceRecord.PRECEDENCE.compare(priceRecord, winner) <= 0)) {
+                continue;
+            }
+            if (!priceRecord.endDate().isAfter(date) && priceRecord.endDate().isAfter(from)) {
+                from = priceRecord.endDate();
+            } else if (priceRecord.startDate().isAfter(date) && priceRecord.startDate().isBefore(to)) {
+                to = priceRecord.startDate();
+            }
+        }
+        return new PriceWindow(from, to, winner);
+    }
+
+    private static void append(List<PriceSegment> segments, PriceSegment segment) {
+        int last = segments.size() - 1;
+        if (last >= 0) {
+            PriceSegment previous = segments.get(last);
+            if (previous.price().equals(segment.price()) && previous.to().equals(segment.from())) {
+                segments.set(last, new PriceSegment(previous.from(), segment.to(), segment.price()));
+                return;
+            }
+        }
+        segments.add(segment);
+    }
+}
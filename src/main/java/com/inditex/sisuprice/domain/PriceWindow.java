@@ -0,0 +1,34 @@
+package com.inditex.sisuprice.domain;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Period [from, to) of a brand/product timeline during which the lookup result does not change.
+ * The price is {@code null} when no record applies during the whole period; open ends use
+ * {@link LocalDateTime#MIN} and {@link LocalDateTime#MAX}.
+ */
+public record PriceWindow(
+        LocalDateTime from,
+        LocalDateTime to,
+        PriceRecord price
+) {
+
+    /**
+     * Window of a brand/product without any price record.
+     */
+    public static PriceWindow empty() {
+        return new PriceWindow(LocalDateTime.MIN, LocalDateTime.MAX, null);
+    }
+
+    public boolean covers(LocalDateTime date) {
+        return !from.isAfter(date) && to.isAfter(date);
+    }
+
+    /**
+     * The record applicable at every date covered by this window, if any.
+     */
+    public Optional<PriceRecord> applicable() {
+        return Optional.ofNullable(price);
+    }
+}
@@ -0,0 +1,55 @@
+package com.inditex.sisuprice.domain.event;
+
+import com.inditex.sisuprice.domain.PriceKey;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published when PRICES rows change, so that structures derived from them can be refreshed.
+ *
+ * @param keys the brand/product pairs whose rows changed
+ * @param full whether any row may have changed, in which case {@code keys} is empty
+ * @param origin where this node learnt about the change
+ */
+public record PricesChangedEvent(Set<PriceKey> keys, boolean full, Origin origin) {
+
+    /**
+     * How a change reached this node; only {@link #WRITE}s are spread to other nodes.
+     */
+    public enum Origin {
+        /**
+         * Written by this node.
+         */
+        WRITE,
+        /**
+         * Found by polling the PRICES change log, which every node polls on its own.
+         */
+        FEED,
+        /**
+         * Made by another node and received over the invalidation bus; shared tables such as PRICE_SEGMENTS were
+         * already refreshed by that node.
+         */
+        REMOTE
+    }
+
+    public static PricesChangedEvent of(Collection<PriceKey> keys) {
+        return new PricesChangedEvent(Set.copyOf(keys), false, Origin.WRITE);
+    }
+
+    public static PricesChangedEvent everything() {
+        return new PricesChangedEvent(Set.of(), true, Origin.WRITE);
+    }
+
+    public static PricesChangedEvent polled(Collection<PriceKey> keys) {
+        return new PricesChangedEvent(Set.copyOf(keys), false, Origin.FEED);
+    }
+
+    public static PricesChangedEvent received(Set<PriceKey> keys, boolean full) {
+        return new PricesChangedEvent(keys, full, Origin.REMOTE);
+    }
+
+    public boolean remote() {
+        return origin == Origin.REMOTE;
+    }
+}
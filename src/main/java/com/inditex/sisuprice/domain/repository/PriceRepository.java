@@ -1,24 +1,73 @@
 package com.inditex.sisuprice.domain.repository;
 
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceQuery;
 import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceWindow;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Port for querying prices.
  */
 public interface PriceRepository {
 
+    /**
+     * Order of {@link #streamAll()}.
+     */
+    Comparator<PriceRecord> STREAM_ORDER = Comparator.comparing(PriceKey::of).thenComparing(PriceRecord::startDate);
+
     /**
      * Find all price records.
      */
     List<PriceRecord> findAll();
 
+    /**
+     * Streams every price record ordered by brand, product and start date, without holding them all in memory
+     * when the adapter can avoid it. The stream may hold a database cursor: callers must close it.
+     */
+    default Stream<PriceRecord> streamAll() {
+        return findAll().stream().sorted(STREAM_ORDER);
+    }
+
     /**
      * Find the applicable price for the given criteria.
      * Implementation should apply business rules (date range, priority).
      */
     Optional<PriceRecord> findApplicable(int brandId, long productId, LocalDateTime applicationDate);
+
+    /**
+     * Find the applicable price for the given criteria together with the window around the application date
+     * during which the result stays the same, so callers can reuse it for any date inside that window.
+     */
+    PriceWindow findWindow(int brandId, long productId, LocalDateTime applicationDate);
+
+    /**
+     * Find the applicable price of every product of a brand at a date, in product order, starting after
+     * {@code afterProductId} and up to {@code toProductId} inclusive. Products without an applicable price are
+     * skipped, and at most {@code limit} records are returned, so the last product id is the next page cursor.
+     */
+    List<PriceRecord> findApplicableForBrand(int brandId, LocalDateTime date, long afterProductId, long toProductId,
+                                             int limit);
+
+    /**
+     * Find the records of a brand/product whose validity overlaps the period [from, to), in any order.
+     * These are the only candidates that can win at a date inside the period.
+     */
+    List<PriceRecord> findOverlapping(int brandId, long productId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Find the windows of many lookups at once, in the order of the given queries.
+     * Implementations backed by a remote store should group the queries by brand/product and
+     * resolve them with set-based reads; the default performs one {@link #findWindow} per query.
+     */
+    default List<PriceWindow> findWindows(List<PriceQuery> queries) {
+        return queries.stream()
+                .map(q -> findWindow(q.brandId(), q.productId(), q.applicationDate()))
+                .toList();
+    }
 }
@@ -0,0 +1,88 @@
+package com.inditex.sisuprice.domain.repository;
+
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Port for writing prices, in bulk or row by row. Callers own the transaction boundaries.
+ */
+public interface PriceWriteRepository {
+
+    /**
+     * Inserts the records and returns how many rows were written.
+     */
+    int insertAll(List<PriceRecord> records);
+
+    /**
+     * Up to {@code limit} brand/product pairs that have at least one row in the given price list.
+     */
+    Set<PriceKey> findKeysOfPriceList(int priceList, int limit);
+
+    /**
+     * Deletes every row of the given price list and returns how many rows were deleted.
+     */
+    int deletePriceList(int priceList);
+
+    /**
+     * Stores the records in the staging area under {@code importId}, where readers of PRICES do not see them,
+     * and returns how many rows were written.
+     */
+    int stage(String importId, List<PriceRecord> records);
+
+    /**
+     * Copies the rows staged under {@code importId} into PRICES and returns how many were inserted.
+     */
+    int insertStaged(String importId);
+
+    /**
+     * Drops the rows staged under {@code importId} and returns how many there were.
+     */
+    int deleteStaged(String importId);
+
+    /**
+     * Inserts one record and returns the id of the new row.
+     */
+    long insert(PriceRecord record);
+
+    /**
+     * Reads a row by id.
+     */
+    Optional<PriceRecord> findById(long id);
+
+    /**
+     * Reads a row and locks it until the surrounding transaction ends, so a read-modify-write of the row cannot
+     * lose a concurrent change.
+     */
+    Optional<PriceRecord> lockById(long id);
+
+    /**
+     * Overwrites every column of a row and returns whether it existed.
+     */
+    boolean update(long id, PriceRecord record);
+
+    /**
+     * Up to {@code limit} brand/product pairs of the given price list that have a row still valid after {@code at}.
+     */
+    Set<PriceKey> findKeysOfPriceListValidAfter(int priceList, LocalDateTime at, int limit);
+
+    /**
+     * Number of brand/product pairs of the given price list that have a row still valid after {@code at}.
+     */
+    int countKeysOfPriceListValidAfter(int priceList, LocalDateTime at);
+
+    /**
+     * Moves the end date of the rows of the price list that are valid at {@code at} back to it, and returns how
+     * many rows were changed.
+     */
+    int endPriceListAt(int priceList, LocalDateTime at);
+
+    /**
+     * Deletes the rows of the price list that start at or after {@code at}, and returns how many were deleted.
+     */
+    int deletePriceListFrom(int priceList, LocalDateTime at);
+}
@@ -0,0 +1,33 @@
+package com.inditex.sisuprice.domain.usecase;
+
+import com.inditex.sisuprice.domain.PriceCatalogPage;
+import com.inditex.sisuprice.domain.PriceRecord;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Resolves the applicable price of every product of a brand at a date.
+ */
+public interface PriceCatalogUseCase {
+
+    /**
+     * Resolves one page of the brand's catalog, ordered by product id.
+     *
+     * @param brandId the ID of the brand
+     * @param date the date and time the prices should be applicable at
+     * @param afterProductId cursor: only products with a greater id are returned
+     * @param toProductId highest product id to include
+     * @param limit maximum number of prices in the page
+     * @return the page, with the cursor of the next one when more products may follow
+     */
+    PriceCatalogPage page(int brandId, LocalDateTime date, long afterProductId, long toProductId, int limit);
+
+    /**
+     * Walks the whole range page by page, handing each price to {@code action} in product order.
+     * Only one page is held at a time.
+     *
+     * @return the number of prices handed to {@code action}
+     */
+    long scan(int brandId, LocalDateTime date, long afterProductId, long toProductId, Consumer<PriceRecord> action);
+}
@@ -0,0 +1,24 @@
+package com.inditex.sisuprice.domain.usecase;
+
+import com.inditex.sisuprice.domain.PriceFileFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The interface PriceExport use case.
+ */
+public interface PriceExportUseCase {
+
+    /**
+     * Writes every price to the output, ordered by brand, product and start date. Rows are streamed from the
+     * repository as they are written, so memory use does not grow with the size of the price book.
+     * The output is flushed but not closed.
+     *
+     * @param output where the rows are written, UTF-8 encoded
+     * @param format how the rows are encoded; the CSV header names the PRICES columns
+     * @return the number of rows written
+     * @throws IOException when the output cannot be written, for example because the client went away
+     */
+    long exportAll(OutputStream output, PriceFileFormat format) throws IOException;
+}
@@ -0,0 +1,34 @@
+package com.inditex.sisuprice.domain.usecase;
+
+import com.inditex.sisuprice.domain.PriceFileFormat;
+import com.inditex.sisuprice.domain.PriceImportResult;
+
+import java.io.InputStream;
+
+/**
+ * The interface PriceImport use case.
+ */
+public interface PriceImportUseCase {
+
+    /**
+     * Appends the prices read from the input. Rows are streamed and committed in chunks, so memory use does not
+     * grow with the size of the input; invalid rows are skipped and reported.
+     *
+     * @param input the rows to import, UTF-8 encoded
+     * @param format how the rows are encoded
+     * @return what was read, written and rejected
+     */
+    PriceImportResult importPrices(InputStream input, PriceFileFormat format);
+
+    /**
+     * Replaces every row of a price list with the rows read from the input, in a single transaction:
+     * readers see either the old or the new price list. Every row must belong to {@code priceList}, and any
+     * invalid row aborts the whole import with an {@link IllegalArgumentException}.
+     *
+     * @param input the rows of the new price list, UTF-8 encoded
+     * @param format how the rows are encoded
+     * @param priceList the price list being replaced
+     * @return what was read, written and deleted
+     */
+    PriceImportResult replacePriceList(InputStream input, PriceFileFormat format, int priceList);
+}
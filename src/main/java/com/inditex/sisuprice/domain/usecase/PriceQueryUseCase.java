@@ -1,8 +1,11 @@
 package com.inditex.sisuprice.domain.usecase;
 
+import com.inditex.sisuprice.domain.PriceQuery;
 import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceSegment;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,4 +23,23 @@ public interface PriceQueryUseCase {
      */
     Optional<PriceRecord> query(int brandId, long productId, LocalDateTime applicationDate);
 
+    /**
+     * Queries the price information for many product, brand and date combinations at once.
+     *
+     * @param queries the lookups to resolve
+     * @return one Optional per query, in the same order, empty when no price applies
+     */
+    List<Optional<PriceRecord>> queryAll(List<PriceQuery> queries);
+
+    /**
+     * Resolves the applicable price of a product and brand over a whole period at once.
+     *
+     * @param brandId the ID of the brand associated with the product
+     * @param productId the ID of the product
+     * @param from start of the period, inclusive
+     * @param to end of the period, exclusive; must be after {@code from}
+     * @return the non-overlapping segments in which a price applies, ordered by start and clipped to the period
+     */
+    List<PriceSegment> timeline(int brandId, long productId, LocalDateTime from, LocalDateTime to);
+
 }
@@ -0,0 +1,59 @@
+package com.inditex.sisuprice.domain.usecase;
+
+import com.inditex.sisuprice.domain.PriceListClosure;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceRow;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * The interface PriceWrite use case. Every write commits on its own and, once committed, invalidates exactly
+ * the brand/product pairs whose prices it changed. Invalid input fails with an {@link IllegalArgumentException}.
+ */
+public interface PriceWriteUseCase {
+
+    /**
+     * Inserts a price row.
+     *
+     * @param record the new row
+     * @return the row with its generated id
+     */
+    PriceRow create(PriceRecord record);
+
+    /**
+     * Reads a price row by id.
+     *
+     * @param id the row id
+     * @return the row, or empty if there is none
+     */
+    Optional<PriceRow> find(long id);
+
+    /**
+     * Replaces every column of a price row. Moving a row to another brand or product invalidates both pairs.
+     *
+     * @param id the row id
+     * @param record the new content of the row
+     * @return the updated row, or empty if there is none
+     */
+    Optional<PriceRow> update(long id, PriceRecord record);
+
+    /**
+     * Moves the end date of a price row; it may end earlier or later, but not before it starts.
+     *
+     * @param id the row id
+     * @param endDate the new, exclusive, end of the validity window
+     * @return the updated row, or empty if there is none
+     */
+    Optional<PriceRow> endDate(long id, LocalDateTime endDate);
+
+    /**
+     * Closes out a price list so that none of its rows applies from {@code at} on: rows valid at {@code at} end
+     * there, and rows that would only start at or after {@code at} are deleted. Rows that ended before are kept.
+     *
+     * @param priceList the price list to close
+     * @param at the first date at which the price list no longer applies
+     * @return how many rows and brand/product pairs were affected
+     */
+    PriceListClosure closePriceList(int priceList, LocalDateTime at);
+}
@@ -0,0 +1,73 @@
+package com.inditex.sisuprice.infrastructure.invalidation;
+
+import com.inditex.sisuprice.domain.PriceKey;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One invalidation sent over the bus: the keys changed on node {@code origin}, or all of them when {@code full}.
+ * <p>
+ * Binary layout, big-endian: magic int, version byte, origin UUID (two longs), send time in epoch millis,
+ * full flag byte, key count int, then a brand int and a product long per key; at 12 bytes per key a
+ * 1000-key message fits in a single UDP datagram.
+ *
+ * @param origin the node that made the change
+ * @param sentAtMillis wall-clock send time, used for the latency metric
+ * @param keys the changed brand/product pairs
+ * @param full whether every key must be evicted
+ */
+public record InvalidationMessage(UUID origin, long sentAtMillis, Set<PriceKey> keys, boolean full) {
+
+    static final int MAGIC = 0x50494E56;
+
+    static final byte VERSION = 1;
+
+    static final int HEADER_BYTES = 4 + 1 + 16 + 8 + 1 + 4;
+
+    static final int KEY_BYTES = 4 + 8;
+
+    public byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + keys.size() * KEY_BYTES)
+                .putInt(MAGIC)
+                .put(VERSION)
+                .putLong(origin.getMostSignificantBits())
+                .putLong(origin.getLeastSignificantBits())
+                .putLong(sentAtMillis)
+                .put((byte) (full ? 1 : 0))
+                .putInt(keys.size());
+        for (PriceKey key : keys) {
+            buffer.putInt(key.brandId()).putLong(key.productId());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @throws IllegalArgumentException when the bytes are not a message of this version
+     */
+    public static InvalidationMessage decode(byte[] bytes, int offset, int length) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+        try {
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                throw new IllegalArgumentException("not an invalidation message");
+            }
+            UUID origin = new UUID(buffer.getLong(), buffer.getLong());
+            long sentAtMillis = buffer.getLong();
+            boolean full = buffer.get() != 0;
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / KEY_BYTES) {
+                throw new IllegalArgumentException("invalid key count " + count);
+            }
+            Set<PriceKey> keys = HashSet.newHashSet(count);
+            for (int i = 0; i < count; i++) {
+                keys.add(new PriceKey(buffer.getInt(), buffer.getLong()));
+            }
+            return new InvalidationMessage(origin, sentAtMillis, Set.copyOf(keys), full);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("truncated invalidation message", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.inditex.sisuprice.infrastructure.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link InvalidationMessage}s between nodes for {@link PriceInvalidationBus}.
+ * Delivery is best effort: a lost message leaves an entry stale until it expires ({@code pricing.cache.max-ttl}).
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+    /**
+     * Starts delivering messages sent by any node, this one included, to {@code receiver}.
+     */
+    void start(Consumer<InvalidationMessage> receiver);
+
+    void send(InvalidationMessage message);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,57 @@
+package com.inditex.sisuprice.infrastructure.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for a network transport ({@code pricing.invalidation.transport=loopback}).
+ * Every transport attached to the same {@link Hub} receives every message, synchronously on the sender's thread,
+ * so several application contexts or buses in one JVM behave like the nodes of a cluster.
+ */
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    /**
+     * The hub used by transports created without one: all contexts of the JVM share it.
+     */
+    public static final Hub SHARED = new Hub();
+
+    private final Hub hub;
+
+    private volatile Consumer<InvalidationMessage> receiver;
+
+    public LoopbackInvalidationTransport() {
+        this(SHARED);
+    }
+
+    public LoopbackInvalidationTransport(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void start(Consumer<InvalidationMessage> receiver) {
+        this.receiver = receiver;
+        hub.members.add(this);
+    }
+
+    /**
+     * Messages go through the binary encoding so the codec is exercised as on the wire.
+     */
+    @Override
+    public void send(InvalidationMessage message) {
+        byte[] bytes = message.encode();
+        for (LoopbackInvalidationTransport member : hub.members) {
+            member.receiver.accept(InvalidationMessage.decode(bytes, 0, bytes.length));
+        }
+    }
+
+    @Override
+    public void close() {
+        hub.members.remove(this);
+    }
+
+    public static final class Hub {
+
+        private final List<LoopbackInvalidationTransport> members = new CopyOnWriteArrayList<>();
+    }
+}
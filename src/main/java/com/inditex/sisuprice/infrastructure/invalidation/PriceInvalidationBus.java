@@ -0,0 +1,136 @@
+package com.inditex.sisuprice.infrastructure.invalidation;
+
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Spreads {@link PricesChangedEvent}s across nodes ({@code pricing.invalidation.enabled}).
+ * <p>
+ * Changes written by this node are sent once committed, after every other listener of this node has run, so that
+ * shared tables such as PRICE_SEGMENTS are rebuilt before other nodes evict and reload. Changes found in the PRICES
+ * change log are not sent, since every node polls it on its own. Messages from other nodes are republished as
+ * remote events, which evict their keys from the caches of this node.
+ * <p>
+ * Publishes {@code pricing.invalidation.messages} by {@code direction} (sent, received, failed) and
+ * {@code pricing.invalidation.latency}, the time from the send on the origin node to the republish here as seen
+ * by the wall clocks of both nodes.
+ */
+@Slf4j
+public class PriceInvalidationBus {
+
+    static final String MESSAGES = "pricing.invalidation.messages";
+
+    static final String LATENCY = "pricing.invalidation.latency";
+
+    private final UUID nodeId = UUID.randomUUID();
+
+    private final InvalidationTransport transport;
+
+    private final ApplicationEventPublisher events;
+
+    private final int maxKeysPerMessage;
+
+    private final Counter sent;
+
+    private final Counter received;
+
+    private final Counter failed;
+
+    private final Timer latency;
+
+    public PriceInvalidationBus(InvalidationTransport transport, ApplicationEventPublisher events,
+                                MeterRegistry registry, int maxKeysPerMessage) {
+        this.transport = transport;
+        this.events = events;
+        this.maxKeysPerMessage = maxKeysPerMessage;
+        this.sent = messages(registry, "sent");
+        this.received = messages(registry, "received");
+        this.failed = messages(registry, "failed");
+        this.latency = Timer.builder(LATENCY)
+                .description("Time from sending an invalidation on its origin node to applying it on this one")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public UUID nodeId() {
+        return nodeId;
+    }
+
+    public void start() {
+        transport.start(this::receive);
+        log.info("invalidation bus started node={} transport={}", nodeId, transport.getClass().getSimpleName());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onPricesChanged(PricesChangedEvent event) {
+        if (event.origin() != PricesChangedEvent.Origin.WRITE) {
+            return;
+        }
+        for (InvalidationMessage message : messages(event)) {
+            try {
+                transport.send(message);
+                sent.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.warn("invalidation not sent keys={} full={} reason={}",
+                        message.keys().size(), message.full(), e.toString());
+            }
+        }
+    }
+
+    /**
+     * One message per {@code maxKeysPerMessage} keys; a full change is a single keyless message.
+     */
+    List<InvalidationMessage> messages(PricesChangedEvent event) {
+        long now = System.currentTimeMillis();
+        if (event.full()) {
+            return List.of(new InvalidationMessage(nodeId, now, Set.of(), true));
+        }
+        List<InvalidationMessage> messages = new ArrayList<>();
+        List<PriceKey> chunk = new ArrayList<>(Math.min(event.keys().size(), maxKeysPerMessage));
+        for (PriceKey key : event.keys()) {
+            chunk.add(key);
+            if (chunk.size() == maxKeysPerMessage) {
+                messages.add(new InvalidationMessage(nodeId, now, Set.copyOf(chunk), false));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            messages.add(new InvalidationMessage(nodeId, now, Set.copyOf(chunk), false));
+        }
+        return messages;
+    }
+
+    void receive(InvalidationMessage message) {
+        if (nodeId.equals(message.origin())) {
+            return;
+        }
+        received.increment();
+        events.publishEvent(PricesChangedEvent.received(message.keys(), message.full()));
+        latency.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - message.sentAtMillis())));
+        log.debug("invalidation applied origin={} keys={} full={}", message.origin(), message.keys().size(),
+                message.full());
+    }
+
+    private static Counter messages(MeterRegistry registry, String direction) {
+        return Counter.builder(MESSAGES)
+                .description("Invalidation messages by direction")
+                .tag("direction", direction)
+                .register(registry);
+    }
+}
@@ -0,0 +1,105 @@
+package com.inditex.sisuprice.infrastructure.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sends each message as one datagram to every address of every peer ({@code pricing.invalidation.transport=udp}).
+ * <p>
+ * Peers are {@code host:port} pairs resolved on every send, so a DNS name listing all nodes (for instance a
+ * Kubernetes headless service) follows scale-outs without a restart. A node that resolves to itself just drops
+ * its own message. There are no retries or acknowledgements.
+ */
+@Slf4j
+public class UdpInvalidationTransport implements InvalidationTransport {
+
+    static final int MAX_DATAGRAM = 65_507;
+
+    private final DatagramSocket socket;
+
+    private final List<String> peers;
+
+    private Thread receiverThread;
+
+    public UdpInvalidationTransport(int port, List<String> peers) {
+        try {
+            this.socket = new DatagramSocket(port);
+        } catch (SocketException e) {
+            throw new UncheckedIOException("cannot bind invalidation port " + port, e);
+        }
+        this.peers = List.copyOf(peers);
+    }
+
+    public int port() {
+        return socket.getLocalPort();
+    }
+
+    @Override
+    public void start(Consumer<InvalidationMessage> receiver) {
+        receiverThread = Thread.ofPlatform().name("price-invalidation-udp").daemon().start(() -> receive(receiver));
+    }
+
+    private void receive(Consumer<InvalidationMessage> receiver) {
+        byte[] buffer = new byte[MAX_DATAGRAM];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!socket.isClosed()) {
+            try {
+                socket.receive(packet);
+                receiver.accept(InvalidationMessage.decode(packet.getData(), packet.getOffset(), packet.getLength()));
+            } catch (IllegalArgumentException e) {
+                log.warn("invalidation datagram ignored from={} reason={}", packet.getSocketAddress(), e.getMessage());
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.warn("invalidation receive failed reason={}", e.toString());
+                }
+            } catch (RuntimeException e) {
+                log.warn("invalidation not applied reason={}", e.toString());
+            }
+        }
+    }
+
+    /**
+     * @throws UncheckedIOException when the message could not be sent to any address
+     */
+    @Override
+    public void send(InvalidationMessage message) {
+        byte[] bytes = message.encode();
+        IOException failure = null;
+        int delivered = 0;
+        for (String peer : peers) {
+            int colon = peer.lastIndexOf(':');
+            int port = Integer.parseInt(peer.substring(colon + 1).trim());
+            try {
+                for (InetAddress address : InetAddress.getAllByName(peer.substring(0, colon).trim())) {
+                    socket.send(new DatagramPacket(bytes, bytes.length, new InetSocketAddress(address, port)));
+                    delivered++;
+                }
+            } catch (UnknownHostException e) {
+                log.debug("invalidation peer not resolvable peer={}", peer);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null && delivered == 0) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    @Override
+    public void close() {
+        socket.close();
+        if (receiverThread != null) {
+            receiverThread.interrupt();
+        }
+    }
+}
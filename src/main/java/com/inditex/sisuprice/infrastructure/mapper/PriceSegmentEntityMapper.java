@@ -0,0 +1,15 @@
+package com.inditex.sisuprice.infrastructure.mapper;
+
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.infrastructure.persistence.jpa.PriceSegmentEntity;
+import org.mapstruct.Mapper;
+
+/**
+ * MapStruct mapper to convert JPA PriceSegmentEntity to the domain PriceRecord winning the segment.
+ */
+@Mapper(componentModel = "spring")
+public interface PriceSegmentEntityMapper {
+
+    PriceRecord toDomain(PriceSegmentEntity entity);
+
+}
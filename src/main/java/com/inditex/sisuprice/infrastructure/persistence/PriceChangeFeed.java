@@ -0,0 +1,138 @@
+package com.inditex.sisuprice.infrastructure.persistence;
+
+import com.inditex.sisuprice.domain.PriceKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads the PRICES change log kept in CHANGE_VERSION / UPDATED_AT (changeset {@code 004-track-price-changes})
+ * together with the PRICE_DELETIONS tombstones that writers record for every pair whose rows they delete
+ * (changeset {@code 005-track-price-deletions}). Both draw their versions from PRICES_CHANGE_SEQ.
+ * <p>
+ * Versions come from the sequence when a row is written, not when its transaction commits, so a version may
+ * become visible after a higher one has already been read. {@link #recheck} lets a reader look again below its
+ * watermark for such late rows.
+ */
+@Repository
+@Slf4j
+public class PriceChangeFeed {
+
+    private static final String CHANGES = """
+            SELECT BRAND_ID, PRODUCT_ID, CHANGE_VERSION, UPDATED_AT FROM PRICES
+            WHERE CHANGE_VERSION > ? AND CHANGE_VERSION <= ?
+            UNION ALL
+            SELECT BRAND_ID, PRODUCT_ID, CHANGE_VERSION, DELETED_AT FROM PRICE_DELETIONS
+            WHERE CHANGE_VERSION > ? AND CHANGE_VERSION <= ?
+            """;
+
+    private static final String CHANGES_SINCE = """
+            SELECT BRAND_ID, PRODUCT_ID, COUNT(*) AS ROWS_CHANGED,
+                   MAX(CHANGE_VERSION) AS VERSION, MIN(UPDATED_AT) AS OLDEST_UPDATE
+            FROM (%s) CHANGES
+            GROUP BY BRAND_ID, PRODUCT_ID
+            ORDER BY VERSION
+            LIMIT ?
+            """.formatted(CHANGES);
+
+    private static final String RECHECK = """
+            SELECT BRAND_ID, PRODUCT_ID, COUNT(*) AS ROWS_CHANGED,
+                   SUM(CASE WHEN CHANGE_VERSION <= ? THEN 1 ELSE 0 END) AS ROWS_SETTLED,
+                   MAX(CHANGE_VERSION) AS VERSION
+            FROM (%s) CHANGES
+            GROUP BY BRAND_ID, PRODUCT_ID
+            """.formatted(CHANGES);
+
+    private static final String SETTLED_VERSION =
+            "SELECT MAX(CHANGE_VERSION) FROM (%s) CHANGES WHERE UPDATED_AT <= ?".formatted(CHANGES);
+
+    private static final String CURRENT_VERSION = """
+            SELECT GREATEST(COALESCE((SELECT MAX(CHANGE_VERSION) FROM PRICES), 0),
+                            COALESCE((SELECT MAX(CHANGE_VERSION) FROM PRICE_DELETIONS), 0))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PriceChangeFeed(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Highest version currently visible, or 0 for an empty table.
+     */
+    public long currentVersion() {
+        Long version = jdbcTemplate.queryForObject(CURRENT_VERSION, Long.class);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Brand/product pairs with rows changed or deleted after {@code version}, in the order of their latest change.
+     * Because every version belongs to a single row or tombstone, the last pair's version is a safe next
+     * watermark even when the result is cut at {@code maxKeys}.
+     */
+    public List<PriceChange> changesSince(long version, int maxKeys) {
+        List<PriceChange> changes = jdbcTemplate.query(CHANGES_SINCE, (rs, i) -> new PriceChange(
+                new PriceKey(rs.getInt("BRAND_ID"), rs.getLong("PRODUCT_ID")),
+                rs.getInt("ROWS_CHANGED"),
+                rs.getLong("VERSION"),
+                rs.getTimestamp("OLDEST_UPDATE").toLocalDateTime()),
+                version, Long.MAX_VALUE, version, Long.MAX_VALUE, maxKeys);
+        log.debug("db changesSince version={} keys={}", version, changes.size());
+        return changes;
+    }
+
+    /**
+     * Every pair with changes in versions {@code (after, upTo]}, counting how many of them are at or below
+     * {@code settling}. A reader compares the result with what it saw before to find rows committed late.
+     */
+    public List<RecentChange> recheck(long after, long upTo, long settling) {
+        List<RecentChange> changes = jdbcTemplate.query(RECHECK, (rs, i) -> new RecentChange(
+                new PriceKey(rs.getInt("BRAND_ID"), rs.getLong("PRODUCT_ID")),
+                rs.getInt("ROWS_CHANGED"),
+                rs.getInt("ROWS_SETTLED"),
+                rs.getLong("VERSION")), settling, after, upTo, after, upTo);
+        log.debug("db recheck after={} upTo={} keys={}", after, upTo, changes.size());
+        return changes;
+    }
+
+    /**
+     * Highest version in {@code (after, upTo]} written at or before {@code writtenBy}, or {@code after} if none.
+     * Every lower version was drawn even earlier.
+     */
+    public long settledVersion(long after, long upTo, LocalDateTime writtenBy) {
+        Long version = jdbcTemplate.queryForObject(SETTLED_VERSION, Long.class,
+                after, upTo, after, upTo, Timestamp.valueOf(writtenBy));
+        return version == null ? after : version;
+    }
+
+    /**
+     * Drops the tombstones written before {@code before}.
+     *
+     * @return number of tombstones removed
+     */
+    public int pruneDeletions(LocalDateTime before) {
+        int pruned = jdbcTemplate.update("DELETE FROM PRICE_DELETIONS WHERE DELETED_AT < ?", Timestamp.valueOf(before));
+        log.debug("db pruneDeletions before={} rows={}", before, pruned);
+        return pruned;
+    }
+
+    /**
+     * @param key the brand/product pair whose rows changed
+     * @param rows number of its rows changed or deleted after the watermark
+     * @param version latest change version among those rows
+     * @param oldestUpdate when the earliest of those changes was written
+     */
+    public record PriceChange(PriceKey key, int rows, long version, LocalDateTime oldestUpdate) {}
+
+    /**
+     * @param key the brand/product pair whose rows changed
+     * @param rows number of its changes in the rechecked range
+     * @param settledRows how many of those are at or below the settling version
+     * @param version latest change version among them
+     */
+    public record RecentChange(PriceKey key, int rows, int settledRows, long version) {}
+}
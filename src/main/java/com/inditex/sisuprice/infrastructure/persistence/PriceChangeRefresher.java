@@ -0,0 +1,217 @@
+package com.inditex.sisuprice.infrastructure.persistence;
+
+import com.inditex.sisuprice.config.PriceRefreshProperties;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import com.inditex.sisuprice.infrastructure.persistence.PriceChangeFeed.PriceChange;
+import com.inditex.sisuprice.infrastructure.persistence.PriceChangeFeed.RecentChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the snapshot of the {@code memory} or {@code offheap} profile fresh without full reloads: every
+ * {@code pricing.refresh.interval} it polls PRICES for rows changed after the snapshot version, reloads only the
+ * timelines of those brand/product pairs and swaps them into the snapshot.
+ * Every applied batch publishes a {@link PricesChangedEvent} for the pairs it touched, tagged as polled so the
+ * invalidation bus keeps it local: every node polls the change log on its own. Changes announced by writers are
+ * applied by {@link PriceSnapshotMaintainer}, whether or not polling is on.
+ * <p>
+ * A version is drawn when its row is written but only seen once its transaction commits, possibly after the
+ * watermark passed it. Every poll therefore also rechecks the versions written within the last
+ * {@code pricing.refresh.lookback} below the watermark: it remembers how many changes and which latest version
+ * it saw per pair there, and reapplies a pair whose count or version moved. Versions older than the lookback are
+ * settled and no longer read. Deletions reach the feed as PRICE_DELETIONS tombstones, which are pruned after
+ * {@code pricing.refresh.deletion-retention}.
+ * <p>
+ * {@code pricing.refresh.lag} measures how long the oldest change of a batch took to become visible,
+ * {@code pricing.refresh.batch.size} how many changed rows each batch carried, and {@code pricing.refresh.late}
+ * how many pairs the recheck found changed after the watermark had passed them.
+ */
+@Component
+@Profile({"memory", "offheap"})
+@ConditionalOnProperty(prefix = "pricing.refresh", name = "enabled", havingValue = "true")
+@Slf4j
+public class PriceChangeRefresher implements SchedulingConfigurer {
+
+    private static final Duration PRUNE_INTERVAL = Duration.ofMinutes(1);
+
+    private final SnapshotPriceRepository repository;
+
+    private final PriceDbRepository prices;
+
+    private final PriceChangeFeed changes;
+
+    private final ApplicationEventPublisher events;
+
+    private final PriceRefreshProperties properties;
+
+    private final Timer lag;
+
+    private final DistributionSummary batchSize;
+
+    private final Counter late;
+
+    /**
+     * Snapshot version this refresher last left; any other version means the snapshot was reloaded meanwhile.
+     */
+    private long appliedVersion = -1;
+
+    /**
+     * Versions at or below this one are no longer rechecked.
+     */
+    private long settledVersion;
+
+    /**
+     * Changes seen per pair in versions {@code (settledVersion, appliedVersion]}.
+     */
+    private Map<PriceKey, Seen> recent = new HashMap<>();
+
+    public PriceChangeRefresher(SnapshotPriceRepository repository, PriceDbRepository prices, PriceChangeFeed changes,
+                                ApplicationEventPublisher events, PriceRefreshProperties properties,
+                                MeterRegistry registry) {
+        this.repository = repository;
+        this.prices = prices;
+        this.changes = changes;
+        this.events = events;
+        this.properties = properties;
+        this.lag = Timer.builder("pricing.refresh.lag")
+                .description("Time from a PRICES change being written to it being served from the snapshot")
+                .serviceLevelObjectives(Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1))
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("pricing.refresh.batch.size")
+                .description("Changed PRICES rows applied per refresh")
+                .baseUnit("rows")
+                .register(registry);
+        this.late = Counter.builder("pricing.refresh.late")
+                .description("Brand/product pairs changed below the watermark and caught by the lookback recheck")
+                .register(registry);
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(this::refresh, properties.interval());
+        registrar.addFixedDelayTask(this::pruneDeletions, PRUNE_INTERVAL);
+    }
+
+    public void refresh() {
+        long fromVersion = repository.version();
+        if (fromVersion != appliedVersion) {
+            // first poll, or a reload replaced the data: recheck everything written within the lookback before it
+            settledVersion = changes.settledVersion(0, fromVersion, lookbackStart());
+            recent = new HashMap<>();
+        }
+        Set<PriceKey> keys = new LinkedHashSet<>(recheck(fromVersion));
+        int lateKeys = keys.size();
+        List<PriceChange> batch = changes.changesSince(fromVersion, properties.batchSize());
+        appliedVersion = fromVersion;
+        if (keys.isEmpty() && batch.isEmpty()) {
+            return;
+        }
+        batch.forEach(change -> keys.add(change.key()));
+        List<PriceKey> changed = List.copyOf(keys);
+        long toVersion = batch.isEmpty() ? fromVersion : batch.get(batch.size() - 1).version();
+        if (!repository.apply(timelines(prices, changed), fromVersion, toVersion)) {
+            appliedVersion = -1;
+            return;
+        }
+        appliedVersion = toVersion;
+        batch.forEach(change -> recent.merge(change.key(), new Seen(change.rows(), change.version()), Seen::plus));
+        events.publishEvent(PricesChangedEvent.polled(changed));
+        late.increment(lateKeys);
+        if (batch.isEmpty()) {
+            log.debug("snapshot refresh lateKeys={} version={}", lateKeys, toVersion);
+            return;
+        }
+
+        int rows = batch.stream().mapToInt(PriceChange::rows).sum();
+        LocalDateTime oldest = batch.stream().map(PriceChange::oldestUpdate)
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+        Duration behind = Duration.between(oldest, LocalDateTime.now());
+        batchSize.record(rows);
+        lag.record(behind.isNegative() ? Duration.ZERO : behind);
+        log.debug("snapshot refresh keys={} lateKeys={} rows={} version={} lagMs={}",
+                changed.size(), lateKeys, rows, toVersion, behind.toMillis());
+    }
+
+    /**
+     * Drops the tombstones older than {@code pricing.refresh.deletion-retention}.
+     */
+    public void pruneDeletions() {
+        int pruned = changes.pruneDeletions(LocalDateTime.now().minus(properties.deletionRetention()));
+        if (pruned > 0) {
+            log.info("snapshot tombstones pruned rows={}", pruned);
+        }
+    }
+
+    /**
+     * Reads the changes in {@code (settledVersion, upTo]} again and returns the pairs whose count or latest version
+     * differs from what was seen, then settles the versions written before the lookback.
+     */
+    private Set<PriceKey> recheck(long upTo) {
+        if (settledVersion >= upTo) {
+            recent = new HashMap<>();
+            return Set.of();
+        }
+        long settling = changes.settledVersion(settledVersion, upTo, lookbackStart());
+        Set<PriceKey> moved = new LinkedHashSet<>();
+        Map<PriceKey, Seen> stillRecent = new HashMap<>();
+        for (RecentChange change : changes.recheck(settledVersion, upTo, settling)) {
+            if (!new Seen(change.rows(), change.version()).equals(recent.get(change.key()))) {
+                moved.add(change.key());
+            }
+            int unsettled = change.rows() - change.settledRows();
+            if (unsettled > 0) {
+                stillRecent.put(change.key(), new Seen(unsettled, change.version()));
+            }
+        }
+        recent = stillRecent;
+        settledVersion = settling;
+        return moved;
+    }
+
+    private LocalDateTime lookbackStart() {
+        return LocalDateTime.now().minus(properties.lookback());
+    }
+
+    /**
+     * Current rows of each key, with an empty timeline for keys that have none left.
+     */
+    static Map<PriceKey, List<PriceRecord>> timelines(PriceDbRepository prices, Collection<PriceKey> keys) {
+        Map<PriceKey, List<PriceRecord>> loaded = prices.findTimelines(keys);
+        Map<PriceKey, List<PriceRecord>> timelines = new HashMap<>();
+        keys.forEach(key -> timelines.put(key, loaded.getOrDefault(key, List.of())));
+        return timelines;
+    }
+
+    /**
+     * @param rows changes of a pair in the rechecked versions
+     * @param version latest of them
+     */
+    private record Seen(int rows, long version) {
+
+        Seen plus(Seen other) {
+            return new Seen(rows + other.rows, Math.max(version, other.version));
+        }
+    }
+}
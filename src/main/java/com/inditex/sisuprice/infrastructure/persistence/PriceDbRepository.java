@@ -1,26 +1,53 @@
 package com.inditex.sisuprice.infrastructure.persistence;
 
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceQuery;
 import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceSegments;
+import com.inditex.sisuprice.domain.PriceWindow;
 import com.inditex.sisuprice.domain.repository.PriceRepository;
+import com.inditex.sisuprice.infrastructure.persistence.jpa.PriceEntity;
 import com.inditex.sisuprice.infrastructure.persistence.jpa.PriceJpaRepository;
 import com.inditex.sisuprice.infrastructure.mapper.PriceEntityMapper;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 @Slf4j
 public class PriceDbRepository implements PriceRepository {
 
+    /**
+     * Rows fetched per round trip by {@link #streamAll()}.
+     */
+    static final int STREAM_FETCH_SIZE = 1000;
+
     private final PriceJpaRepository jpaRepository;
     private final PriceEntityMapper mapper;
+    private final PriceMetrics metrics;
+    private final EntityManagerFactory entityManagerFactory;
 
-    public PriceDbRepository(PriceJpaRepository jpaRepository, PriceEntityMapper mapper) {
+    public PriceDbRepository(PriceJpaRepository jpaRepository, PriceEntityMapper mapper, PriceMetrics metrics,
+                             EntityManagerFactory entityManagerFactory) {
         this.jpaRepository = jpaRepository;
         this.mapper = mapper;
+        this.metrics = metrics;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     @Override
@@ -31,13 +58,146 @@ public class PriceDbRepository implements PriceRepository {
                 .toList();
     }
 
+    /**
+     * Number of rows in PRICES.
+     */
+    public long count() {
+        return jpaRepository.count();
+    }
+
+    /**
+     * Scrolls PRICES in index order through a stateless session: entities are mapped and dropped as they are
+     * read, with no persistence context to grow, and rows arrive {@value #STREAM_FETCH_SIZE} at a time.
+     * Closing the stream closes the cursor and the session.
+     */
+    @Override
+    public Stream<PriceRecord> streamAll() {
+        log.debug("db streamAll");
+        StatelessSession session = entityManagerFactory.unwrap(SessionFactory.class).openStatelessSession();
+        try {
+            return session.createSelectionQuery(
+                            "from PriceEntity p order by p.brandId, p.productId, p.startDate", PriceEntity.class)
+                    .setFetchSize(STREAM_FETCH_SIZE)
+                    .setReadOnly(true)
+                    .getResultStream()
+                    .map(mapper::toDomain)
+                    .onClose(session::close);
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+    }
+
     @Override
     public Optional<PriceRecord> findApplicable(int brandId, long productId, LocalDateTime applicationDate) {
         log.debug("db findApplicable brandId={} productId={} date={}", brandId, productId, applicationDate);
-        Optional<PriceRecord> result = jpaRepository.findTopApplicable(brandId, productId, applicationDate)
+        Optional<PriceRecord> result = metrics.time(PriceMetrics.Stage.DB, "findApplicable",
+                () -> jpaRepository.findTopApplicable(brandId, productId, applicationDate), Optional::isPresent)
                 .map(mapper::toDomain);
         log.debug("db findApplicable resultPresent={} brandId={} productId={} date={}",
                 result.isPresent(), brandId, productId, applicationDate);
         return result;
     }
-}
\ No newline at end of file
+
+    @Override
+    public PriceWindow findWindow(int brandId, long productId, LocalDateTime applicationDate) {
+        log.debug("db findWindow brandId={} productId={} date={}", brandId, productId, applicationDate);
+        List<PriceRecord> rows = metrics.time(PriceMetrics.Stage.DB, "findWindow",
+                        () -> jpaRepository.findByBrandIdAndProductId(brandId, productId), found -> !found.isEmpty())
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+        return PriceSegments.windowAt(rows, applicationDate);
+    }
+
+    /**
+     * Scans the brand's rows in IDX_PRICES_LOOKUP order (product, then start date), so the database streams the
+     * range without sorting it, and keeps the {@link PriceRecord#PRECEDENCE} winner of each product as its rows
+     * go by. The cursor is closed as soon as {@code limit} products are resolved.
+     */
+    @Override
+    public List<PriceRecord> findApplicableForBrand(int brandId, LocalDateTime date, long afterProductId,
+                                                    long toProductId, int limit) {
+        log.debug("db findApplicableForBrand brandId={} date={} after={} to={} limit={}",
+                brandId, date, afterProductId, toProductId, limit);
+        return metrics.time(PriceMetrics.Stage.DB, "findApplicableForBrand",
+                () -> scanBrand(brandId, date, afterProductId, toProductId, limit), found -> !found.isEmpty());
+    }
+
+    private List<PriceRecord> scanBrand(int brandId, LocalDateTime date, long afterProductId, long toProductId,
+                                        int limit) {
+        List<PriceRecord> winners = new ArrayList<>(Math.min(limit, STREAM_FETCH_SIZE));
+        try (StatelessSession session = entityManagerFactory.unwrap(SessionFactory.class).openStatelessSession();
+             Stream<PriceEntity> rows = session.createSelectionQuery("""
+                             from PriceEntity p
+                             where p.brandId = :brandId and p.productId > :after and p.productId <= :to
+                               and p.startDate <= :date and p.endDate > :date
+                             order by p.brandId, p.productId, p.startDate""", PriceEntity.class)
+                     .setParameter("brandId", brandId)
+                     .setParameter("after", afterProductId)
+                     .setParameter("to", toProductId)
+                     .setParameter("date", date)
+                     .setFetchSize(Math.min(limit, STREAM_FETCH_SIZE))
+                     .setReadOnly(true)
+                     .getResultStream()) {
+            PriceRecord best = null;
+            for (Iterator<PriceEntity> it = rows.iterator(); it.hasNext(); ) {
+                PriceRecord candidate = mapper.toDomain(it.next());
+                if (best != null && best.productId() != candidate.productId()) {
+                    winners.add(best);
+                    best = null;
+                    if (winners.size() == limit) {
+                        return winners;
+                    }
+                }
+                if (best == null || PriceRecord.PRECEDENCE.compare(candidate, best) > 0) {
+                    best = candidate;
+                }
+            }
+            if (best != null) {
+                winners.add(best);
+            }
+        }
+        return winners;
+    }
+
+    @Override
+    public List<PriceRecord> findOverlapping(int brandId, long productId, LocalDateTime from, LocalDateTime to) {
+        log.debug("db findOverlapping brandId={} productId={} from={} to={}", brandId, productId, from, to);
+        return metrics.time(PriceMetrics.Stage.DB, "findOverlapping",
+                        () -> jpaRepository.findOverlapping(brandId, productId, from, to), found -> !found.isEmpty())
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
+    /**
+     * Groups the queries by brand/product and resolves every lookup in memory from the rows of its pair,
+     * see {@link #findTimelines}.
+     */
+    @Override
+    public List<PriceWindow> findWindows(List<PriceQuery> queries) {
+        Set<PriceKey> keys = queries.stream()
+                .map(PriceQuery::key)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        log.debug("db findWindows queries={} keys={}", queries.size(), keys.size());
+        Map<PriceKey, List<PriceRecord>> rowsByKey = findTimelines(keys);
+        return queries.stream()
+                .map(q -> PriceSegments.windowAt(rowsByKey.getOrDefault(q.key(), List.of()), q.applicationDate()))
+                .toList();
+    }
+
+    /**
+     * Loads every row of the given brand/product pairs, see {@link PriceKeyBatches}.
+     * Pairs without rows are absent from the result.
+     */
+    public Map<PriceKey, List<PriceRecord>> findTimelines(Collection<PriceKey> keys) {
+        return PriceKeyBatches.fetch(keys, (brandId, productIds) -> metrics.time(PriceMetrics.Stage.DB, "findTimelines",
+                                () -> jpaRepository.findByBrandIdAndProductIdIn(brandId, productIds),
+                                found -> !found.isEmpty())
+                        .stream()
+                        .map(mapper::toDomain)
+                        .toList(),
+                PriceKey::of);
+    }
+}
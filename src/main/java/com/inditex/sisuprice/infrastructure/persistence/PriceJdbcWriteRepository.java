@@ -0,0 +1,262 @@
+package com.inditex.sisuprice.infrastructure.persistence;
+
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.repository.PriceWriteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Writes PRICES rows with plain JDBC. JPA cannot batch these inserts because {@code PriceEntity} takes its id
+ * from an IDENTITY column, so rows are sent as multi-row {@code INSERT ... VALUES (...), (...)} statements of
+ * {@value #ROWS_PER_STATEMENT} rows, grouped into one JDBC batch. Staged rows go to PRICE_IMPORT_STAGING the same
+ * way and reach PRICES with a single {@code INSERT ... SELECT}. CHANGE_VERSION and UPDATED_AT are filled in
+ * by the column defaults, on insert and on every effective update, which makes the rows visible to
+ * {@link PriceChangeFeed}. Deletes first record a PRICE_DELETIONS tombstone for every pair they touch, in the same
+ * transaction, so the feed sees them as well.
+ */
+@Repository
+@Slf4j
+public class PriceJdbcWriteRepository implements PriceWriteRepository {
+
+    static final int ROWS_PER_STATEMENT = 100;
+
+    private static final String INSERT =
+            "INSERT INTO PRICES (BRAND_ID, START_DATE, END_DATE, PRICE_LIST, PRODUCT_ID, PRIORITY, PRICE, CURR) VALUES ";
+
+    private static final String ROW_PARAMETERS = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_FULL_STATEMENT = insert(ROWS_PER_STATEMENT);
+
+    private static final String STAGE =
+            "INSERT INTO PRICE_IMPORT_STAGING (IMPORT_ID, BRAND_ID, START_DATE, END_DATE, PRICE_LIST, PRODUCT_ID,"
+                    + " PRIORITY, PRICE, CURR) VALUES ";
+
+    private static final String STAGED_ROW_PARAMETERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String STAGE_FULL_STATEMENT = statement(STAGE, STAGED_ROW_PARAMETERS, ROWS_PER_STATEMENT);
+
+    private static final String COLUMNS = "BRAND_ID, START_DATE, END_DATE, PRICE_LIST, PRODUCT_ID, PRIORITY, PRICE, CURR";
+
+    private static final String RECORD_DELETIONS =
+            "INSERT INTO PRICE_DELETIONS (BRAND_ID, PRODUCT_ID) SELECT DISTINCT BRAND_ID, PRODUCT_ID FROM PRICES WHERE ";
+
+    private static final RowMapper<PriceRecord> RECORD = (rs, i) -> new PriceRecord(rs.getInt(1),
+            rs.getTimestamp(2).toLocalDateTime(), rs.getTimestamp(3).toLocalDateTime(), rs.getInt(4), rs.getLong(5),
+            rs.getInt(6), rs.getBigDecimal(7), rs.getString(8));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PriceJdbcWriteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertAll(List<PriceRecord> records) {
+        int written = insertInBatches(INSERT_FULL_STATEMENT, PriceJdbcWriteRepository::insert, records,
+                PriceJdbcWriteRepository::bind);
+        log.debug("db insertAll rows={} statements={}", written,
+                (records.size() + ROWS_PER_STATEMENT - 1) / ROWS_PER_STATEMENT);
+        return written;
+    }
+
+    @Override
+    public int stage(String importId, List<PriceRecord> records) {
+        int written = insertInBatches(STAGE_FULL_STATEMENT, rows -> statement(STAGE, STAGED_ROW_PARAMETERS, rows),
+                records, (ps, rows) -> bindStaged(ps, importId, rows));
+        log.debug("db stage importId={} rows={}", importId, written);
+        return written;
+    }
+
+    @Override
+    public int insertStaged(String importId) {
+        int inserted = jdbcTemplate.update("INSERT INTO PRICES (" + COLUMNS + ") SELECT " + COLUMNS
+                + " FROM PRICE_IMPORT_STAGING WHERE IMPORT_ID = ?", importId);
+        log.debug("db insertStaged importId={} rows={}", importId, inserted);
+        return inserted;
+    }
+
+    @Override
+    public int deleteStaged(String importId) {
+        int deleted = jdbcTemplate.update("DELETE FROM PRICE_IMPORT_STAGING WHERE IMPORT_ID = ?", importId);
+        log.debug("db deleteStaged importId={} rows={}", importId, deleted);
+        return deleted;
+    }
+
+    @Override
+    public Set<PriceKey> findKeysOfPriceList(int priceList, int limit) {
+        return new HashSet<>(jdbcTemplate.query(
+                "SELECT DISTINCT BRAND_ID, PRODUCT_ID FROM PRICES WHERE PRICE_LIST = ? LIMIT ?",
+                (rs, i) -> new PriceKey(rs.getInt(1), rs.getLong(2)), priceList, limit));
+    }
+
+    @Override
+    public int deletePriceList(int priceList) {
+        jdbcTemplate.update(RECORD_DELETIONS + "PRICE_LIST = ?", priceList);
+        int deleted = jdbcTemplate.update("DELETE FROM PRICES WHERE PRICE_LIST = ?", priceList);
+        log.debug("db deletePriceList priceList={} rows={}", priceList, deleted);
+        return deleted;
+    }
+
+    @Override
+    public long insert(PriceRecord record) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(insert(1), new String[]{"ID"});
+            bind(ps, List.of(record));
+            return ps;
+        }, keys);
+        long id = Objects.requireNonNull(keys.getKey(), "no id generated").longValue();
+        log.debug("db insert id={} brandId={} productId={}", id, record.brandId(), record.productId());
+        return id;
+    }
+
+    @Override
+    public Optional<PriceRecord> findById(long id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM PRICES WHERE ID = ?", RECORD, id).stream().findFirst();
+    }
+
+    @Override
+    public Optional<PriceRecord> lockById(long id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM PRICES WHERE ID = ? FOR UPDATE", RECORD, id)
+                .stream().findFirst();
+    }
+
+    @Override
+    public boolean update(long id, PriceRecord record) {
+        int updated = jdbcTemplate.update("UPDATE PRICES SET BRAND_ID = ?, START_DATE = ?, END_DATE = ?, PRICE_LIST = ?,"
+                + " PRODUCT_ID = ?, PRIORITY = ?, PRICE = ?, CURR = ? WHERE ID = ?", ps -> {
+            bind(ps, List.of(record));
+            ps.setLong(9, id);
+        });
+        log.debug("db update id={} rows={}", id, updated);
+        return updated > 0;
+    }
+
+    @Override
+    public Set<PriceKey> findKeysOfPriceListValidAfter(int priceList, LocalDateTime at, int limit) {
+        return new HashSet<>(jdbcTemplate.query(
+                "SELECT DISTINCT BRAND_ID, PRODUCT_ID FROM PRICES WHERE PRICE_LIST = ? AND END_DATE > ? LIMIT ?",
+                (rs, i) -> new PriceKey(rs.getInt(1), rs.getLong(2)), priceList, Timestamp.valueOf(at), limit));
+    }
+
+    @Override
+    public int countKeysOfPriceListValidAfter(int priceList, LocalDateTime at) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT DISTINCT BRAND_ID, PRODUCT_ID"
+                        + " FROM PRICES WHERE PRICE_LIST = ? AND END_DATE > ?) PAIRS",
+                Integer.class, priceList, Timestamp.valueOf(at));
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public int endPriceListAt(int priceList, LocalDateTime at) {
+        Timestamp end = Timestamp.valueOf(at);
+        int ended = jdbcTemplate.update(
+                "UPDATE PRICES SET END_DATE = ? WHERE PRICE_LIST = ? AND START_DATE < ? AND END_DATE > ?",
+                end, priceList, end, end);
+        log.debug("db endPriceListAt priceList={} at={} rows={}", priceList, at, ended);
+        return ended;
+    }
+
+    @Override
+    public int deletePriceListFrom(int priceList, LocalDateTime at) {
+        Timestamp from = Timestamp.valueOf(at);
+        jdbcTemplate.update(RECORD_DELETIONS + "PRICE_LIST = ? AND START_DATE >= ?", priceList, from);
+        int deleted = jdbcTemplate.update("DELETE FROM PRICES WHERE PRICE_LIST = ? AND START_DATE >= ?", priceList, from);
+        log.debug("db deletePriceListFrom priceList={} at={} rows={}", priceList, at, deleted);
+        return deleted;
+    }
+
+    /**
+     * Sends the records as {@code fullStatement}s of {@value #ROWS_PER_STATEMENT} rows in one JDBC batch, and the
+     * rest as one shorter statement.
+     */
+    private int insertInBatches(String fullStatement, IntFunction<String> statementOf, List<PriceRecord> records,
+                                RowsBinder binder) {
+        int full = records.size() / ROWS_PER_STATEMENT;
+        int written = 0;
+        if (full > 0) {
+            int[] counts = jdbcTemplate.batchUpdate(fullStatement, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    binder.bind(ps, records.subList(i * ROWS_PER_STATEMENT, (i + 1) * ROWS_PER_STATEMENT));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return full;
+                }
+            });
+            written += Arrays.stream(counts).map(c -> Math.max(c, 0)).sum();
+        }
+        List<PriceRecord> rest = records.subList(full * ROWS_PER_STATEMENT, records.size());
+        if (!rest.isEmpty()) {
+            written += jdbcTemplate.update(statementOf.apply(rest.size()), ps -> binder.bind(ps, rest));
+        }
+        return written;
+    }
+
+    private static void bindStaged(PreparedStatement ps, String importId, List<PriceRecord> rows) throws SQLException {
+        int p = 1;
+        for (PriceRecord r : rows) {
+            ps.setString(p++, importId);
+            p = bind(ps, p, r);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, List<PriceRecord> rows) throws SQLException {
+        int p = 1;
+        for (PriceRecord r : rows) {
+            p = bind(ps, p, r);
+        }
+    }
+
+    /**
+     * Binds the columns of one record starting at parameter {@code p} and returns the next parameter index.
+     */
+    private static int bind(PreparedStatement ps, int p, PriceRecord r) throws SQLException {
+        ps.setInt(p++, r.brandId());
+        ps.setTimestamp(p++, Timestamp.valueOf(r.startDate()));
+        ps.setTimestamp(p++, Timestamp.valueOf(r.endDate()));
+        ps.setInt(p++, r.priceList());
+        ps.setLong(p++, r.productId());
+        ps.setInt(p++, r.priority());
+        ps.setBigDecimal(p++, r.price());
+        ps.setString(p++, r.curr());
+        return p;
+    }
+
+    private static String insert(int rows) {
+        return statement(INSERT, ROW_PARAMETERS, rows);
+    }
+
+    private static String statement(String prefix, String rowParameters, int rows) {
+        StringBuilder sql = new StringBuilder(prefix.length() + rows * (rowParameters.length() + 2)).append(prefix);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(rowParameters);
+        }
+        return sql.toString();
+    }
+
+    @FunctionalInterface
+    private interface RowsBinder {
+        void bind(PreparedStatement ps, List<PriceRecord> rows) throws SQLException;
+    }
+}
@@ -0,0 +1,51 @@
+package com.inditex.sisuprice.infrastructure.persistence;
+
+import com.inditex.sisuprice.domain.PriceKey;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Batched reads of many brand/product pairs, shared by the {@code findWindows}/{@code findTimelines} adapters.
+ * Pairs are grouped by brand and every query reads one brand's products, at most {@value #PRODUCTS_PER_QUERY} per
+ * query, so only rows of the pairs asked for are fetched, never the brand × product cross product.
+ */
+public final class PriceKeyBatches {
+
+    /**
+     * Maximum number of product ids bound in a single query.
+     */
+    public static final int PRODUCTS_PER_QUERY = 500;
+
+    private PriceKeyBatches() {
+    }
+
+    /**
+     * Runs {@code query} with each brand and a chunk of its product ids, and groups the rows it returns by pair.
+     * Pairs without rows are absent from the result.
+     */
+    public static <T> Map<PriceKey, List<T>> fetch(Collection<PriceKey> keys,
+                                                   BiFunction<Integer, List<Long>, List<T>> query,
+                                                   Function<? super T, PriceKey> keyOf) {
+        Map<Integer, List<Long>> productsByBrand = new LinkedHashMap<>();
+        for (PriceKey key : new LinkedHashSet<>(keys)) {
+            productsByBrand.computeIfAbsent(key.brandId(), brandId -> new ArrayList<>()).add(key.productId());
+        }
+        Map<PriceKey, List<T>> rowsByKey = new HashMap<>();
+        productsByBrand.forEach((brandId, productIds) -> {
+            for (int from = 0; from < productIds.size(); from += PRODUCTS_PER_QUERY) {
+                List<Long> chunk = productIds.subList(from, Math.min(from + PRODUCTS_PER_QUERY, productIds.size()));
+                query.apply(brandId, chunk)
+                        .forEach(row -> rowsByKey.computeIfAbsent(keyOf.apply(row), k -> new ArrayList<>()).add(row));
+            }
+        });
+        return rowsByKey;
+    }
+}
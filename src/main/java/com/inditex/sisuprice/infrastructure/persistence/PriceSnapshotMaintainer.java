@@ -0,0 +1,51 @@
+package com.inditex.sisuprice.infrastructure.persistence;
+
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Applies changes announced by writers, on this node or another, to the snapshot of the {@code memory} or
+ * {@code offheap} profile once they commit, without waiting for the next poll of {@link PriceChangeRefresher}.
+ * Changes polled by it are already applied.
+ */
+@Component
+@Profile({"memory", "offheap"})
+@Slf4j
+public class PriceSnapshotMaintainer {
+
+    private final SnapshotPriceRepository repository;
+
+    private final PriceDbRepository prices;
+
+    public PriceSnapshotMaintainer(SnapshotPriceRepository repository, PriceDbRepository prices) {
+        this.repository = repository;
+        this.prices = prices;
+    }
+
+    /**
+     * Reloads the named pairs, keeping the snapshot version, and retries when a polled batch was applied in
+     * between. Runs before the cache eviction listener, so an evicted entry cannot be reloaded from the old
+     * snapshot.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onPricesChanged(PricesChangedEvent event) {
+        if (event.origin() == PricesChangedEvent.Origin.FEED) {
+            return;
+        }
+        if (event.full()) {
+            repository.reload();
+            return;
+        }
+        long version;
+        do {
+            version = repository.version();
+        } while (!repository.apply(PriceChangeRefresher.timelines(prices, event.keys()), version, version));
+        log.debug("snapshot refresh from event keys={} version={}", event.keys().size(), version);
+    }
+}
@@ -0,0 +1,34 @@
+package com.inditex.sisuprice.infrastructure.persistence;
+
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.repository.PriceRepository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link PriceRepository} serving its own copy of PRICES, kept fresh from the {@link PriceChangeFeed} by
+ * {@link PriceChangeRefresher}.
+ */
+public interface SnapshotPriceRepository extends PriceRepository {
+
+    /**
+     * Change version the current data reflects.
+     */
+    long version();
+
+    /**
+     * Replaces the timelines of the given keys, read after {@code fromVersion}, and advances the version to
+     * {@code toVersion}. Keys mapped to an empty list are removed. Ignored when the data moved past
+     * {@code fromVersion} meanwhile, for example through a reload, since the timelines may then be older.
+     *
+     * @return whether the timelines were applied
+     */
+    boolean apply(Map<PriceKey, List<PriceRecord>> timelines, long fromVersion, long toVersion);
+
+    /**
+     * Rebuilds the data from the database.
+     */
+    void reload();
+}
@@ -0,0 +1,198 @@
+package com.inditex.sisuprice.infrastructure.persistence.jdbc;
+
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceQuery;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceSegments;
+import com.inditex.sisuprice.domain.PriceWindow;
+import com.inditex.sisuprice.domain.repository.PriceRepository;
+import com.inditex.sisuprice.infrastructure.persistence.PriceKeyBatches;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Reads PRICES with plain prepared statements (profile {@code jdbc}), mapping each row straight to a
+ * {@link PriceRecord}. The queries and rules are those of
+ * {@link com.inditex.sisuprice.infrastructure.persistence.PriceDbRepository}, minus the entity, its
+ * persistence-context snapshot and the entity-to-domain copy. Writers keep using JPA.
+ */
+@Repository
+@Primary
+@Profile("jdbc")
+@Slf4j
+public class JdbcPriceRepository implements PriceRepository {
+
+    /**
+     * Rows fetched per round trip by scans.
+     */
+    static final int FETCH_SIZE = 1000;
+
+    private static final String COLUMNS =
+            "SELECT BRAND_ID, START_DATE, END_DATE, PRICE_LIST, PRODUCT_ID, PRIORITY, PRICE, CURR FROM PRICES ";
+
+    private static final String FIND_ALL = COLUMNS + "ORDER BY BRAND_ID, PRODUCT_ID, START_DATE";
+
+    private static final String FIND_APPLICABLE = COLUMNS + """
+            WHERE BRAND_ID = ? AND PRODUCT_ID = ? AND START_DATE <= ? AND END_DATE > ?
+            ORDER BY PRIORITY DESC, START_DATE DESC, PRICE_LIST DESC
+            LIMIT 1""";
+
+    private static final String FIND_TIMELINE = COLUMNS + "WHERE BRAND_ID = ? AND PRODUCT_ID = ?";
+
+    private static final String FIND_OVERLAPPING = COLUMNS + """
+            WHERE BRAND_ID = ? AND PRODUCT_ID = ? AND START_DATE < ? AND END_DATE > ?""";
+
+    private static final String FIND_FOR_BRAND = COLUMNS + """
+            WHERE BRAND_ID = ? AND PRODUCT_ID > ? AND PRODUCT_ID <= ? AND START_DATE <= ? AND END_DATE > ?
+            ORDER BY BRAND_ID, PRODUCT_ID, START_DATE""";
+
+    private static final String FIND_TIMELINES = COLUMNS + """
+            WHERE BRAND_ID = :brandId AND PRODUCT_ID IN (:productIds)""";
+
+    private static final ResultSetExtractor<Optional<PriceRecord>> FIRST =
+            rs -> rs.next() ? Optional.of(toRecord(rs, 0)) : Optional.empty();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedTemplate;
+
+    private final PriceMetrics metrics;
+
+    public JdbcPriceRepository(DataSource dataSource, PriceMetrics metrics) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.namedTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public List<PriceRecord> findAll() {
+        log.debug("jdbc findAll");
+        return jdbcTemplate.query(FIND_ALL, JdbcPriceRepository::toRecord);
+    }
+
+    /**
+     * Rows are mapped as the cursor advances. Closing the stream closes the statement and returns the connection.
+     */
+    @Override
+    public Stream<PriceRecord> streamAll() {
+        log.debug("jdbc streamAll");
+        return jdbcTemplate.queryForStream(FIND_ALL, JdbcPriceRepository::toRecord);
+    }
+
+    @Override
+    public Optional<PriceRecord> findApplicable(int brandId, long productId, LocalDateTime applicationDate) {
+        log.debug("jdbc findApplicable brandId={} productId={} date={}", brandId, productId, applicationDate);
+        return metrics.time(PriceMetrics.Stage.DB, "findApplicable",
+                () -> jdbcTemplate.query(FIND_APPLICABLE, FIRST, brandId, productId, applicationDate, applicationDate),
+                Optional::isPresent);
+    }
+
+    @Override
+    public PriceWindow findWindow(int brandId, long productId, LocalDateTime applicationDate) {
+        log.debug("jdbc findWindow brandId={} productId={} date={}", brandId, productId, applicationDate);
+        List<PriceRecord> rows = metrics.time(PriceMetrics.Stage.DB, "findWindow",
+                () -> jdbcTemplate.query(FIND_TIMELINE, JdbcPriceRepository::toRecord, brandId, productId),
+                found -> !found.isEmpty());
+        return PriceSegments.windowAt(rows, applicationDate);
+    }
+
+    /**
+     * Same single ordered scan as the JPA adapter: the {@link PriceRecord#PRECEDENCE} winner of each product is
+     * kept as its rows go by, and the cursor is closed as soon as {@code limit} products are resolved.
+     */
+    @Override
+    public List<PriceRecord> findApplicableForBrand(int brandId, LocalDateTime date, long afterProductId,
+                                                    long toProductId, int limit) {
+        log.debug("jdbc findApplicableForBrand brandId={} date={} after={} to={} limit={}",
+                brandId, date, afterProductId, toProductId, limit);
+        return metrics.time(PriceMetrics.Stage.DB, "findApplicableForBrand",
+                () -> jdbcTemplate.query(FIND_FOR_BRAND, winners(limit),
+                        brandId, afterProductId, toProductId, date, date),
+                found -> !found.isEmpty());
+    }
+
+    @Override
+    public List<PriceRecord> findOverlapping(int brandId, long productId, LocalDateTime from, LocalDateTime to) {
+        log.debug("jdbc findOverlapping brandId={} productId={} from={} to={}", brandId, productId, from, to);
+        return metrics.time(PriceMetrics.Stage.DB, "findOverlapping",
+                () -> jdbcTemplate.query(FIND_OVERLAPPING, JdbcPriceRepository::toRecord, brandId, productId, to, from),
+                found -> !found.isEmpty());
+    }
+
+    /**
+     * Loads the rows of the queried pairs through {@link PriceKeyBatches} and resolves every lookup in memory from
+     * the rows of its pair.
+     */
+    @Override
+    public List<PriceWindow> findWindows(List<PriceQuery> queries) {
+        List<PriceKey> keys = queries.stream().map(PriceQuery::key).toList();
+        log.debug("jdbc findWindows queries={}", queries.size());
+        Map<PriceKey, List<PriceRecord>> rowsByKey = PriceKeyBatches.fetch(keys, (brandId, productIds) ->
+                        metrics.time(PriceMetrics.Stage.DB, "findTimelines",
+                                () -> namedTemplate.query(FIND_TIMELINES,
+                                        Map.of("brandId", brandId, "productIds", productIds), JdbcPriceRepository::toRecord),
+                                found -> !found.isEmpty()),
+                PriceKey::of);
+        return queries.stream()
+                .map(q -> PriceSegments.windowAt(rowsByKey.getOrDefault(q.key(), List.of()), q.applicationDate()))
+                .toList();
+    }
+
+    private static ResultSetExtractor<List<PriceRecord>> winners(int limit) {
+        return rs -> winners(rs, limit);
+    }
+
+    private static List<PriceRecord> winners(ResultSet rs, int limit) throws SQLException {
+        List<PriceRecord> winners = new ArrayList<>(Math.min(limit, FETCH_SIZE));
+        PriceRecord best = null;
+        while (rs.next()) {
+            PriceRecord candidate = toRecord(rs, 0);
+            if (best != null && best.productId() != candidate.productId()) {
+                winners.add(best);
+                best = null;
+                if (winners.size() == limit) {
+                    return winners;
+                }
+            }
+            if (best == null || PriceRecord.PRECEDENCE.compare(candidate, best) > 0) {
+                best = candidate;
+            }
+        }
+        if (best != null) {
+            winners.add(best);
+        }
+        return winners;
+    }
+
+    /**
+     * Reads the columns of {@link #COLUMNS} by position.
+     */
+    private static PriceRecord toRecord(ResultSet rs, int row) throws SQLException {
+        return new PriceRecord(
+                rs.getInt(1),
+                rs.getObject(2, LocalDateTime.class),
+                rs.getObject(3, LocalDateTime.class),
+                rs.getInt(4),
+                rs.getLong(5),
+                rs.getInt(6),
+                rs.getBigDecimal(7),
+                rs.getString(8));
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PriceJpaRepository extends JpaRepository<PriceEntity, Long> {
@@ -15,10 +17,29 @@ public interface PriceJpaRepository extends JpaRepository<PriceEntity, Long> {
               AND p.productId = :productId 
               AND p.startDate <= :applicationDate 
               AND p.endDate > :applicationDate 
-            ORDER BY p.priority DESC 
+            ORDER BY p.priority DESC, p.startDate DESC, p.priceList DESC 
             LIMIT 1
             """)
     Optional<PriceEntity> findTopApplicable(@Param("brandId") int brandId,
                                              @Param("productId") long productId,
                                              @Param("applicationDate") LocalDateTime applicationDate);
+
+    List<PriceEntity> findByBrandIdAndProductId(int brandId, long productId);
+
+    @Query("""
+            SELECT p FROM PriceEntity p
+            WHERE p.brandId = :brandId
+              AND p.productId = :productId
+              AND p.startDate < :to
+              AND p.endDate > :from
+            """)
+    List<PriceEntity> findOverlapping(@Param("brandId") int brandId,
+                                      @Param("productId") long productId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    /**
+     * Rows of the given products of one brand.
+     */
+    List<PriceEntity> findByBrandIdAndProductIdIn(int brandId, Collection<Long> productIds);
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.inditex.sisuprice.infrastructure.persistence.jpa;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Row of PRICE_SEGMENTS: a non-overlapping period of a brand/product timeline and the PRICES row winning it.
+ */
+@Entity
+@Table(name = "PRICE_SEGMENTS")
+@lombok.Getter
+@lombok.Setter
+public class PriceSegmentEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "BRAND_ID", nullable = false)
+    private int brandId;
+
+    @Column(name = "PRODUCT_ID", nullable = false)
+    private long productId;
+
+    @Column(name = "SEGMENT_FROM", nullable = false)
+    private LocalDateTime segmentFrom;
+
+    @Column(name = "SEGMENT_TO", nullable = false)
+    private LocalDateTime segmentTo;
+
+    @Column(name = "START_DATE", nullable = false)
+    private LocalDateTime startDate;
+
+    @Column(name = "END_DATE", nullable = false)
+    private LocalDateTime endDate;
+
+    @Column(name = "PRICE_LIST", nullable = false)
+    private int priceList;
+
+    @Column(name = "PRIORITY", nullable = false)
+    private int priority;
+
+    @Column(name = "PRICE", nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "CURR", nullable = false, length = 3)
+    private String curr;
+
+}
@@ -0,0 +1,66 @@
+package com.inditex.sisuprice.infrastructure.persistence.jpa;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PriceSegmentJpaRepository extends JpaRepository<PriceSegmentEntity, Long> {
+
+    /**
+     * Segments never overlap, so the last one starting at or before the date is the only candidate:
+     * a single backward seek on IDX_PRICE_SEGMENTS_LOOKUP, no sort of overlapping rows.
+     */
+    @Query("""
+            SELECT s FROM PriceSegmentEntity s 
+            WHERE s.brandId = :brandId 
+              AND s.productId = :productId 
+              AND s.segmentFrom <= :applicationDate 
+            ORDER BY s.segmentFrom DESC 
+            LIMIT 1
+            """)
+    Optional<PriceSegmentEntity> findLastStartingAtOrBefore(@Param("brandId") int brandId,
+                                                            @Param("productId") long productId,
+                                                            @Param("applicationDate") LocalDateTime applicationDate);
+
+    /**
+     * At most one segment per product covers the date, so the products of the page are the first {@code limit}
+     * covering segments in key order.
+     */
+    @Query("""
+            SELECT s FROM PriceSegmentEntity s
+            WHERE s.brandId = :brandId
+              AND s.productId > :afterProductId
+              AND s.productId <= :toProductId
+              AND s.segmentFrom <= :applicationDate
+              AND s.segmentTo > :applicationDate
+            ORDER BY s.productId
+            """)
+    List<PriceSegmentEntity> findCoveringForBrand(@Param("brandId") int brandId,
+                                                  @Param("applicationDate") LocalDateTime applicationDate,
+                                                  @Param("afterProductId") long afterProductId,
+                                                  @Param("toProductId") long toProductId,
+                                                  Limit limit);
+
+    @Query("""
+            SELECT s FROM PriceSegmentEntity s 
+            WHERE s.brandId = :brandId 
+              AND s.productId = :productId 
+              AND s.segmentFrom > :applicationDate 
+            ORDER BY s.segmentFrom ASC 
+            LIMIT 1
+            """)
+    Optional<PriceSegmentEntity> findFirstStartingAfter(@Param("brandId") int brandId,
+                                                        @Param("productId") long productId,
+                                                        @Param("applicationDate") LocalDateTime applicationDate);
+
+    /**
+     * Segments of the given products of one brand.
+     */
+    List<PriceSegmentEntity> findByBrandIdAndProductIdIn(int brandId, Collection<Long> productIds);
+}
@@ -0,0 +1,174 @@
+package com.inditex.sisuprice.infrastructure.persistence.memory;
+
+import com.inditex.sisuprice.config.ClusterMembership;
+import com.inditex.sisuprice.config.PartitionTable;
+import com.inditex.sisuprice.config.PartitionTableChangedEvent;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceWindow;
+import com.inditex.sisuprice.infrastructure.persistence.PriceChangeFeed;
+import com.inditex.sisuprice.infrastructure.persistence.PriceChangeRefresher;
+import com.inditex.sisuprice.infrastructure.persistence.PriceDbRepository;
+import com.inditex.sisuprice.infrastructure.persistence.SnapshotPriceRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Serves prices from an in-memory snapshot of the PRICES table (profile {@code memory}).
+ * The database is only read to build snapshots; lookups run against the current snapshot, and
+ * {@link #reload()} publishes a new one atomically so readers never lock. Between reloads,
+ * {@link #apply} replaces the timelines of changed keys one by one (see {@link PriceChangeRefresher}).
+ * <p>
+ * The snapshot remembers the {@link PriceChangeFeed} version it reflects. Writers are serialized;
+ * readers never wait for them.
+ * <p>
+ * In cluster mode the snapshot holds only the keys this node owns ({@link ClusterMembership}) and is reloaded when
+ * partitions move. Reads of other keys, which the routing filter normally sends to their owner, and full scans
+ * go to the database. The snapshot remembers the partition table it was loaded for, and a key is only read from
+ * it when this node owns the key under both that table and the current one: while a rebalance reloads, keys the
+ * node has just taken over are read from the database instead of missing from the old snapshot.
+ */
+@Repository
+@Primary
+@Profile("memory")
+@Slf4j
+public class InMemoryPriceRepository implements SnapshotPriceRepository {
+
+    private final PriceDbRepository source;
+
+    private final PriceChangeFeed changes;
+
+    private final ClusterMembership membership;
+
+    private final AtomicReference<State> state = new AtomicReference<>(new State(PriceSnapshot.of(List.of()), null));
+
+    private volatile long version;
+
+    public InMemoryPriceRepository(PriceDbRepository source, PriceChangeFeed changes, ClusterMembership membership) {
+        this.source = source;
+        this.changes = changes;
+        this.membership = membership;
+    }
+
+    @PostConstruct
+    @Override
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        // read the version first: rows changed while loading are applied again by the next refresh
+        long loadedVersion = changes.currentVersion();
+        PartitionTable table = membership.table().orElse(null);
+        PriceSnapshot next = PriceSnapshot.of(owned(table));
+        state.set(new State(next, table));
+        version = loadedVersion;
+        log.info("memory snapshot loaded rows={} keys={} version={} tookMs={}",
+                next.size(), next.keys(), loadedVersion, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<PriceRecord> owned(PartitionTable table) {
+        if (table == null) {
+            return source.findAll();
+        }
+        try (Stream<PriceRecord> rows = source.streamAll()) {
+            return rows.filter(row -> membership.owns(table, row.brandId(), row.productId())).toList();
+        }
+    }
+
+    @EventListener
+    public void onPartitionsMoved(PartitionTableChangedEvent event) {
+        reload();
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Keys this node does not own are removed as well.
+     */
+    @Override
+    public synchronized boolean apply(Map<PriceKey, List<PriceRecord>> timelines, long fromVersion, long toVersion) {
+        if (version != fromVersion) {
+            log.debug("memory apply skipped fromVersion={} currentVersion={}", fromVersion, version);
+            return false;
+        }
+        State current = state.get();
+        timelines.forEach((key, timeline) -> current.snapshot().replace(key,
+                membership.owns(current.table(), key.brandId(), key.productId()) ? timeline : List.of()));
+        version = toVersion;
+        return true;
+    }
+
+    @Override
+    public List<PriceRecord> findAll() {
+        return membership.ownsEverything() ? state.get().snapshot().records() : source.findAll();
+    }
+
+    @Override
+    public Stream<PriceRecord> streamAll() {
+        return membership.ownsEverything() ? state.get().snapshot().stream() : source.streamAll();
+    }
+
+    @Override
+    public Optional<PriceRecord> findApplicable(int brandId, long productId, LocalDateTime applicationDate) {
+        State current = state.get();
+        if (!current.serves(membership, brandId, productId)) {
+            return source.findApplicable(brandId, productId, applicationDate);
+        }
+        return current.snapshot().find(new PriceKey(brandId, productId))
+                .flatMap(index -> index.findApplicable(applicationDate));
+    }
+
+    @Override
+    public PriceWindow findWindow(int brandId, long productId, LocalDateTime applicationDate) {
+        State current = state.get();
+        if (!current.serves(membership, brandId, productId)) {
+            return source.findWindow(brandId, productId, applicationDate);
+        }
+        return current.snapshot().find(new PriceKey(brandId, productId))
+                .map(index -> index.findWindow(applicationDate))
+                .orElseGet(PriceWindow::empty);
+    }
+
+    @Override
+    public List<PriceRecord> findApplicableForBrand(int brandId, LocalDateTime date, long afterProductId,
+                                                    long toProductId, int limit) {
+        State current = state.get();
+        if (!membership.ownsBrand(brandId) || !membership.ownsBrand(current.table(), brandId)) {
+            return source.findApplicableForBrand(brandId, date, afterProductId, toProductId, limit);
+        }
+        return current.snapshot().findApplicable(brandId, date, afterProductId, toProductId, limit);
+    }
+
+    @Override
+    public List<PriceRecord> findOverlapping(int brandId, long productId, LocalDateTime from, LocalDateTime to) {
+        State current = state.get();
+        if (!current.serves(membership, brandId, productId)) {
+            return source.findOverlapping(brandId, productId, from, to);
+        }
+        return current.snapshot().find(new PriceKey(brandId, productId))
+                .map(index -> index.findOverlapping(from, to))
+                .orElseGet(List::of);
+    }
+
+    /**
+     * A snapshot and the partition table it was loaded for, {@code null} in single-node mode.
+     */
+    private record State(PriceSnapshot snapshot, PartitionTable table) {
+
+        boolean serves(ClusterMembership membership, int brandId, long productId) {
+            return membership.owns(brandId, productId) && membership.owns(table, brandId, productId);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.inditex.sisuprice.infrastructure.persistence.memory;
+
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceSegments;
+import com.inditex.sisuprice.domain.PriceWindow;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable interval index over the price records of a single brand/product.
+ * Records are sorted by start date and paired with the running maximum end date, so a lookup
+ * binary-searches the last record starting at or before the date and walks backwards only while
+ * an earlier record can still cover it.
+ */
+final class PriceIntervalIndex {
+
+    private final PriceRecord[] records;
+
+    private final LocalDateTime[] maxEndUpTo;
+
+    private PriceIntervalIndex(PriceRecord[] records) {
+        this.records = records;
+        this.maxEndUpTo = new LocalDateTime[records.length];
+        LocalDateTime maxEnd = LocalDateTime.MIN;
+        for (int i = 0; i < records.length; i++) {
+            if (records[i].endDate().isAfter(maxEnd)) {
+                maxEnd = records[i].endDate();
+            }
+            maxEndUpTo[i] = maxEnd;
+        }
+    }
+
+    static PriceIntervalIndex of(Collection<PriceRecord> records) {
+        PriceRecord[] sorted = records.toArray(PriceRecord[]::new);
+        Arrays.sort(sorted, Comparator.comparing(PriceRecord::startDate));
+        return new PriceIntervalIndex(sorted);
+    }
+
+    Optional<PriceRecord> findApplicable(LocalDateTime date) {
+        PriceRecord best = null;
+        for (int i = startingAtOrBefore(date); i >= 0 && maxEndUpTo[i].isAfter(date); i--) {
+            PriceRecord candidate = records[i];
+            if (candidate.endDate().isAfter(date)
+                    && (best == null || PriceRecord.PRECEDENCE.compare(candidate, best) > 0)) {
+                best = candidate;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    PriceWindow findWindow(LocalDateTime date) {
+        return PriceSegments.windowAt(Arrays.asList(records), date);
+    }
+
+    /**
+     * Records starting before {@code to} and ending after {@code from}; the scan stops at the first later start.
+     */
+    List<PriceRecord> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<PriceRecord> overlapping = new ArrayList<>();
+        for (int i = 0; i < records.length && records[i].startDate().isBefore(to); i++) {
+            if (records[i].endDate().isAfter(from)) {
+                overlapping.add(records[i]);
+            }
+        }
+        return overlapping;
+    }
+
+    List<PriceRecord> records() {
+        return List.of(records);
+    }
+
+    int size() {
+        return records.length;
+    }
+
+    /**
+     * Index of the last record whose start date is not after the given date, or -1 if none.
+     */
+    private int startingAtOrBefore(LocalDateTime date) {
+        int low = 0;
+        int high = records.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (records[mid].startDate().isAfter(date)) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return high;
+    }
+}
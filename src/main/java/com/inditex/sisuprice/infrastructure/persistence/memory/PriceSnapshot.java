@@ -0,0 +1,103 @@
+package com.inditex.sisuprice.infrastructure.persistence.memory;
+
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * View of the PRICES table grouped by brand/product.
+ * The index of a key is immutable; changes to a key are published copy-on-write by swapping in a new index,
+ * so readers see either the old or the new timeline of a key and never a partial one.
+ * Lookups go through a hash map; ordered scans walk a sorted set of the same keys.
+ */
+final class PriceSnapshot {
+
+    private final Map<PriceKey, PriceIntervalIndex> byKey;
+
+    private final NavigableSet<PriceKey> ordered;
+
+    private PriceSnapshot(Map<PriceKey, PriceIntervalIndex> byKey) {
+        this.byKey = byKey;
+        this.ordered = new ConcurrentSkipListSet<>(byKey.keySet());
+    }
+
+    static PriceSnapshot of(Collection<PriceRecord> records) {
+        Map<PriceKey, PriceIntervalIndex> byKey = records.stream()
+                .collect(Collectors.groupingByConcurrent(PriceKey::of, ConcurrentHashMap::new,
+                        Collectors.collectingAndThen(Collectors.toList(), PriceIntervalIndex::of)));
+        return new PriceSnapshot(byKey);
+    }
+
+    Optional<PriceIntervalIndex> find(PriceKey key) {
+        return Optional.ofNullable(byKey.get(key));
+    }
+
+    /**
+     * Replaces the timeline of a key; an empty collection removes the key.
+     */
+    void replace(PriceKey key, Collection<PriceRecord> records) {
+        if (records.isEmpty()) {
+            ordered.remove(key);
+            byKey.remove(key);
+        } else {
+            byKey.put(key, PriceIntervalIndex.of(records));
+            ordered.add(key);
+        }
+    }
+
+    List<PriceRecord> records() {
+        return byKey.values().stream()
+                .flatMap(index -> index.records().stream())
+                .toList();
+    }
+
+    /**
+     * Applicable record of each product of the brand after {@code afterProductId} and up to {@code toProductId},
+     * in product order, stopping at {@code limit}. Keys removed while walking are skipped.
+     */
+    List<PriceRecord> findApplicable(int brandId, LocalDateTime date, long afterProductId, long toProductId,
+                                     int limit) {
+        List<PriceRecord> winners = new ArrayList<>();
+        for (PriceKey key : ordered.subSet(new PriceKey(brandId, afterProductId), false,
+                new PriceKey(brandId, toProductId), true)) {
+            PriceIntervalIndex index = byKey.get(key);
+            if (index != null) {
+                index.findApplicable(date).ifPresent(winners::add);
+                if (winners.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return winners;
+    }
+
+    /**
+     * Records ordered by brand, product and start date; each timeline is already sorted.
+     */
+    Stream<PriceRecord> stream() {
+        return ordered.stream()
+                .map(byKey::get)
+                .filter(Objects::nonNull)
+                .flatMap(index -> index.records().stream());
+    }
+
+    int keys() {
+        return byKey.size();
+    }
+
+    int size() {
+        return byKey.values().stream().mapToInt(PriceIntervalIndex::size).sum();
+    }
+}
@@ -0,0 +1,592 @@
+package com.inditex.sisuprice.infrastructure.persistence.offheap;
+
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceWindow;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Immutable columnar store of price rows kept outside the Java heap.
+ * <p>
+ * Rows are sorted by brand, product and start date and every attribute lives in its own primitive column:
+ * epoch-second dates, the price as a long of cents and the currency as a dictionary code. Lookups binary-search
+ * the brand/product run and the start column directly in the buffer, and a {@link PriceRecord} is only
+ * created for the winning row. Besides the PRICES attributes, each row stores the maximum end date of its run
+ * up to that row so that backward scans stop as soon as no earlier row can cover the date.
+ * <p>
+ * A direct buffer holds at most 2 GiB, so rows are split into blocks of {@code blockRows} rows (a power of two,
+ * {@value #BLOCK_ROWS} by default, about 864 MiB), each with its own columns; a row index selects its block by
+ * shifting. All reads use absolute buffer accessors, so a store can be shared by any number of reader threads.
+ */
+public final class ColumnarPriceStore {
+
+    /**
+     * PRICE is DECIMAL(10,2): prices are stored as a long number of cents.
+     */
+    static final int PRICE_SCALE = 2;
+
+    /**
+     * Rows per block unless told otherwise.
+     */
+    static final int BLOCK_ROWS = 1 << 24;
+
+    /**
+     * Largest power of two whose block of columns still fits in one buffer.
+     */
+    static final int MAX_BLOCK_ROWS = Integer.highestOneBit(Integer.MAX_VALUE / Layout.BYTES_PER_ROW);
+
+    private static final int NONE = -1;
+
+    private final ByteBuffer[] blocks;
+
+    private final Layout[] layouts;
+
+    private final int rows;
+
+    private final int blockRows;
+
+    private final int shift;
+
+    private final int mask;
+
+    private final String[] currencies;
+
+    ColumnarPriceStore(ByteBuffer[] blocks, int rows, int blockRows, String[] currencies) {
+        checkBlockRows(blockRows);
+        if (blocks.length != blockCount(rows, blockRows)) {
+            throw new IllegalArgumentException(blocks.length + " blocks cannot hold " + rows + " rows of "
+                    + blockRows + " per block");
+        }
+        this.blocks = new ByteBuffer[blocks.length];
+        this.layouts = new Layout[blocks.length];
+        for (int b = 0; b < blocks.length; b++) {
+            this.blocks[b] = blocks[b].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            this.layouts[b] = new Layout(rowsInBlock(b, rows, blockRows));
+            if (this.blocks[b].capacity() < layouts[b].bytes()) {
+                throw new IllegalArgumentException("block " + b + " of " + this.blocks[b].capacity()
+                        + " bytes cannot hold " + layouts[b].rows + " rows (" + layouts[b].bytes() + " bytes)");
+            }
+        }
+        this.rows = rows;
+        this.blockRows = blockRows;
+        this.shift = Integer.numberOfTrailingZeros(blockRows);
+        this.mask = blockRows - 1;
+        this.currencies = currencies;
+    }
+
+    /**
+     * Builder sized for about {@code rows} rows; more or fewer may be added.
+     */
+    public static Builder builder(int rows) {
+        return new Builder(rows, BLOCK_ROWS);
+    }
+
+    static Builder builder(int rows, int blockRows) {
+        return new Builder(rows, blockRows);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    int blockRows() {
+        return blockRows;
+    }
+
+    /**
+     * Off-heap bytes used by the columns.
+     */
+    public long bytes() {
+        long bytes = 0;
+        for (Layout layout : layouts) {
+            bytes += layout.bytes();
+        }
+        return bytes;
+    }
+
+    public Optional<PriceRecord> findApplicable(int brandId, long productId, LocalDateTime date) {
+        int first = firstRowOf(brandId, productId);
+        if (first == NONE) {
+            return Optional.empty();
+        }
+        int winner = winnerAt(first, lastRowOf(first, brandId, productId), epochSecond(date));
+        return winner == NONE ? Optional.empty() : Optional.of(record(winner));
+    }
+
+    /**
+     * Same window rule as {@link com.inditex.sisuprice.domain.PriceSegments#windowAt}, computed on the columns.
+     */
+    public PriceWindow findWindow(int brandId, long productId, LocalDateTime date) {
+        int first = firstRowOf(brandId, productId);
+        if (first == NONE) {
+            return PriceWindow.empty();
+        }
+        int last = lastRowOf(first, brandId, productId);
+        long t = epochSecond(date);
+        int winner = winnerAt(first, last, t);
+        long from = winner == NONE ? Long.MIN_VALUE : start(winner);
+        long to = winner == NONE ? Long.MAX_VALUE : end(winner);
+        for (int row = first; row <= last; row++) {
+            if (end(row) <= start(row) || (winner != NONE && !outranks(row, winner))) {
+                continue;
+            }
+            if (end(row) <= t && end(row) > from) {
+                from = end(row);
+            } else if (start(row) > t && start(row) < to) {
+                to = start(row);
+            }
+        }
+        return new PriceWindow(
+                from == Long.MIN_VALUE ? LocalDateTime.MIN : dateTime(from),
+                to == Long.MAX_VALUE ? LocalDateTime.MAX : dateTime(to),
+                winner == NONE ? null : record(winner));
+    }
+
+    /**
+     * Walks the brand's rows from the first product after {@code afterProductId}, one product block at a time,
+     * resolving each block like {@link #findApplicable}.
+     */
+    public List<PriceRecord> findApplicableForBrand(int brandId, LocalDateTime date, long afterProductId,
+                                                    long toProductId, int limit) {
+        long t = epochSecond(date);
+        List<PriceRecord> winners = new ArrayList<>();
+        int first = firstRowAfter(brandId, afterProductId);
+        while (first < rows && winners.size() < limit && brand(first) == brandId && product(first) <= toProductId) {
+            int last = lastRowOf(first, brandId, product(first));
+            int winner = winnerAt(first, last, t);
+            if (winner != NONE) {
+                winners.add(record(winner));
+            }
+            first = last + 1;
+        }
+        return winners;
+    }
+
+    /**
+     * Rows of the brand/product starting before {@code to} and ending after {@code from}; only those are decoded.
+     */
+    public List<PriceRecord> findOverlapping(int brandId, long productId, LocalDateTime from, LocalDateTime to) {
+        int first = firstRowOf(brandId, productId);
+        if (first == NONE) {
+            return List.of();
+        }
+        int last = lastRowOf(first, brandId, productId);
+        long start = epochSecond(from);
+        long end = epochSecond(to);
+        List<PriceRecord> overlapping = new ArrayList<>();
+        for (int row = first; row <= last && start(row) < end; row++) {
+            if (end(row) > start) {
+                overlapping.add(record(row));
+            }
+        }
+        return overlapping;
+    }
+
+    /**
+     * Number of rows of the brand/product.
+     */
+    int rowsOf(int brandId, long productId) {
+        int first = firstRowOf(brandId, productId);
+        return first == NONE ? 0 : lastRowOf(first, brandId, productId) - first + 1;
+    }
+
+    /**
+     * Materializes every row on the heap; meant for exports and tests, not for lookups.
+     */
+    public List<PriceRecord> records() {
+        List<PriceRecord> records = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            records.add(record(row));
+        }
+        return records;
+    }
+
+    /**
+     * Rows in store order, materialized one at a time.
+     */
+    public Stream<PriceRecord> stream() {
+        return IntStream.range(0, rows).mapToObj(this::record);
+    }
+
+    /**
+     * Raw columns of every block, in the layout expected by
+     * {@link #ColumnarPriceStore(ByteBuffer[], int, int, String[])}.
+     */
+    ByteBuffer[] columns() {
+        ByteBuffer[] columns = new ByteBuffer[blocks.length];
+        for (int b = 0; b < blocks.length; b++) {
+            columns[b] = blocks[b].duplicate().position(0).limit((int) layouts[b].bytes()).slice();
+        }
+        return columns;
+    }
+
+    String[] currencies() {
+        return currencies.clone();
+    }
+
+    private int winnerAt(int first, int last, long t) {
+        int best = NONE;
+        for (int row = lastStartingAtOrBefore(first, last, t); row >= first && maxEnd(row) > t; row--) {
+            if (end(row) > t && (best == NONE || outranks(row, best))) {
+                best = row;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Same order as {@link PriceRecord#PRECEDENCE}.
+     */
+    private boolean outranks(int row, int other) {
+        if (priority(row) != priority(other)) {
+            return priority(row) > priority(other);
+        }
+        if (start(row) != start(other)) {
+            return start(row) > start(other);
+        }
+        return priceList(row) > priceList(other);
+    }
+
+    private int firstRowOf(int brandId, long productId) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareKey(mid, brandId, productId) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < rows && compareKey(low, brandId, productId) == 0 ? low : NONE;
+    }
+
+    /**
+     * Index of the first row whose key is after the given one, or {@link #rows()} if none.
+     */
+    private int firstRowAfter(int brandId, long productId) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareKey(mid, brandId, productId) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int lastRowOf(int first, int brandId, long productId) {
+        int low = first;
+        int high = rows - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (compareKey(mid, brandId, productId) > 0) {
+                high = mid - 1;
+            } else {
+                low = mid;
+            }
+        }
+        return low;
+    }
+
+    private int lastStartingAtOrBefore(int first, int last, long t) {
+        int low = first;
+        int high = last;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (start(mid) > t) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return high;
+    }
+
+    private int compareKey(int row, int brandId, long productId) {
+        int byBrand = Integer.compare(brand(row), brandId);
+        return byBrand != 0 ? byBrand : Long.compare(product(row), productId);
+    }
+
+    private PriceRecord record(int row) {
+        ByteBuffer block = blocks[row >>> shift];
+        Layout layout = layouts[row >>> shift];
+        return new PriceRecord(brand(row), dateTime(start(row)), dateTime(end(row)), priceList(row), product(row),
+                priority(row), BigDecimal.valueOf(block.getLong(index(layout.price, 8, row & mask)), PRICE_SCALE),
+                currencies[block.getShort(index(layout.currency, 2, row & mask))]);
+    }
+
+    private int brand(int row) {
+        return blocks[row >>> shift].getInt(index(layouts[row >>> shift].brand, 4, row & mask));
+    }
+
+    private long product(int row) {
+        return blocks[row >>> shift].getLong(index(layouts[row >>> shift].product, 8, row & mask));
+    }
+
+    private long start(int row) {
+        return blocks[row >>> shift].getLong(index(layouts[row >>> shift].start, 8, row & mask));
+    }
+
+    private long end(int row) {
+        return blocks[row >>> shift].getLong(index(layouts[row >>> shift].end, 8, row & mask));
+    }
+
+    private long maxEnd(int row) {
+        return blocks[row >>> shift].getLong(index(layouts[row >>> shift].maxEnd, 8, row & mask));
+    }
+
+    private int priority(int row) {
+        return blocks[row >>> shift].getInt(index(layouts[row >>> shift].priority, 4, row & mask));
+    }
+
+    private int priceList(int row) {
+        return blocks[row >>> shift].getInt(index(layouts[row >>> shift].priceList, 4, row & mask));
+    }
+
+    private static int index(long column, int width, int row) {
+        return (int) (column + (long) width * row);
+    }
+
+    static void checkBlockRows(int blockRows) {
+        if (blockRows < 1 || Integer.bitCount(blockRows) != 1 || blockRows > MAX_BLOCK_ROWS) {
+            throw new IllegalArgumentException("rows per block must be a power of two up to " + MAX_BLOCK_ROWS
+                    + ": " + blockRows);
+        }
+    }
+
+    static int blockCount(int rows, int blockRows) {
+        return (int) (((long) rows + blockRows - 1) / blockRows);
+    }
+
+    static int rowsInBlock(int block, int rows, int blockRows) {
+        return Math.min(blockRows, rows - block * blockRows);
+    }
+
+    static long epochSecond(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime dateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Byte offsets of the columns of one block for a given number of rows. Eight-byte columns come first so
+     * every column stays naturally aligned.
+     */
+    static final class Layout {
+
+        static final int BYTES_PER_ROW = 8 * 5 + 4 * 3 + 2;
+
+        /**
+         * Width in bytes of each column, in layout order.
+         */
+        private static final int[] WIDTHS = {8, 8, 8, 8, 8, 4, 4, 4, 2};
+
+        final int rows;
+        final long product;
+        final long start;
+        final long end;
+        final long maxEnd;
+        final long price;
+        final long brand;
+        final long priority;
+        final long priceList;
+        final long currency;
+        private final long bytes;
+
+        Layout(int rows) {
+            this.rows = rows;
+            long n = rows;
+            product = 0;
+            start = product + 8 * n;
+            end = start + 8 * n;
+            maxEnd = end + 8 * n;
+            price = maxEnd + 8 * n;
+            brand = price + 8 * n;
+            priority = brand + 4 * n;
+            priceList = priority + 4 * n;
+            currency = priceList + 4 * n;
+            bytes = currency + 2 * n;
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(rows + " rows exceed the 2 GiB limit of a single block");
+            }
+        }
+
+        long bytes() {
+            return bytes;
+        }
+
+        /**
+         * Copies the first {@code count} rows of every column from a block with this layout into one with
+         * {@code target}'s layout.
+         */
+        void copy(ByteBuffer from, Layout target, ByteBuffer to, int count) {
+            long[] sources = {product, start, end, maxEnd, price, brand, priority, priceList, currency};
+            long[] targets = {target.product, target.start, target.end, target.maxEnd, target.price, target.brand,
+                    target.priority, target.priceList, target.currency};
+            for (int c = 0; c < WIDTHS.length; c++) {
+                to.put((int) targets[c], from, (int) sources[c], WIDTHS[c] * count);
+            }
+        }
+    }
+
+    /**
+     * Writes rows straight into direct buffers, one block at a time. Rows must arrive ordered by brand, product
+     * and start date, which is the order of IDX_PRICES_LOOKUP. The expected row count only sizes the blocks:
+     * a block that runs out of room before reaching {@code blockRows} is grown, and the last block is trimmed
+     * on {@link #build()}. Sub-second boundaries cannot be encoded and are truncated to the second.
+     */
+    public static final class Builder {
+
+        private final int expected;
+
+        private final int blockRows;
+
+        private final int mask;
+
+        private final List<ByteBuffer> blocks = new ArrayList<>();
+
+        private final Map<String, Short> codes = new HashMap<>();
+
+        private String[] currencies = new String[8];
+
+        private ByteBuffer block;
+
+        private Layout layout;
+
+        private int rows;
+
+        private int truncated;
+
+        private int lastBrand;
+
+        private long lastProduct;
+
+        private long lastStart;
+
+        private long lastMaxEnd;
+
+        private Builder(int expected, int blockRows) {
+            checkBlockRows(blockRows);
+            this.expected = Math.max(expected, 0);
+            this.blockRows = blockRows;
+            this.mask = blockRows - 1;
+        }
+
+        public Builder add(PriceRecord priceRecord) {
+            if (rows == Integer.MAX_VALUE) {
+                throw new IllegalStateException("store is full, rows=" + rows);
+            }
+            if (priceRecord.startDate().getNano() != 0 || priceRecord.endDate().getNano() != 0) {
+                truncated++;
+            }
+            long start = epochSecond(priceRecord.startDate());
+            long end = epochSecond(priceRecord.endDate());
+            long maxEnd = end;
+            if (rows > 0) {
+                int byKey = lastBrand != priceRecord.brandId() ? Integer.compare(priceRecord.brandId(), lastBrand)
+                        : Long.compare(priceRecord.productId(), lastProduct);
+                if (byKey < 0 || (byKey == 0 && start < lastStart)) {
+                    throw new IllegalArgumentException("rows must be ordered by brand, product and start date: "
+                            + priceRecord);
+                }
+                if (byKey == 0) {
+                    maxEnd = Math.max(end, lastMaxEnd);
+                }
+            }
+            int row = reserve();
+            block.putInt(index(layout.brand, 4, row), priceRecord.brandId());
+            block.putLong(index(layout.product, 8, row), priceRecord.productId());
+            block.putLong(index(layout.start, 8, row), start);
+            block.putLong(index(layout.end, 8, row), end);
+            block.putLong(index(layout.maxEnd, 8, row), maxEnd);
+            block.putInt(index(layout.priority, 4, row), priceRecord.priority());
+            block.putInt(index(layout.priceList, 4, row), priceRecord.priceList());
+            block.putLong(index(layout.price, 8, row),
+                    priceRecord.price().setScale(PRICE_SCALE).unscaledValue().longValueExact());
+            block.putShort(index(layout.currency, 2, row), code(priceRecord.curr()));
+            lastBrand = priceRecord.brandId();
+            lastProduct = priceRecord.productId();
+            lastStart = start;
+            lastMaxEnd = maxEnd;
+            rows++;
+            return this;
+        }
+
+        /**
+         * Rows added so far whose dates were truncated to whole seconds.
+         */
+        public int truncated() {
+            return truncated;
+        }
+
+        public ColumnarPriceStore build() {
+            int used = rows & mask;
+            if (block != null && used != 0 && used < layout.rows) {
+                resize(used);
+            }
+            return new ColumnarPriceStore(blocks.toArray(ByteBuffer[]::new), rows, blockRows,
+                    Arrays.copyOf(currencies, codes.size()));
+        }
+
+        /**
+         * Index of the next row inside the current block, opening or growing the block as needed.
+         */
+        private int reserve() {
+            int row = rows & mask;
+            if (row == 0) {
+                int size = (int) Math.min(blockRows, Math.max((long) expected - rows, 1));
+                layout = new Layout(size);
+                block = allocate(layout);
+                blocks.add(block);
+            } else if (row == layout.rows) {
+                resize((int) Math.min(blockRows, Math.max(2L * row, 16)));
+            }
+            return row;
+        }
+
+        private void resize(int size) {
+            Layout next = new Layout(size);
+            ByteBuffer grown = allocate(next);
+            layout.copy(block, next, grown, rows & mask);
+            layout = next;
+            block = grown;
+            blocks.set(blocks.size() - 1, grown);
+        }
+
+        private static ByteBuffer allocate(Layout layout) {
+            return ByteBuffer.allocateDirect((int) Math.max(layout.bytes(), 1)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private short code(String currency) {
+            return codes.computeIfAbsent(currency, c -> {
+                int next = codes.size();
+                if (next > Short.MAX_VALUE) {
+                    throw new IllegalStateException("too many currencies");
+                }
+                if (next == currencies.length) {
+                    currencies = Arrays.copyOf(currencies, next * 2);
+                }
+                currencies[next] = c;
+                return (short) next;
+            });
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.inditex.sisuprice.infrastructure.persistence.offheap;
+
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceWindow;
+import com.inditex.sisuprice.infrastructure.persistence.PriceChangeFeed;
+import com.inditex.sisuprice.infrastructure.persistence.PriceChangeFeed.PriceChange;
+import com.inditex.sisuprice.infrastructure.persistence.PriceDbRepository;
+import com.inditex.sisuprice.infrastructure.persistence.SnapshotPriceRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Serves prices from a {@link ColumnarPriceStore} held in direct memory (profile {@code offheap}).
+ * Same snapshot model as the {@code memory} profile, but the rows cost a fixed
+ * {@value ColumnarPriceStore.Layout#BYTES_PER_ROW} bytes outside the heap instead of a graph of
+ * objects the collector has to trace. Replaced stores are freed once no reader holds them.
+ * <p>
+ * The store is immutable, so {@link #apply} keeps the new timelines of changed keys in a small overlay store
+ * that lookups of those keys read instead. Once the overlay holds more than {@code pricing.offheap.compact-after-keys}
+ * keys, both are merged into a new store. Writers are serialized; readers never wait for them.
+ * <p>
+ * When {@code pricing.offheap.snapshot-file} is set, every store built from the database or compacted is also
+ * written to that {@link PriceSnapshotFile} together with its change version. Startup maps an existing valid file
+ * instead of reading PRICES and applies the changes made since, so a node serves within seconds. The file is
+ * discarded, and the store loaded from the database, when the database is behind it, when more keys changed
+ * since than the overlay may hold, or when the row counts disagree afterwards, which is how deletions whose
+ * tombstones were already pruned show.
+ */
+@Repository
+@Primary
+@Profile("offheap")
+@Slf4j
+public class OffHeapPriceRepository implements SnapshotPriceRepository {
+
+    static final Comparator<PriceRecord> STORE_ORDER = STREAM_ORDER;
+
+    private static final int CATCH_UP_BATCH = 1000;
+
+    private final PriceDbRepository source;
+
+    private final PriceChangeFeed changes;
+
+    private final Path snapshotFile;
+
+    private final int compactAfterKeys;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.of(ColumnarPriceStore.builder(0).build(), 0));
+
+    public OffHeapPriceRepository(PriceDbRepository source, PriceChangeFeed changes,
+                                  @Value("${pricing.offheap.snapshot-file:}") String snapshotFile,
+                                  @Value("${pricing.offheap.compact-after-keys:10000}") int compactAfterKeys) {
+        this.source = source;
+        this.changes = changes;
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.compactAfterKeys = compactAfterKeys;
+    }
+
+    @PostConstruct
+    public synchronized void open() {
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            long start = System.nanoTime();
+            try {
+                PriceSnapshotFile.Snapshot mapped = PriceSnapshotFile.map(snapshotFile);
+                if (catchUp(mapped)) {
+                    State current = state.get();
+                    log.info("offheap store mapped file={} rows={} bytes={} version={} changedKeys={} tookMs={}",
+                            snapshotFile, current.rows, mapped.store().bytes(), current.version,
+                            current.overlay.size(), (System.nanoTime() - start) / 1_000_000);
+                    return;
+                }
+            } catch (IllegalStateException | UncheckedIOException e) {
+                log.warn("offheap snapshot unusable, loading from database file={} reason={}",
+                        snapshotFile, e.getMessage());
+            }
+        }
+        reload();
+    }
+
+    /**
+     * Serves the mapped snapshot and applies the changes made after its version.
+     *
+     * @return whether the snapshot now matches the database; when not, the store must be reloaded
+     */
+    private boolean catchUp(PriceSnapshotFile.Snapshot mapped) {
+        long current = changes.currentVersion();
+        if (current < mapped.changeVersion()) {
+            log.warn("offheap snapshot ahead of the database, loading from database file={} version={} "
+                    + "databaseVersion={}", snapshotFile, mapped.changeVersion(), current);
+            return false;
+        }
+        state.set(State.of(mapped.store(), mapped.changeVersion()));
+        List<PriceChange> batch;
+        while (!(batch = changes.changesSince(version(), CATCH_UP_BATCH)).isEmpty()) {
+            if (state.get().overlay.size() + batch.size() > compactAfterKeys) {
+                log.warn("offheap snapshot too old, loading from database file={} version={} databaseVersion={}",
+                        snapshotFile, mapped.changeVersion(), current);
+                return false;
+            }
+            apply(timelines(batch.stream().map(PriceChange::key).toList()), version(),
+                    batch.get(batch.size() - 1).version());
+        }
+        long rows = source.count();
+        if (state.get().rows != rows) {
+            log.warn("offheap snapshot rows differ from the database, loading from database file={} rows={} "
+                    + "databaseRows={}", snapshotFile, state.get().rows, rows);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the store from the database and, when configured, rewrites the snapshot file. Rows are streamed
+     * in store order straight into the builder, sized by a count taken first, so the table is never held on the
+     * heap.
+     */
+    @Override
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        // read the version first: rows changed while loading are applied again by the next refresh
+        long loadedVersion = changes.currentVersion();
+        ColumnarPriceStore.Builder builder = ColumnarPriceStore.builder((int) Math.min(source.count(), Integer.MAX_VALUE));
+        try (Stream<PriceRecord> rows = source.streamAll()) {
+            rows.forEach(builder::add);
+        }
+        ColumnarPriceStore next = builder.build();
+        state.set(State.of(next, loadedVersion));
+        if (builder.truncated() > 0) {
+            log.warn("offheap rows with sub-second boundaries truncated to the second rows={}", builder.truncated());
+        }
+        log.info("offheap store loaded rows={} bytes={} version={} tookMs={}",
+                next.rows(), next.bytes(), loadedVersion, (System.nanoTime() - start) / 1_000_000);
+        write(next, loadedVersion);
+    }
+
+    @Override
+    public long version() {
+        return state.get().version;
+    }
+
+    /**
+     * Adds the timelines to the overlay, compacting it into a new store once it holds more than
+     * {@code pricing.offheap.compact-after-keys} keys.
+     */
+    @Override
+    public synchronized boolean apply(Map<PriceKey, List<PriceRecord>> timelines, long fromVersion, long toVersion) {
+        State current = state.get();
+        if (current.version != fromVersion) {
+            log.debug("offheap apply skipped fromVersion={} currentVersion={}", fromVersion, current.version);
+            return false;
+        }
+        State next = current.with(timelines, toVersion);
+        state.set(next.overlay.size() > compactAfterKeys ? compact(next) : next);
+        return true;
+    }
+
+    private State compact(State current) {
+        long start = System.nanoTime();
+        ColumnarPriceStore.Builder builder = ColumnarPriceStore.builder((int) Math.min(current.rows, Integer.MAX_VALUE));
+        try (Stream<PriceRecord> rows = current.stream()) {
+            rows.forEach(builder::add);
+        }
+        ColumnarPriceStore next = builder.build();
+        log.info("offheap store compacted keys={} rows={} version={} tookMs={}", current.overlay.size(), next.rows(),
+                current.version, (System.nanoTime() - start) / 1_000_000);
+        write(next, current.version);
+        return State.of(next, current.version);
+    }
+
+    private void write(ColumnarPriceStore store, long version) {
+        if (snapshotFile == null) {
+            return;
+        }
+        try {
+            PriceSnapshotFile.write(store, version, snapshotFile);
+            log.info("offheap snapshot written file={} version={}", snapshotFile, version);
+        } catch (UncheckedIOException e) {
+            log.warn("offheap snapshot not written file={} reason={}", snapshotFile, e.getMessage());
+        }
+    }
+
+    private Map<PriceKey, List<PriceRecord>> timelines(Collection<PriceKey> keys) {
+        Map<PriceKey, List<PriceRecord>> loaded = source.findTimelines(keys);
+        Map<PriceKey, List<PriceRecord>> timelines = new HashMap<>();
+        keys.forEach(key -> timelines.put(key, loaded.getOrDefault(key, List.of())));
+        return timelines;
+    }
+
+    @Override
+    public List<PriceRecord> findAll() {
+        State current = state.get();
+        if (current.overlay.isEmpty()) {
+            return current.store.records();
+        }
+        try (Stream<PriceRecord> rows = current.stream()) {
+            return rows.toList();
+        }
+    }
+
+    /**
+     * Store order is the stream order, so rows are decoded straight from the columns.
+     */
+    @Override
+    public Stream<PriceRecord> streamAll() {
+        return state.get().stream();
+    }
+
+    @Override
+    public Optional<PriceRecord> findApplicable(int brandId, long productId, LocalDateTime applicationDate) {
+        return state.get().storeOf(brandId, productId).findApplicable(brandId, productId, applicationDate);
+    }
+
+    @Override
+    public PriceWindow findWindow(int brandId, long productId, LocalDateTime applicationDate) {
+        return state.get().storeOf(brandId, productId).findWindow(brandId, productId, applicationDate);
+    }
+
+    /**
+     * Merges the page of the store, without the changed keys, with the page of the overlay.
+     */
+    @Override
+    public List<PriceRecord> findApplicableForBrand(int brandId, LocalDateTime date, long afterProductId,
+                                                    long toProductId, int limit) {
+        State current = state.get();
+        if (current.overlay.isEmpty()) {
+            return current.store.findApplicableForBrand(brandId, date, afterProductId, toProductId, limit);
+        }
+        List<PriceRecord> kept = new ArrayList<>();
+        long after = afterProductId;
+        while (kept.size() < limit) {
+            int wanted = limit - kept.size();
+            List<PriceRecord> page = current.store.findApplicableForBrand(brandId, date, after, toProductId, wanted);
+            page.stream().filter(row -> !current.changed(row.brandId(), row.productId())).forEach(kept::add);
+            if (page.size() < wanted) {
+                break;
+            }
+            after = page.get(page.size() - 1).productId();
+        }
+        List<PriceRecord> changed = current.overlayStore.findApplicableForBrand(brandId, date, afterProductId,
+                toProductId, limit);
+        List<PriceRecord> page = new ArrayList<>(limit);
+        Iterator<PriceRecord> merged = new MergingIterator(kept.iterator(), changed.iterator());
+        while (page.size() < limit && merged.hasNext()) {
+            page.add(merged.next());
+        }
+        return page;
+    }
+
+    @Override
+    public List<PriceRecord> findOverlapping(int brandId, long productId, LocalDateTime from, LocalDateTime to) {
+        return state.get().storeOf(brandId, productId).findOverlapping(brandId, productId, from, to);
+    }
+
+    /**
+     * The store, the keys whose timelines changed since it was built and those timelines in a store of their own.
+     *
+     * @param store rows as of the last load or compaction
+     * @param overlay changed keys and their current timelines in store order; an empty timeline is a removed key
+     * @param overlayStore the rows of {@code overlay}
+     * @param rows rows served, counting the overlay instead of the rows of the changed keys in {@code store}
+     * @param version change version the rows reflect
+     */
+    private record State(ColumnarPriceStore store, Map<PriceKey, List<PriceRecord>> overlay,
+                         ColumnarPriceStore overlayStore, long rows, long version) {
+
+        static State of(ColumnarPriceStore store, long version) {
+            return new State(store, Map.of(), ColumnarPriceStore.builder(0).build(), store.rows(), version);
+        }
+
+        State with(Map<PriceKey, List<PriceRecord>> timelines, long toVersion) {
+            Map<PriceKey, List<PriceRecord>> next = new HashMap<>(overlay);
+            long total = rows;
+            for (Map.Entry<PriceKey, List<PriceRecord>> timeline : timelines.entrySet()) {
+                PriceKey key = timeline.getKey();
+                List<PriceRecord> previous = overlay.get(key);
+                total -= previous != null ? previous.size() : store.rowsOf(key.brandId(), key.productId());
+                List<PriceRecord> sorted = timeline.getValue().stream().sorted(STORE_ORDER).toList();
+                total += sorted.size();
+                next.put(key, sorted);
+            }
+            ColumnarPriceStore.Builder builder =
+                    ColumnarPriceStore.builder(next.values().stream().mapToInt(List::size).sum());
+            next.values().stream().flatMap(List::stream).sorted(STORE_ORDER).forEach(builder::add);
+            return new State(store, Map.copyOf(next), builder.build(), total, toVersion);
+        }
+
+        boolean changed(int brandId, long productId) {
+            return !overlay.isEmpty() && overlay.containsKey(new PriceKey(brandId, productId));
+        }
+
+        ColumnarPriceStore storeOf(int brandId, long productId) {
+            return changed(brandId, productId) ? overlayStore : store;
+        }
+
+        Stream<PriceRecord> stream() {
+            if (overlay.isEmpty()) {
+                return store.stream();
+            }
+            Iterator<PriceRecord> kept = store.stream()
+                    .filter(row -> !changed(row.brandId(), row.productId()))
+                    .iterator();
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                    new MergingIterator(kept, overlayStore.stream().iterator()),
+                    Spliterator.ORDERED | Spliterator.NONNULL), false);
+        }
+    }
+
+    /**
+     * Merges two iterators already in store order.
+     */
+    private static final class MergingIterator implements Iterator<PriceRecord> {
+
+        private final Iterator<PriceRecord> left;
+
+        private final Iterator<PriceRecord> right;
+
+        private PriceRecord nextLeft;
+
+        private PriceRecord nextRight;
+
+        MergingIterator(Iterator<PriceRecord> left, Iterator<PriceRecord> right) {
+            this.left = left;
+            this.right = right;
+            this.nextLeft = left.hasNext() ? left.next() : null;
+            this.nextRight = right.hasNext() ? right.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLeft != null || nextRight != null;
+        }
+
+        @Override
+        public PriceRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            PriceRecord next;
+            if (nextRight == null || (nextLeft != null && STORE_ORDER.compare(nextLeft, nextRight) <= 0)) {
+                next = nextLeft;
+                nextLeft = left.hasNext() ? left.next() : null;
+            } else {
+                next = nextRight;
+                nextRight = right.hasNext() ? right.next() : null;
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.inditex.sisuprice.infrastructure.persistence.offheap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary snapshot of a {@link ColumnarPriceStore} that is memory-mapped back on startup.
+ * <p>
+ * Layout, little-endian:
+ * <pre>
+ * header (48 bytes)  magic "SPSF" | version | rows | currency count | columns offset (long) | CRC32C (long)
+ *                    | rows per block | reserved | change version (long)
+ * dictionary         per currency: length (short) + UTF-8 bytes, padded to 8 bytes
+ * blocks             per block: {@link ColumnarPriceStore.Layout} of its rows, padded to 8 bytes
+ * </pre>
+ * The change version is the {@link com.inditex.sisuprice.infrastructure.persistence.PriceChangeFeed} version the
+ * rows reflect, so a node booting from the file knows which changes it still has to apply.
+ * The checksum covers everything after the header. Each block is mapped on its own, so the
+ * file may exceed the 2 GiB limit of a single mapping. A mapped store reads the columns straight from the page
+ * cache, so several JVMs on one host share the same physical pages.
+ */
+public final class PriceSnapshotFile {
+
+    static final int MAGIC = 0x46535053;
+
+    static final int VERSION = 3;
+
+    static final int HEADER_BYTES = 48;
+
+    private PriceSnapshotFile() {
+    }
+
+    /**
+     * Writes to a sibling temporary file and moves it over the target, so readers never map a partial file.
+     */
+    public static void write(ColumnarPriceStore store, long changeVersion, Path file) {
+        ByteBuffer dictionary = dictionary(store.currencies());
+        ByteBuffer[] columns = store.columns();
+        CRC32C crc = new CRC32C();
+        crc.update(dictionary.duplicate());
+        for (ByteBuffer block : columns) {
+            crc.update(block.duplicate());
+            crc.update(ByteBuffer.allocate(padding(block.remaining())));
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(store.rows())
+                .putInt(store.currencies().length)
+                .putLong(HEADER_BYTES + dictionary.remaining())
+                .putLong(crc.getValue())
+                .putInt(store.blockRows())
+                .putInt(0)
+                .putLong(changeVersion)
+                .flip();
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer[] parts = new ByteBuffer[2 + 2 * columns.length];
+                parts[0] = header;
+                parts[1] = dictionary;
+                for (int b = 0; b < columns.length; b++) {
+                    parts[2 + 2 * b] = columns[b];
+                    parts[3 + 2 * b] = ByteBuffer.allocate(padding(columns[b].remaining()));
+                }
+                long total = 0;
+                for (ByteBuffer part : parts) {
+                    total += part.remaining();
+                }
+                for (long written = 0; written < total; ) {
+                    written += channel.write(parts);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot write price snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Maps the file read-only and validates it. The mapping stays valid after the channel is closed.
+     *
+     * @throws IllegalStateException when the file is not a snapshot of this version or fails its checksum
+     */
+    public static Snapshot map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IllegalStateException("not a price snapshot, size=" + size + ": " + file);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalStateException("not a price snapshot: " + file);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IllegalStateException("unsupported price snapshot version " + header.getInt(4) + ": " + file);
+            }
+            int rows = header.getInt(8);
+            int currencyCount = header.getInt(12);
+            long columnsOffset = header.getLong(16);
+            int blockRows = header.getInt(32);
+            long changeVersion = header.getLong(40);
+            if (rows < 0 || rows > size / ColumnarPriceStore.Layout.BYTES_PER_ROW || currencyCount < 0
+                    || blockRows < 1 || Integer.bitCount(blockRows) != 1
+                    || blockRows > ColumnarPriceStore.MAX_BLOCK_ROWS
+                    || columnsOffset < HEADER_BYTES || columnsOffset > Integer.MAX_VALUE || changeVersion < 0) {
+                throw new IllegalStateException("corrupt price snapshot header: " + file);
+            }
+            int blockCount = ColumnarPriceStore.blockCount(rows, blockRows);
+            long[] blockBytes = new long[blockCount];
+            long expected = columnsOffset;
+            for (int b = 0; b < blockCount; b++) {
+                blockBytes[b] = new ColumnarPriceStore.Layout(ColumnarPriceStore.rowsInBlock(b, rows, blockRows))
+                        .bytes();
+                expected += blockBytes[b] + padding(blockBytes[b]);
+            }
+            if (expected != size) {
+                throw new IllegalStateException("corrupt price snapshot header: " + file);
+            }
+            ByteBuffer dictionary = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, columnsOffset - HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C crc = new CRC32C();
+            crc.update(dictionary.duplicate());
+            ByteBuffer[] blocks = new ByteBuffer[blockCount];
+            long offset = columnsOffset;
+            for (int b = 0; b < blockCount; b++) {
+                long padded = blockBytes[b] + padding(blockBytes[b]);
+                MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, offset, padded);
+                crc.update(block.duplicate());
+                blocks[b] = block.slice(0, (int) blockBytes[b]);
+                offset += padded;
+            }
+            if (crc.getValue() != header.getLong(24)) {
+                throw new IllegalStateException("price snapshot checksum mismatch: " + file);
+            }
+            String[] currencies = currencies(dictionary.order(ByteOrder.LITTLE_ENDIAN), currencyCount);
+            return new Snapshot(new ColumnarPriceStore(blocks, rows, blockRows, currencies), changeVersion);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot map price snapshot " + file, e);
+        }
+    }
+
+    /**
+     * A mapped store and the change version its rows reflect.
+     */
+    public record Snapshot(ColumnarPriceStore store, long changeVersion) {}
+
+    private static int padding(long bytes) {
+        return (int) (-bytes & 7);
+    }
+
+    private static ByteBuffer dictionary(String[] currencies) {
+        int bytes = 0;
+        byte[][] encoded = new byte[currencies.length][];
+        for (int i = 0; i < currencies.length; i++) {
+            encoded[i] = currencies[i].getBytes(StandardCharsets.UTF_8);
+            bytes += Short.BYTES + encoded[i].length;
+        }
+        ByteBuffer dictionary = ByteBuffer.allocate((bytes + 7) & ~7).order(ByteOrder.LITTLE_ENDIAN);
+        for (byte[] currency : encoded) {
+            dictionary.putShort((short) currency.length).put(currency);
+        }
+        return dictionary.clear();
+    }
+
+    private static String[] currencies(ByteBuffer dictionary, int count) {
+        String[] currencies = new String[count];
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[dictionary.getShort()];
+            dictionary.get(bytes);
+            currencies[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return currencies;
+    }
+}
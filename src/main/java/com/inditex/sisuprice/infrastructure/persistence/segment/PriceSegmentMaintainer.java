@@ -0,0 +1,146 @@
+package com.inditex.sisuprice.infrastructure.persistence.segment;
+
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceSegment;
+import com.inditex.sisuprice.domain.PriceSegments;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import com.inditex.sisuprice.infrastructure.mapper.PriceEntityMapper;
+import com.inditex.sisuprice.infrastructure.persistence.jpa.PriceJpaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps PRICE_SEGMENTS in sync with PRICES (profile {@code segments}).
+ * The whole table is built on startup; afterwards only the keys named by a {@link PricesChangedEvent} are rebuilt,
+ * each one replaced in its own transaction so readers always see either the old or the new timeline of a key.
+ */
+@Component
+@Profile("segments")
+@Slf4j
+public class PriceSegmentMaintainer {
+
+    static final String DELETE_KEY_SQL = "DELETE FROM PRICE_SEGMENTS WHERE BRAND_ID = ? AND PRODUCT_ID = ?";
+
+    static final String INSERT_SQL = """
+            INSERT INTO PRICE_SEGMENTS (BRAND_ID, PRODUCT_ID, SEGMENT_FROM, SEGMENT_TO, START_DATE, END_DATE,
+                                        PRICE_LIST, PRIORITY, PRICE, CURR)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final int BATCH_SIZE = 500;
+
+    private final PriceJpaRepository priceRepository;
+
+    private final PriceEntityMapper mapper;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PriceSegmentMaintainer(PriceJpaRepository priceRepository, PriceEntityMapper mapper,
+                                  JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.priceRepository = priceRepository;
+        this.mapper = mapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // listeners run after the publishing transaction committed, so they always need a fresh one
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStartup() {
+        rebuildAll();
+    }
+
+    /**
+     * Remote changes are skipped: the node that made them already rebuilt the shared table.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricesChanged(PricesChangedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+        if (event.full()) {
+            rebuildAll();
+        } else {
+            rebuild(event.keys());
+        }
+    }
+
+    /**
+     * Recomputes the segments of the given keys from their current PRICES rows.
+     */
+    public void rebuild(Collection<PriceKey> keys) {
+        for (PriceKey key : keys) {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<PriceRecord> rows = priceRepository.findByBrandIdAndProductId(key.brandId(), key.productId())
+                        .stream()
+                        .map(mapper::toDomain)
+                        .toList();
+                jdbcTemplate.update(DELETE_KEY_SQL, key.brandId(), key.productId());
+                insert(PriceSegments.flatten(rows));
+            });
+        }
+        log.debug("segments rebuilt keys={}", keys.size());
+    }
+
+    /**
+     * Recomputes every segment in a single transaction.
+     */
+    public void rebuildAll() {
+        long start = System.nanoTime();
+        int segments = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM PRICE_SEGMENTS");
+            List<PriceRecord> rows = priceRepository.findAll(Sort.by("brandId", "productId", "startDate")).stream()
+                    .map(mapper::toDomain)
+                    .toList();
+            List<PriceSegment> pending = new ArrayList<>();
+            int written = 0;
+            int from = 0;
+            for (int i = 1; i <= rows.size(); i++) {
+                if (i == rows.size() || !PriceKey.of(rows.get(i)).equals(PriceKey.of(rows.get(from)))) {
+                    pending.addAll(PriceSegments.flatten(rows.subList(from, i)));
+                    from = i;
+                    if (pending.size() >= BATCH_SIZE || i == rows.size()) {
+                        written += insert(pending);
+                        pending.clear();
+                    }
+                }
+            }
+            return written;
+        });
+        log.info("segments rebuilt segments={} tookMs={}", segments, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int insert(List<PriceSegment> segments) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, segments, BATCH_SIZE, (ps, segment) -> {
+            PriceRecord price = segment.price();
+            ps.setInt(1, price.brandId());
+            ps.setLong(2, price.productId());
+            ps.setTimestamp(3, Timestamp.valueOf(segment.from()));
+            ps.setTimestamp(4, Timestamp.valueOf(segment.to()));
+            ps.setTimestamp(5, Timestamp.valueOf(price.startDate()));
+            ps.setTimestamp(6, Timestamp.valueOf(price.endDate()));
+            ps.setInt(7, price.priceList());
+            ps.setInt(8, price.priority());
+            ps.setBigDecimal(9, price.price());
+            ps.setString(10, price.curr());
+        });
+        return segments.size();
+    }
+}
@@ -0,0 +1,161 @@
+package com.inditex.sisuprice.infrastructure.persistence.segment;
+
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceQuery;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceWindow;
+import com.inditex.sisuprice.domain.repository.PriceRepository;
+import com.inditex.sisuprice.infrastructure.mapper.PriceSegmentEntityMapper;
+import com.inditex.sisuprice.infrastructure.persistence.PriceDbRepository;
+import com.inditex.sisuprice.infrastructure.persistence.PriceKeyBatches;
+import com.inditex.sisuprice.infrastructure.persistence.jpa.PriceSegmentEntity;
+import com.inditex.sisuprice.infrastructure.persistence.jpa.PriceSegmentJpaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Resolves prices from the materialized PRICE_SEGMENTS table (profile {@code segments}).
+ * Each lookup is one range seek with no sort; raw PRICES reads are delegated to {@link PriceDbRepository}.
+ */
+@Repository
+@Primary
+@Profile("segments")
+@Slf4j
+public class PriceSegmentRepository implements PriceRepository {
+
+    private final PriceSegmentJpaRepository segmentRepository;
+
+    private final PriceSegmentEntityMapper mapper;
+
+    private final PriceDbRepository prices;
+
+    private final PriceMetrics metrics;
+
+    public PriceSegmentRepository(PriceSegmentJpaRepository segmentRepository, PriceSegmentEntityMapper mapper,
+                                  PriceDbRepository prices, PriceMetrics metrics) {
+        this.segmentRepository = segmentRepository;
+        this.mapper = mapper;
+        this.prices = prices;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public List<PriceRecord> findAll() {
+        return prices.findAll();
+    }
+
+    @Override
+    public Stream<PriceRecord> streamAll() {
+        return prices.streamAll();
+    }
+
+    @Override
+    public List<PriceRecord> findApplicableForBrand(int brandId, LocalDateTime date, long afterProductId,
+                                                    long toProductId, int limit) {
+        log.debug("segment findApplicableForBrand brandId={} date={} after={} limit={}",
+                brandId, date, afterProductId, limit);
+        return metrics.time(PriceMetrics.Stage.DB, "findApplicableForBrand",
+                        () -> segmentRepository.findCoveringForBrand(brandId, date, afterProductId, toProductId,
+                                Limit.of(limit)), found -> !found.isEmpty())
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
+    /**
+     * Segments have already lost the records they hide, so the candidates come from PRICES.
+     */
+    @Override
+    public List<PriceRecord> findOverlapping(int brandId, long productId, LocalDateTime from, LocalDateTime to) {
+        return prices.findOverlapping(brandId, productId, from, to);
+    }
+
+    @Override
+    public Optional<PriceRecord> findApplicable(int brandId, long productId, LocalDateTime applicationDate) {
+        log.debug("segment findApplicable brandId={} productId={} date={}", brandId, productId, applicationDate);
+        return lastStartingAtOrBefore("findApplicable", brandId, productId, applicationDate)
+                .filter(segment -> segment.getSegmentTo().isAfter(applicationDate))
+                .map(mapper::toDomain);
+    }
+
+    /**
+     * A covering segment is itself the window; between segments the window spans the gap up to the next one.
+     */
+    @Override
+    public PriceWindow findWindow(int brandId, long productId, LocalDateTime applicationDate) {
+        log.debug("segment findWindow brandId={} productId={} date={}", brandId, productId, applicationDate);
+        Optional<PriceSegmentEntity> previous =
+                lastStartingAtOrBefore("findWindow", brandId, productId, applicationDate);
+        if (previous.isPresent() && previous.get().getSegmentTo().isAfter(applicationDate)) {
+            PriceSegmentEntity segment = previous.get();
+            return new PriceWindow(segment.getSegmentFrom(), segment.getSegmentTo(), mapper.toDomain(segment));
+        }
+        LocalDateTime from = previous.map(PriceSegmentEntity::getSegmentTo).orElse(LocalDateTime.MIN);
+        LocalDateTime to = metrics.time(PriceMetrics.Stage.DB, "findFirstStartingAfter",
+                        () -> segmentRepository.findFirstStartingAfter(brandId, productId, applicationDate),
+                        Optional::isPresent)
+                .map(PriceSegmentEntity::getSegmentFrom)
+                .orElse(LocalDateTime.MAX);
+        return new PriceWindow(from, to, null);
+    }
+
+    /**
+     * Reads the segments of all queried pairs through {@link PriceKeyBatches} and resolves every lookup against
+     * its pair's ordered segments with the same rule as {@link #findWindow}.
+     */
+    @Override
+    public List<PriceWindow> findWindows(List<PriceQuery> queries) {
+        List<PriceKey> keys = queries.stream().map(PriceQuery::key).toList();
+        log.debug("segment findWindows queries={}", queries.size());
+        Map<PriceKey, List<PriceSegmentEntity>> segmentsByKey = PriceKeyBatches.fetch(keys, (brandId, productIds) ->
+                        metrics.time(PriceMetrics.Stage.DB, "findSegments",
+                                () -> segmentRepository.findByBrandIdAndProductIdIn(brandId, productIds),
+                                found -> !found.isEmpty()),
+                s -> new PriceKey(s.getBrandId(), s.getProductId()));
+        segmentsByKey.values().forEach(list -> list.sort(Comparator.comparing(PriceSegmentEntity::getSegmentFrom)));
+        return queries.stream()
+                .map(q -> windowAt(segmentsByKey.getOrDefault(q.key(), List.of()), q.applicationDate()))
+                .toList();
+    }
+
+    /**
+     * Window at a date within non-overlapping segments ordered by start.
+     */
+    private PriceWindow windowAt(List<PriceSegmentEntity> segments, LocalDateTime date) {
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (segments.get(mid).getSegmentFrom().isAfter(date)) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        PriceSegmentEntity previous = high >= 0 ? segments.get(high) : null;
+        if (previous != null && previous.getSegmentTo().isAfter(date)) {
+            return new PriceWindow(previous.getSegmentFrom(), previous.getSegmentTo(), mapper.toDomain(previous));
+        }
+        LocalDateTime from = previous == null ? LocalDateTime.MIN : previous.getSegmentTo();
+        LocalDateTime to = low < segments.size() ? segments.get(low).getSegmentFrom() : LocalDateTime.MAX;
+        return new PriceWindow(from, to, null);
+    }
+
+    private Optional<PriceSegmentEntity> lastStartingAtOrBefore(String operation, int brandId, long productId,
+                                                                LocalDateTime applicationDate) {
+        return metrics.time(PriceMetrics.Stage.DB, operation,
+                () -> segmentRepository.findLastStartingAtOrBefore(brandId, productId, applicationDate),
+                Optional::isPresent);
+    }
+}
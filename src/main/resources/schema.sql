@@ -1,5 +1,7 @@
 DROP TABLE IF EXISTS PRICES;
 
+CREATE SEQUENCE IF NOT EXISTS PRICES_CHANGE_SEQ;
+
 CREATE TABLE PRICES (
     ID IDENTITY PRIMARY KEY,
     BRAND_ID INT NOT NULL,
@@ -9,7 +11,21 @@ CREATE TABLE PRICES (
     PRODUCT_ID BIGINT NOT NULL,
     PRIORITY INT NOT NULL,
     PRICE DECIMAL(10,2) NOT NULL,
-    CURR VARCHAR(3) NOT NULL
+    CURR VARCHAR(3) NOT NULL,
+    CHANGE_VERSION BIGINT DEFAULT NEXT VALUE FOR PRICES_CHANGE_SEQ ON UPDATE NEXT VALUE FOR PRICES_CHANGE_SEQ NOT NULL,
+    UPDATED_AT TIMESTAMP DEFAULT LOCALTIMESTAMP ON UPDATE LOCALTIMESTAMP NOT NULL
 );
 
 CREATE INDEX IDX_PRICES_LOOKUP ON PRICES (BRAND_ID, PRODUCT_ID, START_DATE, END_DATE, PRIORITY);
+CREATE UNIQUE INDEX IDX_PRICES_CHANGE_VERSION ON PRICES (CHANGE_VERSION);
+
+DROP TABLE IF EXISTS PRICE_DELETIONS;
+
+CREATE TABLE PRICE_DELETIONS (
+    CHANGE_VERSION BIGINT DEFAULT NEXT VALUE FOR PRICES_CHANGE_SEQ PRIMARY KEY,
+    BRAND_ID INT NOT NULL,
+    PRODUCT_ID BIGINT NOT NULL,
+    DELETED_AT TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL
+);
+
+CREATE INDEX IDX_PRICE_DELETIONS_DELETED_AT ON PRICE_DELETIONS (DELETED_AT);
@@ -0,0 +1,145 @@
+package com.inditex.sisuprice.application;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.config.PriceReactiveProperties;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceQuery;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceWindow;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import com.inditex.sisuprice.domain.repository.ReactivePriceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactivePriceQueryUseCaseImplTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.parse("2020-06-14T10:00:00");
+
+    @Mock
+    ReactivePriceRepository repository;
+
+    ReactivePriceQueryUseCaseImpl useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new ReactivePriceQueryUseCaseImpl(repository, Caffeine.newBuilder().buildAsync(),
+                new PriceMetrics(new SimpleMeterRegistry()), new PriceReactiveProperties("", "sa", "", 4));
+    }
+
+    private static PriceWindow window() {
+        PriceRecord priceRecord = new PriceRecord(1, DATE.minusHours(1), DATE.plusHours(2), 2, 35455L, 1,
+                new BigDecimal("25.45"), "EUR");
+        return new PriceWindow(priceRecord.startDate(), priceRecord.endDate(), priceRecord);
+    }
+
+    @Test
+    @DisplayName("serves any date inside the cached window without the repository")
+    void servesCachedWindow() {
+        when(repository.findWindow(1, 35455L, DATE)).thenReturn(Mono.just(window()));
+
+        StepVerifier.create(useCase.query(1, 35455L, DATE))
+                .assertNext(price -> assertEquals(2, price.priceList()))
+                .verifyComplete();
+        StepVerifier.create(useCase.query(1, 35455L, DATE.plusHours(1)))
+                .assertNext(price -> assertEquals(2, price.priceList()))
+                .verifyComplete();
+
+        verify(repository, times(1)).findWindow(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("lookups arriving while a load is in flight share it")
+    void coalescesConcurrentMisses() {
+        Sinks.One<PriceWindow> pending = Sinks.one();
+        when(repository.findWindow(1, 35455L, DATE)).thenReturn(pending.asMono());
+
+        var first = useCase.query(1, 35455L, DATE).toFuture();
+        var second = useCase.query(1, 35455L, DATE.plusMinutes(30)).toFuture();
+        pending.tryEmitValue(window());
+
+        assertEquals(2, first.join().priceList());
+        assertEquals(2, second.join().priceList());
+        verify(repository, times(1)).findWindow(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("misses of a key racing on several threads query once")
+    void coalescesRacingMisses() throws Exception {
+        Sinks.One<PriceWindow> pending = Sinks.one();
+        when(repository.findWindow(eq(1), eq(35455L), any())).thenReturn(pending.asMono());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<PriceRecord>>> lookups = new ArrayList<>();
+        try (ExecutorService threads = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                LocalDateTime date = DATE.plusMinutes(i);
+                lookups.add(threads.submit(() -> {
+                    start.await();
+                    return useCase.query(1, 35455L, date).toFuture();
+                }));
+            }
+            start.countDown();
+            for (Future<CompletableFuture<PriceRecord>> lookup : lookups) {
+                lookup.get(5, TimeUnit.SECONDS);
+            }
+        }
+        pending.tryEmitValue(window());
+
+        for (Future<CompletableFuture<PriceRecord>> lookup : lookups) {
+            assertEquals(2, lookup.get().get(5, TimeUnit.SECONDS).priceList());
+        }
+        verify(repository, times(1)).findWindow(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("completes empty when no price applies and keeps the batch order")
+    void resolvesBatchInOrder() {
+        when(repository.findWindow(1, 35455L, DATE)).thenReturn(Mono.just(window()));
+        when(repository.findWindow(1, 1L, DATE)).thenReturn(Mono.just(PriceWindow.empty()));
+
+        StepVerifier.create(useCase.query(1, 1L, DATE)).verifyComplete();
+        StepVerifier.create(useCase.queryAll(List.of(new PriceQuery(1, 1L, DATE), new PriceQuery(1, 35455L, DATE))))
+                .assertNext(results -> {
+                    assertEquals(Optional.empty(), results.get(0));
+                    assertEquals(2, results.get(1).orElseThrow().priceList());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("a change event drops the cached window of the key")
+    void evictsChangedKeys() {
+        when(repository.findWindow(1, 35455L, DATE)).thenReturn(Mono.just(window()));
+
+        useCase.query(1, 35455L, DATE).block();
+        useCase.onPricesChanged(PricesChangedEvent.of(Set.of(new PriceKey(1, 35455L))));
+        useCase.query(1, 35455L, DATE).block();
+
+        verify(repository, times(2)).findWindow(1, 35455L, DATE);
+    }
+}
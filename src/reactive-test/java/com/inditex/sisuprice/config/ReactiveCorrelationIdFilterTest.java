@@ -0,0 +1,74 @@
+package com.inditex.sisuprice.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveCorrelationIdFilterTest {
+
+    private final ReactiveCorrelationIdFilter filter = new ReactiveCorrelationIdFilter();
+
+    @AfterEach
+    void reset() {
+        Hooks.disableAutomaticContextPropagation();
+        MDC.clear();
+    }
+
+    private static MockServerWebExchange exchange(String correlationId) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/v1/prices");
+        if (correlationId != null) {
+            request.header(CorrelationIdFilter.CORRELATION_ID_HEADER, correlationId);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private String contextOf(MockServerWebExchange exchange) {
+        AtomicReference<String> seen = new AtomicReference<>();
+        WebFilterChain chain = ignored -> Mono.deferContextual(context -> {
+            seen.set(context.get(CorrelationIdFilter.CORRELATION_ID_KEY));
+            return Mono.empty();
+        });
+        filter.filter(exchange, chain).block();
+        return seen.get();
+    }
+
+    @Test
+    @DisplayName("puts the X-Correlation-Id header into the Reactor context of the request")
+    void usesHeader() {
+        assertEquals("abc-123", contextOf(exchange("abc-123")));
+    }
+
+    @Test
+    @DisplayName("generates a correlationId when the header is absent or blank")
+    void generatesMissingId() {
+        assertEquals(36, contextOf(exchange(null)).length());
+        assertEquals(36, contextOf(exchange(" ")).length());
+    }
+
+    @Test
+    @DisplayName("the correlationId reaches MDC on the thread that runs the handler")
+    void restoresMdc() {
+        Hooks.enableAutomaticContextPropagation();
+        AtomicReference<String> logged = new AtomicReference<>();
+        WebFilterChain chain = ignored -> Mono.just("handled")
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(value -> logged.set(MDC.get(CorrelationIdFilter.CORRELATION_ID_KEY)))
+                .then();
+
+        filter.filter(exchange("abc-123"), chain).block();
+
+        assertEquals("abc-123", logged.get());
+        assertNull(MDC.get(CorrelationIdFilter.CORRELATION_ID_KEY));
+    }
+}
@@ -0,0 +1,110 @@
+package com.inditex.sisuprice.integration;
+
+import com.inditex.sisuprice.api.controller.PriceController;
+import com.inditex.sisuprice.api.controller.ReactivePriceController;
+import com.inditex.sisuprice.api.dto.PriceBatchResponse;
+import com.inditex.sisuprice.api.dto.PriceLookupResult;
+import com.inditex.sisuprice.api.dto.PriceResponse;
+import com.inditex.sisuprice.api.dto.PriceSegmentResponse;
+import com.inditex.sisuprice.api.dto.PriceTimelineResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.reactive.context.ReactiveWebApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "reactive"})
+class ReactivePriceIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    @DisplayName("runs on WebFlux with the reactive controller only")
+    void runsReactiveStack() {
+        assertThat(context).isInstanceOf(ReactiveWebApplicationContext.class);
+        assertThat(context.getBeanNamesForType(PriceController.class)).isEmpty();
+        assertThat(context.getBeanNamesForType(ReactivePriceController.class)).hasSize(1);
+    }
+
+    @ParameterizedTest(name = "{index} => date={0}, expectedPriceList={1}")
+    @CsvSource({
+            "2020-06-14T10:00:00, 1, 35.50",
+            "2020-06-14T16:00:00, 2, 25.45",
+            "2020-06-14T21:00:00, 1, 35.50",
+            "2020-06-15T10:00:00, 3, 30.50",
+            "2020-06-16T21:00:00, 4, 38.95"
+    })
+    void resolvesSampleScenarios(String date, int expectedPriceList, BigDecimal expectedPrice) {
+        PriceResponse response = webTestClient.get()
+                .uri("/api/v1/prices?brandId=1&productId=35455&date=" + date)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PriceResponse.class)
+                .returnResult().getResponseBody();
+
+        assertThat(response.priceList()).isEqualTo(expectedPriceList);
+        assertThat(response.price()).isEqualByComparingTo(expectedPrice);
+    }
+
+    @Test
+    @DisplayName("answers 404 for unknown products and 400 for invalid or missing parameters")
+    void keepsErrorContract() {
+        webTestClient.get().uri("/api/v1/prices?brandId=1&productId=99999&date=2020-06-14T10:00:00")
+                .exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/api/v1/prices?brandId=0&productId=35455&date=2020-06-14T10:00:00")
+                .exchange().expectStatus().isBadRequest().expectBody().jsonPath("$.messages").isArray();
+        webTestClient.get().uri("/api/v1/prices?brandId=1&productId=35455")
+                .exchange().expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.messages[0]").isEqualTo("Missing parameter: date");
+        webTestClient.get().uri("/api/v1/prices/timeline?brandId=1&productId=35455"
+                        + "&from=2020-06-15T00:00:00&to=2020-06-14T00:00:00")
+                .exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("resolves batches in request order")
+    void resolvesBatch() {
+        PriceBatchResponse response = webTestClient.post().uri("/api/v1/prices/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"items":[{"brandId":1,"productId":35455,"date":"2020-06-14T16:00:00"},
+                                  {"brandId":1,"productId":99999,"date":"2020-06-14T16:00:00"},
+                                  {"brandId":1,"productId":35455,"date":"2020-06-15T10:00:00"}]}""")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PriceBatchResponse.class)
+                .returnResult().getResponseBody();
+
+        assertThat(response.results()).extracting(PriceLookupResult::found).containsExactly(true, false, true);
+        assertThat(response.results().get(0).price().priceList()).isEqualTo(2);
+        assertThat(response.results().get(2).price().priceList()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("returns the same timeline as the servlet stack")
+    void returnsTimeline() {
+        PriceTimelineResponse response = webTestClient.get()
+                .uri("/api/v1/prices/timeline?brandId=1&productId=35455&from=2020-06-14T10:00:00&to=2020-06-16T00:00:00")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PriceTimelineResponse.class)
+                .returnResult().getResponseBody();
+
+        assertThat(response.segments()).extracting(PriceSegmentResponse::priceList).containsExactly(1, 2, 1, 3, 1, 4);
+    }
+}
@@ -0,0 +1,55 @@
+package com.inditex.sisuprice.api;
+
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.MissingRequestValueException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Error bodies of the reactive deployment, in the same shape as {@link GlobalExceptionHandler}.
+ */
+@RestControllerAdvice
+@Profile("reactive")
+@Slf4j
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler({ServerWebInputException.class, IllegalArgumentException.class, ConstraintViolationException.class})
+    public ResponseEntity<Map<String, Object>> handleValidation(Exception ex, ServerHttpRequest request) {
+        List<String> messages = switch (ex) {
+            case WebExchangeBindException bind ->
+                    bind.getBindingResult().getAllErrors().stream()
+                            .map(error -> error instanceof FieldError fe
+                                    ? fe.getField() + ": " + fe.getDefaultMessage()
+                                    : error.getDefaultMessage())
+                            .toList();
+            case MissingRequestValueException missing -> List.of("Missing parameter: " + missing.getName());
+            case ServerWebInputException input -> List.of(input.getReason());
+            case ConstraintViolationException cve ->
+                    cve.getConstraintViolations().stream()
+                            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                            .toList();
+            default -> List.of(ex.getMessage());
+        };
+        log.warn("validation error path={} messages={}", request.getPath(), messages);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", HttpStatus.BAD_REQUEST.getReasonPhrase());
+        body.put("path", request.getPath().value());
+        body.put("messages", messages);
+        return ResponseEntity.badRequest().body(body);
+    }
+}
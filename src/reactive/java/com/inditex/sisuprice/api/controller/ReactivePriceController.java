@@ -0,0 +1,94 @@
+package com.inditex.sisuprice.api.controller;
+
+import com.inditex.sisuprice.api.dto.PriceBatchRequest;
+import com.inditex.sisuprice.api.dto.PriceBatchResponse;
+import com.inditex.sisuprice.api.dto.PriceLookupRequest;
+import com.inditex.sisuprice.api.dto.PriceLookupResult;
+import com.inditex.sisuprice.api.dto.PriceResponse;
+import com.inditex.sisuprice.api.dto.PriceTimelineResponse;
+import com.inditex.sisuprice.api.mapper.PriceRecordMapper;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.usecase.ReactivePriceQueryUseCase;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Same contract as {@link PriceController} on WebFlux (profile {@code reactive}): paths, parameters, bodies and
+ * status codes match, so clients and the load driver can target either deployment.
+ */
+@RestController
+@RequestMapping("/api/v1/prices")
+@Validated
+@Profile("reactive")
+@Slf4j
+public class ReactivePriceController {
+
+    private final ReactivePriceQueryUseCase useCase;
+
+    private final PriceRecordMapper mapper;
+
+    public ReactivePriceController(ReactivePriceQueryUseCase useCase, PriceRecordMapper mapper) {
+        this.useCase = useCase;
+        this.mapper = mapper;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<PriceResponse>> getPrice(
+            @RequestParam @Min(1) int brandId,
+            @RequestParam @Min(1) long productId,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime applicationDate) {
+
+        log.debug("request getPrice brandId={} productId={} date={}", brandId, productId, applicationDate);
+        return useCase.query(brandId, productId, applicationDate)
+                .map(priceRecord -> ResponseEntity.ok(mapper.toResponse(priceRecord)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/timeline")
+    public Mono<PriceTimelineResponse> getTimeline(
+            @RequestParam @Min(1) int brandId,
+            @RequestParam @Min(1) long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        log.debug("request getTimeline brandId={} productId={} from={} to={}", brandId, productId, from, to);
+        return useCase.timeline(brandId, productId, from, to)
+                .map(segments -> new PriceTimelineResponse(brandId, productId, from, to,
+                        segments.stream().map(mapper::toResponse).toList()));
+    }
+
+    @PostMapping("/batch")
+    public Mono<PriceBatchResponse> getPrices(@RequestBody @Valid PriceBatchRequest request) {
+
+        log.debug("request getPrices items={}", request.items().size());
+        List<PriceLookupRequest> items = request.items();
+        return useCase.queryAll(items.stream().map(mapper::toQuery).toList())
+                .map(found -> {
+                    List<PriceLookupResult> results = new ArrayList<>(items.size());
+                    for (int i = 0; i < items.size(); i++) {
+                        PriceLookupRequest item = items.get(i);
+                        Optional<PriceRecord> price = found.get(i);
+                        results.add(new PriceLookupResult(item.brandId(), item.productId(), item.date(),
+                                price.isPresent(), price.map(mapper::toResponse).orElse(null)));
+                    }
+                    return new PriceBatchResponse(results);
+                });
+    }
+}
@@ -0,0 +1,155 @@
+package com.inditex.sisuprice.application;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.config.PriceReactiveProperties;
+import com.inditex.sisuprice.config.ReactivePriceMetrics;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceQuery;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceSegment;
+import com.inditex.sisuprice.domain.PriceSegments;
+import com.inditex.sisuprice.domain.PriceWindow;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import com.inditex.sisuprice.domain.repository.ReactivePriceRepository;
+import com.inditex.sisuprice.domain.usecase.ReactivePriceQueryUseCase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Same lookups as {@link PriceQueryUseCaseImpl} on the reactive stack (profile {@code reactive}). Cached windows
+ * are futures in an {@link AsyncCache}: a hit completes without touching the database, and a miss installs the
+ * future of its load atomically, so concurrent lookups of the key reuse it instead of querying again.
+ */
+@Service
+@Profile("reactive")
+@Slf4j
+public class ReactivePriceQueryUseCaseImpl implements ReactivePriceQueryUseCase {
+
+    private final ReactivePriceRepository repository;
+
+    private final AsyncCache<PriceKey, PriceWindow> cache;
+
+    private final PriceMetrics metrics;
+
+    private final int batchConcurrency;
+
+    public ReactivePriceQueryUseCaseImpl(ReactivePriceRepository repository, AsyncCache<PriceKey, PriceWindow> cache,
+                                         PriceMetrics metrics, PriceReactiveProperties properties) {
+        this.repository = repository;
+        this.cache = cache;
+        this.metrics = metrics;
+        this.batchConcurrency = properties.batchConcurrency();
+    }
+
+    @Override
+    public Mono<PriceRecord> query(int brandId, long productId, LocalDateTime applicationDate) {
+        return ReactivePriceMetrics.time(metrics, PriceMetrics.Stage.USE_CASE, "query",
+                        window(new PriceKey(brandId, productId), applicationDate), w -> w.applicable().isPresent())
+                .mapNotNull(PriceWindow::price);
+    }
+
+    /**
+     * Hits are answered from the cache and misses are loaded concurrently, at most
+     * {@code pricing.reactive.batch-concurrency} at a time, keeping the order of the queries.
+     */
+    @Override
+    public Mono<List<Optional<PriceRecord>>> queryAll(List<PriceQuery> queries) {
+        Mono<List<Optional<PriceRecord>>> results = Flux.fromIterable(queries)
+                .flatMapSequential(q -> window(q.key(), q.applicationDate()), batchConcurrency)
+                .map(PriceWindow::applicable)
+                .collectList();
+        return ReactivePriceMetrics.time(metrics, PriceMetrics.Stage.USE_CASE, "queryAll", results,
+                found -> found.stream().anyMatch(Optional::isPresent));
+    }
+
+    @Override
+    public Mono<List<PriceSegment>> timeline(int brandId, long productId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return Mono.error(new IllegalArgumentException("from must be before to"));
+        }
+        Mono<List<PriceSegment>> segments = repository.findOverlapping(brandId, productId, from, to)
+                .collectList()
+                .map(candidates -> PriceSegments.flatten(candidates, from, to));
+        return ReactivePriceMetrics.time(metrics, PriceMetrics.Stage.USE_CASE, "timeline", segments,
+                found -> !found.isEmpty());
+    }
+
+    private Mono<PriceWindow> window(PriceKey key, LocalDateTime applicationDate) {
+        CompletableFuture<PriceWindow> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            PriceWindow window = cached.getNow(null);
+            if (window != null) {
+                boolean hit = window.covers(applicationDate);
+                metrics.cacheLookup(true, hit);
+                if (hit) {
+                    return Mono.just(window);
+                }
+            } else if (!cached.isDone()) {
+                // a load of the key is in flight: load() joins it
+                metrics.cacheLookup(true, true);
+            } else {
+                metrics.cacheLookup(true, false);
+            }
+        } else {
+            metrics.cacheLookup(false, false);
+        }
+        return load(key, applicationDate);
+    }
+
+    /**
+     * Joins the load of the key in flight, or the window loaded meanwhile, when it may answer the date; otherwise
+     * installs a new load in the same atomic step, so concurrent misses of a key query once.
+     */
+    private Mono<PriceWindow> load(PriceKey key, LocalDateTime applicationDate) {
+        return Mono.defer(() -> {
+            CompletableFuture<PriceWindow> mine = new CompletableFuture<>();
+            CompletableFuture<PriceWindow> shared = cache.asMap().compute(key,
+                    (k, current) -> current != null && mayCover(current, applicationDate) ? current : mine);
+            if (shared != mine) {
+                return Mono.fromFuture(shared, true)
+                        .flatMap(loaded -> loaded.covers(applicationDate) ? Mono.just(loaded) : load(key, applicationDate));
+            }
+            ReactivePriceMetrics.time(metrics, PriceMetrics.Stage.REPOSITORY, "findWindow",
+                            repository.findWindow(key.brandId(), key.productId(), applicationDate),
+                            w -> w.applicable().isPresent())
+                    .toFuture()
+                    .whenComplete((window, error) -> {
+                        if (error != null) {
+                            mine.completeExceptionally(error);
+                        } else {
+                            mine.complete(window);
+                        }
+                    });
+            log.debug("usecase reactive load brandId={} productId={} date={}",
+                    key.brandId(), key.productId(), applicationDate);
+            return Mono.fromFuture(mine, true);
+        });
+    }
+
+    private static boolean mayCover(CompletableFuture<PriceWindow> window, LocalDateTime applicationDate) {
+        return !window.isDone() || (!window.isCompletedExceptionally() && window.join().covers(applicationDate));
+    }
+
+    /**
+     * Drops the cached windows of changed keys once the change is committed, so the next lookup reads it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricesChanged(PricesChangedEvent event) {
+        if (event.full()) {
+            cache.synchronous().invalidateAll();
+        } else {
+            cache.synchronous().invalidateAll(event.keys());
+        }
+        log.debug("usecase reactive cache evicted full={} keys={}", event.full(), event.keys().size());
+    }
+}
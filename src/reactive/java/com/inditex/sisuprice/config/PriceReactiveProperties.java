@@ -0,0 +1,21 @@
+package com.inditex.sisuprice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the reactive deployment (profile {@code reactive}).
+ *
+ * @param r2dbcUrl connection URL of the R2DBC pool; the default opens the same in-memory H2 database as JDBC
+ * @param username database user, the same as {@code spring.datasource.username}
+ * @param password database password
+ * @param batchConcurrency cache misses of a batch resolved concurrently
+ */
+@ConfigurationProperties(prefix = "pricing.reactive")
+public record PriceReactiveProperties(
+        @DefaultValue("r2dbc:pool:h2:mem:///pricedb?options=DB_CLOSE_DELAY=-1&maxSize=20") String r2dbcUrl,
+        @DefaultValue("sa") String username,
+        @DefaultValue("") String password,
+        @DefaultValue("32") int batchConcurrency
+) {
+}
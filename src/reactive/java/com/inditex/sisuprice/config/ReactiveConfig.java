@@ -0,0 +1,32 @@
+package com.inditex.sisuprice.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceWindow;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Clock;
+
+/**
+ * Beans of the reactive deployment. The window cache is an {@link AsyncCache} holding futures, so a lookup never
+ * blocks on a load in flight and concurrent misses of one key can share it. It follows the same size and
+ * expiry rules as the {@code prices} cache of the servlet stack.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(PriceReactiveProperties.class)
+public class ReactiveConfig {
+
+    @Bean
+    public AsyncCache<PriceKey, PriceWindow> reactivePriceCache(PriceCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .<PriceKey, PriceWindow>expireAfter(new PriceWindowExpiry(properties.maxTtl(), Clock.systemDefaultZone()))
+                .recordStats()
+                .buildAsync();
+    }
+}
@@ -0,0 +1,43 @@
+package com.inditex.sisuprice.config;
+
+import io.micrometer.context.ContextRegistry;
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * {@link CorrelationIdFilter} for the reactive stack. The correlationId travels in the Reactor context of the
+ * request; with {@code spring.reactor.context-propagation: auto} it is restored into MDC on whichever thread runs
+ * the next operator, so log lines carry it as on the servlet stack.
+ */
+@Component
+@Profile("reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReactiveCorrelationIdFilter implements WebFilter {
+
+    static {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(CorrelationIdFilter.CORRELATION_ID_KEY,
+                () -> MDC.get(CorrelationIdFilter.CORRELATION_ID_KEY),
+                value -> MDC.put(CorrelationIdFilter.CORRELATION_ID_KEY, value),
+                () -> MDC.remove(CorrelationIdFilter.CORRELATION_ID_KEY));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String correlationId = Optional.ofNullable(
+                        exchange.getRequest().getHeaders().getFirst(CorrelationIdFilter.CORRELATION_ID_HEADER))
+                .filter(s -> !s.isBlank())
+                .orElse(UUID.randomUUID().toString());
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(CorrelationIdFilter.CORRELATION_ID_KEY, correlationId));
+    }
+}
@@ -0,0 +1,31 @@
+package com.inditex.sisuprice.config;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Predicate;
+
+/**
+ * Non-blocking counterpart of {@link PriceMetrics#time}, kept with the reactive stack so the servlet build does not
+ * need Reactor on its classpath.
+ */
+public final class ReactivePriceMetrics {
+
+    private ReactivePriceMetrics() {
+    }
+
+    /**
+     * The clock starts on subscription and stops when {@code call} completes. An empty completion is
+     * {@code not_found}.
+     */
+    public static <T> Mono<T> time(PriceMetrics metrics, PriceMetrics.Stage stage, String operation, Mono<T> call,
+                                   Predicate<? super T> found) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(result -> metrics.record(stage, operation,
+                            PriceMetrics.Outcome.of(result != null && found.test(result)), System.nanoTime() - start))
+                    .doOnError(e -> metrics.record(stage, operation, PriceMetrics.Outcome.ERROR,
+                            System.nanoTime() - start));
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.inditex.sisuprice.domain.repository;
+
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceWindow;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking port for querying prices, with the semantics of the matching {@link PriceRepository} methods.
+ */
+public interface ReactivePriceRepository {
+
+    /**
+     * Find the applicable price together with the window around the application date in which it stays the same.
+     */
+    Mono<PriceWindow> findWindow(int brandId, long productId, LocalDateTime applicationDate);
+
+    /**
+     * Find the records of a brand/product whose validity overlaps the period [from, to), in any order.
+     */
+    Flux<PriceRecord> findOverlapping(int brandId, long productId, LocalDateTime from, LocalDateTime to);
+}
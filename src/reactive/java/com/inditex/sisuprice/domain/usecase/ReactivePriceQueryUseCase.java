@@ -0,0 +1,31 @@
+package com.inditex.sisuprice.domain.usecase;
+
+import com.inditex.sisuprice.domain.PriceQuery;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceSegment;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Non-blocking counterpart of {@link PriceQueryUseCase}, with the same results.
+ */
+public interface ReactivePriceQueryUseCase {
+
+    /**
+     * @return the applicable price, or an empty Mono when none applies
+     */
+    Mono<PriceRecord> query(int brandId, long productId, LocalDateTime applicationDate);
+
+    /**
+     * @return one Optional per query, in the same order, empty when no price applies
+     */
+    Mono<List<Optional<PriceRecord>>> queryAll(List<PriceQuery> queries);
+
+    /**
+     * @return the non-overlapping segments in which a price applies, ordered by start and clipped to [from, to)
+     */
+    Mono<List<PriceSegment>> timeline(int brandId, long productId, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,105 @@
+package com.inditex.sisuprice.infrastructure.persistence.reactive;
+
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.config.PriceReactiveProperties;
+import com.inditex.sisuprice.config.ReactivePriceMetrics;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceSegments;
+import com.inditex.sisuprice.domain.PriceWindow;
+import com.inditex.sisuprice.domain.repository.ReactivePriceRepository;
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads PRICES over R2DBC (profile {@code reactive}), with the same queries and window rule as
+ * {@link com.inditex.sisuprice.infrastructure.persistence.PriceDbRepository}.
+ * <p>
+ * The connection pool is owned here rather than published as a bean: a {@code ConnectionFactory} bean would
+ * make Spring Boot skip the JDBC DataSource that Liquibase, imports and the other adapters still use.
+ * The H2 driver runs the embedded engine on the calling thread; against a networked database the same
+ * adapter waits on no thread at all.
+ */
+@Repository
+@Profile("reactive")
+@Slf4j
+public class R2dbcPriceRepository implements ReactivePriceRepository {
+
+    private static final String COLUMNS =
+            "SELECT BRAND_ID, START_DATE, END_DATE, PRICE_LIST, PRODUCT_ID, PRIORITY, PRICE, CURR FROM PRICES ";
+
+    private final ConnectionFactory connectionFactory;
+
+    private final DatabaseClient client;
+
+    private final PriceMetrics metrics;
+
+    public R2dbcPriceRepository(PriceReactiveProperties properties, PriceMetrics metrics) {
+        this.connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(properties.r2dbcUrl()).mutate()
+                .option(ConnectionFactoryOptions.USER, properties.username())
+                .option(ConnectionFactoryOptions.PASSWORD, properties.password())
+                .build());
+        this.client = DatabaseClient.create(connectionFactory);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<PriceWindow> findWindow(int brandId, long productId, LocalDateTime applicationDate) {
+        log.debug("r2dbc findWindow brandId={} productId={} date={}", brandId, productId, applicationDate);
+        Mono<List<PriceRecord>> rows = client.sql(COLUMNS + "WHERE BRAND_ID = :brandId AND PRODUCT_ID = :productId")
+                .bind("brandId", brandId)
+                .bind("productId", productId)
+                .map(R2dbcPriceRepository::toRecord)
+                .all()
+                .collectList();
+        return ReactivePriceMetrics.time(metrics, PriceMetrics.Stage.DB, "findWindow", rows,
+                        found -> !found.isEmpty())
+                .map(found -> PriceSegments.windowAt(found, applicationDate));
+    }
+
+    @Override
+    public Flux<PriceRecord> findOverlapping(int brandId, long productId, LocalDateTime from, LocalDateTime to) {
+        log.debug("r2dbc findOverlapping brandId={} productId={} from={} to={}", brandId, productId, from, to);
+        return client.sql(COLUMNS + """
+                        WHERE BRAND_ID = :brandId AND PRODUCT_ID = :productId
+                          AND START_DATE < :to AND END_DATE > :from""")
+                .bind("brandId", brandId)
+                .bind("productId", productId)
+                .bind("from", from)
+                .bind("to", to)
+                .map(R2dbcPriceRepository::toRecord)
+                .all();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionFactory instanceof Closeable closeable) {
+            Mono.from(closeable.close()).block();
+        }
+    }
+
+    private static PriceRecord toRecord(Readable row) {
+        return new PriceRecord(
+                row.get("BRAND_ID", Integer.class),
+                row.get("START_DATE", LocalDateTime.class),
+                row.get("END_DATE", LocalDateTime.class),
+                row.get("PRICE_LIST", Integer.class),
+                row.get("PRODUCT_ID", Long.class),
+                row.get("PRIORITY", Integer.class),
+                row.get("PRICE", BigDecimal.class),
+                row.get("CURR", String.class));
+    }
+}
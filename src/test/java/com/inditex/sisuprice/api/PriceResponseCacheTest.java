@@ -0,0 +1,57 @@
+package com.inditex.sisuprice.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inditex.sisuprice.api.mapper.PriceRecordMapper;
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.config.PriceResponseCacheProperties;
+import com.inditex.sisuprice.domain.PriceRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final PriceRecordMapper mapper = Mappers.getMapper(PriceRecordMapper.class);
+
+    private final PriceRecord price = new PriceRecord(1, LocalDateTime.parse("2020-06-14T15:00:00"),
+            LocalDateTime.parse("2020-06-14T18:30:00"), 2, 35455L, 1, new BigDecimal("25.45"), "EUR");
+
+    private PriceResponseCache cache(boolean gzip) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return new PriceResponseCache(new PriceResponseCacheProperties(true, 10, gzip), mapper, objectMapper,
+                new PriceMetrics(registry), registry);
+    }
+
+    @Test
+    void serializesOnceAndReusesTheBytes() throws Exception {
+        PriceResponseCache cache = cache(false);
+
+        PriceResponseCache.EncodedPrice first = cache.get(price);
+
+        assertSame(first, cache.get(price));
+        assertArrayEquals(objectMapper.writeValueAsBytes(mapper.toResponse(price)), first.json());
+        assertNull(first.gzip());
+        assertNotNull(cache(true).get(price).gzip());
+    }
+
+    @Test
+    void readsAcceptEncoding() {
+        assertTrue(PriceResponseCache.acceptsGzip("gzip"));
+        assertTrue(PriceResponseCache.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(PriceResponseCache.acceptsGzip("*"));
+        assertFalse(PriceResponseCache.acceptsGzip(null));
+        assertFalse(PriceResponseCache.acceptsGzip("br, deflate"));
+        assertFalse(PriceResponseCache.acceptsGzip("gzip;q=0"));
+        assertFalse(PriceResponseCache.acceptsGzip("*, gzip; q=0.0"));
+    }
+}
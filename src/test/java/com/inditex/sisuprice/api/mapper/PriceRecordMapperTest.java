@@ -1,6 +1,8 @@
 package com.inditex.sisuprice.api.mapper;
 
+import com.inditex.sisuprice.api.dto.PriceLookupRequest;
 import com.inditex.sisuprice.api.dto.PriceResponse;
+import com.inditex.sisuprice.domain.PriceQuery;
 import com.inditex.sisuprice.domain.PriceRecord;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
@@ -37,4 +39,13 @@ class PriceRecordMapperTest {
         assertEquals(new BigDecimal("25.45"), r.price());
         assertEquals("EUR", r.curr());
     }
+
+    @Test
+    void mapsLookupRequestToQuery() {
+        PriceQuery q = mapper.toQuery(new PriceLookupRequest(1, 35455L, LocalDateTime.parse("2020-06-14T10:00:00")));
+
+        assertEquals(1, q.brandId());
+        assertEquals(35455L, q.productId());
+        assertEquals(LocalDateTime.parse("2020-06-14T10:00:00"), q.applicationDate());
+    }
 }
@@ -0,0 +1,89 @@
+package com.inditex.sisuprice.application;
+
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.repository.PriceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceCatalogUseCaseImplTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.parse("2020-06-14T10:00:00");
+
+    @Mock
+    PriceRepository repository;
+
+    PriceCatalogUseCaseImpl useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new PriceCatalogUseCaseImpl(repository, new PriceMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static List<PriceRecord> products(long from, long to) {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(productId -> new PriceRecord(1, DATE.minusDays(1), DATE.plusDays(1), 1, productId, 0,
+                        BigDecimal.TEN, "EUR"))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("asks for one product more than the page and returns the last product as cursor")
+    void returnsCursorWhenMoreProductsFollow() {
+        when(repository.findApplicableForBrand(1, DATE, 0L, Long.MAX_VALUE, 3)).thenReturn(products(1, 3));
+
+        var page = useCase.page(1, DATE, 0L, Long.MAX_VALUE, 2);
+
+        assertEquals(2, page.prices().size());
+        assertEquals(2L, page.nextAfterProductId());
+    }
+
+    @Test
+    @DisplayName("the last page has no cursor")
+    void lastPageHasNoCursor() {
+        when(repository.findApplicableForBrand(1, DATE, 5L, 100L, 3)).thenReturn(products(6, 7));
+
+        var page = useCase.page(1, DATE, 5L, 100L, 2);
+
+        assertEquals(2, page.prices().size());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    @DisplayName("scan follows the cursor until the last page")
+    void scanFollowsCursor() {
+        int pageSize = PriceCatalogUseCaseImpl.SCAN_PAGE_SIZE;
+        when(repository.findApplicableForBrand(1, DATE, 0L, Long.MAX_VALUE, pageSize + 1))
+                .thenReturn(products(1, pageSize + 1));
+        when(repository.findApplicableForBrand(1, DATE, pageSize, Long.MAX_VALUE, pageSize + 1))
+                .thenReturn(products(pageSize + 1, pageSize + 5));
+
+        List<Long> seen = new ArrayList<>();
+        long count = useCase.scan(1, DATE, 0L, Long.MAX_VALUE, price -> seen.add(price.productId()));
+
+        assertEquals(pageSize + 5, count);
+        assertEquals(LongStream.rangeClosed(1, pageSize + 5).boxed().toList(), seen);
+    }
+
+    @Test
+    @DisplayName("rejects a non-positive page size")
+    void rejectsEmptyPage() {
+        assertThrows(IllegalArgumentException.class, () -> useCase.page(1, DATE, 0L, Long.MAX_VALUE, 0));
+        verifyNoInteractions(repository);
+    }
+}
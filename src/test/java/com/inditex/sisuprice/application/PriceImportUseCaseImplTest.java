@@ -0,0 +1,223 @@
+package com.inditex.sisuprice.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inditex.sisuprice.config.PriceImportProperties;
+import com.inditex.sisuprice.domain.PriceFileFormat;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import com.inditex.sisuprice.domain.repository.PriceWriteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceImportUseCaseImplTest {
+
+    @Mock
+    PriceWriteRepository repository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    ApplicationEventPublisher events;
+
+    SimpleMeterRegistry registry;
+
+    PriceImportUseCaseImpl useCase;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        useCase = new PriceImportUseCaseImpl(repository, transactionManager, events,
+                new ObjectMapper().findAndRegisterModules(), new PriceImportProperties(2, 10, 100), registry);
+    }
+
+    private static InputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PriceRecord rec(int priceList, long productId, String price) {
+        return new PriceRecord(1, LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-12-31T23:59:59"), priceList, productId, 0, new BigDecimal(price), "EUR");
+    }
+
+    @Test
+    @DisplayName("appends valid CSV rows one chunk per transaction and reports the rejected lines")
+    void appendsCsvInChunks() {
+        String csv = """
+                PRODUCT_ID,BRAND_ID,START_DATE,END_DATE,PRICE_LIST,PRIORITY,PRICE,CURR
+                1,1,2020-06-14T00:00:00,2020-12-31T23:59:59,5,0,10.00,EUR
+                2,1,2020-06-14 00:00:00,2020-12-31 23:59:59,5,0,20.5,EUR
+
+                3,1,2020-06-14T00:00:00,2020-06-13T00:00:00,5,0,30.00,EUR
+                4,1,2020-06-14T00:00:00,2020-12-31T23:59:59,5,0,40.00,euro
+                5,1,2020-06-14T00:00:00,2020-12-31T23:59:59,5,0,50.00,EUR
+                """;
+
+        var result = useCase.importPrices(input(csv), PriceFileFormat.CSV);
+
+        assertEquals(5, result.rowsRead());
+        assertEquals(3, result.rowsImported());
+        assertEquals(2, result.rowsRejected());
+        assertEquals(List.of("line 5: endDate must be after startDate", "line 6: curr must be a three-letter ISO code"),
+                result.errors());
+        verify(repository).insertAll(List.of(rec(5, 1L, "10.00"), rec(5, 2L, "20.5")));
+        verify(repository).insertAll(List.of(rec(5, 5L, "50.00")));
+        verify(transactionManager, times(2)).commit(any());
+        verify(events).publishEvent(PricesChangedEvent.of(List.of(new PriceKey(1, 1L), new PriceKey(1, 2L))));
+        verify(events).publishEvent(PricesChangedEvent.of(List.of(new PriceKey(1, 5L))));
+        assertEquals(3, registry.get("pricing.import.rows").tag("result", "imported").counter().count());
+    }
+
+    @Test
+    @DisplayName("unquotes quoted CSV values and rejects lines with a quote left open or a value split by a comma")
+    void readsQuotedCsv() {
+        String csv = """
+                "PRODUCT_ID","BRAND_ID",START_DATE,END_DATE,PRICE_LIST,PRIORITY,PRICE,CURR
+                "1",1,"2020-06-14T00:00:00",2020-12-31T23:59:59,5,0,"10.00","EUR"
+                2,1,2020-06-14T00:00:00,2020-12-31T23:59:59,5,0,"20.00,EUR
+                3,1,2020-06-14T00:00:00,2020-12-31T23:59:59,5,0,"1,000.00",EUR
+                """;
+
+        var result = useCase.importPrices(input(csv), PriceFileFormat.CSV);
+
+        assertEquals(1, result.rowsImported());
+        assertEquals("line 3: unterminated quoted value", result.errors().get(0));
+        assertTrue(result.errors().get(1).startsWith("line 4: "));
+        verify(repository).insertAll(List.of(rec(5, 1L, "10.00")));
+    }
+
+    @Test
+    @DisplayName("parses NDJSON and rejects objects with missing fields")
+    void appendsNdjson() {
+        String ndjson = """
+                {"brandId":1,"startDate":"2020-06-14T00:00:00","endDate":"2020-12-31T23:59:59","priceList":5,"productId":1,"priority":0,"price":10.00,"curr":"EUR"}
+                {"brandId":1,"startDate":"2020-06-14T00:00:00","endDate":"2020-12-31T23:59:59","priceList":5,"productId":2,"price":10.00,"curr":"EUR"}
+                """;
+
+        var result = useCase.importPrices(input(ndjson), PriceFileFormat.NDJSON);
+
+        assertEquals(1, result.rowsImported());
+        assertEquals(1, result.rowsRejected());
+        assertTrue(result.errors().get(0).startsWith("line 2: "));
+        verify(repository).insertAll(List.of(rec(5, 1L, "10.00")));
+    }
+
+    @Test
+    @DisplayName("rejects CSV input without the required header")
+    void rejectsMissingHeader() {
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.importPrices(input("BRAND_ID,PRICE\n1,2\n"), PriceFileFormat.CSV));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("stages a replacement chunk by chunk, swaps it in one transaction and announces the old and new keys")
+    void replacesPriceList() {
+        String csv = """
+                BRAND_ID,START_DATE,END_DATE,PRICE_LIST,PRODUCT_ID,PRIORITY,PRICE,CURR
+                1,2020-06-14T00:00:00,2020-12-31T23:59:59,7,1,0,10.00,EUR
+                1,2020-06-14T00:00:00,2020-12-31T23:59:59,7,2,0,20.00,EUR
+                1,2020-06-14T00:00:00,2020-12-31T23:59:59,7,3,0,30.00,EUR
+                """;
+        when(repository.findKeysOfPriceList(7, 101)).thenReturn(Set.of(new PriceKey(1, 9L)));
+        when(repository.deletePriceList(7)).thenReturn(4);
+
+        var result = useCase.replacePriceList(input(csv), PriceFileFormat.CSV, 7);
+
+        assertEquals(3, result.rowsImported());
+        assertEquals(4, result.rowsDeleted());
+        var inOrder = inOrder(repository);
+        inOrder.verify(repository).stage(anyString(), eq(List.of(rec(7, 1L, "10.00"), rec(7, 2L, "20.00"))));
+        inOrder.verify(repository).stage(anyString(), eq(List.of(rec(7, 3L, "30.00"))));
+        inOrder.verify(repository).deletePriceList(7);
+        inOrder.verify(repository).insertStaged(anyString());
+        inOrder.verify(repository).deleteStaged(anyString());
+        // two staged chunks, the swap and the cleanup
+        verify(transactionManager, times(4)).commit(any());
+        verify(repository, never()).insertAll(any());
+        verify(events).publishEvent(PricesChangedEvent.of(List.of(
+                new PriceKey(1, 9L), new PriceKey(1, 1L), new PriceKey(1, 2L), new PriceKey(1, 3L))));
+    }
+
+    @Test
+    @DisplayName("replacing a price list with more pairs than maxEventKeys announces a full change")
+    void largeReplacementAnnouncesEverything() {
+        useCase = new PriceImportUseCaseImpl(repository, transactionManager, events,
+                new ObjectMapper().findAndRegisterModules(), new PriceImportProperties(5, 10, 1), registry);
+        String csv = """
+                BRAND_ID,START_DATE,END_DATE,PRICE_LIST,PRODUCT_ID,PRIORITY,PRICE,CURR
+                1,2020-06-14T00:00:00,2020-12-31T23:59:59,7,1,0,10.00,EUR
+                1,2020-06-14T00:00:00,2020-12-31T23:59:59,7,2,0,20.00,EUR
+                1,2020-06-14T00:00:00,2020-12-31T23:59:59,7,3,0,30.00,EUR
+                """;
+
+        assertEquals(3, useCase.replacePriceList(input(csv), PriceFileFormat.CSV, 7).rowsImported());
+
+        verify(repository, never()).findKeysOfPriceList(anyInt(), anyInt());
+        verify(events).publishEvent(PricesChangedEvent.everything());
+    }
+
+    @Test
+    @DisplayName("leaves the price list untouched when a row is invalid or belongs to another price list")
+    void rejectsInvalidReplacement() {
+        String foreign = """
+                BRAND_ID,START_DATE,END_DATE,PRICE_LIST,PRODUCT_ID,PRIORITY,PRICE,CURR
+                1,2020-06-14T00:00:00,2020-12-31T23:59:59,8,1,0,10.00,EUR
+                """;
+        String invalid = """
+                BRAND_ID,START_DATE,END_DATE,PRICE_LIST,PRODUCT_ID,PRIORITY,PRICE,CURR
+                1,2020-06-14T00:00:00,2020-12-31T23:59:59,7,1,0,10.001,EUR
+                """;
+
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.replacePriceList(input(foreign), PriceFileFormat.CSV, 7));
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.replacePriceList(input(invalid), PriceFileFormat.CSV, 7));
+
+        verify(repository, never()).stage(any(), any());
+        verify(repository, never()).deletePriceList(anyInt());
+        verify(repository, times(2)).deleteStaged(anyString());
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    @DisplayName("drops the chunks already staged when a later chunk is invalid")
+    void discardsStagedChunksOfRejectedReplacement() {
+        String csv = """
+                BRAND_ID,START_DATE,END_DATE,PRICE_LIST,PRODUCT_ID,PRIORITY,PRICE,CURR
+                1,2020-06-14T00:00:00,2020-12-31T23:59:59,7,1,0,10.00,EUR
+                1,2020-06-14T00:00:00,2020-12-31T23:59:59,7,2,0,20.00,EUR
+                1,2020-06-14T00:00:00,2020-12-31T23:59:59,7,3,0,-1,EUR
+                """;
+        var importId = ArgumentCaptor.forClass(String.class);
+
+        assertThrows(IllegalArgumentException.class, () -> useCase.replacePriceList(input(csv), PriceFileFormat.CSV, 7));
+
+        verify(repository).stage(importId.capture(), eq(List.of(rec(7, 1L, "10.00"), rec(7, 2L, "20.00"))));
+        verify(repository).deleteStaged(importId.getValue());
+        verify(repository, never()).deletePriceList(anyInt());
+        verify(repository, never()).insertStaged(any());
+        verifyNoInteractions(events);
+    }
+}
@@ -0,0 +1,175 @@
+package com.inditex.sisuprice.application;
+
+import com.inditex.sisuprice.config.PriceKeyFilterProperties;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import com.inditex.sisuprice.domain.repository.PriceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceKeyFilterTest {
+
+    @Mock
+    PriceRepository repository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private PriceKeyFilter filter(boolean enabled, int expectedKeys) {
+        return new PriceKeyFilter(new PriceKeyFilterProperties(enabled, expectedKeys, 0.01, Duration.ofMinutes(1)),
+                repository, registry, Runnable::run);
+    }
+
+    private static PriceRecord record(int brandId, long productId) {
+        return new PriceRecord(brandId, LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-12-31T23:59:59"), 1, productId, 0, new BigDecimal("35.50"), "EUR");
+    }
+
+    private double lookups(String result) {
+        return registry.get(PriceKeyFilter.LOOKUPS).tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("lets every pair through until it is built, and always when disabled")
+    void passesUntilBuilt() {
+        PriceKeyFilter filter = filter(true, 100);
+        assertTrue(filter.mightContain(1, 1L));
+
+        PriceKeyFilter disabled = filter(false, 100);
+        disabled.build();
+        assertTrue(disabled.mightContain(1, 1L));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("contains every pair of PRICES and pairs added by changes")
+    void containsPricesAndChanges() {
+        when(repository.streamAll()).then(invocation -> Stream.of(record(1, 35455L), record(1, 35455L), record(2, 7L)));
+        PriceKeyFilter filter = filter(true, 100);
+        filter.build();
+
+        assertTrue(filter.mightContain(1, 35455L));
+        assertTrue(filter.mightContain(2, 7L));
+        assertFalse(filter.mightContain(1, 999_999L));
+
+        filter.onPricesChanged(PricesChangedEvent.of(List.of(new PriceKey(1, 999_999L))));
+        assertTrue(filter.mightContain(1, 999_999L));
+        assertEquals(1, lookups("rejected"));
+        assertEquals(3, lookups("passed"));
+        assertEquals(120, registry.get(PriceKeyFilter.BYTES).gauge().value());
+    }
+
+    @Test
+    @DisplayName("rebuilds from PRICES on a full change and once it outgrows its capacity")
+    void rebuilds() {
+        when(repository.streamAll()).then(invocation -> Stream.of(record(1, 1L)));
+        PriceKeyFilter filter = filter(true, 2);
+        filter.build();
+
+        filter.onPricesChanged(PricesChangedEvent.everything());
+        filter.onPricesChanged(PricesChangedEvent.of(List.of(new PriceKey(1, 2L))));
+        filter.onPricesChanged(PricesChangedEvent.of(List.of(new PriceKey(1, 3L), new PriceKey(1, 4L))));
+
+        // build, full change and outgrown after 1 + 3 added pairs: one pass each
+        verify(repository, times(3)).streamAll();
+        assertTrue(filter.mightContain(1, 1L));
+    }
+
+    @Test
+    @DisplayName("rebuilds requested by changes run on the scheduler, folded into one while queued")
+    void queuesRebuilds() {
+        when(repository.streamAll()).then(invocation -> Stream.of(record(1, 1L)));
+        List<Runnable> queued = new ArrayList<>();
+        PriceKeyFilter filter = new PriceKeyFilter(new PriceKeyFilterProperties(true, 100, 0.01, Duration.ZERO),
+                repository, registry, queued::add);
+        filter.build();
+
+        filter.onPricesChanged(PricesChangedEvent.everything());
+        filter.onPricesChanged(PricesChangedEvent.everything());
+
+        assertEquals(1, queued.size());
+        verify(repository, times(1)).streamAll();
+        queued.get(0).run();
+        verify(repository, times(2)).streamAll();
+    }
+
+    @Test
+    @DisplayName("a table that outgrew the previous sizing is scanned again with a larger filter")
+    void resizesWhenPricesGrew() {
+        when(repository.streamAll())
+                .then(invocation -> Stream.of(record(1, 1L)))
+                .then(invocation -> LongStream.range(0, 5).mapToObj(p -> record(1, p)))
+                .then(invocation -> LongStream.range(0, 5).mapToObj(p -> record(1, p)));
+        PriceKeyFilter filter = filter(true, 2);
+        filter.build();
+
+        filter.rebuild();
+
+        verify(repository, times(3)).streamAll();
+        assertTrue(LongStream.range(0, 5).allMatch(p -> filter.mightContain(1, p)));
+        assertEquals(16, registry.get(PriceKeyFilter.BYTES).gauge().value());
+    }
+
+    @Test
+    @DisplayName("a scheduled rebuild picks up pairs inserted without a change event")
+    void rebuildsOnSchedule() {
+        when(repository.streamAll())
+                .then(invocation -> Stream.of(record(1, 1L)))
+                .then(invocation -> Stream.of(record(1, 1L), record(1, 2L)));
+        PriceKeyFilter filter = filter(true, 100);
+        ScheduledTaskRegistrar registrar = new ScheduledTaskRegistrar();
+        filter.configureTasks(registrar);
+        filter.build();
+        assertFalse(filter.mightContain(1, 2L));
+
+        assertEquals(Duration.ofMinutes(1), registrar.getFixedDelayTaskList().get(0).getIntervalDuration());
+        registrar.getFixedDelayTaskList().get(0).getRunnable().run();
+
+        assertTrue(filter.mightContain(1, 2L));
+    }
+
+    @Test
+    @DisplayName("schedules no rebuild when disabled or without an interval")
+    void schedulesNothingWhenOff() {
+        ScheduledTaskRegistrar registrar = new ScheduledTaskRegistrar();
+        filter(false, 100).configureTasks(registrar);
+        new PriceKeyFilter(new PriceKeyFilterProperties(true, 100, 0.01, Duration.ZERO), repository, registry,
+                Runnable::run)
+                .configureTasks(registrar);
+
+        assertTrue(registrar.getFixedDelayTaskList().isEmpty());
+    }
+
+    @Test
+    @DisplayName("rejects about the configured share of unknown pairs at capacity")
+    void meetsTheFalsePositiveRate() {
+        when(repository.streamAll()).then(invocation -> LongStream.range(0, 50_000).mapToObj(p -> record(1, p)));
+        PriceKeyFilter filter = filter(true, 100_000);
+        filter.build();
+        filter.onPricesChanged(PricesChangedEvent.of(LongStream.range(50_000, 100_000)
+                .mapToObj(p -> new PriceKey(2, p)).toList()));
+
+        long falsePositives = LongStream.range(1_000_000, 1_100_000).filter(p -> filter.mightContain(1, p)).count();
+
+        assertTrue(LongStream.range(0, 50_000).allMatch(p -> filter.mightContain(1, p)));
+        assertEquals(0.01, falsePositives / 100_000.0, 0.005);
+        assertEquals(0.01, registry.get(PriceKeyFilter.EXPECTED_FPP).gauge().value(), 0.005);
+    }
+}
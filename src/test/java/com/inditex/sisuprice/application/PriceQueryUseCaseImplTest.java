@@ -1,16 +1,37 @@
 package com.inditex.sisuprice.application;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.inditex.sisuprice.config.PartitionTable;
+import com.inditex.sisuprice.config.PartitionTableChangedEvent;
+import com.inditex.sisuprice.config.PriceCacheProperties;
+import com.inditex.sisuprice.config.PriceKeyFilterProperties;
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.domain.PriceQuery;
 import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceWindow;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
 import com.inditex.sisuprice.domain.repository.PriceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,9 +42,23 @@ class PriceQueryUseCaseImplTest {
     @Mock
     PriceRepository repository;
 
-    @InjectMocks
+    SimpleMeterRegistry registry;
+
     PriceQueryUseCaseImpl useCase;
 
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        useCase = new PriceQueryUseCaseImpl(repository, new ConcurrentMapCacheManager(PriceQueryUseCaseImpl.PRICES_CACHE),
+                new PriceMetrics(registry), new PriceCacheProperties(1000, Duration.ofMinutes(5), 1.0),
+                keyFilter(false));
+    }
+
+    private PriceKeyFilter keyFilter(boolean enabled) {
+        return new PriceKeyFilter(new PriceKeyFilterProperties(enabled, 100, 0.01, Duration.ZERO), repository, registry,
+                Runnable::run);
+    }
+
     private PriceRecord domain() {
         return new PriceRecord(
                 1,
@@ -37,12 +72,16 @@ class PriceQueryUseCaseImplTest {
         );
     }
 
+    private PriceWindow window(PriceRecord priceRecord) {
+        return new PriceWindow(priceRecord.startDate(), priceRecord.endDate(), priceRecord);
+    }
+
     @Test
     void returnsRecordWhenRepositoryFindsRecord() {
         var date = LocalDateTime.parse("2020-06-14T10:00:00");
         var priceRecord = domain();
 
-        when(repository.findApplicable(1, 35455L, date)).thenReturn(Optional.of(priceRecord));
+        when(repository.findWindow(1, 35455L, date)).thenReturn(window(priceRecord));
 
         var result = useCase.query(1, 35455L, date);
 
@@ -53,27 +92,309 @@ class PriceQueryUseCaseImplTest {
         assertEquals(new BigDecimal("25.45"), result.get().price());
         assertEquals("EUR", result.get().curr());
 
-        verify(repository).findApplicable(1, 35455L, date);
+        verify(repository).findWindow(1, 35455L, date);
     }
 
     @Test
     void returnsEmptyWhenRepositoryReturnsEmpty() {
         var date = LocalDateTime.parse("2020-06-14T10:00:00");
-        when(repository.findApplicable(1, 35455L, date)).thenReturn(Optional.empty());
+        when(repository.findWindow(1, 35455L, date)).thenReturn(PriceWindow.empty());
 
         var result = useCase.query(1, 35455L, date);
 
         assertTrue(result.isEmpty());
-        verify(repository).findApplicable(1, 35455L, date);
+        verify(repository).findWindow(1, 35455L, date);
     }
 
     @Test
     void queryDelegatesToRepository() {
         var date = LocalDateTime.parse("2020-06-14T16:00:00");
-        when(repository.findApplicable(anyInt(), anyLong(), any())).thenReturn(Optional.empty());
+        when(repository.findWindow(anyInt(), anyLong(), any())).thenReturn(PriceWindow.empty());
 
         useCase.query(99, 888L, date);
 
-        verify(repository).findApplicable(99, 888L, date);
+        verify(repository).findWindow(99, 888L, date);
+    }
+
+    @Test
+    void servesAnyDateInsideTheCachedWindowWithoutRepository() {
+        var first = LocalDateTime.parse("2020-06-14T10:00:00");
+        when(repository.findWindow(1, 35455L, first)).thenReturn(window(domain()));
+
+        useCase.query(1, 35455L, first);
+        var result = useCase.query(1, 35455L, LocalDateTime.parse("2020-06-14T11:59:59.999"));
+
+        assertTrue(result.isPresent());
+        assertEquals(2, result.get().priceList());
+        verify(repository, times(1)).findWindow(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void reloadsWhenTheDateFallsOutsideTheCachedWindow() {
+        var inside = LocalDateTime.parse("2020-06-14T10:00:00");
+        var outside = LocalDateTime.parse("2020-06-14T12:00:00");
+        when(repository.findWindow(1, 35455L, inside)).thenReturn(window(domain()));
+        when(repository.findWindow(1, 35455L, outside)).thenReturn(
+                new PriceWindow(outside, LocalDateTime.MAX, null));
+
+        assertTrue(useCase.query(1, 35455L, inside).isPresent());
+        assertTrue(useCase.query(1, 35455L, outside).isEmpty());
+        assertTrue(useCase.query(1, 35455L, outside.plusDays(1)).isEmpty());
+
+        verify(repository).findWindow(1, 35455L, inside);
+        verify(repository).findWindow(1, 35455L, outside);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void queryAllResolvesOnlyCacheMissesInOneRepositoryCall() {
+        var cached = LocalDateTime.parse("2020-06-14T10:00:00");
+        when(repository.findWindow(1, 35455L, cached)).thenReturn(window(domain()));
+        useCase.query(1, 35455L, cached);
+
+        var miss = new PriceQuery(2, 1L, LocalDateTime.parse("2020-06-14T10:00:00"));
+        when(repository.findWindows(List.of(miss))).thenReturn(List.of(PriceWindow.empty()));
+
+        var results = useCase.queryAll(List.of(
+                new PriceQuery(1, 35455L, LocalDateTime.parse("2020-06-14T11:00:00")),
+                miss));
+
+        assertEquals(2, results.size());
+        assertEquals(2, results.get(0).orElseThrow().priceList());
+        assertTrue(results.get(1).isEmpty());
+        verify(repository).findWindows(List.of(miss));
+    }
+
+    @Test
+    void evictsChangedKeysFromTheCache() {
+        var date = LocalDateTime.parse("2020-06-14T10:00:00");
+        when(repository.findWindow(anyInt(), anyLong(), any())).thenReturn(window(domain()));
+        useCase.query(1, 35455L, date);
+        useCase.query(1, 1L, date);
+
+        useCase.onPricesChanged(PricesChangedEvent.of(List.of(new PriceKey(1, 35455L))));
+        useCase.query(1, 35455L, date);
+        useCase.query(1, 1L, date);
+        verify(repository, times(2)).findWindow(1, 35455L, date);
+        verify(repository, times(1)).findWindow(1, 1L, date);
+
+        useCase.onPricesChanged(PricesChangedEvent.everything());
+        useCase.query(1, 1L, date);
+        verify(repository, times(2)).findWindow(1, 1L, date);
+    }
+
+    @Test
+    void concurrentMissesOfAKeyShareOneRepositoryLoad() throws Exception {
+        var date = LocalDateTime.parse("2020-06-14T10:00:00");
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(repository.findWindow(1, 35455L, date)).thenAnswer(invocation -> {
+            entered.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return window(domain());
+        });
+
+        CompletableFuture<Optional<PriceRecord>> leader = CompletableFuture.supplyAsync(() -> useCase.query(1, 35455L, date));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Optional<PriceRecord>> follower = CompletableFuture.supplyAsync(() -> useCase.query(1, 35455L, date));
+        while (loads("coalesced") == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        assertEquals(2, leader.get(5, TimeUnit.SECONDS).orElseThrow().priceList());
+        assertEquals(2, follower.get(5, TimeUnit.SECONDS).orElseThrow().priceList());
+        assertEquals(1, loads("loaded"));
+        verify(repository, times(1)).findWindow(1, 35455L, date);
+    }
+
+    @Test
+    void batchMissesJoinTheLoadAlreadyRunningForTheirKey() throws Exception {
+        var date = LocalDateTime.parse("2020-06-14T10:00:00");
+        var other = new PriceQuery(1, 1L, date);
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(repository.findWindow(1, 35455L, date)).thenAnswer(invocation -> {
+            entered.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return window(domain());
+        });
+        when(repository.findWindows(List.of(other))).thenReturn(List.of(PriceWindow.empty()));
+
+        CompletableFuture<Optional<PriceRecord>> single = CompletableFuture.supplyAsync(() -> useCase.query(1, 35455L, date));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<List<Optional<PriceRecord>>> batch = CompletableFuture.supplyAsync(
+                () -> useCase.queryAll(List.of(new PriceQuery(1, 35455L, date), other)));
+        while (loads("coalesced") == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        assertEquals(2, single.get(5, TimeUnit.SECONDS).orElseThrow().priceList());
+        var results = batch.get(5, TimeUnit.SECONDS);
+        assertEquals(2, results.get(0).orElseThrow().priceList());
+        assertTrue(results.get(1).isEmpty());
+        verify(repository, times(1)).findWindow(1, 35455L, date);
+        verify(repository).findWindows(List.of(other));
+    }
+
+    @Test
+    void batchDoesNotCacheAWindowLoadedBeforeAChangeOfItsKey() {
+        var date = LocalDateTime.parse("2020-06-14T10:00:00");
+        var query = new PriceQuery(1, 35455L, date);
+        when(repository.findWindows(List.of(query))).thenAnswer(invocation -> {
+            useCase.onPricesChanged(PricesChangedEvent.of(List.of(new PriceKey(1, 35455L))));
+            return List.of(window(domain()));
+        });
+        when(repository.findWindow(1, 35455L, date)).thenReturn(window(domain()));
+
+        assertEquals(2, useCase.queryAll(List.of(query)).get(0).orElseThrow().priceList());
+        useCase.query(1, 35455L, date);
+
+        verify(repository).findWindow(1, 35455L, date);
+    }
+
+    @Test
+    void reloadsHotEntriesBeforeTheyExpire() {
+        var cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PriceQueryUseCaseImpl.PRICES_CACHE, Caffeine.newBuilder()
+                .expireAfter(new Expiry<Object, Object>() {
+                    @Override
+                    public long expireAfterCreate(Object key, Object value, long currentTime) {
+                        return Duration.ofHours(1).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build());
+        useCase = new PriceQueryUseCaseImpl(repository, cacheManager, new PriceMetrics(registry),
+                new PriceCacheProperties(1000, Duration.ofHours(1), 1e15), keyFilter(false));
+        var date = LocalDateTime.parse("2020-06-14T10:00:00");
+        when(repository.findWindow(1, 35455L, date)).thenReturn(new PriceWindow(LocalDateTime.MIN, LocalDateTime.MAX, domain()));
+
+        useCase.query(1, 35455L, date);
+        useCase.query(1, 35455L, date);
+
+        verify(repository, times(2)).findWindow(1, 35455L, date);
+        assertEquals(1, registry.get(PriceMetrics.CACHE_EARLY_REFRESHES).counter().count());
+        assertEquals(1, registry.get(PriceMetrics.CACHE_LOOKUPS).tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void answersPairsRejectedByTheKeyFilterWithoutCacheOrRepository() {
+        var cacheManager = new ConcurrentMapCacheManager(PriceQueryUseCaseImpl.PRICES_CACHE);
+        var keyFilter = keyFilter(true);
+        when(repository.streamAll()).then(invocation -> Stream.of(domain()));
+        keyFilter.build();
+        useCase = new PriceQueryUseCaseImpl(repository, cacheManager, new PriceMetrics(registry),
+                new PriceCacheProperties(1000, Duration.ofMinutes(5), 1.0), keyFilter);
+        var date = LocalDateTime.parse("2020-06-14T10:00:00");
+
+        assertTrue(useCase.query(1, 999_999L, date).isEmpty());
+        assertTrue(useCase.queryAll(List.of(new PriceQuery(1, 999_999L, date))).get(0).isEmpty());
+
+        verify(repository, never()).findWindow(anyInt(), anyLong(), any());
+        verify(repository, never()).findWindows(any());
+        assertNull(cacheManager.getCache(PriceQueryUseCaseImpl.PRICES_CACHE).get(new PriceKey(1, 999_999L)));
+        assertEquals(0, registry.get(PriceMetrics.CACHE_LOOKUPS).tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void batchLookupsReportPairsWithoutRowsAsKeyFilterFalsePositives() {
+        var keyFilter = keyFilter(true);
+        when(repository.streamAll()).then(invocation -> Stream.of(domain()));
+        keyFilter.build();
+        useCase = new PriceQueryUseCaseImpl(repository, new ConcurrentMapCacheManager(PriceQueryUseCaseImpl.PRICES_CACHE),
+                new PriceMetrics(registry), new PriceCacheProperties(1000, Duration.ofMinutes(5), 1.0), keyFilter);
+        var query = new PriceQuery(1, 35455L, LocalDateTime.parse("2020-06-14T10:00:00"));
+        when(repository.findWindows(List.of(query))).thenReturn(List.of(PriceWindow.empty()));
+
+        assertTrue(useCase.queryAll(List.of(query)).get(0).isEmpty());
+        assertTrue(useCase.queryAll(List.of(query)).get(0).isEmpty());
+
+        assertEquals(2, registry.get("pricing.key_filter.lookups").tag("result", "false_positive").counter().count());
+    }
+
+    @Test
+    void partitionMovesEvictOnlyTheKeysThatChangedOwner() {
+        var date = LocalDateTime.parse("2020-06-14T10:00:00");
+        when(repository.findWindow(anyInt(), anyLong(), eq(date))).thenReturn(window(domain()));
+        useCase.query(1, 35455L, date);
+        useCase.query(2, 35455L, date);
+        var nodes = Map.of("node-a", "http://localhost:8081", "node-b", "http://localhost:8082");
+        var previous = PartitionTable.of(1, PartitionTable.Strategy.BRAND, 64, nodes, Map.of("node-a", "1", "node-b", "2"));
+        var current = PartitionTable.of(2, PartitionTable.Strategy.BRAND, 64, nodes, Map.of("node-a", "", "node-b", "1,2"));
+
+        useCase.onPartitionsMoved(new PartitionTableChangedEvent(previous, current));
+        useCase.query(1, 35455L, date);
+        useCase.query(2, 35455L, date);
+
+        verify(repository, times(2)).findWindow(1, 35455L, date);
+        verify(repository, times(1)).findWindow(2, 35455L, date);
+    }
+
+    private double loads(String result) {
+        return registry.get(PriceMetrics.CACHE_LOADS).tag("result", result).counter().count();
+    }
+
+    @Test
+    void timesUseCaseAndRepositoryStagesByOutcome() {
+        var date = LocalDateTime.parse("2020-06-14T10:00:00");
+        when(repository.findWindow(1, 35455L, date)).thenReturn(window(domain()));
+        when(repository.findWindow(1, 1L, date)).thenReturn(PriceWindow.empty());
+        when(repository.findWindow(1, 2L, date)).thenThrow(new IllegalStateException("database down"));
+
+        useCase.query(1, 35455L, date);
+        useCase.query(1, 35455L, date);
+        useCase.query(1, 1L, date);
+        assertThrows(IllegalStateException.class, () -> useCase.query(1, 2L, date));
+
+        assertEquals(2, stageCount("use_case", "query", "found"));
+        assertEquals(1, stageCount("use_case", "query", "not_found"));
+        assertEquals(1, stageCount("use_case", "query", "error"));
+        assertEquals(1, stageCount("repository", "findWindow", "found"));
+        assertEquals(1, stageCount("repository", "findWindow", "error"));
+        assertEquals(1, registry.get(PriceMetrics.CACHE_LOOKUPS).tag("result", "hit").counter().count());
+        assertEquals(3, registry.get(PriceMetrics.CACHE_LOOKUPS).tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void timelineFlattensOverlappingRecordsWithinThePeriod() {
+        var from = LocalDateTime.parse("2020-06-14T00:00:00");
+        var to = LocalDateTime.parse("2020-06-15T00:00:00");
+        var base = new PriceRecord(1, LocalDateTime.parse("2020-06-01T00:00:00"),
+                LocalDateTime.parse("2020-07-01T00:00:00"), 1, 35455L, 0, new BigDecimal("35.50"), "EUR");
+        when(repository.findOverlapping(1, 35455L, from, to)).thenReturn(List.of(domain(), base));
+
+        var segments = useCase.timeline(1, 35455L, from, to);
+
+        assertEquals(3, segments.size());
+        assertEquals(List.of(1, 2, 1), segments.stream().map(s -> s.price().priceList()).toList());
+        assertEquals(from, segments.get(0).from());
+        assertEquals(LocalDateTime.parse("2020-06-14T10:00:00"), segments.get(1).from());
+        assertEquals(to, segments.get(2).to());
+        assertEquals(1, stageCount("repository", "findOverlapping", "found"));
+    }
+
+    @Test
+    void timelineRejectsEmptyPeriod() {
+        var date = LocalDateTime.parse("2020-06-14T00:00:00");
+
+        assertThrows(IllegalArgumentException.class, () -> useCase.timeline(1, 35455L, date, date));
+        verifyNoInteractions(repository);
+    }
+
+    private long stageCount(String stage, String operation, String outcome) {
+        return registry.get(PriceMetrics.STAGE_DURATION)
+                .tags("stage", stage, "operation", operation, "outcome", outcome)
+                .timer().count();
     }
 }
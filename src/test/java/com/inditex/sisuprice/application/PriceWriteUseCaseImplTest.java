@@ -0,0 +1,167 @@
+package com.inditex.sisuprice.application;
+
+import com.inditex.sisuprice.config.PriceImportProperties;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceListClosure;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceRow;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import com.inditex.sisuprice.domain.repository.PriceWriteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceWriteUseCaseImplTest {
+
+    private static final LocalDateTime AT = LocalDateTime.parse("2020-07-01T00:00:00");
+
+    @Mock
+    PriceWriteRepository repository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    ApplicationEventPublisher events;
+
+    SimpleMeterRegistry registry;
+
+    PriceWriteUseCaseImpl useCase;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        useCase = new PriceWriteUseCaseImpl(repository, transactionManager, events, new PriceImportProperties(2, 10, 2),
+                registry);
+    }
+
+    private static PriceRecord rec(int brandId, long productId, String price) {
+        return new PriceRecord(brandId, LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-12-31T23:59:59"), 5, productId, 0, new BigDecimal(price), "EUR");
+    }
+
+    @Test
+    @DisplayName("creates a row and announces only its brand/product pair")
+    void createsRow() {
+        when(repository.insert(rec(1, 7L, "10.00"))).thenReturn(42L);
+
+        PriceRow row = useCase.create(rec(1, 7L, "10.00"));
+
+        assertEquals(new PriceRow(42L, rec(1, 7L, "10.00")), row);
+        verify(transactionManager).commit(any());
+        verify(events).publishEvent(PricesChangedEvent.of(List.of(new PriceKey(1, 7L))));
+        assertEquals(1, registry.get("pricing.write.rows").tag("operation", "create").counter().count());
+    }
+
+    @Test
+    @DisplayName("rejects an invalid row before touching the database")
+    void rejectsInvalidRow() {
+        PriceRecord backwards = new PriceRecord(1, AT, AT.minusDays(1), 5, 7L, 0, new BigDecimal("10.00"), "EUR");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> useCase.create(backwards));
+
+        assertEquals("endDate must be after startDate", error.getMessage());
+        verifyNoInteractions(repository, transactionManager, events);
+    }
+
+    @Test
+    @DisplayName("moving a row to another product announces the old and the new pair")
+    void updateAnnouncesBothKeys() {
+        when(repository.lockById(42L)).thenReturn(Optional.of(rec(1, 7L, "10.00")));
+
+        Optional<PriceRow> row = useCase.update(42L, rec(1, 8L, "10.00"));
+
+        assertEquals(Optional.of(new PriceRow(42L, rec(1, 8L, "10.00"))), row);
+        verify(repository).update(42L, rec(1, 8L, "10.00"));
+        verify(events).publishEvent(PricesChangedEvent.of(List.of(new PriceKey(1, 7L), new PriceKey(1, 8L))));
+    }
+
+    @Test
+    @DisplayName("an update that changes nothing writes and announces nothing")
+    void unchangedUpdateIsSilent() {
+        when(repository.lockById(42L)).thenReturn(Optional.of(rec(1, 7L, "10.00")));
+
+        assertTrue(useCase.update(42L, rec(1, 7L, "10.00")).isPresent());
+
+        verify(repository, never()).update(anyLong(), any());
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    @DisplayName("an unknown row is reported as absent")
+    void unknownRow() {
+        when(repository.lockById(42L)).thenReturn(Optional.empty());
+
+        assertTrue(useCase.endDate(42L, AT).isEmpty());
+
+        verify(repository, never()).update(anyLong(), any());
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    @DisplayName("end-dating keeps the rest of the row and refuses to end it before it starts")
+    void endsRow() {
+        when(repository.lockById(42L)).thenReturn(Optional.of(rec(1, 7L, "10.00")));
+
+        assertEquals(AT, useCase.endDate(42L, AT).orElseThrow().record().endDate());
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.endDate(42L, LocalDateTime.parse("2020-06-01T00:00:00")));
+
+        verify(repository).update(42L, new PriceRecord(1, LocalDateTime.parse("2020-06-14T00:00:00"), AT, 5, 7L, 0,
+                new BigDecimal("10.00"), "EUR"));
+        verify(events).publishEvent(PricesChangedEvent.of(List.of(new PriceKey(1, 7L))));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("closing a price list ends current rows, deletes future ones and announces the affected pairs")
+    void closesPriceList() {
+        when(repository.findKeysOfPriceListValidAfter(5, AT, 3)).thenReturn(Set.of(new PriceKey(1, 7L)));
+        when(repository.endPriceListAt(5, AT)).thenReturn(3);
+        when(repository.deletePriceListFrom(5, AT)).thenReturn(1);
+
+        assertEquals(new PriceListClosure(5, AT, 3, 1, 1), useCase.closePriceList(5, AT));
+
+        verify(events).publishEvent(PricesChangedEvent.of(List.of(new PriceKey(1, 7L))));
+        assertEquals(4, registry.get("pricing.write.rows").tag("operation", "close").counter().count());
+    }
+
+    @Test
+    @DisplayName("closing a price list with more pairs than maxEventKeys announces a full change")
+    void largeClosureAnnouncesEverything() {
+        when(repository.findKeysOfPriceListValidAfter(5, AT, 3))
+                .thenReturn(Set.of(new PriceKey(1, 7L), new PriceKey(1, 8L), new PriceKey(1, 9L)));
+        when(repository.countKeysOfPriceListValidAfter(5, AT)).thenReturn(500);
+
+        assertEquals(500, useCase.closePriceList(5, AT).keysAffected());
+
+        verify(events).publishEvent(PricesChangedEvent.everything());
+    }
+
+    @Test
+    @DisplayName("closing a price list with nothing left to close writes nothing")
+    void emptyClosure() {
+        when(repository.findKeysOfPriceListValidAfter(5, AT, 3)).thenReturn(Set.of());
+
+        assertEquals(new PriceListClosure(5, AT, 0, 0, 0), useCase.closePriceList(5, AT));
+
+        verify(repository, never()).endPriceListAt(anyInt(), any());
+        verifyNoInteractions(events);
+    }
+}
@@ -0,0 +1,78 @@
+package com.inditex.sisuprice.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeteredAsyncAppenderTest {
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    private final CountDownLatch writing = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final List<ILoggingEvent> written = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Stands in for stdout: the first event blocks the worker until released.
+     */
+    private final AppenderBase<ILoggingEvent> slow = new AppenderBase<>() {
+        @Override
+        protected void append(ILoggingEvent event) {
+            writing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(event);
+        }
+    };
+
+    private ILoggingEvent event(Level level) {
+        return new LoggingEvent(getClass().getName(), context.getLogger("test"), level, "message", null, null);
+    }
+
+    @Test
+    void countsDiscardedAndRejectedEventsWithoutBlocking() throws InterruptedException {
+        slow.setContext(context);
+        slow.start();
+        MeteredAsyncAppender appender = new MeteredAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(4);
+        appender.setDiscardingThreshold(2);
+        appender.setNeverBlock(true);
+        appender.addAppender(slow);
+        appender.start();
+
+        appender.doAppend(event(Level.INFO));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.WARN));
+        appender.doAppend(event(Level.WARN));
+
+        assertEquals(4, appender.getNumberOfElementsInQueue());
+        assertEquals(1, appender.discarded());
+        assertEquals(1, appender.rejected());
+
+        release.countDown();
+        appender.stop();
+        assertEquals(5, written.size());
+    }
+}
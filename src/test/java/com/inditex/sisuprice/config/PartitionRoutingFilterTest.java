@@ -0,0 +1,104 @@
+package com.inditex.sisuprice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PartitionRoutingFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+
+    private final PriceClusterProperties properties = new PriceClusterProperties(true, "node-a",
+            PartitionTable.Strategy.BRAND, 8,
+            Map.of("node-a", "http://localhost:8081", "node-b", "http://localhost:8082/"),
+            Map.of("node-a", "1,3-5", "node-b", "2"), PriceClusterProperties.Routing.REDIRECT, Duration.ofSeconds(1));
+
+    private final ClusterMembership membership = new ClusterMembership(properties, events);
+
+    private final PartitionRoutingFilter filter =
+            new PartitionRoutingFilter(membership, properties, new ObjectMapper(), registry);
+
+    private MockHttpServletResponse get(String uri, String query, String forwardedBy) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setQueryString(query);
+        for (String pair : query.split("&")) {
+            request.addParameter(pair.substring(0, pair.indexOf('=')), pair.substring(pair.indexOf('=') + 1));
+        }
+        if (forwardedBy != null) {
+            request.addHeader(PartitionRoutingFilter.FORWARDED_BY, forwardedBy);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    @DisplayName("owned and unassigned keys are served locally, the others redirected to their owner")
+    void routesByOwner() throws Exception {
+        assertEquals(200, get("/api/v1/prices", "brandId=4&productId=1&date=2020-06-14T10:00:00", null).getStatus());
+        assertEquals(200, get("/api/v1/prices", "brandId=9&productId=1&date=2020-06-14T10:00:00", null).getStatus());
+        assertEquals(200, get("/api/v1/prices", "brandId=x&productId=1", null).getStatus());
+
+        MockHttpServletResponse redirected = get("/api/v1/prices/timeline", "brandId=2&productId=1", null);
+        assertEquals(307, redirected.getStatus());
+        assertEquals("http://localhost:8082/api/v1/prices/timeline?brandId=2&productId=1",
+                redirected.getHeader("Location"));
+        assertEquals(307, get("/api/v1/prices/catalog", "brandId=2", null).getStatus());
+        assertEquals(200, get("/api/v1/prices/export", "brandId=2", null).getStatus());
+        assertEquals(2, registry.get(PartitionRoutingFilter.ROUTED).tag("route", "redirected").counter().count());
+        assertEquals(3, registry.get(PartitionRoutingFilter.ROUTED).tag("route", "local").counter().count());
+    }
+
+    @Test
+    @DisplayName("a forwarded request for a key this node does not own is answered 421 instead of forwarded again")
+    void rejectsLoops() throws Exception {
+        MockHttpServletResponse response = get("/api/v1/prices", "brandId=2&productId=1", "node-b");
+
+        assertEquals(421, response.getStatus());
+        assertTrue(response.getContentAsString().contains("\"status\":421"));
+    }
+
+    @Test
+    @DisplayName("a rebalance with a newer version moves partitions and is announced; stale or invalid ones fail")
+    void rebalances() {
+        PartitionTable moved = membership.rebalance(2, Map.of("node-c", "http://localhost:8083"),
+                Map.of("node-a", "1", "node-c", "2-5"));
+
+        assertEquals("node-c", moved.owner(4, 1L));
+        assertTrue(membership.ownerOf(4, 1L).isPresent());
+        assertTrue(membership.owns(1, 1L));
+        verify(events).publishEvent(any(PartitionTableChangedEvent.class));
+        assertThrows(IllegalArgumentException.class, () -> membership.rebalance(2, Map.of(), Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> membership.rebalance(3, Map.of(), Map.of("node-a", "1", "node-b", "1")));
+        assertThrows(IllegalArgumentException.class, () -> membership.rebalance(3, Map.of(), Map.of("node-x", "1")));
+    }
+
+    @Test
+    @DisplayName("hash partitions spread the products of a brand and leave brand-wide requests local")
+    void hashesKeys() {
+        PartitionTable table = PartitionTable.of(1, PartitionTable.Strategy.HASH, 8,
+                Map.of("node-a", "http://a", "node-b", "http://b"), Map.of("node-a", "0-3", "node-b", "4-7"));
+
+        long owners = LongStream.range(0, 100).mapToObj(p -> table.owner(1, p)).distinct().count();
+
+        assertEquals(2, owners);
+        assertNull(table.brandOwner(1));
+        assertThrows(IllegalArgumentException.class, () -> PartitionTable.of(1, PartitionTable.Strategy.HASH, 8,
+                Map.of("node-a", "http://a"), Map.of("node-a", "0-8")));
+    }
+}
@@ -0,0 +1,111 @@
+package com.inditex.sisuprice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inditex.sisuprice.application.PriceQueryUseCaseImpl;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.repository.PriceRepository;
+import com.inditex.sisuprice.domain.usecase.PriceQueryUseCase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceWarmupTest {
+
+    @TempDir
+    Path dir;
+
+    @Mock
+    PriceQueryUseCase useCase;
+
+    @Mock
+    PriceRepository repository;
+
+    @Mock
+    CacheManager cacheManager;
+
+    private PriceWarmup warmup(String file) {
+        return new PriceWarmup(new PriceWarmupProperties(true, file, 100, Duration.ofSeconds(5), 50, 10.0, 2),
+                useCase, repository, cacheManager);
+    }
+
+    private static PriceRecord record(int brandId, long productId) {
+        return new PriceRecord(brandId, LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-12-31T23:59:59"), 1, productId, 0, new BigDecimal("35.50"), "EUR");
+    }
+
+    @Test
+    @DisplayName("readiness stays down until the persisted keys have been replayed")
+    void replaysPersistedKeys() throws IOException {
+        Path file = dir.resolve("hot-keys");
+        Files.write(file, List.of("1,35455", "2,7", ""));
+        PriceWarmup warmup = warmup(file.toString());
+        WarmupHealthIndicator health = new WarmupHealthIndicator(warmup);
+        assertEquals(Status.OUT_OF_SERVICE, health.health().getStatus());
+
+        warmup.run();
+
+        assertEquals(Status.UP, health.health().getStatus());
+        assertEquals(2, warmup.keys());
+        assertEquals(3, warmup.rounds());
+        verify(useCase, times(75)).query(eq(1), eq(35455L), any());
+        verify(useCase, times(75)).query(eq(2), eq(7L), any());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("without a hot key file the first keys of PRICES are warmed")
+    void fallsBackToPrices() {
+        when(repository.streamAll()).thenReturn(Stream.of(record(1, 1L), record(1, 1L), record(1, 2L)));
+
+        assertEquals(List.of(new PriceKey(1, 1L), new PriceKey(1, 2L)), warmup("").hotKeys());
+    }
+
+    @Test
+    @DisplayName("ends in ready when lookups fail or the budget runs out")
+    void alwaysEndsReady() {
+        when(repository.streamAll()).thenReturn(Stream.of(record(1, 1L)));
+        when(useCase.query(anyInt(), anyLong(), any())).thenThrow(new IllegalStateException("db down"));
+        PriceWarmup warmup = warmup("");
+
+        warmup.run();
+
+        assertEquals(PriceWarmup.State.DONE, warmup.state());
+    }
+
+    @Test
+    @DisplayName("writes the hottest cached keys on shutdown")
+    void persistsHottestKeys() throws IOException {
+        CaffeineCache cache = new CaffeineCache(PriceQueryUseCaseImpl.PRICES_CACHE,
+                Caffeine.newBuilder().maximumSize(10).build());
+        cache.put(new PriceKey(1, 35455L), "window");
+        cache.put(new PriceKey(2, 7L), "window");
+        when(cacheManager.getCache(PriceQueryUseCaseImpl.PRICES_CACHE)).thenReturn(cache);
+        Path file = dir.resolve("state/hot-keys");
+
+        warmup(file.toString()).persist();
+
+        assertEquals(2, Files.readAllLines(file).size());
+        assertTrue(Files.readAllLines(file).contains("1,35455"));
+        assertEquals(2, warmup(file.toString()).hotKeys().size());
+    }
+}
@@ -0,0 +1,40 @@
+package com.inditex.sisuprice.config;
+
+import com.inditex.sisuprice.domain.PriceWindow;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceWindowExpiryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.parse("2020-06-14T16:00:00");
+
+    private final PriceWindowExpiry expiry = new PriceWindowExpiry(Duration.ofHours(1),
+            Clock.fixed(Instant.parse("2020-06-14T16:00:00Z"), ZoneOffset.UTC));
+
+    private long expiresIn(LocalDateTime from, LocalDateTime to) {
+        return expiry.expireAfterCreate("key", new PriceWindow(from, to, null), 0L);
+    }
+
+    @Test
+    void expiresExactlyAtTheEndOfACurrentWindow() {
+        assertEquals(Duration.ofMinutes(20).toNanos(), expiresIn(NOW.minusHours(1), NOW.plusMinutes(20)));
+    }
+
+    @Test
+    void capsWindowsEndingAfterTheMaximumTtl() {
+        assertEquals(Duration.ofHours(1).toNanos(), expiresIn(NOW.minusHours(1), NOW.plusDays(3)));
+        assertEquals(Duration.ofHours(1).toNanos(), expiresIn(LocalDateTime.MIN, LocalDateTime.MAX));
+    }
+
+    @Test
+    void keepsPastWindowsForTheMaximumTtl() {
+        assertEquals(Duration.ofHours(1).toNanos(), expiresIn(NOW.minusDays(2), NOW.minusDays(1)));
+    }
+}
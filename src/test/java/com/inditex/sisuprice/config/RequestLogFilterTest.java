@@ -0,0 +1,87 @@
+package com.inditex.sisuprice.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogFilterTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLogFilter.class);
+
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+    private final RequestLogFilter filter =
+            new RequestLogFilter(new RequestLogProperties(true, 1, Map.of("getPrice", 3)));
+
+    @BeforeEach
+    void attach() {
+        events.start();
+        logger.addAppender(events);
+        logger.setLevel(Level.INFO);
+    }
+
+    @AfterEach
+    void detach() {
+        logger.detachAppender(events);
+        logger.setLevel(null);
+    }
+
+    /**
+     * Stands in for a controller method resolved by Spring MVC.
+     */
+    public void getPrice() {
+    }
+
+    private void request(String endpoint, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/prices");
+        if (endpoint != null) {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                    new HandlerMethod(this, getClass().getMethod(endpoint)));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(status);
+        filter.doFilter(request, response, new MockFilterChain());
+    }
+
+    @Test
+    void samplesSuccessesPerEndpointAndKeepsEveryError() throws Exception {
+        for (int i = 0; i < 7; i++) {
+            request("getPrice", 200);
+        }
+        request("getPrice", 404);
+        request("getPrice", 503);
+        request(null, 200);
+
+        assertEquals(3 + 2 + 1, events.list.size());
+        assertTrue(events.list.get(0).getFormattedMessage().startsWith("request endpoint=getPrice method=GET"));
+        assertEquals(Level.WARN, events.list.get(4).getLevel());
+        assertTrue(events.list.get(5).getFormattedMessage().contains("endpoint=unmapped"));
+    }
+
+    @Test
+    void logsWithTheRequestCorrelationId() throws Exception {
+        MDC.put(CorrelationIdFilter.CORRELATION_ID_KEY, "abc");
+        try {
+            request("getPrice", 200);
+        } finally {
+            MDC.remove(CorrelationIdFilter.CORRELATION_ID_KEY);
+        }
+
+        assertEquals("abc", events.list.get(0).getMDCPropertyMap().get(CorrelationIdFilter.CORRELATION_ID_KEY));
+    }
+}
@@ -0,0 +1,144 @@
+package com.inditex.sisuprice.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSegmentsTest {
+
+    private static PriceRecord rec(String start, String end, int priceList, int priority) {
+        return new PriceRecord(1, LocalDateTime.parse(start), LocalDateTime.parse(end),
+                priceList, 35455L, priority, BigDecimal.TEN, "EUR");
+    }
+
+    private static void assertSegment(PriceSegment segment, String from, String to, int priceList) {
+        assertEquals(LocalDateTime.parse(from), segment.from());
+        assertEquals(LocalDateTime.parse(to), segment.to());
+        assertEquals(priceList, segment.price().priceList());
+    }
+
+    @Test
+    @DisplayName("flattens the sample price lists into non-overlapping winning segments")
+    void flattensSampleData() {
+        var segments = PriceSegments.flatten(List.of(
+                rec("2020-06-14T00:00:00", "2020-12-31T23:59:59", 1, 0),
+                rec("2020-06-14T15:00:00", "2020-06-14T18:30:00", 2, 1),
+                rec("2020-06-15T00:00:00", "2020-06-15T11:00:00", 3, 1),
+                rec("2020-06-15T16:00:00", "2020-12-31T23:59:59", 4, 1)
+        ));
+
+        assertEquals(6, segments.size());
+        assertSegment(segments.get(0), "2020-06-14T00:00:00", "2020-06-14T15:00:00", 1);
+        assertSegment(segments.get(1), "2020-06-14T15:00:00", "2020-06-14T18:30:00", 2);
+        assertSegment(segments.get(2), "2020-06-14T18:30:00", "2020-06-15T00:00:00", 1);
+        assertSegment(segments.get(3), "2020-06-15T00:00:00", "2020-06-15T11:00:00", 3);
+        assertSegment(segments.get(4), "2020-06-15T11:00:00", "2020-06-15T16:00:00", 1);
+        assertSegment(segments.get(5), "2020-06-15T16:00:00", "2020-12-31T23:59:59", 4);
+    }
+
+    @Test
+    @DisplayName("leaves gaps uncovered and merges adjacent periods of the same winner")
+    void leavesGapsAndMergesSameWinner() {
+        var segments = PriceSegments.flatten(List.of(
+                rec("2020-01-01T00:00:00", "2020-03-01T00:00:00", 1, 5),
+                rec("2020-02-01T00:00:00", "2020-02-15T00:00:00", 2, 0),
+                rec("2020-04-01T00:00:00", "2020-05-01T00:00:00", 3, 0)
+        ));
+
+        assertEquals(2, segments.size());
+        assertSegment(segments.get(0), "2020-01-01T00:00:00", "2020-03-01T00:00:00", 1);
+        assertSegment(segments.get(1), "2020-04-01T00:00:00", "2020-05-01T00:00:00", 3);
+    }
+
+    @Test
+    @DisplayName("clips the timeline to the requested period")
+    void clipsToPeriod() {
+        var segments = PriceSegments.flatten(List.of(
+                rec("2020-06-14T00:00:00", "2020-12-31T23:59:59", 1, 0),
+                rec("2020-06-14T15:00:00", "2020-06-14T18:30:00", 2, 1),
+                rec("2020-06-15T00:00:00", "2020-06-15T11:00:00", 3, 1)
+        ), LocalDateTime.parse("2020-06-14T16:00:00"), LocalDateTime.parse("2020-06-15T10:00:00"));
+
+        assertEquals(3, segments.size());
+        assertSegment(segments.get(0), "2020-06-14T16:00:00", "2020-06-14T18:30:00", 2);
+        assertSegment(segments.get(1), "2020-06-14T18:30:00", "2020-06-15T00:00:00", 1);
+        assertSegment(segments.get(2), "2020-06-15T00:00:00", "2020-06-15T10:00:00", 3);
+    }
+
+    @Test
+    @DisplayName("a period inside one segment or outside every record")
+    void periodInsideOrOutsideRecords() {
+        var records = List.of(rec("2020-06-14T00:00:00", "2020-06-15T00:00:00", 1, 0));
+
+        var inside = PriceSegments.flatten(records,
+                LocalDateTime.parse("2020-06-14T10:00:00"), LocalDateTime.parse("2020-06-14T11:00:00"));
+        assertEquals(1, inside.size());
+        assertSegment(inside.get(0), "2020-06-14T10:00:00", "2020-06-14T11:00:00", 1);
+
+        assertTrue(PriceSegments.flatten(records,
+                LocalDateTime.parse("2020-06-15T00:00:00"), LocalDateTime.parse("2020-06-16T00:00:00")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("returns no segments for no records")
+    void emptyInput() {
+        assertTrue(PriceSegments.flatten(List.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("window of a winner ends where a higher precedence record starts")
+    void windowOfWinnerIsBoundedByOutrankingRecords() {
+        var records = List.of(
+                rec("2020-06-14T00:00:00", "2020-12-31T23:59:59", 1, 0),
+                rec("2020-06-14T15:00:00", "2020-06-14T18:30:00", 2, 1),
+                rec("2020-06-15T00:00:00", "2020-06-15T11:00:00", 3, 1));
+
+        var window = PriceSegments.windowAt(records, LocalDateTime.parse("2020-06-14T21:00:00"));
+
+        assertEquals(1, window.price().priceList());
+        assertEquals(LocalDateTime.parse("2020-06-14T18:30:00"), window.from());
+        assertEquals(LocalDateTime.parse("2020-06-15T00:00:00"), window.to());
+    }
+
+    @Test
+    @DisplayName("window matches the flattened segment covering the date")
+    void windowMatchesFlattenedSegment() {
+        var records = List.of(
+                rec("2020-06-14T00:00:00", "2020-12-31T23:59:59", 1, 0),
+                rec("2020-06-14T15:00:00", "2020-06-14T18:30:00", 2, 1),
+                rec("2020-06-15T00:00:00", "2020-06-15T11:00:00", 3, 1),
+                rec("2020-06-15T16:00:00", "2020-12-31T23:59:59", 4, 1));
+
+        for (PriceSegment segment : PriceSegments.flatten(records)) {
+            var window = PriceSegments.windowAt(records, segment.from());
+            assertEquals(segment.from(), window.from());
+            assertEquals(segment.to(), window.to());
+            assertEquals(segment.price(), window.price());
+        }
+    }
+
+    @Test
+    @DisplayName("window of a gap spans from the previous end to the next start")
+    void windowOfGap() {
+        var records = List.of(
+                rec("2020-01-01T00:00:00", "2020-02-01T00:00:00", 1, 0),
+                rec("2020-03-01T00:00:00", "2020-04-01T00:00:00", 2, 0));
+
+        var gap = PriceSegments.windowAt(records, LocalDateTime.parse("2020-02-15T00:00:00"));
+        var before = PriceSegments.windowAt(records, LocalDateTime.parse("2019-06-01T00:00:00"));
+        var after = PriceSegments.windowAt(records, LocalDateTime.parse("2020-04-01T00:00:00"));
+
+        assertTrue(gap.applicable().isEmpty());
+        assertEquals(LocalDateTime.parse("2020-02-01T00:00:00"), gap.from());
+        assertEquals(LocalDateTime.parse("2020-03-01T00:00:00"), gap.to());
+        assertEquals(LocalDateTime.MIN, before.from());
+        assertEquals(LocalDateTime.parse("2020-01-01T00:00:00"), before.to());
+        assertEquals(LocalDateTime.parse("2020-04-01T00:00:00"), after.from());
+        assertEquals(LocalDateTime.MAX, after.to());
+    }
+}
@@ -1,6 +1,8 @@
 package com.inditex.sisuprice.domain.repository;
 
 import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceSegments;
+import com.inditex.sisuprice.domain.PriceWindow;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -31,6 +33,35 @@ class PriceRepositoryTest {
                     .filter(r -> r.endDate().isAfter(applicationDate))
                     .max(Comparator.comparingInt(PriceRecord::priority));
         }
+
+        @Override
+        public PriceWindow findWindow(int brandId, long productId, LocalDateTime applicationDate) {
+            return PriceSegments.windowAt(data.stream()
+                    .filter(r -> r.brandId() == brandId && r.productId() == productId)
+                    .toList(), applicationDate);
+        }
+
+        @Override
+        public List<PriceRecord> findApplicableForBrand(int brandId, LocalDateTime date, long afterProductId,
+                                                        long toProductId, int limit) {
+            return data.stream()
+                    .filter(r -> r.brandId() == brandId)
+                    .filter(r -> r.productId() > afterProductId && r.productId() <= toProductId)
+                    .map(PriceRecord::productId)
+                    .distinct()
+                    .sorted()
+                    .flatMap(productId -> findApplicable(brandId, productId, date).stream())
+                    .limit(limit)
+                    .toList();
+        }
+
+        @Override
+        public List<PriceRecord> findOverlapping(int brandId, long productId, LocalDateTime from, LocalDateTime to) {
+            return data.stream()
+                    .filter(r -> r.brandId() == brandId && r.productId() == productId)
+                    .filter(r -> r.startDate().isBefore(to) && r.endDate().isAfter(from))
+                    .toList();
+        }
     }
 
     private static PriceRecord rec(int brandId, long productId, String start, String end,
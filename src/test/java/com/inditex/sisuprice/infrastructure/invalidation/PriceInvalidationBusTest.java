@@ -0,0 +1,138 @@
+package com.inditex.sisuprice.infrastructure.invalidation;
+
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PriceInvalidationBusTest {
+
+    private final LoopbackInvalidationTransport.Hub hub = new LoopbackInvalidationTransport.Hub();
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private PriceInvalidationBus node(ApplicationEventPublisher events, MeterRegistry registry) {
+        PriceInvalidationBus bus = new PriceInvalidationBus(new LoopbackInvalidationTransport(hub), events, registry, 2);
+        bus.start();
+        return bus;
+    }
+
+    private double messages(MeterRegistry registry, String direction) {
+        return registry.get(PriceInvalidationBus.MESSAGES).tag("direction", direction).counter().count();
+    }
+
+    @Test
+    @DisplayName("a local change is republished as a remote event on the other nodes only")
+    void spreadsLocalChanges() {
+        ApplicationEventPublisher local = mock(ApplicationEventPublisher.class);
+        ApplicationEventPublisher other = mock(ApplicationEventPublisher.class);
+        MeterRegistry otherRegistry = new SimpleMeterRegistry();
+        PriceInvalidationBus origin = node(local, registry);
+        node(other, otherRegistry);
+        PriceKey key = new PriceKey(1, 35455L);
+
+        origin.onPricesChanged(PricesChangedEvent.of(List.of(key)));
+
+        verify(other).publishEvent(PricesChangedEvent.received(Set.of(key), false));
+        verifyNoInteractions(local);
+        assertEquals(1, messages(registry, "sent"));
+        assertEquals(1, messages(otherRegistry, "received"));
+        assertEquals(1, otherRegistry.get(PriceInvalidationBus.LATENCY).timer().count());
+    }
+
+    @Test
+    @DisplayName("remote events are not sent again, so messages do not bounce between nodes")
+    void ignoresRemoteEvents() {
+        ApplicationEventPublisher other = mock(ApplicationEventPublisher.class);
+        PriceInvalidationBus origin = node(mock(ApplicationEventPublisher.class), registry);
+        node(other, new SimpleMeterRegistry());
+
+        origin.onPricesChanged(PricesChangedEvent.received(Set.of(new PriceKey(1, 1L)), false));
+
+        verifyNoInteractions(other);
+        assertEquals(0, messages(registry, "sent"));
+    }
+
+    @Test
+    @DisplayName("changes found in the change log stay local, since every node polls it on its own")
+    void ignoresPolledEvents() {
+        ApplicationEventPublisher other = mock(ApplicationEventPublisher.class);
+        PriceInvalidationBus origin = node(mock(ApplicationEventPublisher.class), registry);
+        node(other, new SimpleMeterRegistry());
+
+        origin.onPricesChanged(PricesChangedEvent.polled(List.of(new PriceKey(1, 1L))));
+
+        verifyNoInteractions(other);
+        assertEquals(0, messages(registry, "sent"));
+    }
+
+    @Test
+    @DisplayName("large changes are split into messages of at most max-keys-per-message keys; full changes are one")
+    void splitsLargeChanges() {
+        PriceInvalidationBus bus = new PriceInvalidationBus(new LoopbackInvalidationTransport(hub),
+                mock(ApplicationEventPublisher.class), registry, 2);
+        Set<PriceKey> keys = LongStream.range(0, 5).mapToObj(p -> new PriceKey(1, p)).collect(Collectors.toSet());
+
+        List<InvalidationMessage> messages = bus.messages(PricesChangedEvent.of(keys));
+
+        assertEquals(3, messages.size());
+        assertEquals(keys, messages.stream().flatMap(m -> m.keys().stream()).collect(Collectors.toSet()));
+        assertEquals(List.of(true), bus.messages(PricesChangedEvent.everything()).stream()
+                .map(InvalidationMessage::full).toList());
+    }
+
+    @Test
+    @DisplayName("a send failure is counted and does not fail the change")
+    void countsSendFailures() {
+        InvalidationTransport broken = mock(InvalidationTransport.class);
+        doThrow(new IllegalStateException("down")).when(broken).send(any());
+        PriceInvalidationBus bus = new PriceInvalidationBus(broken, mock(ApplicationEventPublisher.class), registry, 10);
+
+        bus.onPricesChanged(PricesChangedEvent.everything());
+
+        assertEquals(1, messages(registry, "failed"));
+    }
+
+    @Test
+    @DisplayName("messages survive the binary encoding and garbage is rejected")
+    void encodesMessages() {
+        InvalidationMessage message = new InvalidationMessage(UUID.randomUUID(), 42L,
+                Set.of(new PriceKey(1, 35455L), new PriceKey(2, Long.MAX_VALUE)), false);
+        byte[] bytes = message.encode();
+
+        assertEquals(message, InvalidationMessage.decode(bytes, 0, bytes.length));
+        assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.decode(bytes, 0, bytes.length - 1));
+        assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.decode(new byte[8], 0, 8));
+    }
+
+    @Test
+    @DisplayName("the UDP transport delivers a datagram to a peer on localhost")
+    void deliversOverUdp() throws InterruptedException {
+        BlockingQueue<InvalidationMessage> delivered = new ArrayBlockingQueue<>(1);
+        try (UdpInvalidationTransport receiver = new UdpInvalidationTransport(0, List.of());
+             UdpInvalidationTransport sender = new UdpInvalidationTransport(0,
+                     List.of("localhost:" + receiver.port()))) {
+            receiver.start(delivered::add);
+            InvalidationMessage message = new InvalidationMessage(UUID.randomUUID(), 1L, Set.of(), true);
+
+            sender.send(message);
+
+            assertEquals(message, delivered.poll(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.inditex.sisuprice.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedDataSourceTest {
+
+    @Mock
+    DataSource target;
+
+    @Mock
+    Connection connection;
+
+    @Test
+    void holdsAPermitUntilTheConnectionIsClosed() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        var dataSource = new BoundedDataSource(target, 2, Duration.ofMillis(50));
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertEquals(2, dataSource.inUse());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close();
+        assertEquals(1, dataSource.inUse());
+        verify(connection, times(2)).close();
+
+        second.close();
+        assertEquals(0, dataSource.inUse());
+    }
+
+    @Test
+    void releasesThePermitWhenTheTargetFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("down"));
+        var dataSource = new BoundedDataSource(target, 1, Duration.ofMillis(50));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(0, dataSource.inUse());
+    }
+
+    @Test
+    void wrappedConnectionsKeepIdentitySemantics() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        var dataSource = new BoundedDataSource(target, 2, Duration.ofMillis(50));
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        assertEquals(first, first);
+        assertNotEquals(first, second);
+        assertEquals(System.identityHashCode(first), first.hashCode());
+    }
+}
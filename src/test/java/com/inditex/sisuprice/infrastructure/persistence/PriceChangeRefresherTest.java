@@ -0,0 +1,163 @@
+package com.inditex.sisuprice.infrastructure.persistence;
+
+import com.inditex.sisuprice.config.PriceRefreshProperties;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import com.inditex.sisuprice.infrastructure.persistence.PriceChangeFeed.PriceChange;
+import com.inditex.sisuprice.infrastructure.persistence.PriceChangeFeed.RecentChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceChangeRefresherTest {
+
+    @Mock
+    SnapshotPriceRepository repository;
+
+    @Mock
+    PriceDbRepository prices;
+
+    @Mock
+    PriceChangeFeed changes;
+
+    @Mock
+    ApplicationEventPublisher events;
+
+    SimpleMeterRegistry registry;
+
+    PriceChangeRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        refresher = new PriceChangeRefresher(repository, prices, changes, events,
+                new PriceRefreshProperties(true, Duration.ofMillis(200), 100, Duration.ofSeconds(2), Duration.ofHours(24)),
+                registry);
+    }
+
+    private static PriceRecord rec(long productId) {
+        return new PriceRecord(1, LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-12-31T23:59:59"), 1, productId, 0, new BigDecimal("35.50"), "EUR");
+    }
+
+    @Test
+    @DisplayName("applies only the changed keys, advances to the last version and announces them")
+    void appliesChangedKeys() {
+        var changed = new PriceKey(1, 35455L);
+        var emptied = new PriceKey(1, 2L);
+        when(repository.version()).thenReturn(10L);
+        when(changes.changesSince(10L, 100)).thenReturn(List.of(
+                new PriceChange(changed, 2, 11L, LocalDateTime.now().minusSeconds(1)),
+                new PriceChange(emptied, 1, 14L, LocalDateTime.now())));
+        when(prices.findTimelines(List.of(changed, emptied))).thenReturn(Map.of(changed, List.of(rec(35455L))));
+        when(repository.apply(Map.of(changed, List.of(rec(35455L)), emptied, List.of()), 10L, 14L)).thenReturn(true);
+
+        refresher.refresh();
+
+        verify(events).publishEvent(PricesChangedEvent.polled(List.of(changed, emptied)));
+        assertEquals(1, registry.get("pricing.refresh.batch.size").summary().count());
+        assertEquals(3, registry.get("pricing.refresh.batch.size").summary().totalAmount());
+        assertTrue(registry.get("pricing.refresh.lag").timer().totalTime(TimeUnit.MILLISECONDS) >= 1000);
+    }
+
+    @Test
+    @DisplayName("reapplies a pair whose row committed below the watermark after it was passed")
+    void reappliesLateCommits() {
+        var polled = new PriceKey(1, 35455L);
+        var lateKey = new PriceKey(1, 2L);
+        when(repository.version()).thenReturn(10L, 12L);
+        when(changes.settledVersion(eq(0L), eq(10L), any())).thenReturn(8L);
+        when(changes.settledVersion(eq(8L), eq(10L), any())).thenReturn(8L);
+        when(changes.recheck(8L, 10L, 8L)).thenReturn(List.of());
+        when(changes.changesSince(10L, 100)).thenReturn(List.of(new PriceChange(polled, 1, 12L, LocalDateTime.now())));
+        when(prices.findTimelines(List.of(polled))).thenReturn(Map.of(polled, List.of(rec(35455L))));
+        when(repository.apply(Map.of(polled, List.of(rec(35455L))), 10L, 12L)).thenReturn(true);
+        refresher.refresh();
+
+        // version 11 was drawn before 12 but only committed now
+        when(changes.settledVersion(eq(8L), eq(12L), any())).thenReturn(8L);
+        when(changes.recheck(8L, 12L, 8L)).thenReturn(List.of(
+                new RecentChange(polled, 1, 0, 12L), new RecentChange(lateKey, 1, 0, 11L)));
+        when(changes.changesSince(12L, 100)).thenReturn(List.of());
+        when(prices.findTimelines(List.of(lateKey))).thenReturn(Map.of(lateKey, List.of(rec(2L))));
+        when(repository.apply(Map.of(lateKey, List.of(rec(2L))), 12L, 12L)).thenReturn(true);
+        refresher.refresh();
+
+        verify(events).publishEvent(PricesChangedEvent.polled(List.of(polled)));
+        verify(events).publishEvent(PricesChangedEvent.polled(List.of(lateKey)));
+        assertEquals(1, registry.get("pricing.refresh.late").counter().count());
+    }
+
+    @Test
+    @DisplayName("stops rechecking changes once they are older than the lookback")
+    void settlesOldChanges() {
+        var key = new PriceKey(1, 35455L);
+        when(repository.version()).thenReturn(12L);
+        when(changes.settledVersion(eq(0L), eq(12L), any())).thenReturn(8L);
+        when(changes.settledVersion(eq(8L), eq(12L), any())).thenReturn(12L, 12L);
+        when(changes.recheck(8L, 12L, 12L)).thenReturn(List.of(new RecentChange(key, 1, 1, 12L)));
+        when(changes.changesSince(12L, 100)).thenReturn(List.of());
+        when(prices.findTimelines(List.of(key))).thenReturn(Map.of());
+        when(repository.apply(Map.of(key, List.of()), 12L, 12L)).thenReturn(true);
+
+        refresher.refresh();
+        refresher.refresh();
+
+        verify(changes, times(1)).recheck(anyLong(), anyLong(), anyLong());
+        verify(repository, times(1)).apply(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("prunes tombstones older than the retention")
+    void prunesDeletions() {
+        when(changes.pruneDeletions(any())).thenReturn(3);
+
+        refresher.pruneDeletions();
+
+        verify(changes).pruneDeletions(argThat(before -> before.isBefore(LocalDateTime.now().minusHours(23))));
+    }
+
+    @Test
+    @DisplayName("does nothing when no row changed after the current version")
+    void idleWithoutChanges() {
+        when(repository.version()).thenReturn(10L);
+        when(changes.changesSince(10L, 100)).thenReturn(List.of());
+
+        refresher.refresh();
+
+        verifyNoInteractions(prices, events);
+        verify(repository, never()).apply(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("announces nothing when a reload overtook the batch")
+    void dropsBatchOvertakenByReload() {
+        var key = new PriceKey(1, 35455L);
+        when(repository.version()).thenReturn(10L);
+        when(changes.changesSince(10L, 100)).thenReturn(List.of(new PriceChange(key, 1, 11L, LocalDateTime.now())));
+        when(prices.findTimelines(List.of(key))).thenReturn(Map.of());
+        when(repository.apply(Map.of(key, List.of()), 10L, 11L)).thenReturn(false);
+
+        refresher.refresh();
+
+        verifyNoInteractions(events);
+        assertEquals(0, registry.get("pricing.refresh.batch.size").summary().count());
+    }
+}
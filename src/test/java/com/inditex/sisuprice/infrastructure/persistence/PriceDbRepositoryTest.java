@@ -1,14 +1,18 @@
 package com.inditex.sisuprice.infrastructure.persistence;
 
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.domain.PriceQuery;
 import com.inditex.sisuprice.domain.PriceRecord;
 import com.inditex.sisuprice.infrastructure.mapper.PriceEntityMapper;
 import com.inditex.sisuprice.infrastructure.persistence.jpa.PriceEntity;
 import com.inditex.sisuprice.infrastructure.persistence.jpa.PriceJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -28,6 +32,9 @@ class PriceDbRepositoryTest {
     @Mock
     PriceEntityMapper mapper;
 
+    @Spy
+    PriceMetrics metrics = new PriceMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     PriceDbRepository repository;
 
@@ -128,4 +135,38 @@ class PriceDbRepositoryTest {
 
         verify(jpaRepository).findTopApplicable(5, 12345L, date);
     }
+
+    @Test
+    void findWindowResolvesWindowFromAllRowsOfTheKey() {
+        var e = entity(1L);
+        var date = LocalDateTime.parse("2020-06-14T11:00:00");
+        when(jpaRepository.findByBrandIdAndProductId(1, 35455L)).thenReturn(List.of(e));
+        when(mapper.toDomain(e)).thenReturn(domain());
+
+        var window = repository.findWindow(1, 35455L, date);
+
+        assertTrue(window.applicable().isPresent());
+        assertEquals(LocalDateTime.parse("2020-06-14T10:00:00"), window.from());
+        assertEquals(LocalDateTime.parse("2020-06-14T12:00:00"), window.to());
+        verify(jpaRepository).findByBrandIdAndProductId(1, 35455L);
+    }
+
+    @Test
+    void findWindowsLoadsTheKeysOfABrandInOneQueryAndKeepsQueryOrder() {
+        var e = entity(1L);
+        when(jpaRepository.findByBrandIdAndProductIdIn(1, List.of(35455L, 99999L))).thenReturn(List.of(e));
+        when(mapper.toDomain(e)).thenReturn(domain());
+
+        var windows = repository.findWindows(List.of(
+                new PriceQuery(1, 35455L, LocalDateTime.parse("2020-06-14T11:00:00")),
+                new PriceQuery(1, 35455L, LocalDateTime.parse("2020-06-14T13:00:00")),
+                new PriceQuery(1, 99999L, LocalDateTime.parse("2020-06-14T11:00:00"))));
+
+        assertEquals(3, windows.size());
+        assertTrue(windows.get(0).applicable().isPresent());
+        assertTrue(windows.get(1).applicable().isEmpty());
+        assertTrue(windows.get(2).applicable().isEmpty());
+        verify(jpaRepository, times(1)).findByBrandIdAndProductIdIn(anyInt(), anyCollection());
+        verify(jpaRepository, never()).findByBrandIdAndProductId(anyInt(), anyLong());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.inditex.sisuprice.infrastructure.persistence;
+
+import com.inditex.sisuprice.domain.PriceKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceKeyBatchesTest {
+
+    @Test
+    @DisplayName("queries the exact products of each brand, chunked, and groups the rows by pair")
+    void queriesExactPairsPerBrand() {
+        List<PriceKey> keys = new ArrayList<>();
+        LongStream.range(0, PriceKeyBatches.PRODUCTS_PER_QUERY + 1).forEach(p -> keys.add(new PriceKey(1, p)));
+        keys.add(new PriceKey(2, 7L));
+        keys.add(new PriceKey(1, 0L));
+        List<String> queries = new ArrayList<>();
+
+        Map<PriceKey, List<PriceKey>> rows = PriceKeyBatches.fetch(keys, (brandId, productIds) -> {
+            queries.add(brandId + ":" + productIds.size());
+            return productIds.stream().filter(p -> p % 2 == 0).map(p -> new PriceKey(brandId, p)).toList();
+        }, row -> row);
+
+        assertEquals(List.of("1:500", "1:1", "2:1"), queries);
+        assertEquals(List.of(new PriceKey(1, 0L)), rows.get(new PriceKey(1, 0L)));
+        assertEquals(List.of(new PriceKey(1, 500L)), rows.get(new PriceKey(1, 500L)));
+        assertNull(rows.get(new PriceKey(1, 1L)));
+        assertNull(rows.get(new PriceKey(2, 7L)));
+    }
+}
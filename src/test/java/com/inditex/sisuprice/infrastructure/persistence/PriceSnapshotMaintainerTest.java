@@ -0,0 +1,70 @@
+package com.inditex.sisuprice.infrastructure.persistence;
+
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.event.PricesChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceSnapshotMaintainerTest {
+
+    @Mock
+    SnapshotPriceRepository repository;
+
+    @Mock
+    PriceDbRepository prices;
+
+    PriceSnapshotMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        maintainer = new PriceSnapshotMaintainer(repository, prices);
+    }
+
+    @Test
+    @DisplayName("applies written keys at the current version, retrying when a polled batch got in between")
+    void appliesWrittenKeys() {
+        var deleted = new PriceKey(1, 7L);
+        var changed = new PriceKey(1, 35455L);
+        PriceRecord row = new PriceRecord(1, LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-12-31T23:59:59"), 1, 35455L, 0, new BigDecimal("35.50"), "EUR");
+        when(repository.version()).thenReturn(20L, 21L);
+        when(prices.findTimelines(Set.of(deleted, changed))).thenReturn(Map.of(changed, List.of(row)));
+        Map<PriceKey, List<PriceRecord>> timelines = Map.of(deleted, List.of(), changed, List.of(row));
+        when(repository.apply(timelines, 20L, 20L)).thenReturn(false);
+        when(repository.apply(timelines, 21L, 21L)).thenReturn(true);
+
+        maintainer.onPricesChanged(PricesChangedEvent.of(List.of(deleted, changed)));
+
+        verify(repository).apply(timelines, 21L, 21L);
+    }
+
+    @Test
+    @DisplayName("reloads on a full change, including one received from another node")
+    void reloadsOnFullChange() {
+        maintainer.onPricesChanged(PricesChangedEvent.received(Set.of(), true));
+
+        verify(repository).reload();
+    }
+
+    @Test
+    @DisplayName("ignores changes polled from the change log, which the refresher already applied")
+    void ignoresPolledChanges() {
+        maintainer.onPricesChanged(PricesChangedEvent.polled(List.of(new PriceKey(1, 1L))));
+
+        verifyNoInteractions(repository, prices);
+    }
+}
@@ -0,0 +1,111 @@
+package com.inditex.sisuprice.infrastructure.persistence.jdbc;
+
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.domain.PriceQuery;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceWindow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcPriceRepositoryTest {
+
+    private static final List<PriceRecord> SAMPLE = List.of(
+            new PriceRecord(1, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-12-31T23:59:59"),
+                    1, 35455L, 0, new BigDecimal("35.50"), "EUR"),
+            new PriceRecord(1, LocalDateTime.parse("2020-06-14T15:00:00"), LocalDateTime.parse("2020-06-14T18:30:00"),
+                    2, 35455L, 1, new BigDecimal("25.45"), "EUR"),
+            new PriceRecord(1, LocalDateTime.parse("2020-06-15T00:00:00"), LocalDateTime.parse("2020-06-15T11:00:00"),
+                    3, 35455L, 1, new BigDecimal("30.50"), "EUR"),
+            new PriceRecord(1, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-12-31T23:59:59"),
+                    1, 35456L, 0, new BigDecimal("12.00"), "USD"),
+            new PriceRecord(2, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-12-31T23:59:59"),
+                    1, 35455L, 0, new BigDecimal("9.99"), "EUR")
+    );
+
+    private EmbeddedDatabase database;
+
+    private JdbcPriceRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("""
+                CREATE TABLE PRICES (
+                    ID IDENTITY PRIMARY KEY, BRAND_ID INT NOT NULL, START_DATE TIMESTAMP NOT NULL,
+                    END_DATE TIMESTAMP NOT NULL, PRICE_LIST INT NOT NULL, PRODUCT_ID BIGINT NOT NULL,
+                    PRIORITY INT NOT NULL, PRICE DECIMAL(10,2) NOT NULL, CURR VARCHAR(3) NOT NULL)""");
+        jdbc.batchUpdate("""
+                        INSERT INTO PRICES (BRAND_ID, START_DATE, END_DATE, PRICE_LIST, PRODUCT_ID, PRIORITY, PRICE, CURR)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?)""",
+                SAMPLE.stream().map(r -> new Object[]{r.brandId(), r.startDate(), r.endDate(), r.priceList(),
+                        r.productId(), r.priority(), r.price(), r.curr()}).toList());
+        repository = new JdbcPriceRepository(database, new PriceMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    @DisplayName("resolves the reference scenarios by priority")
+    void findsApplicable() {
+        assertEquals(1, repository.findApplicable(1, 35455L, LocalDateTime.parse("2020-06-14T10:00:00"))
+                .orElseThrow().priceList());
+        assertEquals(SAMPLE.get(1), repository.findApplicable(1, 35455L, LocalDateTime.parse("2020-06-14T16:00:00"))
+                .orElseThrow());
+        assertEquals(3, repository.findApplicable(1, 35455L, LocalDateTime.parse("2020-06-15T10:00:00"))
+                .orElseThrow().priceList());
+        assertTrue(repository.findApplicable(1, 35455L, LocalDateTime.parse("2021-01-01T00:00:00")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("returns the window around the date, alone and in batches")
+    void findsWindows() {
+        LocalDateTime date = LocalDateTime.parse("2020-06-14T20:00:00");
+        PriceWindow window = repository.findWindow(1, 35455L, date);
+
+        assertEquals(new PriceWindow(LocalDateTime.parse("2020-06-14T18:30:00"),
+                LocalDateTime.parse("2020-06-15T00:00:00"), SAMPLE.get(0)), window);
+        assertEquals(List.of(window, repository.findWindow(2, 35455L, date), repository.findWindow(9, 1L, date)),
+                repository.findWindows(List.of(new PriceQuery(1, 35455L, date), new PriceQuery(2, 35455L, date),
+                        new PriceQuery(9, 1L, date))));
+    }
+
+    @Test
+    @DisplayName("pages a brand's winners in product order and finds the rows overlapping a period")
+    void scansBrandAndPeriod() {
+        LocalDateTime date = LocalDateTime.parse("2020-06-14T16:00:00");
+
+        assertEquals(List.of(SAMPLE.get(1), SAMPLE.get(3)),
+                repository.findApplicableForBrand(1, date, 0L, Long.MAX_VALUE, 10));
+        assertEquals(List.of(SAMPLE.get(1)), repository.findApplicableForBrand(1, date, 0L, Long.MAX_VALUE, 1));
+        assertEquals(List.of(SAMPLE.get(3)), repository.findApplicableForBrand(1, date, 35455L, Long.MAX_VALUE, 1));
+        assertEquals(2, repository.findOverlapping(1, 35455L, LocalDateTime.parse("2020-06-14T12:00:00"),
+                LocalDateTime.parse("2020-06-14T16:00:00")).size());
+    }
+
+    @Test
+    @DisplayName("streams every row in key order")
+    void streamsInKeyOrder() {
+        try (Stream<PriceRecord> rows = repository.streamAll()) {
+            assertEquals(SAMPLE.stream().sorted(JdbcPriceRepository.STREAM_ORDER).toList(), rows.toList());
+        }
+        assertEquals(SAMPLE.size(), repository.findAll().size());
+    }
+}
@@ -0,0 +1,245 @@
+package com.inditex.sisuprice.infrastructure.persistence.memory;
+
+import com.inditex.sisuprice.config.ClusterMembership;
+import com.inditex.sisuprice.config.PartitionTable;
+import com.inditex.sisuprice.config.PriceClusterProperties;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceWindow;
+import com.inditex.sisuprice.infrastructure.persistence.PriceChangeFeed;
+import com.inditex.sisuprice.infrastructure.persistence.PriceDbRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryPriceRepositoryTest {
+
+    @Mock
+    PriceDbRepository source;
+
+    @Mock
+    PriceChangeFeed changes;
+
+    InMemoryPriceRepository repository;
+
+    private static PriceRecord rec(String start, String end, int priceList, int priority, String price) {
+        return new PriceRecord(1, LocalDateTime.parse(start), LocalDateTime.parse(end),
+                priceList, 35455L, priority, new BigDecimal(price), "EUR");
+    }
+
+    private static List<PriceRecord> sample() {
+        return List.of(
+                rec("2020-06-14T00:00:00", "2020-12-31T23:59:59", 1, 0, "35.50"),
+                rec("2020-06-14T15:00:00", "2020-06-14T18:30:00", 2, 1, "25.45"),
+                rec("2020-06-15T00:00:00", "2020-06-15T11:00:00", 3, 1, "30.50"),
+                rec("2020-06-15T16:00:00", "2020-12-31T23:59:59", 4, 1, "38.95")
+        );
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(source.findAll()).thenReturn(sample());
+        when(changes.currentVersion()).thenReturn(10L);
+        repository = new InMemoryPriceRepository(source, changes, membership(false));
+        repository.reload();
+    }
+
+    private static ClusterMembership membership(boolean enabled) {
+        return new ClusterMembership(new PriceClusterProperties(enabled, "node-b", PartitionTable.Strategy.BRAND, 64,
+                Map.of("node-a", "http://localhost:8081", "node-b", "http://localhost:8082"),
+                Map.of("node-a", "1", "node-b", "2"), PriceClusterProperties.Routing.FORWARD, Duration.ofSeconds(1)),
+                mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    @DisplayName("in cluster mode only owned keys are loaded and other keys are read from the database")
+    void loadsOnlyOwnedKeys() {
+        var owned = new PriceRecord(2, LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-12-31T23:59:59"), 1, 7L, 0, new BigDecimal("10.00"), "EUR");
+        var date = LocalDateTime.parse("2020-06-14T10:00:00");
+        when(source.streamAll()).thenReturn(Stream.concat(sample().stream(), Stream.of(owned)));
+        when(source.findWindow(1, 35455L, date)).thenReturn(PriceWindow.empty());
+        var partitioned = new InMemoryPriceRepository(source, changes, membership(true));
+        partitioned.reload();
+
+        assertEquals(1, partitioned.findApplicable(2, 7L, date).orElseThrow().priceList());
+        assertTrue(partitioned.findWindow(1, 35455L, date).applicable().isEmpty());
+        verify(source).findWindow(1, 35455L, date);
+
+        partitioned.apply(Map.of(PriceKey.of(sample().get(0)), sample()), 10L, 11L);
+        assertEquals(List.of(owned), partitioned.findApplicableForBrand(2, date, 0, Long.MAX_VALUE, 10));
+    }
+
+    @Test
+    @DisplayName("keys taken over by a rebalance are read from the database until the snapshot is reloaded")
+    void readsTakenOverKeysFromDatabaseUntilReloaded() {
+        var date = LocalDateTime.parse("2020-06-14T10:00:00");
+        when(source.streamAll()).thenAnswer(invocation -> sample().stream());
+        when(source.findWindow(1, 35455L, date)).thenReturn(PriceWindow.empty());
+        var membership = membership(true);
+        var partitioned = new InMemoryPriceRepository(source, changes, membership);
+        partitioned.reload();
+
+        membership.rebalance(2, Map.of(), Map.of("node-a", "", "node-b", "1,2"));
+        assertTrue(partitioned.findWindow(1, 35455L, date).applicable().isEmpty());
+        verify(source).findWindow(1, 35455L, date);
+
+        partitioned.reload();
+        assertEquals(1, partitioned.findWindow(1, 35455L, date).applicable().orElseThrow().priceList());
+        verify(source, times(1)).findWindow(anyInt(), anyLong(), any());
+    }
+
+    @ParameterizedTest(name = "{index} => date={0}, expectedPriceList={1}")
+    @CsvSource({
+            "2020-06-14T10:00:00, 1",
+            "2020-06-14T16:00:00, 2",
+            "2020-06-14T21:00:00, 1",
+            "2020-06-15T10:00:00, 3",
+            "2020-06-16T21:00:00, 4",
+            "2020-06-14T15:00:00, 2",
+            "2020-06-14T18:30:00, 1"
+    })
+    void resolvesApplicablePriceInMemory(String date, int expectedPriceList) {
+        var result = repository.findApplicable(1, 35455L, LocalDateTime.parse(date));
+
+        assertTrue(result.isPresent());
+        assertEquals(expectedPriceList, result.get().priceList());
+    }
+
+    @Test
+    @DisplayName("returns empty outside every interval and for unknown keys")
+    void returnsEmptyWhenNothingApplies() {
+        assertTrue(repository.findApplicable(1, 35455L, LocalDateTime.parse("2020-06-13T23:59:59")).isEmpty());
+        assertTrue(repository.findApplicable(1, 35455L, LocalDateTime.parse("2020-12-31T23:59:59")).isEmpty());
+        assertTrue(repository.findApplicable(1, 99999L, LocalDateTime.parse("2020-06-14T10:00:00")).isEmpty());
+        assertTrue(repository.findApplicable(2, 35455L, LocalDateTime.parse("2020-06-14T10:00:00")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("finds a long interval that started before shorter ones that already ended")
+    void findsCoveringIntervalBehindEndedOnes() {
+        when(source.findAll()).thenReturn(List.of(
+                rec("2020-01-01T00:00:00", "2021-01-01T00:00:00", 1, 0, "10.00"),
+                rec("2020-02-01T00:00:00", "2020-02-02T00:00:00", 2, 5, "8.00"),
+                rec("2020-03-01T00:00:00", "2020-03-02T00:00:00", 3, 5, "7.00")
+        ));
+        repository.reload();
+
+        var result = repository.findApplicable(1, 35455L, LocalDateTime.parse("2020-04-01T00:00:00"));
+
+        assertTrue(result.isPresent());
+        assertEquals(1, result.get().priceList());
+    }
+
+    @Test
+    @DisplayName("breaks priority ties with the most recent start date")
+    void breaksPriorityTiesByStartDate() {
+        when(source.findAll()).thenReturn(List.of(
+                rec("2020-01-01T00:00:00", "2021-01-01T00:00:00", 1, 1, "10.00"),
+                rec("2020-06-01T00:00:00", "2021-01-01T00:00:00", 2, 1, "9.00")
+        ));
+        repository.reload();
+
+        var result = repository.findApplicable(1, 35455L, LocalDateTime.parse("2020-07-01T00:00:00"));
+
+        assertTrue(result.isPresent());
+        assertEquals(2, result.get().priceList());
+    }
+
+    @Test
+    @DisplayName("reload publishes a new snapshot and only reads the database to build it")
+    void reloadSwapsSnapshot() {
+        assertEquals(4, repository.findAll().size());
+
+        when(source.findAll()).thenReturn(List.of(sample().get(0)));
+        repository.reload();
+
+        assertEquals(1, repository.findAll().size());
+        assertEquals(1, repository.findApplicable(1, 35455L, LocalDateTime.parse("2020-06-14T16:00:00"))
+                .orElseThrow().priceList());
+        verify(source, times(2)).findAll();
+        verifyNoMoreInteractions(source);
+    }
+
+    @Test
+    @DisplayName("apply swaps in new timelines per key, removes emptied keys and advances the version")
+    void applyReplacesChangedKeys() {
+        var key = new PriceKey(1, 35455L);
+        var other = new PriceKey(1, 2L);
+
+        assertTrue(repository.apply(Map.of(
+                key, List.of(rec("2020-06-14T00:00:00", "2020-12-31T23:59:59", 9, 0, "1.00")),
+                other, List.of()), 10L, 12L));
+
+        assertEquals(12L, repository.version());
+        assertEquals(9, repository.findApplicable(1, 35455L, LocalDateTime.parse("2020-06-14T16:00:00"))
+                .orElseThrow().priceList());
+
+        assertTrue(repository.apply(Map.of(key, List.of()), 12L, 13L));
+        assertTrue(repository.findApplicable(1, 35455L, LocalDateTime.parse("2020-06-14T16:00:00")).isEmpty());
+        assertTrue(repository.findAll().isEmpty());
+    }
+
+    @Test
+    @DisplayName("streams every record ordered by brand, product and start date")
+    void streamsInKeyOrder() {
+        var later = new PriceRecord(2, LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-12-31T23:59:59"), 1, 1L, 0, new BigDecimal("1.00"), "EUR");
+        var earlier = new PriceRecord(1, LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-12-31T23:59:59"), 1, 2L, 0, new BigDecimal("1.00"), "EUR");
+        repository.apply(Map.of(new PriceKey(2, 1L), List.of(later), new PriceKey(1, 2L), List.of(earlier)), 10L, 11L);
+
+        var streamed = repository.streamAll().toList();
+
+        assertEquals(earlier, streamed.get(0));
+        assertEquals(sample(), streamed.subList(1, 5));
+        assertEquals(later, streamed.get(5));
+    }
+
+    @Test
+    @DisplayName("resolves a brand's products in order, skipping products without a price and removed keys")
+    void findsApplicableForBrandInProductOrder() {
+        var date = LocalDateTime.parse("2020-06-14T16:00:00");
+        var first = new PriceRecord(1, LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-12-31T23:59:59"), 1, 2L, 0, new BigDecimal("1.00"), "EUR");
+        var expired = new PriceRecord(1, LocalDateTime.parse("2020-01-01T00:00:00"),
+                LocalDateTime.parse("2020-02-01T00:00:00"), 1, 3L, 0, new BigDecimal("1.00"), "EUR");
+        repository.apply(Map.of(new PriceKey(1, 2L), List.of(first), new PriceKey(1, 3L), List.of(expired)), 10L, 11L);
+
+        assertEquals(List.of(first, sample().get(1)),
+                repository.findApplicableForBrand(1, date, 0L, Long.MAX_VALUE, 10));
+        assertEquals(List.of(first), repository.findApplicableForBrand(1, date, 0L, Long.MAX_VALUE, 1));
+        assertEquals(List.of(sample().get(1)), repository.findApplicableForBrand(1, date, 2L, 35455L, 10));
+
+        repository.apply(Map.of(new PriceKey(1, 2L), List.of()), 11L, 12L);
+        assertEquals(List.of(sample().get(1)), repository.findApplicableForBrand(1, date, 0L, Long.MAX_VALUE, 10));
+    }
+
+    @Test
+    @DisplayName("apply ignores timelines read against an older version")
+    void applyIgnoresStaleTimelines() {
+        var stale = Map.of(new PriceKey(1, 35455L), List.<PriceRecord>of());
+
+        assertFalse(repository.apply(stale, 9L, 11L));
+
+        assertEquals(10L, repository.version());
+        assertEquals(4, repository.findAll().size());
+    }
+}
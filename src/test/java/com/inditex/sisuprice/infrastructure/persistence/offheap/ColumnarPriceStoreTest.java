@@ -0,0 +1,199 @@
+package com.inditex.sisuprice.infrastructure.persistence.offheap;
+
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceSegments;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarPriceStoreTest {
+
+    private static PriceRecord rec(long productId, String start, String end, int priceList, int priority,
+                                   String price, String curr) {
+        return new PriceRecord(1, LocalDateTime.parse(start), LocalDateTime.parse(end),
+                priceList, productId, priority, new BigDecimal(price), curr);
+    }
+
+    private static ColumnarPriceStore store(List<PriceRecord> records) {
+        ColumnarPriceStore.Builder builder = ColumnarPriceStore.builder(records.size());
+        records.stream().sorted(OffHeapPriceRepository.STORE_ORDER).forEach(builder::add);
+        return builder.build();
+    }
+
+    private static final List<PriceRecord> SAMPLE = List.of(
+            rec(35455L, "2020-06-14T00:00:00", "2020-12-31T23:59:59", 1, 0, "35.50", "EUR"),
+            rec(35455L, "2020-06-14T15:00:00", "2020-06-14T18:30:00", 2, 1, "25.45", "EUR"),
+            rec(35455L, "2020-06-15T00:00:00", "2020-06-15T11:00:00", 3, 1, "30.50", "EUR"),
+            rec(35455L, "2020-06-15T16:00:00", "2020-12-31T23:59:59", 4, 1, "38.95", "EUR"),
+            rec(35456L, "2020-06-14T00:00:00", "2020-12-31T23:59:59", 5, 0, "12.00", "USD")
+    );
+
+    @ParameterizedTest(name = "{index} => date={0}, expectedPriceList={1}")
+    @CsvSource({
+            "2020-06-14T10:00:00, 1",
+            "2020-06-14T16:00:00, 2",
+            "2020-06-14T21:00:00, 1",
+            "2020-06-15T10:00:00, 3",
+            "2020-06-16T21:00:00, 4",
+            "2020-06-14T18:29:59.999, 2",
+            "2020-06-14T18:30:00, 1"
+    })
+    void resolvesApplicablePriceFromColumns(String date, int expectedPriceList) {
+        var result = store(SAMPLE).findApplicable(1, 35455L, LocalDateTime.parse(date));
+
+        assertTrue(result.isPresent());
+        assertEquals(expectedPriceList, result.get().priceList());
+    }
+
+    @Test
+    @DisplayName("decodes price, currency and dates of the winning row")
+    void decodesWinningRow() {
+        var result = store(SAMPLE).findApplicable(1, 35456L, LocalDateTime.parse("2020-07-01T00:00:00"));
+
+        assertEquals(SAMPLE.get(4), result.orElseThrow());
+        assertEquals(new BigDecimal("12.00"), result.get().price());
+    }
+
+    @Test
+    @DisplayName("returns empty outside every interval and for unknown keys")
+    void returnsEmptyWhenNothingApplies() {
+        ColumnarPriceStore store = store(SAMPLE);
+
+        assertTrue(store.findApplicable(1, 35455L, LocalDateTime.parse("2020-06-13T23:59:59")).isEmpty());
+        assertTrue(store.findApplicable(1, 35455L, LocalDateTime.parse("2020-12-31T23:59:59")).isEmpty());
+        assertTrue(store.findApplicable(1, 1L, LocalDateTime.parse("2020-06-14T10:00:00")).isEmpty());
+        assertTrue(store.findApplicable(2, 35455L, LocalDateTime.parse("2020-06-14T10:00:00")).isEmpty());
+        assertTrue(ColumnarPriceStore.builder(0).build()
+                .findApplicable(1, 35455L, LocalDateTime.parse("2020-06-14T10:00:00")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("resolves the brand's products in order after the cursor, up to the limit")
+    void findsApplicableForBrand() {
+        ColumnarPriceStore store = store(SAMPLE);
+        LocalDateTime date = LocalDateTime.parse("2020-06-14T16:00:00");
+
+        assertEquals(List.of(SAMPLE.get(1), SAMPLE.get(4)),
+                store.findApplicableForBrand(1, date, 0L, Long.MAX_VALUE, 10));
+        assertEquals(List.of(SAMPLE.get(1)), store.findApplicableForBrand(1, date, 0L, Long.MAX_VALUE, 1));
+        assertEquals(List.of(SAMPLE.get(4)), store.findApplicableForBrand(1, date, 35455L, Long.MAX_VALUE, 10));
+        assertEquals(List.of(SAMPLE.get(1)), store.findApplicableForBrand(1, date, 0L, 35455L, 10));
+        assertTrue(store.findApplicableForBrand(2, date, 0L, Long.MAX_VALUE, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("returns only the rows of the key overlapping the period")
+    void findsOverlappingRows() {
+        ColumnarPriceStore store = store(SAMPLE);
+
+        assertEquals(List.of(SAMPLE.get(0), SAMPLE.get(1)), store.findOverlapping(1, 35455L,
+                LocalDateTime.parse("2020-06-14T18:00:00"), LocalDateTime.parse("2020-06-15T00:00:00")));
+        assertEquals(List.of(SAMPLE.get(4)), store.findOverlapping(1, 35456L,
+                LocalDateTime.parse("2020-01-01T00:00:00"), LocalDateTime.parse("2021-01-01T00:00:00")));
+        assertTrue(store.findOverlapping(1, 35455L,
+                LocalDateTime.parse("2021-01-01T00:00:00"), LocalDateTime.parse("2021-02-01T00:00:00")).isEmpty());
+        assertTrue(store.findOverlapping(1, 1L,
+                LocalDateTime.parse("2020-01-01T00:00:00"), LocalDateTime.parse("2021-01-01T00:00:00")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("matches the domain window rule on random timelines")
+    void matchesDomainWindowsOnRandomTimelines() {
+        Random random = new Random(42);
+        LocalDateTime origin = LocalDateTime.parse("2020-01-01T00:00:00");
+        List<PriceRecord> records = new ArrayList<>();
+        for (long product = 1; product <= 20; product++) {
+            for (int i = 0; i < 1 + random.nextInt(8); i++) {
+                LocalDateTime start = origin.plusHours(random.nextInt(200));
+                records.add(new PriceRecord(1, start, start.plusHours(random.nextInt(100)), i, product,
+                        random.nextInt(3), BigDecimal.valueOf(random.nextInt(10_000), 2), "EUR"));
+            }
+        }
+        ColumnarPriceStore store = store(records);
+
+        for (int probe = 0; probe < 2_000; probe++) {
+            long product = 1 + random.nextInt(21);
+            LocalDateTime date = origin.plusMinutes(random.nextInt(320 * 60)).plusNanos(random.nextInt(2) * 500_000_000L);
+            List<PriceRecord> timeline = records.stream().filter(r -> r.productId() == product).toList();
+
+            assertEquals(PriceSegments.windowAt(timeline, date), store.findWindow(1, product, date),
+                    "product=" + product + " date=" + date);
+        }
+    }
+
+    @Test
+    @DisplayName("rejects unordered rows and truncates sub-second boundaries of the row alone")
+    void handlesRowsItCannotEncode() {
+        ColumnarPriceStore.Builder unordered = ColumnarPriceStore.builder(2).add(SAMPLE.get(1));
+        assertThrows(IllegalArgumentException.class, () -> unordered.add(SAMPLE.get(0)));
+
+        PriceRecord fractional = rec(1L, "2020-06-14T00:00:00.5", "2020-06-15T00:00:00", 1, 0, "1.00", "EUR");
+        ColumnarPriceStore.Builder builder = ColumnarPriceStore.builder(2).add(fractional).add(SAMPLE.get(0));
+        ColumnarPriceStore store = builder.build();
+
+        assertEquals(1, builder.truncated());
+        assertEquals(LocalDateTime.parse("2020-06-14T00:00:00"), store.records().get(0).startDate());
+        assertEquals(SAMPLE.get(0), store.records().get(1));
+    }
+
+    @Test
+    @DisplayName("the expected row count only sizes the blocks: fewer or more rows still build")
+    void toleratesAWrongRowCount() {
+        ColumnarPriceStore.Builder fewer = ColumnarPriceStore.builder(10);
+        SAMPLE.forEach(fewer::add);
+        assertEquals(SAMPLE, fewer.build().records());
+
+        ColumnarPriceStore.Builder more = ColumnarPriceStore.builder(1);
+        SAMPLE.forEach(more::add);
+        ColumnarPriceStore store = more.build();
+        assertEquals(SAMPLE, store.records());
+        assertEquals((long) ColumnarPriceStore.Layout.BYTES_PER_ROW * SAMPLE.size(), store.bytes());
+    }
+
+    @Test
+    @DisplayName("rows split across many blocks answer like a single block")
+    void spansBlocks() {
+        Random random = new Random(7);
+        LocalDateTime origin = LocalDateTime.parse("2020-01-01T00:00:00");
+        List<PriceRecord> records = new ArrayList<>();
+        for (long product = 1; product <= 30; product++) {
+            for (int i = 0; i < 1 + random.nextInt(6); i++) {
+                LocalDateTime start = origin.plusHours(random.nextInt(200));
+                records.add(new PriceRecord(1, start, start.plusHours(1 + random.nextInt(100)), i, product,
+                        random.nextInt(3), BigDecimal.valueOf(random.nextInt(10_000), 2), "EUR"));
+            }
+        }
+        ColumnarPriceStore single = store(records);
+        ColumnarPriceStore.Builder builder = ColumnarPriceStore.builder(records.size() / 3, 4);
+        records.stream().sorted(OffHeapPriceRepository.STORE_ORDER).forEach(builder::add);
+        ColumnarPriceStore blocked = builder.build();
+
+        assertEquals(single.records(), blocked.records());
+        assertEquals(single.bytes(), blocked.bytes());
+        for (int probe = 0; probe < 2_000; probe++) {
+            long product = 1 + random.nextInt(31);
+            LocalDateTime date = origin.plusMinutes(random.nextInt(320 * 60));
+            assertEquals(single.findWindow(1, product, date), blocked.findWindow(1, product, date));
+        }
+        assertEquals(single.findApplicableForBrand(1, origin.plusHours(50), 3L, 25L, 100),
+                blocked.findApplicableForBrand(1, origin.plusHours(50), 3L, 25L, 100));
+    }
+
+    @Test
+    @DisplayName("materializes every row back in store order")
+    void recordsRoundTrip() {
+        ColumnarPriceStore store = store(SAMPLE);
+
+        assertEquals(SAMPLE, store.records());
+        assertEquals((long) ColumnarPriceStore.Layout.BYTES_PER_ROW * SAMPLE.size(), store.bytes());
+    }
+}
@@ -0,0 +1,94 @@
+package com.inditex.sisuprice.infrastructure.persistence.offheap;
+
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.infrastructure.persistence.PriceChangeFeed;
+import com.inditex.sisuprice.infrastructure.persistence.PriceDbRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OffHeapPriceRepositoryTest {
+
+    private static final LocalDateTime AT = LocalDateTime.parse("2020-07-01T10:00:00");
+
+    @TempDir
+    Path dir;
+
+    @Mock
+    PriceDbRepository source;
+
+    @Mock
+    PriceChangeFeed changes;
+
+    private static PriceRecord rec(long productId, int priceList, String price) {
+        return new PriceRecord(1, LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-12-31T23:59:59"), priceList, productId, 0, new BigDecimal(price), "EUR");
+    }
+
+    private OffHeapPriceRepository loaded(String snapshotFile, int compactAfterKeys) {
+        when(changes.currentVersion()).thenReturn(10L);
+        when(source.count()).thenReturn(3L);
+        when(source.streamAll()).thenReturn(Stream.of(rec(1L, 1, "1.00"), rec(2L, 1, "2.00"), rec(3L, 1, "3.00")));
+        OffHeapPriceRepository repository = new OffHeapPriceRepository(source, changes, snapshotFile, compactAfterKeys);
+        repository.open();
+        return repository;
+    }
+
+    private static List<Long> products(List<PriceRecord> rows) {
+        return rows.stream().map(PriceRecord::productId).toList();
+    }
+
+    @Test
+    @DisplayName("changed timelines are served over the store, removed pairs disappear and stale batches are dropped")
+    void appliesChangedTimelines() {
+        OffHeapPriceRepository repository = loaded("", 100);
+
+        assertTrue(repository.apply(Map.of(new PriceKey(1, 2L), List.of(rec(2L, 2, "9.99")),
+                new PriceKey(1, 1L), List.of(), new PriceKey(1, 4L), List.of(rec(4L, 1, "4.00"))), 10L, 11L));
+
+        assertEquals(11L, repository.version());
+        assertEquals(new BigDecimal("9.99"), repository.findApplicable(1, 2L, AT).orElseThrow().price());
+        assertTrue(repository.findApplicable(1, 1L, AT).isEmpty());
+        assertEquals(2, repository.findWindow(1, 2L, AT).price().priceList());
+        assertEquals(List.of(2L, 3L, 4L), products(repository.findApplicableForBrand(1, AT, 0L, Long.MAX_VALUE, 10)));
+        assertEquals(List.of(2L, 3L), products(repository.findApplicableForBrand(1, AT, 0L, Long.MAX_VALUE, 2)));
+        assertEquals(List.of(4L), products(repository.findApplicableForBrand(1, AT, 3L, Long.MAX_VALUE, 2)));
+        assertEquals(List.of(2L, 3L, 4L), products(repository.streamAll().toList()));
+        assertEquals(1, repository.findOverlapping(1, 4L, AT, AT.plusDays(1)).size());
+
+        assertFalse(repository.apply(Map.of(new PriceKey(1, 3L), List.of()), 10L, 12L));
+        assertTrue(repository.findApplicable(1, 3L, AT).isPresent());
+    }
+
+    @Test
+    @DisplayName("an overlay larger than compact-after-keys is merged into a new store and written to the snapshot")
+    void compactsOverlay() {
+        Path file = dir.resolve("prices.snapshot");
+        OffHeapPriceRepository repository = loaded(file.toString(), 1);
+
+        repository.apply(Map.of(new PriceKey(1, 2L), List.of(rec(2L, 2, "9.99"))), 10L, 11L);
+        assertEquals(10L, PriceSnapshotFile.map(file).changeVersion());
+
+        repository.apply(Map.of(new PriceKey(1, 3L), List.of()), 11L, 12L);
+
+        PriceSnapshotFile.Snapshot snapshot = PriceSnapshotFile.map(file);
+        assertEquals(12L, snapshot.changeVersion());
+        assertEquals(List.of(rec(1L, 1, "1.00"), rec(2L, 2, "9.99")), snapshot.store().records());
+        assertEquals(snapshot.store().records(), repository.findAll());
+    }
+}
@@ -0,0 +1,203 @@
+package com.inditex.sisuprice.infrastructure.persistence.offheap;
+
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.infrastructure.persistence.PriceChangeFeed;
+import com.inditex.sisuprice.infrastructure.persistence.PriceChangeFeed.PriceChange;
+import com.inditex.sisuprice.infrastructure.persistence.PriceDbRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Mock
+    PriceDbRepository source;
+
+    @Mock
+    PriceChangeFeed changes;
+
+    private static final List<PriceRecord> SAMPLE = List.of(
+            new PriceRecord(1, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-12-31T23:59:59"),
+                    1, 35455L, 0, new BigDecimal("35.50"), "EUR"),
+            new PriceRecord(1, LocalDateTime.parse("2020-06-14T15:00:00"), LocalDateTime.parse("2020-06-14T18:30:00"),
+                    2, 35455L, 1, new BigDecimal("25.45"), "EUR"),
+            new PriceRecord(2, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-12-31T23:59:59"),
+                    3, 35455L, 0, new BigDecimal("12.00"), "USD")
+    );
+
+    private static ColumnarPriceStore store() {
+        ColumnarPriceStore.Builder builder = ColumnarPriceStore.builder(SAMPLE.size());
+        SAMPLE.forEach(builder::add);
+        return builder.build();
+    }
+
+    @Test
+    @DisplayName("a mapped snapshot answers like the store it was written from and keeps its change version")
+    void mapsWhatWasWritten() {
+        Path file = dir.resolve("prices.snapshot");
+        PriceSnapshotFile.write(store(), 42L, file);
+
+        PriceSnapshotFile.Snapshot snapshot = PriceSnapshotFile.map(file);
+        ColumnarPriceStore mapped = snapshot.store();
+
+        assertEquals(42L, snapshot.changeVersion());
+        assertEquals(SAMPLE, mapped.records());
+        assertEquals(2, mapped.findApplicable(1, 35455L, LocalDateTime.parse("2020-06-14T16:00:00"))
+                .orElseThrow().priceList());
+        assertEquals(store().findWindow(1, 35455L, LocalDateTime.parse("2020-06-14T20:00:00")),
+                mapped.findWindow(1, 35455L, LocalDateTime.parse("2020-06-14T20:00:00")));
+        assertEquals("USD", mapped.findApplicable(2, 35455L, LocalDateTime.parse("2020-06-14T16:00:00"))
+                .orElseThrow().curr());
+    }
+
+    @Test
+    @DisplayName("a store of several blocks maps each block on its own")
+    void mapsBlocks() {
+        Path file = dir.resolve("blocks.snapshot");
+        ColumnarPriceStore.Builder builder = ColumnarPriceStore.builder(SAMPLE.size(), 2);
+        SAMPLE.forEach(builder::add);
+        PriceSnapshotFile.write(builder.build(), 0, file);
+
+        ColumnarPriceStore mapped = PriceSnapshotFile.map(file).store();
+
+        assertEquals(SAMPLE, mapped.records());
+        assertEquals(2, mapped.blockRows());
+        assertEquals("USD", mapped.findApplicable(2, 35455L, LocalDateTime.parse("2020-06-14T16:00:00"))
+                .orElseThrow().curr());
+    }
+
+    @Test
+    @DisplayName("an empty store round-trips")
+    void mapsEmptyStore() {
+        Path file = dir.resolve("empty.snapshot");
+        PriceSnapshotFile.write(ColumnarPriceStore.builder(0).build(), 0, file);
+
+        assertEquals(0, PriceSnapshotFile.map(file).store().rows());
+    }
+
+    @Test
+    @DisplayName("rejects files with a flipped byte, a foreign header or a truncated body")
+    void rejectsInvalidFiles() throws IOException {
+        Path file = dir.resolve("prices.snapshot");
+        PriceSnapshotFile.write(store(), 0, file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        byte[] flipped = bytes.clone();
+        flipped[flipped.length - 1] ^= 1;
+        Files.write(file, flipped);
+        assertThrows(IllegalStateException.class, () -> PriceSnapshotFile.map(file));
+
+        byte[] foreign = bytes.clone();
+        foreign[0] = 'X';
+        Files.write(file, foreign);
+        assertThrows(IllegalStateException.class, () -> PriceSnapshotFile.map(file));
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IllegalStateException.class, () -> PriceSnapshotFile.map(file));
+    }
+
+    @Test
+    @DisplayName("the repository writes the snapshot on load and later boots from it without reading PRICES")
+    void repositoryBootsFromSnapshot() {
+        Path file = dir.resolve("prices.snapshot");
+        when(changes.currentVersion()).thenReturn(5L);
+        when(source.count()).thenReturn((long) SAMPLE.size());
+        when(source.streamAll()).thenReturn(SAMPLE.stream());
+        new OffHeapPriceRepository(source, changes, file.toString(), 100).open();
+        assertEquals(5L, PriceSnapshotFile.map(file).changeVersion());
+
+        PriceDbRepository booting = mock(PriceDbRepository.class);
+        when(booting.count()).thenReturn((long) SAMPLE.size());
+        when(changes.changesSince(5L, 1000)).thenReturn(List.of());
+        OffHeapPriceRepository booted = new OffHeapPriceRepository(booting, changes, file.toString(), 100);
+        booted.open();
+
+        assertEquals(1, booted.findApplicable(1, 35455L, LocalDateTime.parse("2020-06-14T10:00:00"))
+                .orElseThrow().priceList());
+        assertEquals(5L, booted.version());
+        verify(booting, never()).streamAll();
+    }
+
+    @Test
+    @DisplayName("a snapshot behind the database catches up on the pairs changed since its version")
+    void repositoryCatchesUpOnBoot() {
+        Path file = dir.resolve("prices.snapshot");
+        PriceSnapshotFile.write(store(), 5L, file);
+        PriceKey changed = new PriceKey(1, 35455L);
+        PriceRecord repriced = new PriceRecord(1, LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-12-31T23:59:59"), 1, 35455L, 0, new BigDecimal("30.00"), "EUR");
+        when(changes.currentVersion()).thenReturn(7L);
+        when(changes.changesSince(5L, 1000)).thenReturn(List.of(new PriceChange(changed, 1, 7L, LocalDateTime.now())));
+        when(changes.changesSince(7L, 1000)).thenReturn(List.of());
+        when(source.findTimelines(List.of(changed))).thenReturn(Map.of(changed, List.of(repriced, SAMPLE.get(1))));
+        when(source.count()).thenReturn((long) SAMPLE.size());
+
+        OffHeapPriceRepository repository = new OffHeapPriceRepository(source, changes, file.toString(), 100);
+        repository.open();
+
+        assertEquals(new BigDecimal("30.00"), repository.findApplicable(1, 35455L,
+                LocalDateTime.parse("2020-06-14T10:00:00")).orElseThrow().price());
+        assertEquals(7L, repository.version());
+        verify(source, never()).streamAll();
+    }
+
+    @Test
+    @DisplayName("a snapshot is reloaded from the database when the database is behind it or lost rows since")
+    void repositoryDiscardsStaleSnapshot() {
+        Path file = dir.resolve("prices.snapshot");
+        PriceSnapshotFile.write(store(), 5L, file);
+        when(changes.currentVersion()).thenReturn(3L);
+        when(source.count()).thenReturn((long) SAMPLE.size());
+        when(source.streamAll()).thenReturn(SAMPLE.stream());
+
+        new OffHeapPriceRepository(source, changes, file.toString(), 100).open();
+
+        assertEquals(3L, PriceSnapshotFile.map(file).changeVersion());
+
+        when(changes.currentVersion()).thenReturn(3L);
+        when(changes.changesSince(3L, 1000)).thenReturn(List.of());
+        when(source.count()).thenReturn(2L);
+        when(source.streamAll()).thenReturn(SAMPLE.subList(0, 2).stream());
+
+        OffHeapPriceRepository repository = new OffHeapPriceRepository(source, changes, file.toString(), 100);
+        repository.open();
+
+        assertEquals(SAMPLE.subList(0, 2), repository.findAll());
+        assertEquals(2, PriceSnapshotFile.map(file).store().rows());
+    }
+
+    @Test
+    @DisplayName("the repository falls back to the database when the snapshot is corrupt")
+    void repositoryFallsBackOnCorruptSnapshot() throws IOException {
+        Path file = dir.resolve("prices.snapshot");
+        Files.write(file, new byte[64]);
+        when(source.count()).thenReturn((long) SAMPLE.size());
+        when(source.streamAll()).thenReturn(SAMPLE.stream());
+
+        OffHeapPriceRepository repository = new OffHeapPriceRepository(source, changes, file.toString(), 100);
+        repository.open();
+
+        assertEquals(3, repository.findAll().size());
+        assertEquals(SAMPLE, PriceSnapshotFile.map(file).store().records());
+    }
+}
@@ -0,0 +1,126 @@
+package com.inditex.sisuprice.infrastructure.persistence.segment;
+
+import com.inditex.sisuprice.config.PriceMetrics;
+import com.inditex.sisuprice.domain.PriceQuery;
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.PriceWindow;
+import com.inditex.sisuprice.infrastructure.mapper.PriceSegmentEntityMapper;
+import com.inditex.sisuprice.infrastructure.persistence.PriceDbRepository;
+import com.inditex.sisuprice.infrastructure.persistence.jpa.PriceSegmentEntity;
+import com.inditex.sisuprice.infrastructure.persistence.jpa.PriceSegmentJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceSegmentRepositoryTest {
+
+    @Mock
+    PriceSegmentJpaRepository segmentRepository;
+
+    @Mock
+    PriceSegmentEntityMapper mapper;
+
+    @Mock
+    PriceDbRepository prices;
+
+    @Spy
+    PriceMetrics metrics = new PriceMetrics(new SimpleMeterRegistry());
+
+    @InjectMocks
+    PriceSegmentRepository repository;
+
+    private PriceSegmentEntity segment() {
+        PriceSegmentEntity e = new PriceSegmentEntity();
+        e.setBrandId(1);
+        e.setProductId(35455L);
+        e.setSegmentFrom(LocalDateTime.parse("2020-06-14T15:00:00"));
+        e.setSegmentTo(LocalDateTime.parse("2020-06-14T18:30:00"));
+        e.setStartDate(LocalDateTime.parse("2020-06-14T15:00:00"));
+        e.setEndDate(LocalDateTime.parse("2020-06-14T18:30:00"));
+        e.setPriceList(2);
+        e.setPriority(1);
+        e.setPrice(new BigDecimal("25.45"));
+        e.setCurr("EUR");
+        return e;
+    }
+
+    private PriceRecord domain() {
+        return new PriceRecord(1, LocalDateTime.parse("2020-06-14T15:00:00"),
+                LocalDateTime.parse("2020-06-14T18:30:00"), 2, 35455L, 1, new BigDecimal("25.45"), "EUR");
+    }
+
+    @Test
+    void findApplicableForBrandMapsTheCoveringSegmentsOfThePage() {
+        var date = LocalDateTime.parse("2020-06-14T16:00:00");
+        var e = segment();
+        when(segmentRepository.findCoveringForBrand(1, date, 0L, Long.MAX_VALUE, Limit.of(10))).thenReturn(List.of(e));
+        when(mapper.toDomain(e)).thenReturn(domain());
+
+        assertEquals(List.of(domain()), repository.findApplicableForBrand(1, date, 0L, Long.MAX_VALUE, 10));
+    }
+
+    @Test
+    void findApplicableReturnsSegmentCoveringTheDate() {
+        var date = LocalDateTime.parse("2020-06-14T16:00:00");
+        var e = segment();
+        when(segmentRepository.findLastStartingAtOrBefore(1, 35455L, date)).thenReturn(Optional.of(e));
+        when(mapper.toDomain(e)).thenReturn(domain());
+
+        var result = repository.findApplicable(1, 35455L, date);
+
+        assertTrue(result.isPresent());
+        assertEquals(2, result.get().priceList());
+    }
+
+    @Test
+    void findApplicableReturnsEmptyWhenLastSegmentEndedBeforeTheDate() {
+        var date = LocalDateTime.parse("2020-06-14T18:30:00");
+        when(segmentRepository.findLastStartingAtOrBefore(1, 35455L, date)).thenReturn(Optional.of(segment()));
+
+        var result = repository.findApplicable(1, 35455L, date);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    void findAllDelegatesToPricesTable() {
+        when(prices.findAll()).thenReturn(List.of(domain()));
+
+        assertEquals(1, repository.findAll().size());
+        verifyNoInteractions(segmentRepository);
+    }
+
+    @Test
+    void findWindowsResolvesEveryQueryFromOneGroupedSegmentRead() {
+        var e = segment();
+        var other = segment();
+        other.setProductId(99L);
+        when(segmentRepository.findByBrandIdAndProductIdIn(1, List.of(35455L))).thenReturn(List.of(e, other));
+        when(mapper.toDomain(e)).thenReturn(domain());
+
+        List<PriceWindow> windows = repository.findWindows(List.of(
+                new PriceQuery(1, 35455L, LocalDateTime.parse("2020-06-14T16:00:00")),
+                new PriceQuery(1, 35455L, LocalDateTime.parse("2020-06-14T10:00:00")),
+                new PriceQuery(1, 35455L, LocalDateTime.parse("2020-06-14T19:00:00"))));
+
+        assertEquals(new PriceWindow(e.getSegmentFrom(), e.getSegmentTo(), domain()), windows.get(0));
+        assertEquals(new PriceWindow(LocalDateTime.MIN, e.getSegmentFrom(), null), windows.get(1));
+        assertEquals(new PriceWindow(e.getSegmentTo(), LocalDateTime.MAX, null), windows.get(2));
+        verify(segmentRepository, never()).findLastStartingAtOrBefore(anyInt(), anyLong(), any());
+    }
+}
@@ -0,0 +1,12 @@
+package com.inditex.sisuprice.integration;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The write API against the off-heap store, with polling off so only the write events can update it.
+ */
+@ActiveProfiles({"test", "offheap"})
+@TestPropertySource(properties = "pricing.refresh.enabled=false")
+class OffHeapPriceWriteIntegrationTest extends PriceWriteIntegrationTest {
+}
@@ -0,0 +1,103 @@
+package com.inditex.sisuprice.integration;
+
+import com.inditex.sisuprice.api.dto.PriceCatalogResponse;
+import com.inditex.sisuprice.api.dto.PriceResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class PriceCatalogIntegrationTest {
+
+    private static final int BRAND = 7;
+
+    private static final int PRICE_LIST = 91;
+
+    private static final String DATE = "2020-07-01T10:00:00";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        insert(10L, "2020-01-01T00:00:00", "2021-01-01T00:00:00", 0, "10.00");
+        insert(20L, "2020-01-01T00:00:00", "2021-01-01T00:00:00", 0, "20.00");
+        insert(20L, "2020-06-01T00:00:00", "2020-08-01T00:00:00", 1, "18.00");
+        insert(30L, "2021-01-01T00:00:00", "2022-01-01T00:00:00", 0, "30.00");
+        insert(40L, "2020-01-01T00:00:00", "2021-01-01T00:00:00", 0, "40.00");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM PRICES WHERE PRICE_LIST = ?", PRICE_LIST);
+    }
+
+    private void insert(long productId, String start, String end, int priority, String price) {
+        jdbcTemplate.update("INSERT INTO PRICES (BRAND_ID, START_DATE, END_DATE, PRICE_LIST, PRODUCT_ID, PRIORITY, "
+                        + "PRICE, CURR) VALUES (?, ?, ?, ?, ?, ?, ?, 'EUR')", BRAND, start.replace('T', ' '),
+                end.replace('T', ' '), PRICE_LIST, productId, priority, new BigDecimal(price));
+    }
+
+    private PriceCatalogResponse page(String query) {
+        return restTemplate.getForObject("/api/v1/prices/catalog?brandId=" + BRAND + "&date=" + DATE + query,
+                PriceCatalogResponse.class);
+    }
+
+    @Test
+    @DisplayName("pages through the brand in product order with the last product id as cursor")
+    void pagesWithKeysetCursor() {
+        PriceCatalogResponse first = page("&limit=2");
+        assertThat(first.prices()).extracting(PriceResponse::productId).containsExactly(10L, 20L);
+        assertThat(first.prices().get(1).price()).isEqualByComparingTo("18.00");
+        assertThat(first.nextAfterProductId()).isEqualTo(20L);
+
+        PriceCatalogResponse second = page("&limit=2&afterProductId=" + first.nextAfterProductId());
+        assertThat(second.prices()).extracting(PriceResponse::productId).containsExactly(40L);
+        assertThat(second.nextAfterProductId()).isNull();
+    }
+
+    @Test
+    @DisplayName("limits the scan to the requested product range")
+    void filtersProductRange() {
+        PriceCatalogResponse range = page("&fromProductId=15&toProductId=40");
+
+        assertThat(range.prices()).extracting(PriceResponse::productId).containsExactly(20L, 40L);
+        assertThat(range.nextAfterProductId()).isNull();
+    }
+
+    @Test
+    @DisplayName("streams the whole catalog as NDJSON")
+    void streamsNdjson() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/api/v1/prices/catalog/stream?brandId=" + BRAND + "&date=" + DATE, String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().lines()).hasSize(3)
+                .allSatisfy(line -> assertThat(line).contains("\"brandId\":" + BRAND));
+    }
+
+    @Test
+    @DisplayName("rejects a page size above the maximum")
+    void rejectsOversizedPage() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/api/v1/prices/catalog?brandId=" + BRAND + "&date=" + DATE + "&limit=5001", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
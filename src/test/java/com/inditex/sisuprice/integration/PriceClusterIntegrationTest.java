@@ -0,0 +1,62 @@
+package com.inditex.sisuprice.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "pricing.cluster.enabled=true",
+        "pricing.cluster.node-id=node-a",
+        "pricing.cluster.nodes.node-a=http://localhost:1",
+        "pricing.cluster.owners.node-a=1"})
+@ActiveProfiles("test")
+class PriceClusterIntegrationTest {
+
+    private static final String PARTITIONS = "/api/v1/cluster/partitions";
+
+    private static final String URL = "/api/v1/prices?brandId=1&productId=35455&date=2020-06-14T16:00:00";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("a rebalance moves brand 1 away; requests are forwarded and a forwarding loop ends in 421")
+    void rebalancesAndForwards() {
+        assertThat(restTemplate.getForEntity(URL, String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // node-b points back at this node, which after the rebalance no longer owns brand 1 either
+        ResponseEntity<String> moved = put(Map.of(
+                "version", 2,
+                "nodes", Map.of("node-b", "http://localhost:" + port),
+                "owners", Map.of("node-b", "1")));
+        assertThat(moved.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(restTemplate.getForObject(PARTITIONS, String.class))
+                .contains("\"version\":2", "\"node-b\":\"1\"");
+
+        ResponseEntity<String> looped = restTemplate.getForEntity(URL, String.class);
+        assertThat(looped.getStatusCode().value()).isEqualTo(421);
+        assertThat(looped.getBody()).contains("Misdirected Request");
+
+        assertThat(put(Map.of("version", 2, "owners", Map.of("node-a", "1"))).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private ResponseEntity<String> put(Map<String, Object> table) {
+        return restTemplate.exchange(PARTITIONS, HttpMethod.PUT, new HttpEntity<>(table), String.class);
+    }
+}
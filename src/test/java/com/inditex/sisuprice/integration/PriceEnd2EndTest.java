@@ -5,10 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
@@ -132,4 +134,46 @@ class PriceEnd2EndTest {
                         .param("date", "2020-06-14T10:00:00"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @DisplayName("Batch: resolves every lookup in request order with not-found markers")
+    void batch() throws Exception {
+        mockMvc.perform(post("/api/v1/prices/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"items": [
+                                  {"brandId": 1, "productId": 35455, "date": "2020-06-14T10:00:00"},
+                                  {"brandId": 1, "productId": 35455, "date": "2020-06-14T16:00:00"},
+                                  {"brandId": 1, "productId": 99999, "date": "2020-06-14T16:00:00"},
+                                  {"brandId": 1, "productId": 35455, "date": "2020-06-16T21:00:00"}
+                                ]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(4))
+                .andExpect(jsonPath("$.results[0].found").value(true))
+                .andExpect(jsonPath("$.results[0].price.priceList").value(1))
+                .andExpect(jsonPath("$.results[1].price.priceList").value(2))
+                .andExpect(jsonPath("$.results[1].price.price").value(25.45))
+                .andExpect(jsonPath("$.results[2].found").value(false))
+                .andExpect(jsonPath("$.results[2].productId").value(99999))
+                .andExpect(jsonPath("$.results[2].price").doesNotExist())
+                .andExpect(jsonPath("$.results[3].price.priceList").value(4));
+    }
+
+    @Test
+    @DisplayName("Batch: returns 400 when an item is invalid or the batch is empty")
+    void batchInvalid() throws Exception {
+        mockMvc.perform(post("/api/v1/prices/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"items": [{"brandId": 0, "productId": 35455, "date": "2020-06-14T10:00:00"}]}
+                                """))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.messages").isArray());
+
+        mockMvc.perform(post("/api/v1/prices/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": []}"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,81 @@
+package com.inditex.sisuprice.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.PriceRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class PriceExportIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PRICES", Long.class);
+    }
+
+    @Test
+    @DisplayName("exports every row as NDJSON ordered by brand, product and start date")
+    void exportsNdjson() throws Exception {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/v1/prices/export", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_NDJSON)).isTrue();
+        List<String> lines = response.getBody().lines().toList();
+        assertThat(lines).hasSize((int) rowCount());
+        List<PriceRecord> records = new ArrayList<>();
+        for (String line : lines) {
+            records.add(objectMapper.readValue(line, PriceRecord.class));
+        }
+        assertThat(records).isSortedAccordingTo(
+                Comparator.comparing(PriceKey::of)
+                        .thenComparing(PriceRecord::startDate));
+        assertThat(records).contains(new PriceRecord(1, LocalDateTime.parse("2020-06-14T15:00:00"),
+                LocalDateTime.parse("2020-06-14T18:30:00"), 2, 35455L, 1, new BigDecimal("25.45"), "EUR"));
+    }
+
+    @Test
+    @DisplayName("exports CSV with the header the import expects")
+    void exportsCsv() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/v1/prices/export?format=csv", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentDisposition().getFilename()).isEqualTo("prices.csv");
+        List<String> lines = response.getBody().lines().toList();
+        assertThat(lines.get(0)).isEqualTo("BRAND_ID,START_DATE,END_DATE,PRICE_LIST,PRODUCT_ID,PRIORITY,PRICE,CURR");
+        assertThat(lines).hasSize((int) rowCount() + 1);
+        assertThat(lines).contains("1,2020-06-14T15:00:00,2020-06-14T18:30:00,2,35455,1,25.45,EUR");
+    }
+
+    @Test
+    @DisplayName("rejects an unknown format")
+    void rejectsUnknownFormat() {
+        assertThat(restTemplate.getForEntity("/api/v1/prices/export?format=xml", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,93 @@
+package com.inditex.sisuprice.integration;
+
+import com.inditex.sisuprice.api.dto.PriceImportResponse;
+import com.inditex.sisuprice.api.dto.PriceResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class PriceImportIntegrationTest {
+
+    private static final int PRICE_LIST = 90;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM PRICES WHERE PRICE_LIST = ?", PRICE_LIST);
+    }
+
+    private ResponseEntity<PriceImportResponse> upload(String body, MediaType type, String query) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(type);
+        return restTemplate.postForEntity("/api/v1/prices/imports" + query, new HttpEntity<>(body, headers),
+                PriceImportResponse.class);
+    }
+
+    private static String csv(long productId, String price) {
+        return "BRAND_ID,START_DATE,END_DATE,PRICE_LIST,PRODUCT_ID,PRIORITY,PRICE,CURR\n"
+                + "1,2020-06-14T00:00:00,2020-12-31T23:59:59," + PRICE_LIST + "," + productId + ",0," + price + ",EUR\n";
+    }
+
+    private BigDecimal priceOf(long productId) {
+        return restTemplate.getForObject("/api/v1/prices?brandId=1&productId=" + productId
+                + "&date=2020-07-01T10:00:00", PriceResponse.class).price();
+    }
+
+    @Test
+    @DisplayName("imported rows are served, and a replaced price list evicts the cached price")
+    void importsAndReplaces() {
+        ResponseEntity<PriceImportResponse> appended = upload(csv(990002L, "10.00"), MediaType.valueOf("text/csv"), "");
+        assertThat(appended.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(appended.getBody().rowsImported()).isEqualTo(1);
+        assertThat(priceOf(990002L)).isEqualByComparingTo("10.00");
+
+        String ndjson = """
+                {"brandId":1,"startDate":"2020-06-14T00:00:00","endDate":"2020-12-31T23:59:59","priceList":90,"productId":990002,"priority":0,"price":12.00,"curr":"EUR"}
+                """;
+        ResponseEntity<PriceImportResponse> replaced =
+                upload(ndjson, MediaType.APPLICATION_NDJSON, "?replacePriceList=" + PRICE_LIST);
+        assertThat(replaced.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(replaced.getBody().rowsDeleted()).isEqualTo(1);
+        assertThat(priceOf(990002L)).isEqualByComparingTo("12.00");
+    }
+
+    @Test
+    @DisplayName("an invalid replacement returns 400 and leaves the price list untouched")
+    void rejectsInvalidReplacement() {
+        upload(csv(990003L, "10.00"), MediaType.valueOf("text/csv"), "");
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/api/v1/prices/imports?replacePriceList=" + PRICE_LIST,
+                new HttpEntity<>(csv(990003L, "-1.00"), csvHeaders()), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(priceOf(990003L)).isEqualByComparingTo("10.00");
+    }
+
+    private static HttpHeaders csvHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("text/csv"));
+        return headers;
+    }
+}
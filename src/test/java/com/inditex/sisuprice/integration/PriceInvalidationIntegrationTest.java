@@ -0,0 +1,53 @@
+package com.inditex.sisuprice.integration;
+
+import com.inditex.sisuprice.application.PriceQueryUseCaseImpl;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.usecase.PriceQueryUseCase;
+import com.inditex.sisuprice.infrastructure.invalidation.InvalidationMessage;
+import com.inditex.sisuprice.infrastructure.invalidation.LoopbackInvalidationTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"pricing.invalidation.enabled=true", "pricing.invalidation.transport=loopback"})
+@ActiveProfiles("test")
+class PriceInvalidationIntegrationTest {
+
+    @Autowired
+    private PriceQueryUseCase useCase;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    @DisplayName("an invalidation from another node evicts the key from the local cache")
+    void evictsOnRemoteInvalidation() {
+        PriceKey key = new PriceKey(1, 35455L);
+        useCase.query(1, 35455L, LocalDateTime.parse("2020-06-14T10:00:00"));
+        Cache cache = cacheManager.getCache(PriceQueryUseCaseImpl.PRICES_CACHE);
+        assertThat(cache.get(key)).isNotNull();
+
+        try (LoopbackInvalidationTransport otherNode = new LoopbackInvalidationTransport()) {
+            otherNode.start(message -> { });
+            otherNode.send(new InvalidationMessage(UUID.randomUUID(), System.currentTimeMillis(), Set.of(key), false));
+        }
+
+        assertThat(cache.get(key)).isNull();
+        assertThat(registry.get("pricing.invalidation.messages").tag("direction", "received").counter().count())
+                .isEqualTo(1);
+    }
+}
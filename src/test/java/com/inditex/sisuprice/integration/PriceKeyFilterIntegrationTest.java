@@ -0,0 +1,38 @@
+package com.inditex.sisuprice.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "pricing.key-filter.enabled=true")
+@ActiveProfiles("test")
+class PriceKeyFilterIntegrationTest {
+
+    private static final String URL = "/api/v1/prices?brandId=1&date=2020-06-14T16:00:00&productId=";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    @DisplayName("unknown products are answered 404 by the key filter while known ones are still found")
+    void rejectsUnknownProducts() {
+        assertThat(restTemplate.getForEntity(URL + "35455", String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(restTemplate.getForEntity(URL + "987654321", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+
+        assertThat(registry.get("pricing.key_filter.lookups").tag("result", "rejected").counter().count())
+                .isPositive();
+        assertThat(registry.get("pricing.key_filter.bytes").gauge().value()).isPositive();
+    }
+}
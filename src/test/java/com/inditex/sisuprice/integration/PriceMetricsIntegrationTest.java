@@ -0,0 +1,85 @@
+package com.inditex.sisuprice.integration;
+
+import com.inditex.sisuprice.config.PriceMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class PriceMetricsIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    @DisplayName("a lookup is timed in every stage with the shared microsecond buckets")
+    void timesEveryStage() {
+        assertThat(restTemplate.getForEntity("/api/v1/prices?brandId=1&productId=35455&date=2020-06-14T10:00:00",
+                String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(restTemplate.getForEntity("/api/v1/prices?brandId=1&productId=1&date=2020-06-14T10:00:00",
+                String.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(restTemplate.getForEntity("/api/v1/prices?brandId=0&productId=1&date=2020-06-14T10:00:00",
+                String.class).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        assertThat(stage("controller", "getPrice", "found").count()).isPositive();
+        assertThat(stage("controller", "getPrice", "not_found").count()).isPositive();
+        assertThat(stage("use_case", "query", "found").count()).isPositive();
+        assertThat(stage("repository", "findWindow", "not_found").count()).isPositive();
+        assertThat(stage("db", "findWindow", "not_found").count()).isPositive();
+        assertThat(stage("serialization", "PriceResponse", "found").count()).isPositive();
+        assertThat(stage("serialization", "HashMap", "error").count()).isPositive();
+        assertThat(stage("serialization", "HashMap", "found").count()).isZero();
+
+        CountAtBucket[] buckets = stage("controller", "getPrice", "found").takeSnapshot().histogramCounts();
+        assertThat(Arrays.stream(buckets).mapToDouble(b -> b.bucket(TimeUnit.MICROSECONDS)))
+                .contains(25.0, 250.0, 1_000.0);
+        assertThat(registry.get("http.server.requests").timer().takeSnapshot().histogramCounts())
+                .hasSameSizeAs(buckets);
+        assertThat(registry.get("hikaricp.connections.acquire").timer().takeSnapshot().histogramCounts())
+                .hasSameSizeAs(buckets);
+    }
+
+    @Test
+    @DisplayName("the prices cache reports hits and misses")
+    void reportsCacheStatistics() {
+        restTemplate.getForEntity("/api/v1/prices?brandId=1&productId=35455&date=2020-06-15T10:00:00", String.class);
+        restTemplate.getForEntity("/api/v1/prices?brandId=1&productId=35455&date=2020-06-15T10:00:00", String.class);
+
+        assertThat(registry.get(PriceMetrics.CACHE_LOOKUPS).tag("result", "hit").counter().count()).isPositive();
+        assertThat(registry.get("cache.gets").tags("cache", "prices", "result", "hit").functionCounter().count())
+                .isPositive();
+        assertThat(registry.find("cache.evictions").tag("cache", "prices").functionCounter()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("the async log appender publishes its queue depth and drops")
+    void reportsLoggingPipeline() {
+        assertThat(registry.get("logging.async.queue.capacity").tag("appender", "ASYNC").gauge().value())
+                .isEqualTo(8192);
+        assertThat(registry.find("logging.async.queue.depth").gauge()).isNotNull();
+        assertThat(registry.get("logging.async.dropped").tags("reason", "discarded").functionCounter()).isNotNull();
+        assertThat(registry.get("logging.async.dropped").tags("reason", "rejected").functionCounter()).isNotNull();
+    }
+
+    private Timer stage(String stage, String operation, String outcome) {
+        return registry.get(PriceMetrics.STAGE_DURATION)
+                .tags("stage", stage, "operation", operation, "outcome", outcome)
+                .timer();
+    }
+}
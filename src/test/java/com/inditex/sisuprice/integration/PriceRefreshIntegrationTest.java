@@ -0,0 +1,64 @@
+package com.inditex.sisuprice.integration;
+
+import com.inditex.sisuprice.domain.PriceRecord;
+import com.inditex.sisuprice.domain.usecase.PriceQueryUseCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("memory")
+class PriceRefreshIntegrationTest {
+
+    private static final long PRODUCT_ID = 990_001L;
+
+    private static final LocalDateTime DATE = LocalDateTime.parse("2020-06-14T10:00:00");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PriceQueryUseCase useCase;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM PRICES WHERE PRODUCT_ID = ?", PRODUCT_ID);
+    }
+
+    @Test
+    @DisplayName("inserted and updated PRICES rows are served from memory without a reload")
+    void servesChangedRowsFromMemory() throws InterruptedException {
+        assertThat(useCase.query(1, PRODUCT_ID, DATE)).isEmpty();
+
+        jdbcTemplate.update("""
+                INSERT INTO PRICES (BRAND_ID, START_DATE, END_DATE, PRICE_LIST, PRODUCT_ID, PRIORITY, PRICE, CURR)
+                VALUES (1, '2020-06-14 00:00:00', '2020-12-31 23:59:59', 7, ?, 0, 10.00, 'EUR')
+                """, PRODUCT_ID);
+        assertThat(awaitPrice(p -> p.isPresent() && p.get().priceList() == 7)).isTrue();
+
+        jdbcTemplate.update("UPDATE PRICES SET PRICE = 12.50 WHERE PRODUCT_ID = ?", PRODUCT_ID);
+        assertThat(awaitPrice(p -> p.isPresent() && p.get().price().compareTo(new BigDecimal("12.50")) == 0))
+                .isTrue();
+    }
+
+    private boolean awaitPrice(Predicate<Optional<PriceRecord>> expected) throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            if (expected.test(useCase.query(1, PRODUCT_ID, DATE))) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,82 @@
+package com.inditex.sisuprice.integration;
+
+import com.inditex.sisuprice.api.PriceResponseCache;
+import com.inditex.sisuprice.api.dto.PriceResponse;
+import com.inditex.sisuprice.config.PriceMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"pricing.response-cache.enabled=true", "pricing.response-cache.gzip=true"})
+@ActiveProfiles("test")
+class PriceResponseCacheIntegrationTest {
+
+    private static final String URL = "/api/v1/prices?brandId=1&productId=35455&date=";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    @DisplayName("cached bytes carry the same JSON contract and are reused across dates of one price")
+    void servesCachedBody() {
+        ResponseEntity<PriceResponse> first = restTemplate.getForEntity(URL + "2020-06-14T16:00:00", PriceResponse.class);
+        ResponseEntity<String> second = restTemplate.getForEntity(URL + "2020-06-14T17:00:00", String.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(first.getBody()).isNotNull();
+        assertThat(first.getBody().priceList()).isEqualTo(2);
+        assertThat(first.getBody().price()).isEqualByComparingTo(new BigDecimal("25.45"));
+        assertThat(second.getBody()).contains("\"startDate\":\"2020-06-14T15:00:00\"", "\"curr\":\"EUR\"");
+        assertThat(registry.get("cache.gets").tags("cache", PriceResponseCache.NAME, "result", "hit")
+                .functionCounter().count()).isPositive();
+        assertThat(registry.get(PriceMetrics.STAGE_DURATION)
+                .tags("stage", "serialization", "operation", "PriceResponse", "outcome", "found")
+                .timer().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("clients accepting gzip get the pre-compressed copy, the others plain JSON")
+    void servesGzipCopy() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> gzipped = restTemplate.exchange(URL + "2020-06-14T10:00:00", HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+        ResponseEntity<String> plain = restTemplate.getForEntity(URL + "2020-06-14T10:00:00", String.class);
+
+        assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzipped.getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertThat(new String(in.readAllBytes())).isEqualTo(plain.getBody());
+        }
+    }
+
+    @Test
+    @DisplayName("missing prices still answer 404")
+    void keepsNotFound() {
+        assertThat(restTemplate.getForEntity("/api/v1/prices?brandId=1&productId=99999&date=2020-06-14T10:00:00",
+                String.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,36 @@
+package com.inditex.sisuprice.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"pricing.warmup.enabled=true", "pricing.warmup.lookups-per-round=1000"})
+@ActiveProfiles("test")
+class PriceWarmupIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("the readiness group includes the warm-up and turns UP once it has replayed the catalog keys")
+    void readinessWaitsForWarmup() throws InterruptedException {
+        ResponseEntity<String> readiness = restTemplate.getForEntity("/actuator/health/readiness", String.class);
+        for (int i = 0; i < 100 && readiness.getStatusCode() != HttpStatus.OK; i++) {
+            Thread.sleep(100);
+            readiness = restTemplate.getForEntity("/actuator/health/readiness", String.class);
+        }
+
+        assertThat(readiness.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(readiness.getBody()).contains("\"warmup\"", "\"state\":\"DONE\"");
+        assertThat(restTemplate.getForEntity("/actuator/health/liveness", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+    }
+}
@@ -0,0 +1,130 @@
+package com.inditex.sisuprice.integration;
+
+import com.inditex.sisuprice.api.dto.PriceListClosureResponse;
+import com.inditex.sisuprice.api.dto.PriceResponse;
+import com.inditex.sisuprice.api.dto.PriceRowRequest;
+import com.inditex.sisuprice.api.dto.PriceRowResponse;
+import com.inditex.sisuprice.domain.PriceKey;
+import com.inditex.sisuprice.domain.repository.PriceWriteRepository;
+import com.inditex.sisuprice.infrastructure.persistence.PriceChangeFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class PriceWriteIntegrationTest {
+
+    private static final int PRICE_LIST = 91;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PriceWriteRepository writeRepository;
+
+    @Autowired
+    private PriceChangeFeed changeFeed;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM PRICES WHERE PRICE_LIST = ?", PRICE_LIST);
+    }
+
+    private static PriceRowRequest row(long productId, String start, String end, String price) {
+        return new PriceRowRequest(1, LocalDateTime.parse(start), LocalDateTime.parse(end), PRICE_LIST, productId, 0,
+                new BigDecimal(price), "EUR");
+    }
+
+    private PriceRowResponse create(PriceRowRequest request) {
+        ResponseEntity<PriceRowResponse> created =
+                restTemplate.postForEntity("/api/v1/prices/rows", request, PriceRowResponse.class);
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(created.getHeaders().getLocation()).hasPath("/api/v1/prices/rows/" + created.getBody().id());
+        return created.getBody();
+    }
+
+    private ResponseEntity<PriceResponse> price(long productId, String date) {
+        return restTemplate.getForEntity("/api/v1/prices?brandId=1&productId=" + productId + "&date=" + date,
+                PriceResponse.class);
+    }
+
+    @Test
+    @DisplayName("created, updated and end-dated rows are served right after each write")
+    void writesAreVisibleImmediately() {
+        PriceRowResponse created = create(row(990010L, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "10.00"));
+        assertThat(price(990010L, "2020-07-01T10:00:00").getBody().price()).isEqualByComparingTo("10.00");
+
+        ResponseEntity<PriceRowResponse> updated = restTemplate.exchange("/api/v1/prices/rows/" + created.id(),
+                HttpMethod.PUT, new HttpEntity<>(row(990010L, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "11.00")),
+                PriceRowResponse.class);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(price(990010L, "2020-07-01T10:00:00").getBody().price()).isEqualByComparingTo("11.00");
+
+        ResponseEntity<PriceRowResponse> ended = restTemplate.postForEntity(
+                "/api/v1/prices/rows/" + created.id() + "/end?at=2020-07-01T00:00:00", null, PriceRowResponse.class);
+        assertThat(ended.getBody().endDate()).isEqualTo(LocalDateTime.parse("2020-07-01T00:00:00"));
+        assertThat(price(990010L, "2020-07-01T10:00:00").getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(price(990010L, "2020-06-30T10:00:00").getBody().price()).isEqualByComparingTo("11.00");
+    }
+
+    @Test
+    @DisplayName("closing a price list ends its current rows, drops future ones and evicts the cached prices")
+    void closesPriceList() {
+        create(row(990011L, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "20.00"));
+        create(row(990011L, "2020-09-01T00:00:00", "2020-12-31T23:59:59", "25.00"));
+        assertThat(price(990011L, "2020-08-01T10:00:00").getBody().price()).isEqualByComparingTo("20.00");
+        long before = changeFeed.currentVersion();
+
+        ResponseEntity<PriceListClosureResponse> closed = restTemplate.postForEntity(
+                "/api/v1/prices/price-lists/" + PRICE_LIST + "/close?at=2020-08-01T00:00:00", null,
+                PriceListClosureResponse.class);
+
+        assertThat(closed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(closed.getBody().rowsEnded()).isEqualTo(1);
+        assertThat(closed.getBody().rowsDeleted()).isEqualTo(1);
+        assertThat(closed.getBody().keysAffected()).isEqualTo(1);
+        assertThat(writeRepository.countKeysOfPriceListValidAfter(PRICE_LIST, LocalDateTime.parse("2020-07-31T00:00:00")))
+                .isEqualTo(1);
+        assertThat(price(990011L, "2020-08-01T10:00:00").getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(price(990011L, "2020-07-31T10:00:00").getBody().price()).isEqualByComparingTo("20.00");
+        // the ended row and the tombstone of the deleted one
+        assertThat(changeFeed.changesSince(before, 10))
+                .singleElement()
+                .satisfies(change -> {
+                    assertThat(change.key()).isEqualTo(new PriceKey(1, 990011L));
+                    assertThat(change.rows()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    @DisplayName("an unknown row returns 404 and an invalid row returns 400")
+    void rejectsUnknownAndInvalidRows() {
+        assertThat(restTemplate.getForEntity("/api/v1/prices/rows/999999999", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+
+        PriceRowRequest invalid = new PriceRowRequest(1, LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-12-31T23:59:59"), PRICE_LIST, 990012L, 0, new BigDecimal("1.00"), "euro");
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/v1/prices/rows", invalid, String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).contains("curr must be a three-letter ISO code");
+    }
+}
@@ -2,6 +2,8 @@ package com.inditex.sisuprice.web;
 
 import com.inditex.sisuprice.PriceApplication;
 import com.inditex.sisuprice.api.dto.PriceResponse;
+import com.inditex.sisuprice.api.dto.PriceSegmentResponse;
+import com.inditex.sisuprice.api.dto.PriceTimelineResponse;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -14,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -114,6 +117,31 @@ class PriceControllerTest {
         assertThat(r2.price()).isEqualByComparingTo(new BigDecimal("38.95"));
     }
 
+    @Test
+    void shouldReturnTimelineOfWinningSegments() {
+        ResponseEntity<PriceTimelineResponse> response = restTemplate.getForEntity(
+                url("/timeline?brandId=1&productId=35455&from=2020-06-14T10:00:00&to=2020-06-16T00:00:00"),
+                PriceTimelineResponse.class);
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        List<PriceSegmentResponse> segments = response.getBody().segments();
+        assertThat(segments).extracting(PriceSegmentResponse::priceList).containsExactly(1, 2, 1, 3, 1, 4);
+        assertThat(segments.get(0).startDate()).isEqualTo(LocalDateTime.of(2020, 6, 14, 10, 0));
+        assertThat(segments.get(1).price()).isEqualByComparingTo(new BigDecimal("25.45"));
+        assertThat(segments.get(5).endDate()).isEqualTo(LocalDateTime.of(2020, 6, 16, 0, 0));
+        for (int i = 1; i < segments.size(); i++) {
+            assertThat(segments.get(i).startDate()).isEqualTo(segments.get(i - 1).endDate());
+        }
+    }
+
+    @Test
+    void shouldReturnBadRequestForEmptyTimelinePeriod() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                url("/timeline?brandId=1&productId=35455&from=2020-06-15T00:00:00&to=2020-06-14T00:00:00"),
+                String.class);
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+    }
+
     @Test
     void shouldReturnBadRequestForInvalidBrandId() {
         String date = LocalDateTime.of(2020, 6, 14, 10, 0, 0).format(DateTimeFormatter.ISO_DATE_TIME);